@@ -0,0 +1,64 @@
+package com.datastax.driver.core;
+
+/**
+ * A {@link Cluster} that never connects.  {@link #connect()} returns one shared {@link StubSession}, so the vert.x
+ * session can be built and initialized as usual while every request is answered in process.
+ * <p>
+ * This class lives in the driver package to reach the package-private metadata and statement constructors.
+ */
+public class StubCluster extends Cluster {
+
+    private final StubSession session;
+
+    protected StubCluster(Initializer initializer) {
+        super(initializer);
+        this.session = new StubSession(this, getConfiguration().getProtocolOptions().getProtocolVersionEnum());
+    }
+
+    /**
+     * A cluster builder that builds a {@link StubCluster}
+     */
+    public static class Builder extends Cluster.Builder {
+
+        public Builder() {
+            withProtocolVersion(ProtocolVersion.V3);
+            withoutJMXReporting();
+        }
+
+        @Override
+        public Cluster build() {
+            return new StubCluster(this);
+        }
+    }
+
+    public StubSession getSession() {
+        return session;
+    }
+
+    @Override
+    public Cluster init() {
+        return this;
+    }
+
+    @Override
+    public Session connect() {
+        return session;
+    }
+
+    @Override
+    public Session connect(String keyspace) {
+        return session;
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        // Empty, the real metadata would be refreshed from the system tables on init
+        return manager.metadata;
+    }
+
+    @Override
+    public CloseFuture closeAsync() {
+        return session.closeAsync();
+    }
+
+}
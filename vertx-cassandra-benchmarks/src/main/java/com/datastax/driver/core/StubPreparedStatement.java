@@ -0,0 +1,129 @@
+package com.datastax.driver.core;
+
+import com.datastax.driver.core.policies.RetryPolicy;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A {@link PreparedStatement} of a {@link StubSession} with the canned result rows of its query
+ */
+class StubPreparedStatement implements PreparedStatement {
+
+    private final PreparedId preparedId;
+    private final String query;
+    private final List<Row> rows;
+    private volatile ByteBuffer routingKey;
+    private volatile ConsistencyLevel consistency;
+    private volatile ConsistencyLevel serialConsistency;
+    private volatile boolean tracing;
+    private volatile RetryPolicy retryPolicy;
+
+    StubPreparedStatement(PreparedId preparedId, String query, List<Row> rows) {
+        this.preparedId = preparedId;
+        this.query = query;
+        this.rows = rows;
+    }
+
+    ResultSet newResultSet() {
+        return new StubResultSet(preparedId.resultSetMetadata, rows);
+    }
+
+    @Override
+    public ColumnDefinitions getVariables() {
+        return preparedId.metadata;
+    }
+
+    @Override
+    public BoundStatement bind(Object... values) {
+        return new BoundStatement(this).bind(values);
+    }
+
+    @Override
+    public BoundStatement bind() {
+        return new BoundStatement(this);
+    }
+
+    @Override
+    public PreparedStatement setRoutingKey(ByteBuffer routingKey) {
+        this.routingKey = routingKey;
+        return this;
+    }
+
+    @Override
+    public PreparedStatement setRoutingKey(ByteBuffer... routingKeyComponents) {
+        this.routingKey = SimpleStatement.compose(routingKeyComponents);
+        return this;
+    }
+
+    @Override
+    public ByteBuffer getRoutingKey() {
+        return routingKey;
+    }
+
+    @Override
+    public PreparedStatement setConsistencyLevel(ConsistencyLevel consistency) {
+        this.consistency = consistency;
+        return this;
+    }
+
+    @Override
+    public ConsistencyLevel getConsistencyLevel() {
+        return consistency;
+    }
+
+    @Override
+    public PreparedStatement setSerialConsistencyLevel(ConsistencyLevel serialConsistency) {
+        this.serialConsistency = serialConsistency;
+        return this;
+    }
+
+    @Override
+    public ConsistencyLevel getSerialConsistencyLevel() {
+        return serialConsistency;
+    }
+
+    @Override
+    public String getQueryString() {
+        return query;
+    }
+
+    @Override
+    public String getQueryKeyspace() {
+        return null;
+    }
+
+    @Override
+    public PreparedStatement enableTracing() {
+        tracing = true;
+        return this;
+    }
+
+    @Override
+    public PreparedStatement disableTracing() {
+        tracing = false;
+        return this;
+    }
+
+    @Override
+    public boolean isTracing() {
+        return tracing;
+    }
+
+    @Override
+    public PreparedStatement setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    @Override
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @Override
+    public PreparedId getPreparedId() {
+        return preparedId;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.datastax.driver.core;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A single page {@link ResultSet} over canned rows
+ */
+class StubResultSet implements ResultSet {
+
+    private final ColumnDefinitions metadata;
+    private final List<Row> rows;
+    private int next;
+
+    StubResultSet(ColumnDefinitions metadata, List<Row> rows) {
+        this.metadata = metadata;
+        this.rows = rows;
+    }
+
+    @Override
+    public ColumnDefinitions getColumnDefinitions() {
+        return metadata;
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return next >= rows.size();
+    }
+
+    @Override
+    public Row one() {
+        return isExhausted() ? null : rows.get(next++);
+    }
+
+    @Override
+    public List<Row> all() {
+        List<Row> all = new ArrayList<>(rows.subList(next, rows.size()));
+        next = rows.size();
+        return all;
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new Iterator<Row>() {
+            @Override
+            public boolean hasNext() {
+                return !isExhausted();
+            }
+
+            @Override
+            public Row next() {
+                return one();
+            }
+        };
+    }
+
+    @Override
+    public int getAvailableWithoutFetching() {
+        return rows.size() - next;
+    }
+
+    @Override
+    public boolean isFullyFetched() {
+        return true;
+    }
+
+    @Override
+    public ListenableFuture<Void> fetchMoreResults() {
+        return Futures.immediateFuture(null);
+    }
+
+    @Override
+    public ExecutionInfo getExecutionInfo() {
+        return null;
+    }
+
+    @Override
+    public List<ExecutionInfo> getAllExecutionInfo() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean wasApplied() {
+        return true;
+    }
+
+}
@@ -0,0 +1,358 @@
+package com.datastax.driver.core;
+
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A driver {@link Session} that answers every request in process.
+ * <p>
+ * Tables are declared with {@link #table(String, String[], DataType[])} so statements can be prepared with real
+ * bind variable metadata and bound with the driver's own serialization.  SELECT statements return the canned rows of
+ * their table, every other statement an empty result.  Responses complete on the calling thread unless a latency is
+ * set, in which case at most {@code capacity} requests are in flight and the rest queue like they would on a
+ * saturated connection pool.
+ */
+public class StubSession implements Session {
+
+    private static final Pattern TABLE = Pattern.compile("\\b(?:FROM|INTO|UPDATE)\\s+(?:\\w+\\.)?\"?(\\w+)\"?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SELECTION = Pattern.compile("^\\s*SELECT\\s+(.+?)\\s+FROM\\s", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern INSERT = Pattern.compile("^\\s*INSERT\\s+INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\([^)]*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern MARKER = Pattern.compile("(?:\"?(\\w+)\"?\\s*(=|<=|>=|<|>|\\bIN\\b)|\\b(TTL|TIMESTAMP))\\s*\\?", Pattern.CASE_INSENSITIVE);
+
+    private final Cluster cluster;
+    private final ProtocolVersion protocolVersion;
+    private final Map<String, LinkedHashMap<String, DataType>> tables = new ConcurrentHashMap<>();
+    private final Map<String, List<Object[]>> rows = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+
+    private long latencyNanos;
+    private int capacity = Integer.MAX_VALUE;
+    private int inFlight;
+    private final Queue<Response> queued = new ArrayDeque<>();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    StubSession(Cluster cluster, ProtocolVersion protocolVersion) {
+        this.cluster = cluster;
+        this.protocolVersion = protocolVersion;
+    }
+
+    /**
+     * Declares a table
+     *
+     * @param table   the table name, statements on any keyspace match it
+     * @param columns the column names
+     * @param types   the column types
+     * @return the current {@link StubSession}
+     */
+    public StubSession table(String table, String[] columns, DataType[] types) {
+        LinkedHashMap<String, DataType> definition = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            definition.put(columns[i], types[i]);
+        }
+        tables.put(table, definition);
+        return this;
+    }
+
+    /**
+     * Sets the rows returned by SELECT statements on a table
+     *
+     * @param table the table name
+     * @param rows  the column values of each row, in declared column order
+     * @return the current {@link StubSession}
+     */
+    public StubSession rows(String table, List<Object[]> rows) {
+        this.rows.put(table, rows);
+        return this;
+    }
+
+    /**
+     * Sets the simulated server latency and the number of requests it serves concurrently
+     *
+     * @param latency  the latency of each request, 0 to complete on the calling thread
+     * @param unit     the latency unit
+     * @param capacity the maximum requests in flight, the rest are queued
+     * @return the current {@link StubSession}
+     */
+    public synchronized StubSession latency(long latency, TimeUnit unit, int capacity) {
+        this.latencyNanos = unit.toNanos(latency);
+        this.capacity = capacity;
+        if (latencyNanos > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "stub-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of statements executed
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public String getLoggedKeyspace() {
+        return null;
+    }
+
+    @Override
+    public Session init() {
+        return this;
+    }
+
+    @Override
+    public ResultSet execute(String query) {
+        return executeAsync(query).getUninterruptibly();
+    }
+
+    @Override
+    public ResultSet execute(String query, Object... values) {
+        return executeAsync(query, values).getUninterruptibly();
+    }
+
+    @Override
+    public ResultSet execute(Statement statement) {
+        return executeAsync(statement).getUninterruptibly();
+    }
+
+    @Override
+    public ResultSetFuture executeAsync(String query) {
+        return executeAsync(new SimpleStatement(query));
+    }
+
+    @Override
+    public ResultSetFuture executeAsync(String query, Object... values) {
+        return executeAsync(new SimpleStatement(query, values));
+    }
+
+    @Override
+    public ResultSetFuture executeAsync(Statement statement) {
+        requests.incrementAndGet();
+
+        ResultSet resultSet = new StubResultSet(ColumnDefinitions.EMPTY, Collections.emptyList());
+        if (statement instanceof BoundStatement) {
+            resultSet = ((StubPreparedStatement) ((BoundStatement) statement).preparedStatement()).newResultSet();
+        }
+
+        Response response = new Response(resultSet);
+        if (latencyNanos == 0) {
+            response.complete();
+        } else {
+            enqueue(response);
+        }
+        return response;
+    }
+
+    @Override
+    public PreparedStatement prepare(String query) {
+        return Futures.getUnchecked(prepareAsync(query));
+    }
+
+    @Override
+    public PreparedStatement prepare(RegularStatement statement) {
+        return Futures.getUnchecked(prepareAsync(statement));
+    }
+
+    @Override
+    public ListenableFuture<PreparedStatement> prepareAsync(String query) {
+        String table = match(TABLE, query);
+        LinkedHashMap<String, DataType> columns = table == null ? null : tables.get(table);
+        if (columns == null) {
+            return Futures.immediateFailedFuture(new IllegalArgumentException("Unknown table in query: " + query));
+        }
+
+        ColumnDefinitions variables = definitions(table, columns, variables(query, columns));
+        ColumnDefinitions.Definition[] selected = selection(table, columns, query);
+        ColumnDefinitions resultDefinitions = selected == null ? ColumnDefinitions.EMPTY : new ColumnDefinitions(selected);
+        List<Row> result = new ArrayList<>();
+        if (selected != null) {
+            for (Object[] values : rows.getOrDefault(table, Collections.emptyList())) {
+                result.add(row(resultDefinitions, columns, values));
+            }
+        }
+
+        PreparedId id = new PreparedId(MD5Digest.wrap(query.getBytes()), variables, resultDefinitions, null, protocolVersion);
+        return Futures.immediateFuture(new StubPreparedStatement(id, query, result));
+    }
+
+    @Override
+    public ListenableFuture<PreparedStatement> prepareAsync(RegularStatement statement) {
+        return prepareAsync(statement.getQueryString());
+    }
+
+    @Override
+    public CloseFuture closeAsync() {
+        closed = true;
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+        return CloseFuture.immediateFuture();
+    }
+
+    @Override
+    public void close() {
+        closeAsync();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    @Override
+    public State getState() {
+        throw new UnsupportedOperationException();
+    }
+
+    private synchronized void enqueue(Response response) {
+        if (inFlight < capacity) {
+            inFlight++;
+            schedule(response);
+        } else {
+            queued.add(response);
+        }
+    }
+
+    private void schedule(Response response) {
+        scheduler.schedule(() -> {
+            response.complete();
+            Response next;
+            synchronized (this) {
+                next = queued.poll();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            schedule(next);
+        }, latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String match(Pattern pattern, String query) {
+        Matcher matcher = pattern.matcher(query);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private List<Map.Entry<String, DataType>> variables(String query, Map<String, DataType> columns) {
+        List<Map.Entry<String, DataType>> variables = new ArrayList<>();
+
+        int start = 0;
+        Matcher insert = INSERT.matcher(query);
+        if (insert.find()) {
+            for (String column : insert.group(1).split(",")) {
+                column = column.trim().replace("\"", "");
+                variables.add(new AbstractMap.SimpleImmutableEntry<>(column, columns.get(column)));
+            }
+            start = insert.end();
+        }
+
+        Matcher marker = MARKER.matcher(query);
+        while (marker.find(start)) {
+            if (marker.group(3) != null) {
+                String name = marker.group(3).toLowerCase();
+                variables.add(new AbstractMap.SimpleImmutableEntry<>("[" + name + "]",
+                        name.equals("ttl") ? DataType.cint() : DataType.bigint()));
+            } else {
+                DataType type = columns.get(marker.group(1));
+                if (marker.group(2).equalsIgnoreCase("IN")) {
+                    type = DataType.list(type);
+                }
+                variables.add(new AbstractMap.SimpleImmutableEntry<>(marker.group(1), type));
+            }
+            start = marker.end();
+        }
+
+        return variables;
+    }
+
+    private static ColumnDefinitions definitions(String table, Map<String, DataType> columns, List<Map.Entry<String, DataType>> variables) {
+        ColumnDefinitions.Definition[] definitions = new ColumnDefinitions.Definition[variables.size()];
+        for (int i = 0; i < definitions.length; i++) {
+            Map.Entry<String, DataType> variable = variables.get(i);
+            if (variable.getValue() == null) {
+                throw new IllegalArgumentException("Unknown column " + variable.getKey() + " of table " + table);
+            }
+            definitions[i] = new ColumnDefinitions.Definition("stub", table, variable.getKey(), variable.getValue());
+        }
+        return new ColumnDefinitions(definitions);
+    }
+
+    private static ColumnDefinitions.Definition[] selection(String table, Map<String, DataType> columns, String query) {
+        String selection = match(SELECTION, query);
+        if (selection == null) {
+            return null;
+        }
+
+        List<String> names = new ArrayList<>();
+        if (selection.trim().equals("*")) {
+            names.addAll(columns.keySet());
+        } else {
+            for (String name : selection.split(",")) {
+                names.add(name.trim().replace("\"", ""));
+            }
+        }
+
+        ColumnDefinitions.Definition[] definitions = new ColumnDefinitions.Definition[names.size()];
+        for (int i = 0; i < definitions.length; i++) {
+            definitions[i] = new ColumnDefinitions.Definition("stub", table, names.get(i), columns.get(names.get(i)));
+        }
+        return definitions;
+    }
+
+    private Row row(ColumnDefinitions definitions, Map<String, DataType> columns, Object[] values) {
+        List<String> names = new ArrayList<>(columns.keySet());
+        List<ByteBuffer> data = new ArrayList<>(definitions.size());
+        for (int i = 0; i < definitions.size(); i++) {
+            Object value = values[names.indexOf(definitions.getName(i))];
+            data.add(value == null ? null : definitions.getType(i).serialize(value, protocolVersion));
+        }
+        return ArrayBackedRow.fromData(definitions, null, protocolVersion, data);
+    }
+
+    private static class Response extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+        private final ResultSet resultSet;
+
+        private Response(ResultSet resultSet) {
+            this.resultSet = resultSet;
+        }
+
+        private void complete() {
+            set(resultSet);
+        }
+
+        @Override
+        public ResultSet getUninterruptibly() {
+            return Futures.getUnchecked(this);
+        }
+
+        @Override
+        public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+            try {
+                return get(timeout, unit);
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks with the standard JMH command line, adding the GC profiler for allocation rates and writing
+ * JSON results to {@code jmh-result.json} unless the command line already chooses a profiler or result format.
+ */
+public final class BenchmarkRunner {
+
+    public static final String DEFAULT_RESULT = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+
+        List<String> argList = Arrays.asList(args);
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+        if (!argList.contains("-prof")) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!argList.contains("-rf")) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!argList.contains("-rff")) {
+            builder.result(DEFAULT_RESULT);
+        }
+
+        new Runner(builder.build()).run();
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.englishtown.vertx.cassandra.benchmarks.model.Event;
+import com.englishtown.vertx.cassandra.mapping.VertxMapper;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultCassandraSession;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultVertxMappingManager;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the bounded bulk mapper methods compared with a naive loop of single entity calls.
+ * <p>
+ * The stub server answers after {@code latencyMicros} and serves at most {@code capacity} requests at once, so the
+ * unbounded loop queues like it would on a saturated connection pool while the bulk methods send one batch per
+ * partition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkMapperBenchmark {
+
+    private static final int STREAMS = 10;
+
+    private DefaultCassandraSession session;
+    private VertxMapper<Event> mapper;
+    private List<Event> events;
+    private List<Object[]> primaryKeys;
+
+    @Param({"1000"})
+    private int size;
+
+    @Param({"0", "500"})
+    private long latencyMicros;
+
+    @Param({"128"})
+    private int capacity;
+
+    @Setup
+    public void setUp() {
+        events = new ArrayList<>(size);
+        primaryKeys = new ArrayList<>(size);
+        List<Object[]> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Event event = Event.create(i, STREAMS);
+            events.add(event);
+            primaryKeys.add(new Object[]{event.getStream(), event.getSeq()});
+            rows.add(event.toRow());
+        }
+
+        session = StubSessions.create(InlineVertx.create());
+        StubSessions.stub(session)
+                .table(Event.TABLE, Event.COLUMNS, Event.TYPES)
+                .rows(Event.TABLE, rows.subList(0, 1))
+                .latency(latencyMicros, TimeUnit.MICROSECONDS, capacity);
+
+        mapper = new DefaultVertxMappingManager(session).mapper(Event.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public Void saveAll() throws Exception {
+        CallbackFuture<Void> callback = new CallbackFuture<>();
+        mapper.saveAllAsync(events, callback);
+        return callback.get();
+    }
+
+    @Benchmark
+    public List<Void> saveEach() throws Exception {
+        List<ListenableFuture<Void>> futures = new ArrayList<>(size);
+        for (Event event : events) {
+            CallbackFuture<Void> callback = new CallbackFuture<>();
+            mapper.saveAsync(event, callback);
+            futures.add(callback);
+        }
+        return Futures.allAsList(futures).get();
+    }
+
+    @Benchmark
+    public List<Event> getAll() throws Exception {
+        CallbackFuture<List<Event>> callback = new CallbackFuture<>();
+        mapper.getAllAsync(primaryKeys, callback);
+        return callback.get();
+    }
+
+    @Benchmark
+    public List<Event> getEach() throws Exception {
+        List<ListenableFuture<Event>> futures = new ArrayList<>(size);
+        for (Object[] primaryKey : primaryKeys) {
+            CallbackFuture<Event> callback = new CallbackFuture<>();
+            mapper.getAsync(callback, primaryKey);
+            futures.add(callback);
+        }
+        return Futures.allAsList(futures).get();
+    }
+
+}
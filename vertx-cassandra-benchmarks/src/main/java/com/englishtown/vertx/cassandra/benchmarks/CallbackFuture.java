@@ -0,0 +1,21 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.FutureCallback;
+
+/**
+ * A {@link FutureCallback} that completes a future, so benchmarks of callback APIs can wait for the result
+ */
+public class CallbackFuture<V> extends AbstractFuture<V> implements FutureCallback<V> {
+
+    @Override
+    public void onSuccess(V result) {
+        set(result);
+    }
+
+    @Override
+    public void onFailure(Throwable t) {
+        setException(t);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.benchmarks.model.User;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultCassandraSession;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link DefaultCassandraSession#executeAsync} over a driver session that answers in process
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CassandraSessionBenchmark {
+
+    private DefaultCassandraSession session;
+    private PreparedStatement select;
+    private Statement simple;
+
+    @Setup
+    public void setUp() {
+        session = StubSessions.create(InlineVertx.create());
+        StubSessions.stub(session)
+                .table(User.TABLE, User.COLUMNS, User.TYPES)
+                .rows(User.TABLE, Collections.singletonList(User.create(1).toRow()));
+
+        select = session.prepare("SELECT * FROM benchmarks.users WHERE id = ?");
+        simple = new SimpleStatement("SELECT * FROM benchmarks.users WHERE id = 'user-1'");
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public ResultSetFuture executeAsync_Simple() {
+        return session.executeAsync(simple);
+    }
+
+    @Benchmark
+    public Row executeAsync_Bound() {
+        return session.executeAsync(select.bind("user-1")).getUninterruptibly().one();
+    }
+
+    @Benchmark
+    public Row executeAsync_Callback() throws Exception {
+        // Dispatches the result to the vert.x context, on top of the result cache and request coalescer
+        CallbackFuture<ResultSet> callback = new CallbackFuture<>();
+        session.executeAsync(select.bind("user-1"), callback);
+        return callback.get().one();
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.datastax.driver.core.TableMetadata;
+import com.englishtown.vertx.cassandra.tablebuilder.CompactionStrategy;
+import com.englishtown.vertx.cassandra.tablebuilder.Compression;
+import com.englishtown.vertx.cassandra.tablebuilder.CreateTable;
+import com.englishtown.vertx.cassandra.tablebuilder.TableBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building CREATE TABLE statements
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateTableBenchmark {
+
+    private CreateTable simple;
+    private CreateTable withOptions;
+
+    @Setup
+    public void setUp() {
+        simple = TableBuilder.create("benchmarks", "users")
+                .column("id", "text")
+                .column("name", "text")
+                .column("email", "text")
+                .column("age", "int")
+                .primaryKey("id");
+
+        withOptions = TableBuilder.create("benchmarks", "events")
+                .ifNotExists()
+                .column("stream", "text")
+                .column("seq", "int")
+                .column("payload", "text")
+                .primaryKeys("stream", "seq")
+                .clusteringOrder("seq", TableMetadata.Order.DESC)
+                .compaction(CompactionStrategy.leveled().sstableSizeInMb(160))
+                .compression(Compression.lz4().chunkLengthKb(16))
+                .gcGraceSeconds(3600);
+    }
+
+    @Benchmark
+    public StringBuilder buildQueryString_Simple() {
+        return simple.buildQueryString();
+    }
+
+    @Benchmark
+    public StringBuilder buildQueryString_Options() {
+        return withOptions.buildQueryString();
+    }
+
+}
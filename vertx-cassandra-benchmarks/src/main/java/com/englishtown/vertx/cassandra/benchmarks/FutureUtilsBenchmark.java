@@ -0,0 +1,79 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.englishtown.vertx.cassandra.FutureUtils;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of dispatching future callbacks onto the vert.x context with {@link FutureUtils}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureUtilsBenchmark {
+
+    private Vertx vertx;
+    private ListenableFuture<String> done;
+    private List<Integer> inputs;
+    private Callback callback;
+
+    @Param({"100"})
+    private int size;
+
+    private static class Callback implements FutureCallback<Object> {
+
+        private Object last;
+
+        @Override
+        public void onSuccess(Object result) {
+            last = result;
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            last = t;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        vertx = InlineVertx.create();
+        done = Futures.immediateFuture("value");
+        callback = new Callback();
+        inputs = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            inputs.add(i);
+        }
+    }
+
+    @Benchmark
+    public Object addCallback_Done() {
+        FutureUtils.addCallback(done, callback, vertx);
+        return callback.last;
+    }
+
+    @Benchmark
+    public Object addCallback_Pending() {
+        SettableFuture<String> future = SettableFuture.create();
+        FutureUtils.addCallback(future, callback, vertx);
+        future.set("value");
+        return callback.last;
+    }
+
+    @Benchmark
+    public List<Integer> allAsList_Bounded() throws Exception {
+        return FutureUtils.allAsList(inputs, 32, Futures::immediateFuture).get();
+    }
+
+}
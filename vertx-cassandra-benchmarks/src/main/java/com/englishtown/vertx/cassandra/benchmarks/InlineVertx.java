@@ -0,0 +1,292 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import io.vertx.core.*;
+import io.vertx.core.datagram.DatagramSocket;
+import io.vertx.core.datagram.DatagramSocketOptions;
+import io.vertx.core.dns.DnsClient;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.shareddata.SharedData;
+import io.vertx.core.spi.VerticleFactory;
+
+import java.util.*;
+
+/**
+ * A {@link Vertx} with a single context that runs handlers on the calling thread.
+ * <p>
+ * A real {@link Vertx} creates a new event loop context for each {@link Vertx#getOrCreateContext()} call made off a
+ * vert.x thread, such as a benchmark thread, which would dwarf the dispatch cost being measured.  The context
+ * methods are plain calls so the benchmarks measure the hop itself, the other methods are not supported.
+ */
+public final class InlineVertx implements Vertx {
+
+    private final Context context = new InlineContext();
+
+    private InlineVertx() {
+    }
+
+    public static Vertx create() {
+        return new InlineVertx();
+    }
+
+    @Override
+    public Context getOrCreateContext() {
+        return context;
+    }
+
+    @Override
+    public void runOnContext(Handler<Void> action) {
+        context.runOnContext(action);
+    }
+
+    @Override
+    public String metricBaseName() {
+        return "vertx";
+    }
+
+    @Override
+    public NetServer createNetServer(NetServerOptions options) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NetServer createNetServer() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NetClient createNetClient(NetClientOptions options) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NetClient createNetClient() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServer createHttpServer(HttpServerOptions options) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpServer createHttpServer() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpClient createHttpClient(HttpClientOptions options) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public HttpClient createHttpClient() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DatagramSocket createDatagramSocket(DatagramSocketOptions options) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DatagramSocket createDatagramSocket() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FileSystem fileSystem() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public EventBus eventBus() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DnsClient createDnsClient(int port, String host) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SharedData sharedData() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long setTimer(long delay, Handler<Long> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TimeoutStream timerStream(long delay) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long setPeriodic(long delay, Handler<Long> handler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TimeoutStream periodicStream(long delay) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean cancelTimer(long id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void close(Handler<AsyncResult<Void>> completionHandler) {
+        completionHandler.handle(Future.succeededFuture());
+    }
+
+    @Override
+    public void deployVerticle(Verticle verticle) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deployVerticle(Verticle verticle, Handler<AsyncResult<String>> completionHandler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deployVerticle(Verticle verticle, DeploymentOptions options) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deployVerticle(Verticle verticle, DeploymentOptions options, Handler<AsyncResult<String>> completionHandler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deployVerticle(String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deployVerticle(String name, Handler<AsyncResult<String>> completionHandler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deployVerticle(String name, DeploymentOptions options) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deployVerticle(String name, DeploymentOptions options, Handler<AsyncResult<String>> completionHandler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void undeploy(String deploymentID) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void undeploy(String deploymentID, Handler<AsyncResult<Void>> completionHandler) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<String> deploymentIDs() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public void registerVerticleFactory(VerticleFactory factory) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void unregisterVerticleFactory(VerticleFactory factory) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<VerticleFactory> verticleFactories() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public <T> void executeBlocking(Handler<Future<T>> blockingCodeHandler, Handler<AsyncResult<T>> resultHandler) {
+        throw new UnsupportedOperationException();
+    }
+
+    private static class InlineContext implements Context {
+
+        private final JsonObject config = new JsonObject();
+        private final Map<String, Object> data = new HashMap<>();
+
+        @Override
+        public void runOnContext(Handler<Void> action) {
+            action.handle(null);
+        }
+
+        @Override
+        public String deploymentID() {
+            return null;
+        }
+
+        @Override
+        public JsonObject config() {
+            return config;
+        }
+
+        @Override
+        public List<String> processArgs() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isEventLoopContext() {
+            return false;
+        }
+
+        @Override
+        public boolean isWorker() {
+            return false;
+        }
+
+        @Override
+        public boolean isMultiThreaded() {
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(String key) {
+            return (T) data.get(key);
+        }
+
+        @Override
+        public void put(String key, Object value) {
+            data.put(key, value);
+        }
+
+        @Override
+        public boolean remove(String key) {
+            return data.remove(key) != null;
+        }
+    }
+
+}
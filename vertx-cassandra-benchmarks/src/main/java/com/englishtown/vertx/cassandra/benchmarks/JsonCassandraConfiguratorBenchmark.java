@@ -0,0 +1,56 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.englishtown.vertx.cassandra.mapping.impl.JsonCassandraConfigurator;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of parsing a full JSON configuration, paid on startup and on every live reconfiguration
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCassandraConfiguratorBenchmark {
+
+    private JsonObject config;
+
+    @Setup
+    public void setUp() {
+        config = new JsonObject()
+                .put("seeds", new JsonArray().add("10.0.0.1").add("10.0.0.2").add("10.0.0.3"))
+                .put("policies", new JsonObject()
+                        .put("load_balancing", new JsonObject()
+                                .put("name", "DCAwareRoundRobinPolicy")
+                                .put("local_dc", "LOCAL1")
+                                .put("used_hosts_per_remote_dc", 1))
+                        .put("reconnection", new JsonObject()
+                                .put("name", "exponential")
+                                .put("base_delay", 1000)
+                                .put("max_delay", 10000)))
+                .put("pooling", new JsonObject()
+                        .put("core_connections_per_host_local", 2)
+                        .put("max_connections_per_host_local", 8)
+                        .put("max_simultaneous_requests_local", 128))
+                .put("socket", new JsonObject()
+                        .put("connect_timeout_millis", 5000)
+                        .put("read_timeout_millis", 12000)
+                        .put("tcp_no_delay", true))
+                .put("consistency_level", "LOCAL_QUORUM")
+                .put("fetch_size", 500)
+                .put("result_cache", new JsonObject()
+                        .put("hot", new JsonObject().put("max_bytes", 1048576).put("ttl_millis", 500)))
+                .put("query_guard", new JsonObject().put("action", "log"));
+    }
+
+    @Benchmark
+    public JsonCassandraConfigurator parse() {
+        return new JsonCassandraConfigurator(config);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.datastax.driver.core.StubCluster;
+import com.datastax.driver.core.StubSession;
+import com.englishtown.vertx.cassandra.CassandraSession;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultCassandraSession;
+import com.englishtown.vertx.cassandra.mapping.impl.JsonCassandraConfigurator;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Creates {@link DefaultCassandraSession}s over a {@link StubSession}
+ */
+public final class StubSessions {
+
+    private StubSessions() {
+    }
+
+    /**
+     * Creates an initialized session whose driver session is a {@link StubSession}
+     *
+     * @param vertx the vert.x instance
+     * @return the session
+     */
+    public static DefaultCassandraSession create(Vertx vertx) {
+        JsonObject config = new JsonObject().put(JsonCassandraConfigurator.CONFIG_SEEDS, new JsonArray().add("127.0.0.1"));
+        return new DefaultCassandraSession(new StubCluster.Builder(), new JsonCassandraConfigurator(config), vertx);
+    }
+
+    /**
+     * Returns the stub driver session of a session created by {@link #create(Vertx)}
+     *
+     * @param session the session
+     * @return the stub session
+     */
+    public static StubSession stub(CassandraSession session) {
+        return (StubSession) session.getSession();
+    }
+
+}
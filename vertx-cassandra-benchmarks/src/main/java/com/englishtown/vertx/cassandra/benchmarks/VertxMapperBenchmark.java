@@ -0,0 +1,72 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.datastax.driver.mapping.Mapper;
+import com.englishtown.vertx.cassandra.benchmarks.model.User;
+import com.englishtown.vertx.cassandra.mapping.VertxMapper;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultCassandraSession;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultVertxMapper;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultVertxMappingManager;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single entity reads and writes through {@link DefaultVertxMapper}, comparing the generated entity codec with the
+ * reflective datastax {@link Mapper}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VertxMapperBenchmark {
+
+    private DefaultCassandraSession session;
+    private VertxMapper<User> mapper;
+    private User user;
+
+    @Param({"codec", "mapper"})
+    private String operations;
+
+    @Setup
+    public void setUp() {
+        Vertx vertx = InlineVertx.create();
+        user = User.create(1);
+
+        session = StubSessions.create(vertx);
+        StubSessions.stub(session)
+                .table(User.TABLE, User.COLUMNS, User.TYPES)
+                .rows(User.TABLE, Collections.singletonList(user.toRow()));
+
+        DefaultVertxMappingManager manager = new DefaultVertxMappingManager(session);
+        if ("codec".equals(operations)) {
+            // User has a generated codec, which the manager picks up
+            mapper = manager.mapper(User.class);
+        } else {
+            mapper = new DefaultVertxMapper<>(manager.getMappingManager().mapper(User.class), vertx);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public User get() throws Exception {
+        CallbackFuture<User> callback = new CallbackFuture<>();
+        mapper.getAsync(callback, user.getId());
+        return callback.get();
+    }
+
+    @Benchmark
+    public Void save() throws Exception {
+        CallbackFuture<Void> callback = new CallbackFuture<>();
+        mapper.saveAsync(user, callback);
+        return callback.get();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.englishtown.vertx.cassandra.benchmarks;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.englishtown.promises.Promise;
+import com.englishtown.promises.WhenFactory;
+import com.englishtown.vertx.cassandra.benchmarks.model.User;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultCassandraSession;
+import com.englishtown.vertx.cassandra.mapping.promises.impl.DefaultWhenCassandraSession;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of converting driver futures to promises in {@link DefaultWhenCassandraSession}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WhenCassandraSessionBenchmark {
+
+    private DefaultCassandraSession session;
+    private DefaultWhenCassandraSession whenSession;
+    private PreparedStatement select;
+
+    @Setup
+    public void setUp() {
+        Vertx vertx = InlineVertx.create();
+        session = StubSessions.create(vertx);
+        StubSessions.stub(session)
+                .table(User.TABLE, User.COLUMNS, User.TYPES)
+                .rows(User.TABLE, Collections.singletonList(User.create(1).toRow()));
+
+        whenSession = new DefaultWhenCassandraSession(session, WhenFactory.createSync(), vertx);
+        select = session.prepare("SELECT * FROM benchmarks.users WHERE id = ?");
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public Promise<ResultSet> executeAsync() {
+        return whenSession.executeAsync(select.bind("user-1"));
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.englishtown.vertx.cassandra.benchmarks.load;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.PreparedStatement;
+import com.englishtown.vertx.cassandra.keyspacebuilder.KeyspaceBuilder;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultCassandraSession;
+import com.englishtown.vertx.cassandra.mapping.impl.JsonCassandraConfigurator;
+import com.englishtown.vertx.cassandra.stub.Latency;
+import com.englishtown.vertx.cassandra.stub.Prime;
+import com.englishtown.vertx.cassandra.stub.StubCassandra;
+import com.englishtown.vertx.cassandra.tablebuilder.TableBuilder;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures what a session config can sustain from one vert.x process.  The config file has a {@code cassandra}
+ * object, the session config read by {@link JsonCassandraConfigurator}, and a {@code load} object read by
+ * {@link LoadOptions}.  Without a file, a short closed model run against a single in-process stand-in node is made.
+ * <pre>
+ * java -cp benchmarks.jar com.englishtown.vertx.cassandra.benchmarks.load.LoadGenerator load.json
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    public static final String CONFIG_CASSANDRA = "cassandra";
+    public static final String CONFIG_LOAD = "load";
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        JsonObject config = new JsonObject();
+        if (args.length > 0) {
+            config = new JsonObject(new String(Files.readAllBytes(Paths.get(args[0])), StandardCharsets.UTF_8));
+        }
+
+        JsonObject load = config.getJsonObject(CONFIG_LOAD, new JsonObject());
+        if (args.length == 0) {
+            load.put(LoadOptions.CONFIG_STUB_NODES, 1).put(LoadOptions.CONFIG_WARMUP_SECONDS, 1).put(LoadOptions.CONFIG_DURATION_SECONDS, 5);
+        }
+        LoadOptions options = new LoadOptions(load);
+
+        LoadResult result = run(config.getJsonObject(CONFIG_CASSANDRA, new JsonObject()), options);
+        result.print(System.out);
+
+        if (options.getHistogramFile() != null) {
+            try (PrintStream out = new PrintStream(options.getHistogramFile(), "UTF-8")) {
+                result.printDistributions(out);
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Runs the load and waits for its results
+     *
+     * @param cassandraConfig the session config, its seeds are replaced when running against stand-in nodes
+     * @param options         the load options
+     * @return the merged results of all event loops
+     * @throws Exception if the session can't be created or the run does not complete
+     */
+    public static LoadResult run(JsonObject cassandraConfig, LoadOptions options) throws Exception {
+        Latency stubLatency = null;
+        if (options.getStubMedianMicros() > 0) {
+            stubLatency = Latency.logNormal(options.getStubMedianMicros(),
+                    Math.max(options.getStubP99Micros(), options.getStubMedianMicros()), TimeUnit.MICROSECONDS);
+        }
+        return run(cassandraConfig, options, stubLatency);
+    }
+
+    /**
+     * Runs the load with the given stand-in node latency instead of the one in the options
+     *
+     * @param cassandraConfig the session config, its seeds are replaced when running against stand-in nodes
+     * @param options         the load options
+     * @param stubLatency     the latency of the stand-in nodes, or null for none
+     * @return the merged results of all event loops
+     * @throws Exception if the session can't be created or the run does not complete
+     */
+    static LoadResult run(JsonObject cassandraConfig, LoadOptions options, Latency stubLatency) throws Exception {
+        options.validate();
+
+        StubCassandra stub = null;
+        Cluster.Builder clusterBuilder = Cluster.builder();
+        if (options.getStubNodes() > 0) {
+            stub = new StubCassandra(options.getStubNodes()).start();
+            if (stubLatency != null) {
+                stub.setLatency(stubLatency);
+            }
+            stub.table(options.getKeyspace(), options.getTable(), new String[]{"key", "value"},
+                    new DataType[]{DataType.text(), DataType.blob()});
+
+            JsonArray seeds = new JsonArray();
+            for (InetAddress address : stub.getContactPoints()) {
+                seeds.add(address.getHostAddress());
+            }
+            cassandraConfig = cassandraConfig.copy().put(JsonCassandraConfigurator.CONFIG_SEEDS, seeds);
+            clusterBuilder = stub.clusterBuilder();
+        }
+
+        Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(options.getEventLoops()));
+        DefaultCassandraSession session = null;
+        try {
+            session = new DefaultCassandraSession(clusterBuilder, new JsonCassandraConfigurator(cassandraConfig), vertx);
+
+            // Setup runs on this thread, off the event loops
+            String keyspace = options.getKeyspace();
+            String table = options.getTable();
+            session.execute(KeyspaceBuilder.create(keyspace).ifNotExists().simpleStrategy(1));
+            session.execute(TableBuilder.create(keyspace, table).ifNotExists()
+                    .column("key", "text")
+                    .column("value", "blob")
+                    .primaryKey("key"));
+            String readQuery = "SELECT value FROM " + keyspace + "." + table + " WHERE key = ?";
+            PreparedStatement read = session.prepare(readQuery);
+            PreparedStatement write = session.prepare("INSERT INTO " + keyspace + "." + table + " (key, value) VALUES (?, ?)");
+            if (stub != null) {
+                stub.prime(Prime.when(readQuery).row(ByteBuffer.allocate(options.getValueSize())));
+            }
+
+            List<LoadResult> results = new ArrayList<>();
+            CountDownLatch latch = new CountDownLatch(options.getEventLoops());
+            for (int i = 0; i < options.getEventLoops(); i++) {
+                vertx.deployVerticle(new LoadGeneratorVerticle(session, options, i, read, write, result -> {
+                    synchronized (results) {
+                        results.add(result);
+                    }
+                    latch.countDown();
+                }));
+            }
+
+            // Requests time out in the driver, allow for the socket read timeout after the run
+            long timeout = options.getWarmupSeconds() + options.getDurationSeconds() + 60;
+            if (!latch.await(timeout, TimeUnit.SECONDS)) {
+                throw new TimeoutException("The load run did not complete within " + timeout + " seconds");
+            }
+
+            LoadResult merged = new LoadResult();
+            synchronized (results) {
+                results.forEach(merged::merge);
+            }
+            return merged;
+
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+            vertx.close();
+            if (stub != null) {
+                stub.stop();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.englishtown.vertx.cassandra.benchmarks.load;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Statement;
+import com.englishtown.vertx.cassandra.CassandraSession;
+import com.google.common.util.concurrent.FutureCallback;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Handler;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives one event loop's share of a {@link LoadGenerator} run: a key/value read and write mix through
+ * {@link CassandraSession#executeAsync(Statement, FutureCallback)}.
+ * <p>
+ * Every request has a scheduled start.  In the open model requests are scheduled at a fixed interval whether or not
+ * earlier ones have completed.  In the closed model each of the concurrent slots schedules its next request when
+ * the previous one completes, no earlier than one slot interval after the previous schedule when there is a rate.
+ * The recording window is the warmup end to the run end by scheduled start, and the results are handed over once
+ * the requests scheduled in it have completed.
+ */
+public class LoadGeneratorVerticle extends AbstractVerticle {
+
+    private final CassandraSession session;
+    private final LoadOptions options;
+    private final PreparedStatement read;
+    private final PreparedStatement write;
+    private final Handler<LoadResult> resultHandler;
+    private final int concurrency;
+    private final double rate;
+    private final LoadResult result = new LoadResult();
+    private final ByteBuffer value;
+
+    private long recordFromNanos;
+    private long endNanos;
+    private double intervalNanos;
+    private int inFlight;
+    private int activeSlots;
+    private boolean finished;
+
+    /**
+     * @param session       the session to load
+     * @param options       the run options
+     * @param index         the index of this verticle among the {@link LoadOptions#getEventLoops()} verticles
+     * @param read          the read statement, bound with a key
+     * @param write         the write statement, bound with a key and a value
+     * @param resultHandler called on the verticle context with the results once the run is over
+     */
+    public LoadGeneratorVerticle(CassandraSession session, LoadOptions options, int index, PreparedStatement read,
+                                 PreparedStatement write, Handler<LoadResult> resultHandler) {
+        this.session = session;
+        this.options = options;
+        this.read = read;
+        this.write = write;
+        this.resultHandler = resultHandler;
+
+        // The remainder of the concurrency goes to the first verticles
+        int loops = options.getEventLoops();
+        this.concurrency = options.getConcurrency() / loops + (index < options.getConcurrency() % loops ? 1 : 0);
+        this.rate = (double) options.getRate() / loops;
+
+        byte[] bytes = new byte[options.getValueSize()];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        this.value = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void start() throws Exception {
+        long startNanos = System.nanoTime();
+        recordFromNanos = startNanos + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        endNanos = recordFromNanos + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+        result.setElapsedNanos(endNanos - recordFromNanos);
+
+        if (options.getMode() == LoadOptions.Mode.OPEN) {
+            intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+            activeSlots = 1;
+            long[] issued = {0};
+            vertx.setPeriodic(1, id -> {
+                // Catch up on every request scheduled since the last tick, however late the tick is
+                long now = System.nanoTime();
+                long scheduled;
+                while ((scheduled = startNanos + (long) (issued[0] * intervalNanos)) <= now) {
+                    if (scheduled >= endNanos) {
+                        vertx.cancelTimer(id);
+                        activeSlots = 0;
+                        finishIfIdle();
+                        return;
+                    }
+                    send(scheduled, null);
+                    issued[0]++;
+                }
+            });
+        } else {
+            intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) * concurrency / rate : 0;
+            activeSlots = concurrency;
+            for (int slot = 0; slot < concurrency; slot++) {
+                // Stagger the slots over one interval
+                slot(rate > 0 ? startNanos + (long) (slot * intervalNanos / concurrency) : startNanos);
+            }
+        }
+    }
+
+    private void slot(long scheduled) {
+        long now = System.nanoTime();
+        long start = rate > 0 ? scheduled : now;
+        if (start >= endNanos) {
+            activeSlots--;
+            finishIfIdle();
+            return;
+        }
+
+        // Rounded up, a request must never be sent before its scheduled start
+        long delayMillis = TimeUnit.NANOSECONDS.toMillis(start - now + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+        long next = start + (long) intervalNanos;
+        if (delayMillis > 0) {
+            vertx.setTimer(delayMillis, id -> send(start, () -> slot(next)));
+        } else {
+            send(start, () -> slot(next));
+        }
+    }
+
+    private void send(long scheduled, Runnable onComplete) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean isRead = random.nextDouble() < options.getReadRatio();
+        String key = String.valueOf(random.nextInt(options.getKeyCount()));
+        Statement statement = isRead ? read.bind(key) : write.bind(key, value.duplicate());
+        LoadResult.Stats stats = isRead ? result.getReads() : result.getWrites();
+
+        inFlight++;
+        long sent = System.nanoTime();
+        session.executeAsync(statement, new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess(ResultSet resultSet) {
+                complete(false);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                complete(true);
+            }
+
+            private void complete(boolean failed) {
+                long end = System.nanoTime();
+                inFlight--;
+                if (scheduled >= recordFromNanos && scheduled < endNanos) {
+                    stats.record(scheduled, sent, end, failed);
+                }
+                if (onComplete != null) {
+                    onComplete.run();
+                }
+                finishIfIdle();
+            }
+        });
+    }
+
+    private void finishIfIdle() {
+        if (!finished && activeSlots == 0 && inFlight == 0) {
+            finished = true;
+            resultHandler.handle(result);
+        }
+    }
+
+}
@@ -0,0 +1,287 @@
+package com.englishtown.vertx.cassandra.benchmarks.load;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of a {@link LoadGenerator} run, read from the {@code load} object of its config
+ */
+public class LoadOptions {
+
+    public static final String CONFIG_MODE = "mode";
+    public static final String CONFIG_RATE = "rate";
+    public static final String CONFIG_CONCURRENCY = "concurrency";
+    public static final String CONFIG_EVENT_LOOPS = "event_loops";
+    public static final String CONFIG_DURATION_SECONDS = "duration_seconds";
+    public static final String CONFIG_WARMUP_SECONDS = "warmup_seconds";
+    public static final String CONFIG_READ_RATIO = "read_ratio";
+    public static final String CONFIG_KEYSPACE = "keyspace";
+    public static final String CONFIG_TABLE = "table";
+    public static final String CONFIG_KEY_COUNT = "key_count";
+    public static final String CONFIG_VALUE_SIZE = "value_size";
+    public static final String CONFIG_STUB_NODES = "stub_nodes";
+    public static final String CONFIG_STUB_MEDIAN_MICROS = "stub_median_micros";
+    public static final String CONFIG_STUB_P99_MICROS = "stub_p99_micros";
+    public static final String CONFIG_HISTOGRAM_FILE = "histogram_file";
+
+    /**
+     * How requests are issued
+     */
+    public enum Mode {
+        /**
+         * Requests start on a fixed schedule whatever the response times, like independent users.  Latency is
+         * measured from the scheduled start, so a stalled server is charged for the requests it delayed.
+         */
+        OPEN,
+        /**
+         * A fixed number of requests are in flight, each starting when another completes.  With a rate, each slot
+         * also waits for its next scheduled start and latency is measured from it.
+         */
+        CLOSED
+    }
+
+    private Mode mode = Mode.CLOSED;
+    private int rate;
+    private int concurrency = 64;
+    private int eventLoops = 1;
+    private int durationSeconds = 30;
+    private int warmupSeconds = 5;
+    private double readRatio = 0.5;
+    private String keyspace = "load";
+    private String table = "kv";
+    private int keyCount = 100000;
+    private int valueSize = 100;
+    private int stubNodes;
+    private int stubMedianMicros;
+    private int stubP99Micros;
+    private String histogramFile;
+
+    public LoadOptions() {
+    }
+
+    public LoadOptions(JsonObject config) {
+        mode = Mode.valueOf(config.getString(CONFIG_MODE, mode.name()).toUpperCase());
+        rate = config.getInteger(CONFIG_RATE, rate);
+        concurrency = config.getInteger(CONFIG_CONCURRENCY, concurrency);
+        eventLoops = config.getInteger(CONFIG_EVENT_LOOPS, eventLoops);
+        durationSeconds = config.getInteger(CONFIG_DURATION_SECONDS, durationSeconds);
+        warmupSeconds = config.getInteger(CONFIG_WARMUP_SECONDS, warmupSeconds);
+        readRatio = config.getDouble(CONFIG_READ_RATIO, readRatio);
+        keyspace = config.getString(CONFIG_KEYSPACE, keyspace);
+        table = config.getString(CONFIG_TABLE, table);
+        keyCount = config.getInteger(CONFIG_KEY_COUNT, keyCount);
+        valueSize = config.getInteger(CONFIG_VALUE_SIZE, valueSize);
+        stubNodes = config.getInteger(CONFIG_STUB_NODES, stubNodes);
+        stubMedianMicros = config.getInteger(CONFIG_STUB_MEDIAN_MICROS, stubMedianMicros);
+        stubP99Micros = config.getInteger(CONFIG_STUB_P99_MICROS, stubP99Micros);
+        histogramFile = config.getString(CONFIG_HISTOGRAM_FILE);
+        validate();
+    }
+
+    /**
+     * Checks the options are consistent
+     *
+     * @return the current {@link LoadOptions}
+     * @throws IllegalArgumentException if they are not
+     */
+    public LoadOptions validate() {
+        if (mode == Mode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("The open model requires a rate");
+        }
+        if (eventLoops < 1 || concurrency < eventLoops) {
+            throw new IllegalArgumentException("At least one event loop, and one request in flight per event loop, are required");
+        }
+        if (readRatio < 0 || readRatio > 1) {
+            throw new IllegalArgumentException("read_ratio must be between 0 and 1");
+        }
+        if (keyCount < 1 || durationSeconds < 1 || warmupSeconds < 0 || valueSize < 0) {
+            throw new IllegalArgumentException("key_count and duration_seconds must be positive, warmup_seconds and value_size not negative");
+        }
+        return this;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public LoadOptions setMode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    /**
+     * Returns the target throughput across all event loops, required by the open model
+     *
+     * @return the requests per second, 0 for as fast as possible
+     */
+    public int getRate() {
+        return rate;
+    }
+
+    public LoadOptions setRate(int rate) {
+        this.rate = rate;
+        return this;
+    }
+
+    /**
+     * Returns the number of requests in flight across all event loops in the closed model
+     *
+     * @return the concurrency
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public LoadOptions setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Returns the number of event loops, each running one generator verticle with its share of the rate and
+     * concurrency
+     *
+     * @return the event loop count
+     */
+    public int getEventLoops() {
+        return eventLoops;
+    }
+
+    public LoadOptions setEventLoops(int eventLoops) {
+        this.eventLoops = eventLoops;
+        return this;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public LoadOptions setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+        return this;
+    }
+
+    /**
+     * Returns how long the load runs before recording starts, to let the JIT and connection pools settle
+     *
+     * @return the warmup in seconds
+     */
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public LoadOptions setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+        return this;
+    }
+
+    /**
+     * Returns the fraction of requests that are reads, the others are writes
+     *
+     * @return the read ratio between 0 and 1
+     */
+    public double getReadRatio() {
+        return readRatio;
+    }
+
+    public LoadOptions setReadRatio(double readRatio) {
+        this.readRatio = readRatio;
+        return this;
+    }
+
+    public String getKeyspace() {
+        return keyspace;
+    }
+
+    public LoadOptions setKeyspace(String keyspace) {
+        this.keyspace = keyspace;
+        return this;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public LoadOptions setTable(String table) {
+        this.table = table;
+        return this;
+    }
+
+    /**
+     * Returns the number of distinct keys, read and written uniformly
+     *
+     * @return the key count
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public LoadOptions setKeyCount(int keyCount) {
+        this.keyCount = keyCount;
+        return this;
+    }
+
+    /**
+     * Returns the size of the blob written
+     *
+     * @return the value size in bytes
+     */
+    public int getValueSize() {
+        return valueSize;
+    }
+
+    public LoadOptions setValueSize(int valueSize) {
+        this.valueSize = valueSize;
+        return this;
+    }
+
+    /**
+     * Returns the number of in-process stand-in nodes to run against instead of the configured seeds
+     *
+     * @return the node count, 0 for a real cluster
+     */
+    public int getStubNodes() {
+        return stubNodes;
+    }
+
+    public LoadOptions setStubNodes(int stubNodes) {
+        this.stubNodes = stubNodes;
+        return this;
+    }
+
+    public int getStubMedianMicros() {
+        return stubMedianMicros;
+    }
+
+    public int getStubP99Micros() {
+        return stubP99Micros;
+    }
+
+    /**
+     * Sets the log-normal response time of the stand-in nodes
+     *
+     * @param medianMicros the median in microseconds, 0 for none
+     * @param p99Micros    the 99th percentile in microseconds
+     * @return the current {@link LoadOptions}
+     */
+    public LoadOptions setStubLatency(int medianMicros, int p99Micros) {
+        this.stubMedianMicros = medianMicros;
+        this.stubP99Micros = p99Micros;
+        return this;
+    }
+
+    /**
+     * Returns the file the response time percentile distributions are written to, in the HdrHistogram format
+     * plotted by its online tools
+     *
+     * @return the file name, or null for none
+     */
+    public String getHistogramFile() {
+        return histogramFile;
+    }
+
+    public LoadOptions setHistogramFile(String histogramFile) {
+        this.histogramFile = histogramFile;
+        return this;
+    }
+
+}
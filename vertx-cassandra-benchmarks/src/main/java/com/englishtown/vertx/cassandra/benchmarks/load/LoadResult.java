@@ -0,0 +1,159 @@
+package com.englishtown.vertx.cassandra.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latencies and counts recorded by one or more {@link LoadGeneratorVerticle}s after warmup.  Latencies are
+ * recorded in microseconds.
+ * <p>
+ * The response time of a request is measured from its scheduled start and the service time from when it was sent.
+ * They only differ when requests start late because earlier ones held them up, the delays a load generator that
+ * waits on the system under test would otherwise omit.  Without a schedule, in the closed model without a rate,
+ * they are the same.
+ */
+public class LoadResult {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Stats reads = new Stats();
+    private final Stats writes = new Stats();
+    private long elapsedNanos;
+
+    public Stats getReads() {
+        return reads;
+    }
+
+    public Stats getWrites() {
+        return writes;
+    }
+
+    /**
+     * Returns the time over which the requests were recorded
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Adds the results of a generator running in parallel
+     *
+     * @param other the other results
+     * @return the current {@link LoadResult}
+     */
+    public LoadResult merge(LoadResult other) {
+        reads.merge(other.reads);
+        writes.merge(other.writes);
+        elapsedNanos = Math.max(elapsedNanos, other.elapsedNanos);
+        return this;
+    }
+
+    /**
+     * Returns the completed requests per second
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        long count = reads.getCount() + writes.getCount();
+        return elapsedNanos == 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Prints a summary table in milliseconds
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        out.printf("Throughput: %.1f req/s over %.1f s%n", getThroughput(), elapsedNanos / 1e9);
+        out.printf("%-8s %10s %8s", "", "count", "errors");
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9s", "p" + format(percentile));
+        }
+        out.printf(" %9s%n", "max");
+        print(out, "read", reads, reads.getResponseTime());
+        print(out, "  svc", reads, reads.getServiceTime());
+        print(out, "write", writes, writes.getResponseTime());
+        print(out, "  svc", writes, writes.getServiceTime());
+    }
+
+    /**
+     * Prints the full response time percentile distributions in milliseconds
+     *
+     * @param out the stream to print to
+     */
+    public void printDistributions(PrintStream out) {
+        out.println("# read response time");
+        reads.getResponseTime().outputPercentileDistribution(out, 1000.0);
+        out.println("# write response time");
+        writes.getResponseTime().outputPercentileDistribution(out, 1000.0);
+    }
+
+    private static void print(PrintStream out, String name, Stats stats, Histogram histogram) {
+        out.printf("%-8s %10d %8d", name, stats.getCount(), stats.getErrors());
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.3f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %9.3f%n", histogram.getMaxValue() / 1000.0);
+    }
+
+    private static String format(double percentile) {
+        return percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    /**
+     * The latencies of one kind of request
+     */
+    public static class Stats {
+
+        private final Histogram responseTime = new Histogram(3);
+        private final Histogram serviceTime = new Histogram(3);
+        private long errors;
+
+        /**
+         * Records a completed request
+         *
+         * @param scheduledNanos the nanoTime the request was scheduled to start
+         * @param sentNanos      the nanoTime it was sent
+         * @param endNanos       the nanoTime it completed
+         * @param failed         true if it failed
+         */
+        void record(long scheduledNanos, long sentNanos, long endNanos, boolean failed) {
+            responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - scheduledNanos));
+            serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(endNanos - sentNanos));
+            if (failed) {
+                errors++;
+            }
+        }
+
+        void merge(Stats other) {
+            responseTime.add(other.responseTime);
+            serviceTime.add(other.serviceTime);
+            errors += other.errors;
+        }
+
+        public Histogram getResponseTime() {
+            return responseTime;
+        }
+
+        public Histogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public long getCount() {
+            return responseTime.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+    }
+
+}
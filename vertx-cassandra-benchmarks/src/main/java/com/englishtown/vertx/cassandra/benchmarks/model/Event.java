@@ -0,0 +1,62 @@
+package com.englishtown.vertx.cassandra.benchmarks.model;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.mapping.annotations.ClusteringColumn;
+import com.datastax.driver.mapping.annotations.Column;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+
+/**
+ * A time series entity with many rows per partition, for the bulk benchmarks
+ */
+@Table(keyspace = "benchmarks", name = Event.TABLE)
+public class Event {
+
+    public static final String TABLE = "events";
+    public static final String[] COLUMNS = {"stream", "seq", "payload"};
+    public static final DataType[] TYPES = {DataType.text(), DataType.cint(), DataType.text()};
+
+    @PartitionKey
+    private String stream;
+    @ClusteringColumn
+    private Integer seq;
+    @Column
+    private String payload;
+
+    public String getStream() {
+        return stream;
+    }
+
+    public void setStream(String stream) {
+        this.stream = stream;
+    }
+
+    public Integer getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Integer seq) {
+        this.seq = seq;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Object[] toRow() {
+        return new Object[]{stream, seq, payload};
+    }
+
+    public static Event create(int i, int streams) {
+        Event event = new Event();
+        event.setStream("stream-" + i % streams);
+        event.setSeq(i);
+        event.setPayload("payload of event " + i);
+        return event;
+    }
+
+}
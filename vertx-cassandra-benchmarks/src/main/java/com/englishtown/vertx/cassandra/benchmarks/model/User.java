@@ -0,0 +1,85 @@
+package com.englishtown.vertx.cassandra.benchmarks.model;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.mapping.annotations.Column;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+
+import java.util.Date;
+
+/**
+ * A single row entity, read and written both through its generated codec and the reflective mapper
+ */
+@Table(keyspace = "benchmarks", name = User.TABLE)
+public class User {
+
+    public static final String TABLE = "users";
+    public static final String[] COLUMNS = {"id", "name", "email", "age", "created"};
+    public static final DataType[] TYPES = {DataType.text(), DataType.text(), DataType.text(), DataType.cint(), DataType.timestamp()};
+
+    @PartitionKey
+    private String id;
+    @Column
+    private String name;
+    @Column
+    private String email;
+    @Column
+    private Integer age;
+    @Column
+    private Date created;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public void setCreated(Date created) {
+        this.created = created;
+    }
+
+    public Object[] toRow() {
+        return new Object[]{id, name, email, age, created};
+    }
+
+    public static User create(int i) {
+        User user = new User();
+        user.setId("user-" + i);
+        user.setName("User " + i);
+        user.setEmail("user" + i + "@example.com");
+        user.setAge(20 + i % 50);
+        user.setCreated(new Date(1420070400000L + i * 1000L));
+        return user;
+    }
+
+}
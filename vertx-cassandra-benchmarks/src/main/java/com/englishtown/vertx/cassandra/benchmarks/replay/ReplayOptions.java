@@ -0,0 +1,90 @@
+package com.englishtown.vertx.cassandra.benchmarks.replay;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options of a {@link WorkloadReplay} run, read from the {@code replay} object of its config
+ */
+public class ReplayOptions {
+
+    public static final String CONFIG_CAPTURE_FILE = "capture_file";
+    public static final String CONFIG_SPEED = "speed";
+    public static final String CONFIG_MAX_IN_FLIGHT = "max_in_flight";
+
+    private String captureFile;
+    private double speed = 1;
+    private int maxInFlight = 4096;
+
+    public ReplayOptions() {
+    }
+
+    public ReplayOptions(JsonObject config) {
+        captureFile = config.getString(CONFIG_CAPTURE_FILE);
+        speed = config.getDouble(CONFIG_SPEED, speed);
+        maxInFlight = config.getInteger(CONFIG_MAX_IN_FLIGHT, maxInFlight);
+        validate();
+    }
+
+    /**
+     * Checks the options are consistent
+     *
+     * @return the current {@link ReplayOptions}
+     * @throws IllegalArgumentException if they are not
+     */
+    public ReplayOptions validate() {
+        if (captureFile == null || captureFile.isEmpty()) {
+            throw new IllegalArgumentException("A capture_file is required");
+        }
+        if (speed <= 0) {
+            throw new IllegalArgumentException("speed must be positive");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("max_in_flight must be positive");
+        }
+        return this;
+    }
+
+    /**
+     * The capture file written by a session with a {@code capture} config
+     *
+     * @return the file path
+     */
+    public String getCaptureFile() {
+        return captureFile;
+    }
+
+    public ReplayOptions setCaptureFile(String captureFile) {
+        this.captureFile = captureFile;
+        return this;
+    }
+
+    /**
+     * The replay speed relative to the capture, 2 replays the same statements in half the time
+     *
+     * @return the speed factor
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    public ReplayOptions setSpeed(double speed) {
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * The number of statements in flight before the replay waits.  A wait delays the following statements, and the
+     * delay is charged to their response times.
+     *
+     * @return the maximum statements in flight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public ReplayOptions setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.englishtown.vertx.cassandra.benchmarks.replay;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The response times of one {@link WorkloadReplay} run, in total and by statement.  Response times are recorded in
+ * microseconds from when the captured timeline scheduled each execution, so a configuration that falls behind is
+ * charged for the executions it delayed.
+ */
+public class ReplayResult {
+
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+    private static final int QUERY_WIDTH = 60;
+
+    private final String name;
+    private final Stats total = new Stats();
+    private final Map<String, Stats> statements = new LinkedHashMap<>();
+    private long skipped;
+    private long elapsedNanos;
+
+    public ReplayResult(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the replayed configuration
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    public Stats getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the stats of each statement, batches under their first statement
+     *
+     * @return the stats by query
+     */
+    public Map<String, Stats> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Returns the number of executions that could not be replayed, because no values were ever sampled for their
+     * statement or it no longer prepares
+     *
+     * @return the skipped count
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns the time the replay took
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    synchronized void skip() {
+        skipped++;
+    }
+
+    synchronized void record(String query, long scheduledNanos, long endNanos, boolean failed) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, endNanos - scheduledNanos));
+        total.record(micros, failed);
+        statements.computeIfAbsent(query, q -> new Stats()).record(micros, failed);
+    }
+
+    /**
+     * Prints each result in milliseconds, with the change of every later result against the first
+     *
+     * @param out     the stream to print to
+     * @param results the results, the baseline first
+     */
+    public static void print(PrintStream out, Iterable<ReplayResult> results) {
+        ReplayResult baseline = null;
+        for (ReplayResult result : results) {
+            result.print(out, baseline);
+            out.println();
+            if (baseline == null) {
+                baseline = result;
+            }
+        }
+    }
+
+    /**
+     * Prints a summary table in milliseconds
+     *
+     * @param out      the stream to print to
+     * @param baseline the result to show changes against, or null
+     */
+    public void print(PrintStream out, ReplayResult baseline) {
+        out.printf("%s: %d executions, %d errors, %d skipped in %.1f s%n",
+                name, total.getCount(), total.getErrors(), skipped, elapsedNanos / 1e9);
+        out.printf("%-" + QUERY_WIDTH + "s %9s %7s", "statement", "count", "errors");
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9s", "p" + format(percentile));
+            if (baseline != null) {
+                out.printf(" %8s", "change");
+            }
+        }
+        out.printf(" %9s%n", "max");
+
+        print(out, "all", total, baseline == null ? null : baseline.total);
+        for (Map.Entry<String, Stats> entry : statements.entrySet()) {
+            print(out, entry.getKey(), entry.getValue(), baseline == null ? null : baseline.statements.get(entry.getKey()));
+        }
+    }
+
+    private static void print(PrintStream out, String query, Stats stats, Stats baseline) {
+        query = query.replaceAll("\\s+", " ");
+        if (query.length() > QUERY_WIDTH) {
+            query = query.substring(0, QUERY_WIDTH - 3) + "...";
+        }
+        out.printf("%-" + QUERY_WIDTH + "s %9d %7d", query, stats.getCount(), stats.getErrors());
+        for (double percentile : PERCENTILES) {
+            long value = stats.getResponseTime().getValueAtPercentile(percentile);
+            out.printf(" %9.3f", value / 1000.0);
+            if (baseline != null) {
+                long base = baseline.getResponseTime().getValueAtPercentile(percentile);
+                out.printf(" %8s", base == 0 ? "-" : String.format("%+.1f%%", (value - base) * 100.0 / base));
+            }
+        }
+        out.printf(" %9.3f%n", stats.getResponseTime().getMaxValue() / 1000.0);
+    }
+
+    private static String format(double percentile) {
+        return percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    /**
+     * The response times of one statement
+     */
+    public static class Stats {
+
+        private final Histogram responseTime = new Histogram(3);
+        private long errors;
+
+        void record(long micros, boolean failed) {
+            responseTime.recordValue(micros);
+            if (failed) {
+                errors++;
+            }
+        }
+
+        public Histogram getResponseTime() {
+            return responseTime;
+        }
+
+        public long getCount() {
+            return responseTime.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+    }
+
+}
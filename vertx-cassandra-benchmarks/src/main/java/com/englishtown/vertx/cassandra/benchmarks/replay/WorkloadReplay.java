@@ -0,0 +1,312 @@
+package com.englishtown.vertx.cassandra.benchmarks.replay;
+
+import com.datastax.driver.core.*;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.englishtown.vertx.cassandra.capture.CaptureReader;
+import com.englishtown.vertx.cassandra.capture.CapturedExecution;
+import com.englishtown.vertx.cassandra.capture.CapturedStatement;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultCassandraSession;
+import com.englishtown.vertx.cassandra.mapping.impl.JsonCassandraConfigurator;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Replays a workload captured by a session with a {@code capture} config against one or more session configs, and
+ * compares their response times.  The config file has a {@code replay} object read by {@link ReplayOptions} and a
+ * {@code configs} object of named session configs, each read by {@link JsonCassandraConfigurator}.  The first is
+ * the baseline the others are compared against.
+ * <pre>
+ * java -cp benchmarks.jar com.englishtown.vertx.cassandra.benchmarks.replay.WorkloadReplay replay.json
+ * </pre>
+ * Executions start at their captured offsets divided by the speed, whatever the response times of earlier ones.
+ * The captured statements are prepared before the replay starts, and the session uses the keyspace most regular
+ * statements were captured in.  Regular statements of other keyspaces go through a driver session of their keyspace,
+ * without the result cache and guards of the config.  Executions whose values were not sampled reuse the last
+ * sampled values of the same statement, and are skipped until a statement has some.  Captured {@code USE}
+ * statements are skipped.  Replayed writes are written again, so replay against a test cluster.
+ */
+public final class WorkloadReplay {
+
+    public static final String CONFIG_REPLAY = "replay";
+    public static final String CONFIG_CONFIGS = "configs";
+
+    private WorkloadReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: WorkloadReplay <config file>");
+            System.exit(1);
+        }
+        JsonObject config = new JsonObject(new String(Files.readAllBytes(Paths.get(args[0])), StandardCharsets.UTF_8));
+        ReplayOptions options = new ReplayOptions(config.getJsonObject(CONFIG_REPLAY, new JsonObject()));
+        JsonObject configs = config.getJsonObject(CONFIG_CONFIGS);
+        if (configs == null || configs.isEmpty()) {
+            throw new IllegalArgumentException("At least one named session config is required");
+        }
+
+        List<ReplayResult> results = new ArrayList<>();
+        Vertx vertx = Vertx.vertx();
+        try {
+            for (String name : configs.fieldNames()) {
+                results.add(replay(name, configs.getJsonObject(name), Cluster.builder(), vertx, options));
+            }
+        } finally {
+            vertx.close();
+        }
+
+        ReplayResult.print(System.out, results);
+        System.exit(0);
+    }
+
+    /**
+     * Replays the capture against a session config and waits for the executions to complete
+     *
+     * @param name            the config name
+     * @param cassandraConfig the session config
+     * @param clusterBuilder  the builder of the session cluster
+     * @param vertx           the vert.x instance
+     * @param options         the replay options
+     * @return the replay results
+     * @throws Exception if the session can't be created, the capture can't be read or the replay does not complete
+     */
+    public static ReplayResult replay(String name, JsonObject cassandraConfig, Cluster.Builder clusterBuilder,
+                                      Vertx vertx, ReplayOptions options) throws Exception {
+        options.validate();
+
+        ReplayResult result = new ReplayResult(name);
+        DefaultCassandraSession session = new DefaultCassandraSession(clusterBuilder,
+                new JsonCassandraConfigurator(cassandraConfig), vertx);
+        try (Replayer replayer = new Replayer(session);
+             CaptureReader reader = new CaptureReader(options.getCaptureFile())) {
+            replayer.prepare(options.getCaptureFile());
+            Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+            long start = System.nanoTime();
+
+            CapturedExecution execution;
+            while ((execution = reader.next()) != null) {
+                Statement statement = replayer.statement(execution);
+                if (statement == null) {
+                    result.skip();
+                    continue;
+                }
+
+                long scheduled = start + (long) (TimeUnit.MICROSECONDS.toNanos(execution.getOffsetMicros()) / options.getSpeed());
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                inFlight.acquire();
+
+                String query = execution.isBatch()
+                        ? "BATCH " + execution.getBatch().get(0).getStatement().getQuery()
+                        : execution.getStatement().getQuery();
+                Futures.addCallback(replayer.executeAsync(execution, statement), new FutureCallback<ResultSet>() {
+                    @Override
+                    public void onSuccess(ResultSet rs) {
+                        result.record(query, scheduled, System.nanoTime(), false);
+                        inFlight.release();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        result.record(query, scheduled, System.nanoTime(), true);
+                        inFlight.release();
+                    }
+                });
+            }
+
+            // Requests time out in the driver, allow for the socket read timeout
+            if (!inFlight.tryAcquire(options.getMaxInFlight(), 60, TimeUnit.SECONDS)) {
+                throw new TimeoutException("The replay of " + name + " did not complete");
+            }
+            result.setElapsedNanos(System.nanoTime() - start);
+            return result;
+
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Rebuilds driver statements from captured executions, with the captured statements prepared up front so the
+     * timed replay only executes
+     */
+    private static class Replayer implements Closeable {
+
+        // The captured keyspaces take the place of the captured USE statements
+        private static final Pattern USE = Pattern.compile("^\\s*USE\\s", Pattern.CASE_INSENSITIVE);
+
+        private final DefaultCassandraSession session;
+        private final Map<String, PreparedStatement> prepared = new HashMap<>();
+        private final Map<String, List<ByteBuffer>> lastValues = new HashMap<>();
+        private final Map<String, Session> keyspaceSessions = new HashMap<>();
+        private String sessionKeyspace;
+
+        Replayer(DefaultCassandraSession session) {
+            this.session = session;
+        }
+
+        /**
+         * Prepares the statements of a capture file and sets the keyspaces regular statements are executed in
+         *
+         * @param captureFile the capture file
+         * @throws IOException if the capture can't be read
+         */
+        void prepare(String captureFile) throws IOException {
+            List<CapturedStatement> statements;
+            try (CaptureReader reader = new CaptureReader(captureFile)) {
+                while (reader.next() != null) {
+                    // Read to the end for the statements of every segment
+                }
+                statements = reader.getStatements();
+            }
+
+            // Unqualified tables are resolved in the keyspace a statement was prepared in
+            Map<String, Integer> regularKeyspaces = new HashMap<>();
+            for (CapturedStatement captured : statements) {
+                String keyspace = captured.getKeyspace();
+                if (!captured.isPrepared()) {
+                    if (keyspace != null && !USE.matcher(captured.getQuery()).find()) {
+                        regularKeyspaces.merge(keyspace, 1, Integer::sum);
+                    }
+                    continue;
+                }
+                String key = key(captured);
+                if (prepared.containsKey(key)) {
+                    continue;
+                }
+                try {
+                    if (keyspace != null && !keyspace.equals(session.getLoggedKeyspace())) {
+                        session.execute("USE \"" + keyspace + "\"");
+                    }
+                    prepared.put(key, session.prepare(captured.getQuery()));
+                } catch (DriverException e) {
+                    // Its executions are skipped
+                    prepared.put(key, null);
+                }
+            }
+
+            for (Map.Entry<String, Integer> entry : regularKeyspaces.entrySet()) {
+                if (sessionKeyspace == null || entry.getValue() > regularKeyspaces.get(sessionKeyspace)) {
+                    sessionKeyspace = entry.getKey();
+                }
+            }
+            if (sessionKeyspace != null && !sessionKeyspace.equals(session.getLoggedKeyspace())) {
+                session.execute("USE \"" + sessionKeyspace + "\"");
+            }
+            for (String keyspace : regularKeyspaces.keySet()) {
+                if (!keyspace.equals(sessionKeyspace)) {
+                    keyspaceSessions.put(keyspace, session.getCluster().connect("\"" + keyspace + "\""));
+                }
+            }
+        }
+
+        Statement statement(CapturedExecution execution) {
+            Statement statement;
+            if (execution.isBatch()) {
+                BatchStatement batch = new BatchStatement(execution.getBatchType());
+                for (CapturedExecution child : execution.getBatch()) {
+                    Statement childStatement = statement(child);
+                    if (childStatement == null) {
+                        return null;
+                    }
+                    batch.add(childStatement);
+                }
+                statement = batch;
+            } else {
+                statement = single(execution);
+            }
+
+            if (statement != null && execution.getConsistency() != null) {
+                statement.setConsistencyLevel(execution.getConsistency());
+            }
+            return statement;
+        }
+
+        /**
+         * Executes a statement in the keyspace of its regular statements
+         *
+         * @param execution the captured execution
+         * @param statement the statement rebuilt from it
+         * @return the future result
+         */
+        ResultSetFuture executeAsync(CapturedExecution execution, Statement statement) {
+            Session keyspaceSession = keyspaceSessions.get(regularKeyspace(execution));
+            return keyspaceSession != null ? keyspaceSession.executeAsync(statement) : session.executeAsync(statement);
+        }
+
+        @Override
+        public void close() {
+            keyspaceSessions.values().forEach(Session::close);
+        }
+
+        private Statement single(CapturedExecution execution) {
+            CapturedStatement captured = execution.getStatement();
+            String key = key(captured);
+
+            List<ByteBuffer> values = execution.getValues();
+            if (values == null) {
+                values = lastValues.get(key);
+                if (values == null) {
+                    return null;
+                }
+            } else {
+                lastValues.put(key, values);
+            }
+
+            if (!captured.isPrepared()) {
+                if (USE.matcher(captured.getQuery()).find()) {
+                    return null;
+                }
+                SimpleStatement simple = values.isEmpty() ? new SimpleStatement(captured.getQuery())
+                        : new SimpleStatement(captured.getQuery(), values.toArray());
+                return simple.setKeyspace(captured.getKeyspace());
+            }
+
+            PreparedStatement preparedStatement = prepared.get(key);
+            if (preparedStatement == null || preparedStatement.getVariables().size() != values.size()) {
+                return null;
+            }
+            BoundStatement bound = preparedStatement.bind();
+            for (int i = 0; i < values.size(); i++) {
+                bound.setBytesUnsafe(i, values.get(i));
+            }
+            return bound;
+        }
+
+        private String regularKeyspace(CapturedExecution execution) {
+            if (!execution.isBatch()) {
+                return execution.getStatement().isPrepared() ? null : execution.getStatement().getKeyspace();
+            }
+            for (CapturedExecution child : execution.getBatch()) {
+                String keyspace = regularKeyspace(child);
+                if (keyspace != null) {
+                    return keyspace;
+                }
+            }
+            return null;
+        }
+
+        private static String key(CapturedStatement captured) {
+            return captured.getKeyspace() + "/" + captured.getQuery();
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.englishtown.vertx.cassandra.benchmarks.load;
+
+import com.englishtown.vertx.cassandra.stub.Latency;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LoadGenerator} and the scheduling of {@link LoadGeneratorVerticle}, against a stand-in node
+ */
+public class LoadGeneratorTest {
+
+    private static final int RATE = 200;
+    private static final int DURATION_SECONDS = 2;
+    private static final long SERVICE_MICROS = 2000;
+    private static final long STALL_MICROS = 500000;
+
+    private LoadOptions options(LoadOptions.Mode mode, int concurrency) {
+        return new LoadOptions()
+                .setMode(mode)
+                .setRate(RATE)
+                .setConcurrency(concurrency)
+                .setWarmupSeconds(1)
+                .setDurationSeconds(DURATION_SECONDS)
+                .setReadRatio(1)
+                .setKeyCount(100)
+                .setValueSize(10)
+                .setStubNodes(1);
+    }
+
+    private Latency fixed() {
+        return Latency.fixed(SERVICE_MICROS, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Holds every response from the given response on until the stall is over, like a node in a GC pause.  The
+     * responses to the session setup come first, so a stall after a few hundred responses falls after the warmup.
+     */
+    private Latency stallAfter(int responses) {
+        AtomicInteger count = new AtomicInteger();
+        AtomicLong stallEnd = new AtomicLong();
+        long serviceNanos = TimeUnit.MICROSECONDS.toNanos(SERVICE_MICROS);
+        return () -> {
+            if (count.incrementAndGet() == responses) {
+                stallEnd.set(System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(STALL_MICROS));
+            }
+            return Math.max(serviceNanos, stallEnd.get() - System.nanoTime());
+        };
+    }
+
+    private void assertResponseNotBelowService(LoadResult.Stats stats) {
+        for (double percentile : new double[]{50, 90, 99, 100}) {
+            long response = stats.getResponseTime().getValueAtPercentile(percentile);
+            long service = stats.getServiceTime().getValueAtPercentile(percentile);
+            assertTrue("p" + percentile + " response " + response + " < service " + service, response >= service);
+        }
+    }
+
+    @Test
+    public void testRun_Open() throws Exception {
+
+        LoadResult result = LoadGenerator.run(new JsonObject(), options(LoadOptions.Mode.OPEN, 64), fixed());
+        LoadResult.Stats reads = result.getReads();
+
+        // Requests are counted by scheduled start, so the count follows the schedule
+        assertEquals(RATE * DURATION_SECONDS, reads.getCount(), RATE * DURATION_SECONDS * 0.02);
+        assertEquals(0, result.getWrites().getCount());
+        assertEquals(0, reads.getErrors());
+        assertEquals(RATE, result.getThroughput(), RATE * 0.02);
+
+        assertTrue(reads.getServiceTime().getValueAtPercentile(50) >= SERVICE_MICROS);
+        assertResponseNotBelowService(reads);
+
+    }
+
+    @Test
+    public void testRun_Closed() throws Exception {
+
+        LoadResult result = LoadGenerator.run(new JsonObject(), options(LoadOptions.Mode.CLOSED, 4), fixed());
+        LoadResult.Stats reads = result.getReads();
+
+        // Each slot keeps its interval as the service time is shorter
+        assertEquals(RATE * DURATION_SECONDS, reads.getCount(), RATE * DURATION_SECONDS * 0.05);
+        assertEquals(0, reads.getErrors());
+        assertResponseNotBelowService(reads);
+
+    }
+
+    @Test
+    public void testRun_Closed_Stall() throws Exception {
+
+        LoadResult baseline = LoadGenerator.run(new JsonObject(), options(LoadOptions.Mode.CLOSED, 4), fixed());
+        LoadResult stalled = LoadGenerator.run(new JsonObject(), options(LoadOptions.Mode.CLOSED, 4), stallAfter(300));
+
+        Histogram baselineResponse = baseline.getReads().getResponseTime();
+        Histogram response = stalled.getReads().getResponseTime();
+        Histogram service = stalled.getReads().getServiceTime();
+        assertResponseNotBelowService(stalled.getReads());
+
+        // Only the requests in flight saw the stall, but every request scheduled during it started late
+        assertTrue(response.getMaxValue() >= STALL_MICROS * 8 / 10);
+        assertTrue(response.getValueAtPercentile(95) >= STALL_MICROS / 5);
+        assertTrue(service.getValueAtPercentile(95) < STALL_MICROS / 5);
+        assertTrue(baselineResponse.getValueAtPercentile(95) < STALL_MICROS / 5);
+
+    }
+
+}
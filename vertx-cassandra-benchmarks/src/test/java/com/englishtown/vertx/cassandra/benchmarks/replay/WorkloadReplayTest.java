@@ -0,0 +1,108 @@
+package com.englishtown.vertx.cassandra.benchmarks.replay;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.PreparedStatement;
+import com.englishtown.vertx.cassandra.capture.CaptureOptions;
+import com.englishtown.vertx.cassandra.mapping.impl.DefaultCassandraSession;
+import com.englishtown.vertx.cassandra.mapping.impl.JsonCassandraConfigurator;
+import com.englishtown.vertx.cassandra.stub.ReceivedRequest;
+import com.englishtown.vertx.cassandra.stub.StubCassandra;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link WorkloadReplay}, against a stand-in node
+ */
+public class WorkloadReplayTest {
+
+    StubCassandra stub;
+    Vertx vertx;
+    JsonObject config;
+    File file;
+
+    @Before
+    public void setUp() throws Exception {
+        stub = new StubCassandra(1).start();
+        String[] columns = {"key", "value"};
+        DataType[] types = {DataType.text(), DataType.text()};
+        stub.table("ks1", "t1", columns, types);
+        stub.table("ks2", "t2", columns, types);
+
+        JsonArray seeds = new JsonArray();
+        for (InetAddress address : stub.getContactPoints()) {
+            seeds.add(address.getHostAddress());
+        }
+        config = new JsonObject().put(JsonCassandraConfigurator.CONFIG_SEEDS, seeds);
+        vertx = Vertx.vertx();
+        file = File.createTempFile("capture", ".bin");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        vertx.close();
+        stub.stop();
+        file.delete();
+    }
+
+    @Test
+    public void testReplay_Keyspaces() throws Exception {
+
+        DefaultCassandraSession session = new DefaultCassandraSession(stub.clusterBuilder(),
+                new JsonCassandraConfigurator(config), vertx);
+        try {
+            session.getCapture().setOptions(new CaptureOptions().setFile(file.getPath()).setValueSampleRate(1));
+            session.execute("USE ks1");
+            PreparedStatement prepared = session.prepare("SELECT value FROM t1 WHERE key = ?");
+            for (int i = 0; i < 3; i++) {
+                session.execute(prepared.bind("p" + i));
+            }
+            session.execute("SELECT value FROM t1 WHERE key = ?", "a");
+            session.execute("SELECT key FROM t1 WHERE key = ?", "a");
+            session.execute("USE ks2");
+            session.execute("SELECT value FROM t2 WHERE key = ?", "b");
+            session.getCapture().close().get();
+        } finally {
+            session.close();
+        }
+        stub.clearRequests();
+
+        ReplayResult result = WorkloadReplay.replay("test", config, stub.clusterBuilder(), vertx,
+                new ReplayOptions().setCaptureFile(file.getPath()));
+
+        assertEquals(2, result.getSkipped());
+        assertEquals(6, result.getTotal().getCount());
+        assertEquals(0, result.getTotal().getErrors());
+
+        // Values are only typed when the unqualified table was found in the keyspace of the connection
+        assertEquals(3, requests(ReceivedRequest.Type.EXECUTE, "t1").size());
+        List<ReceivedRequest> t1 = requests(ReceivedRequest.Type.QUERY, "t1");
+        assertEquals(2, t1.size());
+        for (ReceivedRequest request : t1) {
+            assertEquals(Collections.singletonList("a"), request.getValues());
+        }
+        List<ReceivedRequest> t2 = requests(ReceivedRequest.Type.QUERY, "t2");
+        assertEquals(1, t2.size());
+        assertEquals(Collections.singletonList("b"), t2.get(0).getValues());
+
+    }
+
+    private List<ReceivedRequest> requests(ReceivedRequest.Type type, String table) {
+        return stub.getRequests().stream()
+                .filter(r -> r.getType() == type && r.getQuery().contains(" FROM " + table + " "))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.englishtown.vertx.cassandra.mapping;
+
+import com.datastax.driver.core.TableMetadata;
+import com.google.common.util.concurrent.FutureCallback;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Reads and writes the rows of a table as {@link JsonObject}s, without an entity class
+ */
+public interface JsonMapper {
+
+    TableMetadata getTable();
+
+    /**
+     * Saves the fields of a JSON object.  Every primary key column must be present, absent fields are left unchanged.
+     *
+     * @param json     the JSON row
+     * @param callback the callback for on completion
+     */
+    void saveAsync(JsonObject json, FutureCallback<Void> callback);
+
+    void deleteAsync(JsonObject json, FutureCallback<Void> callback);
+
+    void deleteAsync(FutureCallback<Void> callback, Object... primaryKey);
+
+    /**
+     * Gets a row by primary key
+     *
+     * @param callback   the callback receiving the JSON row (null if not found)
+     * @param primaryKey the partition key values followed by the clustering column values
+     */
+    void getAsync(FutureCallback<JsonObject> callback, Object... primaryKey);
+
+}
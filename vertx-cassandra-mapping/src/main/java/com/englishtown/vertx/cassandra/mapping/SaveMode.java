@@ -0,0 +1,25 @@
+package com.englishtown.vertx.cassandra.mapping;
+
+/**
+ * The columns written when saving an entity
+ */
+public enum SaveMode {
+
+    /**
+     * All mapped columns.  Null fields are written as nulls, which creates tombstones.
+     */
+    ALL,
+
+    /**
+     * Only the primary key and non-null columns, so unset fields leave the stored values alone
+     */
+    SKIP_NULLS,
+
+    /**
+     * Only the primary key and the columns changed since the entity was loaded (or last saved with this mode).  This
+     * requires dirty tracking to be enabled for the entity class; entities that were not tracked are saved like
+     * {@link #SKIP_NULLS}.  Nothing is written if no column changed.
+     */
+    DIRTY
+
+}
@@ -1,7 +1,12 @@
 package com.englishtown.vertx.cassandra.mapping;
 
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.mapping.Mapper;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCache;
 import com.google.common.util.concurrent.FutureCallback;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.List;
 
 /**
  * Vert.x wrapper over a datastax {@link Mapper}
@@ -10,12 +15,105 @@ public interface VertxMapper<T> {
 
     Mapper<T> getMapper();
 
+    /**
+     * Returns the near cache of the mapped entities
+     *
+     * @return the near cache, or null if not enabled for the entity class
+     */
+    NearCache<T> getNearCache();
+
     void saveAsync(T entity, FutureCallback<Void> callback);
 
+    /**
+     * Saves the columns of an entity selected by a save mode.  Statements are prepared once per set of columns.
+     *
+     * @param entity   the entity to save
+     * @param mode     which columns to write
+     * @param callback the callback for on completion
+     */
+    void saveAsync(T entity, SaveMode mode, FutureCallback<Void> callback);
+
+    /**
+     * Saves an entity with per call options.  The TTL and timestamp are bound to cached prepared statements.
+     *
+     * @param entity   the entity to save
+     * @param options  the TTL, timestamp, consistency and idempotence of the write
+     * @param callback the callback for on completion
+     */
+    void saveAsync(T entity, WriteOptions options, FutureCallback<Void> callback);
+
+    void saveAsync(T entity, SaveMode mode, WriteOptions options, FutureCallback<Void> callback);
+
     void deleteAsync(T entity, FutureCallback<Void> callback);
 
     void deleteAsync(FutureCallback<Void> callback, Object... primaryKey);
 
     void getAsync(FutureCallback<T> callback, Object... primaryKey);
 
+    /**
+     * Gets some columns of an entity by primary key.  The other fields of the entity are left unset, and the near
+     * cache is not used.
+     *
+     * @param columns    the columns to select
+     * @param callback   the callback receiving the partial entity (null if not found)
+     * @param primaryKey the primary key of the entity
+     */
+    void getAsync(List<String> columns, FutureCallback<T> callback, Object... primaryKey);
+
+    /**
+     * Gets the columns of an entity selected by a view class, whose fields are named after the entity columns
+     *
+     * @param viewClass  the view class
+     * @param callback   the callback receiving the view (null if not found)
+     * @param primaryKey the primary key of the entity
+     */
+    <V> void getAsync(Class<V> viewClass, FutureCallback<V> callback, Object... primaryKey);
+
+    /**
+     * Streams the entities returned by a statement.  Pages are fetched asynchronously while the stream is not paused,
+     * and rows are decoded one at a time, so large results are read with bounded memory.
+     *
+     * @param statement the statement, its fetch size sets the page size
+     * @return the entity stream, which starts the query when a handler is set
+     */
+    ReadStream<T> stream(Statement statement);
+
+    /**
+     * Streams all entities of a partition, in clustering order
+     *
+     * @param partitionKey the partition key values
+     * @return the entity stream, which starts the query when a handler is set
+     */
+    ReadStream<T> streamPartition(Object... partitionKey);
+
+    /**
+     * Saves entities with bounded concurrency.  Entities in the same partition are saved in one unlogged batch.
+     *
+     * @param entities the entities to save
+     * @param callback the callback for on completion
+     */
+    void saveAllAsync(List<T> entities, FutureCallback<Void> callback);
+
+    void saveAllAsync(List<T> entities, int maxConcurrency, FutureCallback<Void> callback);
+
+    /**
+     * Deletes entities with bounded concurrency.  Entities in the same partition are deleted in one unlogged batch.
+     *
+     * @param entities the entities to delete
+     * @param callback the callback for on completion
+     */
+    void deleteAllAsync(List<T> entities, FutureCallback<Void> callback);
+
+    void deleteAllAsync(List<T> entities, int maxConcurrency, FutureCallback<Void> callback);
+
+    /**
+     * Gets entities by primary key with bounded concurrency
+     *
+     * @param primaryKeys the primary keys
+     * @param callback    the callback receiving the entities in primary key order (null where not found)
+     */
+    void getAllAsync(List<Object[]> primaryKeys, FutureCallback<List<T>> callback);
+
+    void getAllAsync(List<Object[]> primaryKeys, int maxConcurrency, FutureCallback<List<T>> callback);
+
 }
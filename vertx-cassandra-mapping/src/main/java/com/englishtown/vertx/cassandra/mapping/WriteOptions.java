@@ -0,0 +1,74 @@
+package com.englishtown.vertx.cassandra.mapping;
+
+import com.datastax.driver.core.ConsistencyLevel;
+
+/**
+ * Per call options of an entity save.  Options left unset use the table, statement and session defaults.
+ */
+public class WriteOptions {
+
+    private Integer ttl;
+    private Long timestamp;
+    private ConsistencyLevel consistency;
+    private Boolean idempotent;
+
+    /**
+     * The time to live of the written columns
+     *
+     * @return the TTL in seconds, or null to use the table default
+     */
+    public Integer getTtl() {
+        return ttl;
+    }
+
+    public WriteOptions setTtl(Integer ttl) {
+        if (ttl != null && ttl < 0) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        this.ttl = ttl;
+        return this;
+    }
+
+    /**
+     * The write timestamp of the written columns
+     *
+     * @return the timestamp in microseconds since the epoch, or null to let cassandra assign it
+     */
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public WriteOptions setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+
+    /**
+     * The consistency level of the write
+     *
+     * @return the consistency level, or null to use the {@code @Table} write consistency
+     */
+    public ConsistencyLevel getConsistency() {
+        return consistency;
+    }
+
+    public WriteOptions setConsistency(ConsistencyLevel consistency) {
+        this.consistency = consistency;
+        return this;
+    }
+
+    /**
+     * Whether the write can safely be retried.  A write marked as not idempotent is never retried by the driver.
+     *
+     * @return the idempotence, or null to use the session retry policy
+     */
+    public Boolean getIdempotent() {
+        return idempotent;
+    }
+
+    public WriteOptions setIdempotent(Boolean idempotent) {
+        this.idempotent = idempotent;
+        return this;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.englishtown.vertx.cassandra.mapping.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores a large text or binary field LZ4 compressed in a {@code blob} column.
+ * <p>
+ * The field can be a {@code String} (stored as UTF-8), {@code byte[]} or {@code ByteBuffer}.  Values shorter than the
+ * threshold are stored uncompressed, in the same framed format, so the column must only be written through the
+ * mapping managers.  Compressed fields cannot be primary key columns.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Compressed {
+
+    /**
+     * @return the size in bytes from which values are compressed
+     */
+    int threshold() default 1024;
+
+}
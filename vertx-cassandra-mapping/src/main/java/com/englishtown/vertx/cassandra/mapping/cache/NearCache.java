@@ -0,0 +1,326 @@
+package com.englishtown.vertx.cassandra.mapping.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.utils.Bytes;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityIntrospector;
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL based near cache of the entities of one mapped class.
+ * <p>
+ * Entities are cached by primary key after a successful read.  Writes invalidate the key locally when they start and
+ * again when they complete, and publish the invalidation on the (clustered) event bus so the near caches of other
+ * verticles and nodes drop it too.  Reads that were in flight during an invalidation of their key are not cached,
+ * reads of other keys are.
+ * <p>
+ * Callers always receive their own copy of a cached entity, so changing it does not change the cache.
+ */
+public class NearCache<T> implements AutoCloseable {
+
+    public static final String ADDRESS_PREFIX = "et.vertx.cassandra.near-cache.";
+    public static final String METRIC_PREFIX = "near-cache";
+
+    private static final String FIELD_ORIGIN = "origin";
+    private static final String FIELD_KEY = "key";
+
+    private final EntityIntrospector<T> introspector;
+    private final Vertx vertx;
+    private final MetricRegistry registry;
+    private final boolean broadcast;
+    private final String address;
+    private final String origin = UUID.randomUUID().toString();
+    private final Cache<List<String>, T> cache;
+    // A token per key with a read in flight, removed when the key is invalidated
+    private final ConcurrentMap<List<String>, Object> loading = new ConcurrentHashMap<>();
+    private final MessageConsumer<JsonObject> consumer;
+
+    public NearCache(Class<T> klass, NearCacheOptions options, Vertx vertx, MetricRegistry registry) {
+        this.introspector = new EntityIntrospector<>(klass);
+        this.vertx = vertx;
+        this.registry = registry;
+        this.broadcast = options.isBroadcast();
+        this.address = ADDRESS_PREFIX + klass.getName();
+
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(options.getMaxSize())
+                .expireAfterWrite(options.getTtlMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+
+        consumer = broadcast ? vertx.eventBus().consumer(address, this::handleInvalidation) : null;
+
+        if (registry != null) {
+            registerMetrics(klass.getSimpleName());
+        }
+    }
+
+    /**
+     * Returns an entity from the cache, or loads it and caches the result
+     *
+     * @param primaryKey the entity primary key
+     * @param loader     loads the entity on a cache miss
+     * @return the future entity (null if it does not exist)
+     */
+    public ListenableFuture<T> get(Object[] primaryKey, Supplier<ListenableFuture<T>> loader) {
+
+        List<String> key = toKey(primaryKey);
+        T entity = cache.getIfPresent(key);
+        if (entity != null) {
+            return Futures.immediateFuture(introspector.copy(entity));
+        }
+
+        // A later read of the same key replaces the token, so only the latest read is cached
+        Object token = new Object();
+        loading.put(key, token);
+
+        ListenableFuture<T> future;
+        try {
+            future = loader.get();
+        } catch (RuntimeException e) {
+            loading.remove(key, token);
+            throw e;
+        }
+
+        Function<T, T> store = result -> {
+            // Don't cache a read that may have raced with a write of the same key
+            if (loading.remove(key, token) && result != null) {
+                cache.put(key, introspector.copy(result));
+            }
+            return result;
+        };
+        Futures.addCallback(future, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                loading.remove(key, token);
+            }
+        });
+
+        return Futures.transform(future, store);
+    }
+
+    /**
+     * Runs a write of an entity, invalidating the entity before and after it
+     *
+     * @param entity the entity being written
+     * @param write  starts the write
+     * @param <V>    the write result type
+     * @return the write future
+     */
+    public <V> ListenableFuture<V> write(T entity, Supplier<ListenableFuture<V>> write) {
+        return write(introspector.getPrimaryKey(entity), write);
+    }
+
+    /**
+     * Runs a write by primary key, invalidating the entity before and after it
+     *
+     * @param primaryKey the primary key of the entity being written
+     * @param write      starts the write
+     * @param <V>        the write result type
+     * @return the write future
+     */
+    public <V> ListenableFuture<V> write(Object[] primaryKey, Supplier<ListenableFuture<V>> write) {
+        return writeAll(Collections.singletonList(primaryKey), write);
+    }
+
+    /**
+     * Runs a write of several entities, invalidating them before and after it
+     *
+     * @param primaryKeys the primary keys of the entities being written
+     * @param write       starts the write
+     * @param <V>         the write result type
+     * @return the write future
+     */
+    public <V> ListenableFuture<V> writeAll(List<Object[]> primaryKeys, Supplier<ListenableFuture<V>> write) {
+
+        List<List<String>> keys = new ArrayList<>(primaryKeys.size());
+        for (Object[] primaryKey : primaryKeys) {
+            List<String> key = toKey(primaryKey);
+            keys.add(key);
+            invalidateLocal(key);
+        }
+
+        ListenableFuture<V> future = write.get();
+        Futures.addCallback(future, new FutureCallback<V>() {
+            @Override
+            public void onSuccess(V result) {
+                keys.forEach(NearCache.this::invalidate);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                // The write may still have been applied
+                keys.forEach(NearCache.this::invalidate);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Invalidates an entity here and, if enabled, in all other near caches of this entity class
+     *
+     * @param primaryKey the entity primary key
+     */
+    public void invalidate(Object... primaryKey) {
+        invalidate(toKey(primaryKey));
+    }
+
+    /**
+     * Invalidates all entities here and, if enabled, in all other near caches of this entity class
+     */
+    public void invalidateAll() {
+        loading.clear();
+        cache.invalidateAll();
+        publish(new JsonObject().put(FIELD_ORIGIN, origin));
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public EntityIntrospector<T> getIntrospector() {
+        return introspector;
+    }
+
+    @Override
+    public void close() {
+        if (consumer != null) {
+            consumer.unregister();
+        }
+        cache.invalidateAll();
+    }
+
+    private void invalidate(List<String> key) {
+        invalidateLocal(key);
+        publish(new JsonObject().put(FIELD_ORIGIN, origin).put(FIELD_KEY, new JsonArray(new ArrayList<>(key))));
+    }
+
+    private void invalidateLocal(List<String> key) {
+        loading.remove(key);
+        cache.invalidate(key);
+    }
+
+    private void publish(JsonObject message) {
+        if (broadcast) {
+            vertx.eventBus().publish(address, message);
+        }
+    }
+
+    private void handleInvalidation(Message<JsonObject> message) {
+
+        JsonObject body = message.body();
+        if (origin.equals(body.getString(FIELD_ORIGIN))) {
+            return;
+        }
+
+        JsonArray key = body.getJsonArray(FIELD_KEY);
+        if (key == null) {
+            loading.clear();
+            cache.invalidateAll();
+            return;
+        }
+
+        List<String> values = new ArrayList<>(key.size());
+        for (int i = 0; i < key.size(); i++) {
+            values.add(key.getString(i));
+        }
+        invalidateLocal(values);
+    }
+
+    /**
+     * Normalizes a primary key to strings so it can be sent over the event bus
+     */
+    private List<String> toKey(Object[] primaryKey) {
+        List<String> key = new ArrayList<>(primaryKey.length);
+        for (Object value : primaryKey) {
+            if (value instanceof Date) {
+                key.add(String.valueOf(((Date) value).getTime()));
+            } else if (value instanceof ByteBuffer) {
+                key.add(Bytes.toHexString((ByteBuffer) value));
+            } else {
+                key.add(String.valueOf(value));
+            }
+        }
+        return key;
+    }
+
+    private void registerMetrics(String entity) {
+
+        String name = MetricRegistry.name(METRIC_PREFIX, entity, "hits");
+        registry.remove(name);
+        registry.register(name, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.stats().hitCount();
+            }
+        });
+
+        name = MetricRegistry.name(METRIC_PREFIX, entity, "misses");
+        registry.remove(name);
+        registry.register(name, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.stats().missCount();
+            }
+        });
+
+        name = MetricRegistry.name(METRIC_PREFIX, entity, "hit-ratio");
+        registry.remove(name);
+        registry.register(name, new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return cache.stats().hitRate();
+            }
+        });
+
+        name = MetricRegistry.name(METRIC_PREFIX, entity, "evictions");
+        registry.remove(name);
+        registry.register(name, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.stats().evictionCount();
+            }
+        });
+
+        name = MetricRegistry.name(METRIC_PREFIX, entity, "entries");
+        registry.remove(name);
+        registry.register(name, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.size();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.englishtown.vertx.cassandra.mapping.cache;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for an entity {@link NearCache}
+ */
+public class NearCacheOptions {
+
+    public static final long DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_TTL_MILLIS = 60000;
+
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private long ttlMillis = DEFAULT_TTL_MILLIS;
+    private boolean broadcast = true;
+
+    public NearCacheOptions() {
+    }
+
+    public NearCacheOptions(JsonObject json) {
+        setMaxSize(json.getLong("max_size", DEFAULT_MAX_SIZE));
+        setTtlMillis(json.getLong("ttl_millis", DEFAULT_TTL_MILLIS));
+        setBroadcast(json.getBoolean("broadcast", true));
+    }
+
+    /**
+     * The maximum number of cached entities before the least recently used are evicted
+     *
+     * @return the max number of entities
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public NearCacheOptions setMaxSize(long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("max_size must be greater than 0");
+        }
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * How long a cached entity is served after it was read from cassandra
+     *
+     * @return the time to live in milliseconds
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public NearCacheOptions setTtlMillis(long ttlMillis) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttl_millis must be greater than 0");
+        }
+        this.ttlMillis = ttlMillis;
+        return this;
+    }
+
+    /**
+     * Whether invalidations are published on the event bus to the near caches of other verticles and cluster nodes
+     *
+     * @return true to broadcast invalidations
+     */
+    public boolean isBroadcast() {
+        return broadcast;
+    }
+
+    public NearCacheOptions setBroadcast(boolean broadcast) {
+        this.broadcast = broadcast;
+        return this;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.englishtown.vertx.cassandra.mapping.codec;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityOperations;
+import com.englishtown.vertx.cassandra.mapping.impl.PreparedQuery;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * {@link EntityOperations} of a generated {@link EntityCodec}.  Statements are prepared once, on first use.
+ */
+public class CodecEntityOperations<T> implements EntityOperations<T> {
+
+    private static final Function<ResultSet, Void> TO_VOID = input -> null;
+
+    private final EntityCodec<T> codec;
+    private final Function<ResultSet, T> decode;
+    private final PreparedQuery select;
+    private final PreparedQuery insert;
+    private final PreparedQuery delete;
+
+    public CodecEntityOperations(EntityCodec<T> codec, Session session) {
+        this.codec = codec;
+        this.select = new PreparedQuery(session, codec.getSelectQuery());
+        this.insert = new PreparedQuery(session, codec.getInsertQuery());
+        this.delete = new PreparedQuery(session, codec.getDeleteQuery());
+        this.decode = rs -> {
+            Row row = rs.one();
+            return row == null ? null : codec.decode(row);
+        };
+    }
+
+    public EntityCodec<T> getCodec() {
+        return codec;
+    }
+
+    @Override
+    public ListenableFuture<Void> saveAsync(T entity) {
+        return execute(insert, codec.getWriteConsistency(), ps -> codec.bindInsert(ps, entity), TO_VOID);
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(T entity) {
+        return deleteAsync(codec.getPrimaryKey(entity));
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(Object... primaryKey) {
+        return execute(delete, codec.getWriteConsistency(), ps -> ps.bind(primaryKey), TO_VOID);
+    }
+
+    @Override
+    public ListenableFuture<T> getAsync(Object... primaryKey) {
+        return execute(select, codec.getReadConsistency(), ps -> ps.bind(primaryKey), decode);
+    }
+
+    private <V> ListenableFuture<V> execute(
+            PreparedQuery prepared,
+            ConsistencyLevel consistency,
+            java.util.function.Function<PreparedStatement, BoundStatement> binder,
+            Function<ResultSet, V> result) {
+
+        return Futures.transform(prepared.execute(binder, consistency), result);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.englishtown.vertx.cassandra.mapping.codec;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+
+/**
+ * Maps one {@link com.datastax.driver.mapping.annotations.Table} entity class to and from cassandra without
+ * reflection.
+ * <p>
+ * Implementations are generated at build time by the {@link com.englishtown.vertx.cassandra.mapping.codec.processor.EntityCodecProcessor}
+ * and call the entity getters and setters directly.  Columns are always selected and inserted in the same order, so
+ * their indices are resolved when the codec is generated.
+ */
+public interface EntityCodec<T> {
+
+    /**
+     * @return the mapped entity class
+     */
+    Class<T> getEntityClass();
+
+    /**
+     * @return the mapped column names, in the order they are selected and inserted
+     */
+    String[] getColumns();
+
+    /**
+     * @return the CQL selecting all mapped columns of an entity by primary key
+     */
+    String getSelectQuery();
+
+    /**
+     * @return the CQL inserting all mapped columns of an entity
+     */
+    String getInsertQuery();
+
+    /**
+     * @return the CQL deleting an entity by primary key
+     */
+    String getDeleteQuery();
+
+    /**
+     * @return the read consistency of the {@code @Table} annotation, or null if not set
+     */
+    ConsistencyLevel getReadConsistency();
+
+    /**
+     * @return the write consistency of the {@code @Table} annotation, or null if not set
+     */
+    ConsistencyLevel getWriteConsistency();
+
+    /**
+     * Creates an entity from a row of the {@link #getSelectQuery()} result
+     *
+     * @param row the row
+     * @return the entity
+     */
+    T decode(Row row);
+
+    /**
+     * Creates an entity from a row of any query.  Columns the query did not select are left unset.
+     *
+     * @param row     the row
+     * @param indices for each column of {@link #getColumns()}, its index in the row or -1 if not selected
+     * @return the entity
+     */
+    T decode(Row row, int[] indices);
+
+    /**
+     * Binds all mapped columns of an entity to the prepared {@link #getInsertQuery()}
+     *
+     * @param insert the prepared insert statement
+     * @param entity the entity
+     * @return the bound statement
+     */
+    BoundStatement bindInsert(PreparedStatement insert, T entity);
+
+    /**
+     * Returns the primary key of an entity, partition key columns first then clustering columns
+     *
+     * @param entity the entity
+     * @return the primary key values
+     */
+    Object[] getPrimaryKey(T entity);
+
+}
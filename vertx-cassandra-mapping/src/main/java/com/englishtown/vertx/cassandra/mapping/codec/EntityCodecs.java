@@ -0,0 +1,50 @@
+package com.englishtown.vertx.cassandra.mapping.codec;
+
+/**
+ * Locates the generated {@link EntityCodec} of an entity class
+ */
+public final class EntityCodecs {
+
+    public static final String CODEC_SUFFIX = "_Codec";
+
+    private EntityCodecs() {
+    }
+
+    /**
+     * Returns the generated codec of an entity class
+     *
+     * @param klass the entity class
+     * @param <T>   the entity type
+     * @return the codec, or null if none was generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityCodec<T> find(Class<T> klass) {
+
+        Class<?> codecClass;
+        try {
+            codecClass = Class.forName(getCodecClassName(klass.getName()), true, klass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+
+        try {
+            return (EntityCodec<T>) codecClass.newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Could not create entity codec " + codecClass.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the name of the codec class generated for an entity class.  Codecs are top level classes in the entity
+     * package, so the names of nested entity classes are flattened.
+     *
+     * @param binaryName the binary name of the entity class
+     * @return the codec class name
+     */
+    public static String getCodecClassName(String binaryName) {
+        int i = binaryName.lastIndexOf('.');
+        String packagePrefix = binaryName.substring(0, i + 1);
+        return packagePrefix + binaryName.substring(i + 1).replace('$', '_') + CODEC_SUFFIX;
+    }
+
+}
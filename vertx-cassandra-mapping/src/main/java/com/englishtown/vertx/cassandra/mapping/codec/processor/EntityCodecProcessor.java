@@ -0,0 +1,185 @@
+package com.englishtown.vertx.cassandra.mapping.codec.processor;
+
+import com.datastax.driver.mapping.annotations.Table;
+import com.englishtown.vertx.cassandra.mapping.codec.EntityCodec;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor generating an {@link EntityCodec} for each {@link Table} entity.
+ * <p>
+ * The processor is registered as a service, so it runs whenever this module is on the compile classpath.  Entities
+ * that cannot be mapped without reflection (unsupported column types, missing getters or setters, etc.) are reported
+ * as a note and keep using the datastax {@link com.datastax.driver.mapping.Mapper}.
+ */
+@SupportedAnnotationTypes("com.datastax.driver.mapping.annotations.Table")
+public class EntityCodecProcessor extends AbstractProcessor {
+
+    private static final String ROW = "com.datastax.driver.core.Row";
+    private static final String BOUND_STATEMENT = "com.datastax.driver.core.BoundStatement";
+    private static final String PREPARED_STATEMENT = "com.datastax.driver.core.PreparedStatement";
+    private static final String CONSISTENCY_LEVEL = "com.datastax.driver.core.ConsistencyLevel";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+
+            EntityModel model;
+            try {
+                model = new EntityModel((TypeElement) element, processingEnv.getElementUtils());
+            } catch (IllegalArgumentException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "No entity codec generated, using the reflective mapper: " + e.getMessage(), element);
+                continue;
+            }
+
+            try {
+                write(model, element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write entity codec: " + e.getMessage(), element);
+            }
+        }
+
+        // @Table is left for other processors
+        return false;
+    }
+
+    private void write(EntityModel model, Element element) throws IOException {
+
+        String name = model.packageName.isEmpty() ? model.codecName : model.packageName + "." + model.codecName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(name, element);
+
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+
+            String entity = model.entityName;
+
+            out.println("// Generated by " + getClass().getName() + ", do not edit");
+            if (!model.packageName.isEmpty()) {
+                out.println("package " + model.packageName + ";");
+            }
+            out.println();
+            out.println("public final class " + model.codecName + " implements " + EntityCodec.class.getName() + "<" + entity + "> {");
+            out.println();
+
+            method(out, "Class<" + entity + "> getEntityClass()", "return " + entity + ".class;");
+            StringBuilder columns = new StringBuilder();
+            for (EntityModel.Property p : model.properties) {
+                columns.append(columns.length() == 0 ? "" : ", ").append(literal(p.column));
+            }
+            method(out, "String[] getColumns()", "return new String[]{" + columns + "};");
+            method(out, "String getSelectQuery()", "return " + literal(model.getSelectQuery()) + ";");
+            method(out, "String getInsertQuery()", "return " + literal(model.getInsertQuery()) + ";");
+            method(out, "String getDeleteQuery()", "return " + literal(model.getDeleteQuery()) + ";");
+            method(out, CONSISTENCY_LEVEL + " getReadConsistency()", "return " + consistency(model.readConsistency) + ";");
+            method(out, CONSISTENCY_LEVEL + " getWriteConsistency()", "return " + consistency(model.writeConsistency) + ";");
+
+            out.println("    @Override");
+            out.println("    public " + entity + " decode(" + ROW + " row) {");
+            out.println("        " + entity + " entity = new " + entity + "();");
+            List<EntityModel.Property> properties = model.properties;
+            for (int i = 0; i < properties.size(); i++) {
+                EntityModel.Property p = properties.get(i);
+                out.println("        entity." + p.setter + "(" + decode(p, String.valueOf(i)) + ");");
+            }
+            out.println("        return entity;");
+            out.println("    }");
+            out.println();
+
+            out.println("    @Override");
+            out.println("    public " + entity + " decode(" + ROW + " row, int[] indices) {");
+            out.println("        " + entity + " entity = new " + entity + "();");
+            out.println("        int i;");
+            for (int i = 0; i < properties.size(); i++) {
+                EntityModel.Property p = properties.get(i);
+                out.println("        if ((i = indices[" + i + "]) >= 0) {");
+                out.println("            entity." + p.setter + "(" + decode(p, "i") + ");");
+                out.println("        }");
+            }
+            out.println("        return entity;");
+            out.println("    }");
+            out.println();
+
+            out.println("    @Override");
+            out.println("    public " + BOUND_STATEMENT + " bindInsert(" + PREPARED_STATEMENT + " insert, " + entity + " entity) {");
+            out.println("        " + BOUND_STATEMENT + " statement = insert.bind();");
+            for (int i = 0; i < properties.size(); i++) {
+                EntityModel.Property p = properties.get(i);
+                if (p.primitive) {
+                    out.println("        statement.set" + p.accessor + "(" + i + ", entity." + p.getter + "());");
+                } else {
+                    out.println("        " + p.type + " value" + i + " = entity." + p.getter + "();");
+                    out.println("        if (value" + i + " == null) {");
+                    out.println("            statement.setBytesUnsafe(" + i + ", null);");
+                    out.println("        } else {");
+                    out.println("            statement.set" + p.accessor + "(" + i + ", value" + i + ");");
+                    out.println("        }");
+                }
+            }
+            out.println("        return statement;");
+            out.println("    }");
+            out.println();
+
+            StringBuilder primaryKey = new StringBuilder();
+            for (EntityModel.Property p : model.primaryKey) {
+                primaryKey.append(primaryKey.length() == 0 ? "" : ", ").append("entity.").append(p.getter).append("()");
+            }
+            out.println("    @Override");
+            out.println("    public Object[] getPrimaryKey(" + entity + " entity) {");
+            out.println("        return new Object[]{" + primaryKey + "};");
+            out.println("    }");
+            out.println();
+
+            out.println("}");
+        }
+    }
+
+    private static void method(PrintWriter out, String signature, String body) {
+        out.println("    @Override");
+        out.println("    public " + signature + " {");
+        out.println("        " + body);
+        out.println("    }");
+        out.println();
+    }
+
+    private static String decode(EntityModel.Property p, String index) {
+
+        StringBuilder args = new StringBuilder(index);
+        for (String argument : p.typeArguments) {
+            args.append(", ").append(argument).append(".class");
+        }
+
+        String get = "row.get" + p.accessor + "(" + args + ")";
+        return p.boxed ? "row.isNull(" + index + ") ? null : " + get : get;
+    }
+
+    private static String consistency(Object level) {
+        return level == null ? "null" : CONSISTENCY_LEVEL + "." + level;
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+}
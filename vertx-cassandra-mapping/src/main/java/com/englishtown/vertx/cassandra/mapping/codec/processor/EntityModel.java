@@ -0,0 +1,283 @@
+package com.englishtown.vertx.cassandra.mapping.codec.processor;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.mapping.annotations.ClusteringColumn;
+import com.datastax.driver.mapping.annotations.Column;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import com.datastax.driver.mapping.annotations.Transient;
+import com.englishtown.vertx.cassandra.mapping.annotations.Compressed;
+import com.englishtown.vertx.cassandra.mapping.codec.EntityCodecs;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The mapping of one {@code @Table} entity class, resolved at build time.  Throws an
+ * {@link IllegalArgumentException} if the entity cannot be mapped without reflection.
+ */
+class EntityModel {
+
+    private static final Map<String, String> OBJECT_TYPES = new HashMap<>();
+    private static final Set<String> BOXED_TYPES = new HashSet<>();
+    private static final Map<TypeKind, String> PRIMITIVE_TYPES = new EnumMap<>(TypeKind.class);
+
+    static {
+        // Java type to row getter/bound statement setter suffix
+        OBJECT_TYPES.put("java.lang.String", "String");
+        OBJECT_TYPES.put("java.lang.Integer", "Int");
+        OBJECT_TYPES.put("java.lang.Long", "Long");
+        OBJECT_TYPES.put("java.lang.Boolean", "Bool");
+        OBJECT_TYPES.put("java.lang.Float", "Float");
+        OBJECT_TYPES.put("java.lang.Double", "Double");
+        OBJECT_TYPES.put("java.util.UUID", "UUID");
+        OBJECT_TYPES.put("java.util.Date", "Date");
+        OBJECT_TYPES.put("java.nio.ByteBuffer", "Bytes");
+        OBJECT_TYPES.put("java.math.BigDecimal", "Decimal");
+        OBJECT_TYPES.put("java.math.BigInteger", "Varint");
+        OBJECT_TYPES.put("java.net.InetAddress", "Inet");
+
+        BOXED_TYPES.addAll(Arrays.asList(
+                "java.lang.Integer", "java.lang.Long", "java.lang.Boolean", "java.lang.Float", "java.lang.Double"));
+
+        PRIMITIVE_TYPES.put(TypeKind.INT, "Int");
+        PRIMITIVE_TYPES.put(TypeKind.LONG, "Long");
+        PRIMITIVE_TYPES.put(TypeKind.BOOLEAN, "Bool");
+        PRIMITIVE_TYPES.put(TypeKind.FLOAT, "Float");
+        PRIMITIVE_TYPES.put(TypeKind.DOUBLE, "Double");
+    }
+
+    /**
+     * A mapped column and the entity property behind it
+     */
+    static class Property {
+        String column;
+        String type;
+        String accessor;
+        boolean primitive;
+        boolean boxed;
+        List<String> typeArguments = Collections.emptyList();
+        String getter;
+        String setter;
+        int partitionKey = -1;
+        int clusteringColumn = -1;
+    }
+
+    final String packageName;
+    final String entityName;
+    final String codecName;
+    final String table;
+    final ConsistencyLevel readConsistency;
+    final ConsistencyLevel writeConsistency;
+    final List<Property> properties = new ArrayList<>();
+    final List<Property> primaryKey;
+
+    EntityModel(TypeElement type, Elements elements) {
+
+        checkInstantiable(type);
+
+        Table annotation = type.getAnnotation(Table.class);
+        String keyspace = quote(annotation.keyspace(), annotation.caseSensitiveKeyspace());
+        String name = quote(annotation.name(), annotation.caseSensitiveTable());
+
+        packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        entityName = type.getQualifiedName().toString();
+        String codecClassName = EntityCodecs.getCodecClassName(elements.getBinaryName(type).toString());
+        codecName = codecClassName.substring(codecClassName.lastIndexOf('.') + 1);
+        table = keyspace.isEmpty() ? name : keyspace + "." + name;
+        readConsistency = consistency(annotation.readConsistency());
+        writeConsistency = consistency(annotation.writeConsistency());
+
+        List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(type));
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC) || field.getAnnotation(Transient.class) != null) {
+                continue;
+            }
+            if (field.getAnnotation(Compressed.class) != null) {
+                throw new IllegalArgumentException("field " + field.getSimpleName() + " is @Compressed");
+            }
+            properties.add(property(field, methods));
+        }
+
+        List<Property> partitionKeys = properties.stream()
+                .filter(p -> p.partitionKey >= 0)
+                .sorted(Comparator.comparingInt(p -> p.partitionKey))
+                .collect(Collectors.toList());
+        if (partitionKeys.isEmpty()) {
+            throw new IllegalArgumentException("no @PartitionKey field");
+        }
+
+        primaryKey = new ArrayList<>(partitionKeys);
+        properties.stream()
+                .filter(p -> p.clusteringColumn >= 0)
+                .sorted(Comparator.comparingInt(p -> p.clusteringColumn))
+                .forEach(primaryKey::add);
+    }
+
+    String getSelectQuery() {
+        return "SELECT " + columns() + " FROM " + table + " WHERE " + primaryKeyRestriction();
+    }
+
+    String getInsertQuery() {
+        String markers = properties.stream().map(p -> "?").collect(Collectors.joining(","));
+        return "INSERT INTO " + table + " (" + columns() + ") VALUES (" + markers + ")";
+    }
+
+    String getDeleteQuery() {
+        return "DELETE FROM " + table + " WHERE " + primaryKeyRestriction();
+    }
+
+    private String columns() {
+        return properties.stream().map(p -> p.column).collect(Collectors.joining(","));
+    }
+
+    private String primaryKeyRestriction() {
+        return primaryKey.stream().map(p -> p.column + "=?").collect(Collectors.joining(" AND "));
+    }
+
+    private static void checkInstantiable(TypeElement type) {
+
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new IllegalArgumentException("class is abstract");
+        }
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new IllegalArgumentException("class is not visible to its package");
+            }
+            if (e.getEnclosingElement() instanceof TypeElement && !e.getModifiers().contains(Modifier.STATIC)) {
+                throw new IllegalArgumentException("class is an inner class");
+            }
+        }
+
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        boolean noArg = constructors.stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!noArg) {
+            throw new IllegalArgumentException("no accessible no-arg constructor");
+        }
+    }
+
+    private static Property property(VariableElement field, List<ExecutableElement> methods) {
+
+        Property property = new Property();
+        String name = field.getSimpleName().toString();
+        TypeMirror type = field.asType();
+
+        Column column = field.getAnnotation(Column.class);
+        property.column = column != null && !column.name().isEmpty() ? column.name() : name;
+        property.type = type.toString();
+
+        PartitionKey partitionKey = field.getAnnotation(PartitionKey.class);
+        if (partitionKey != null) {
+            property.partitionKey = partitionKey.value();
+        }
+        ClusteringColumn clusteringColumn = field.getAnnotation(ClusteringColumn.class);
+        if (clusteringColumn != null) {
+            property.clusteringColumn = clusteringColumn.value();
+        }
+
+        resolveType(property, name, type);
+
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        property.getter = findGetter(methods, type.getKind() == TypeKind.BOOLEAN
+                ? Arrays.asList("is" + capitalized, "get" + capitalized)
+                : Collections.singletonList("get" + capitalized));
+        property.setter = findSetter(methods, "set" + capitalized);
+
+        if (property.getter == null || property.setter == null) {
+            throw new IllegalArgumentException("field " + name + " has no accessible getter and setter");
+        }
+
+        return property;
+    }
+
+    private static void resolveType(Property property, String name, TypeMirror type) {
+
+        String primitive = PRIMITIVE_TYPES.get(type.getKind());
+        if (primitive != null) {
+            property.accessor = primitive;
+            property.primitive = true;
+            return;
+        }
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            throw new IllegalArgumentException("field " + name + " has unsupported type " + type);
+        }
+
+        DeclaredType declared = (DeclaredType) type;
+        String erasure = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+
+        String accessor = OBJECT_TYPES.get(erasure);
+        if (accessor != null) {
+            property.accessor = accessor;
+            property.boxed = BOXED_TYPES.contains(erasure);
+            return;
+        }
+
+        switch (erasure) {
+            case "java.util.List":
+                property.accessor = "List";
+                break;
+            case "java.util.Set":
+                property.accessor = "Set";
+                break;
+            case "java.util.Map":
+                property.accessor = "Map";
+                break;
+            default:
+                throw new IllegalArgumentException("field " + name + " has unsupported type " + type);
+        }
+
+        property.typeArguments = new ArrayList<>();
+        for (TypeMirror argument : declared.getTypeArguments()) {
+            String argumentType = argument.toString();
+            if (argument.getKind() != TypeKind.DECLARED || !OBJECT_TYPES.containsKey(argumentType)) {
+                throw new IllegalArgumentException("field " + name + " has unsupported type " + type);
+            }
+            property.typeArguments.add(argumentType);
+        }
+        if (property.typeArguments.isEmpty()) {
+            throw new IllegalArgumentException("field " + name + " has a raw collection type");
+        }
+    }
+
+    private static String findGetter(List<ExecutableElement> methods, List<String> names) {
+        for (String name : names) {
+            for (ExecutableElement method : methods) {
+                if (isAccessible(method) && method.getSimpleName().contentEquals(name) && method.getParameters().isEmpty()) {
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String findSetter(List<ExecutableElement> methods, String name) {
+        for (ExecutableElement method : methods) {
+            if (isAccessible(method) && method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAccessible(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        return !modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.STATIC);
+    }
+
+    private static ConsistencyLevel consistency(String name) {
+        return name.isEmpty() ? null : ConsistencyLevel.valueOf(name.toUpperCase());
+    }
+
+    private static String quote(String name, boolean caseSensitive) {
+        return caseSensitive && !name.isEmpty() ? "\"" + name + "\"" : name;
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.englishtown.vertx.cassandra.mapping.compression;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts the values of a {@link com.englishtown.vertx.cassandra.mapping.annotations.Compressed} field to and from
+ * a framed blob.
+ * <p>
+ * The first byte of the blob is the format: {@code 0} is followed by the raw value, {@code 1} by the 4 byte length of
+ * the raw value and its LZ4 block.  Values below the threshold, or that do not get smaller, are stored raw.
+ * <p>
+ * The compression ratio (stored size in percent of the raw size, for values above the threshold) and the compress and
+ * decompress times are recorded, and can be reported with {@link #registerMetrics(MetricRegistry, String)}.
+ */
+public class CompressedValueCodec {
+
+    public static final byte FORMAT_RAW = 0;
+    public static final byte FORMAT_LZ4 = 1;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final int threshold;
+    private final Class<?> type;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+    private final Histogram ratio = new Histogram(new ExponentiallyDecayingReservoir());
+    private final Timer compressTime = new Timer();
+    private final Timer decompressTime = new Timer();
+
+    /**
+     * @param threshold the size in bytes from which values are compressed
+     * @param type      the field type, {@code String}, {@code byte[]} or {@code ByteBuffer}
+     */
+    public CompressedValueCodec(int threshold, Class<?> type) {
+        if (type != String.class && type != byte[].class && type != ByteBuffer.class) {
+            throw new IllegalArgumentException("Compressed values must be a String, byte[] or ByteBuffer, not " + type.getName());
+        }
+        this.threshold = threshold;
+        this.type = type;
+    }
+
+    /**
+     * Converts a field value to a framed blob
+     *
+     * @param value the field value (may be null)
+     * @return the blob, or null for null
+     */
+    public ByteBuffer encode(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        byte[] raw = toBytes(value);
+        if (raw.length >= threshold) {
+            long start = System.nanoTime();
+            byte[] framed = new byte[5 + compressor.maxCompressedLength(raw.length)];
+            int length = compressor.compress(raw, 0, raw.length, framed, 5, framed.length - 5);
+            compressTime.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (length + 4 < raw.length) {
+                ratio.update((5 + length) * 100L / raw.length);
+                framed[0] = FORMAT_LZ4;
+                ByteBuffer.wrap(framed, 1, 4).putInt(raw.length);
+                return ByteBuffer.wrap(framed, 0, 5 + length);
+            }
+            ratio.update(100);
+        }
+
+        ByteBuffer framed = ByteBuffer.allocate(1 + raw.length);
+        framed.put(FORMAT_RAW).put(raw).flip();
+        return framed;
+    }
+
+    /**
+     * Converts a framed blob to a field value
+     *
+     * @param blob the blob (may be null)
+     * @return the field value, or null for null
+     */
+    public Object decode(ByteBuffer blob) {
+        if (blob == null || !blob.hasRemaining()) {
+            return null;
+        }
+
+        ByteBuffer buffer = blob.duplicate();
+        byte format = buffer.get();
+        byte[] raw;
+
+        if (format == FORMAT_RAW) {
+            raw = new byte[buffer.remaining()];
+            buffer.get(raw);
+        } else if (format == FORMAT_LZ4) {
+            long start = System.nanoTime();
+            raw = new byte[buffer.getInt()];
+            byte[] compressed = new byte[buffer.remaining()];
+            buffer.get(compressed);
+            decompressor.decompress(compressed, 0, raw, 0, raw.length);
+            decompressTime.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            throw new IllegalArgumentException("Unknown compressed value format " + format);
+        }
+
+        if (type == String.class) {
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+        return type == byte[].class ? raw : ByteBuffer.wrap(raw);
+    }
+
+    /**
+     * Registers the {@code <prefix>.ratio} histogram and the {@code <prefix>.compress} and
+     * {@code <prefix>.decompress} timers, replacing existing metrics of the same names
+     *
+     * @param registry the metric registry
+     * @param prefix   the metric name prefix
+     */
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        register(registry, MetricRegistry.name(prefix, "ratio"), ratio);
+        register(registry, MetricRegistry.name(prefix, "compress"), compressTime);
+        register(registry, MetricRegistry.name(prefix, "decompress"), decompressTime);
+    }
+
+    public Histogram getRatio() {
+        return ratio;
+    }
+
+    private void register(MetricRegistry registry, String name, Metric metric) {
+        registry.remove(name);
+        registry.register(name, metric);
+    }
+
+    private byte[] toBytes(Object value) {
+        if (value instanceof String) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+}
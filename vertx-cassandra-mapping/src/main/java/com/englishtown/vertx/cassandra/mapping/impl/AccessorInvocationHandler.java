@@ -0,0 +1,248 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.*;
+import com.datastax.driver.mapping.annotations.Accessor;
+import com.datastax.driver.mapping.annotations.Query;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implements an {@link Accessor} interface whose {@link Query} methods return async results.
+ * <p>
+ * The query of every method is prepared when the accessor is created.  A method can return any type produced by one
+ * of the {@link AccessorResultAdapter}s, parameterized with {@code Void}, {@link ResultSet}, an entity class,
+ * {@link Row} or a {@code List} of entities or rows, or a {@link ReadStream} of entities or rows.  Arguments are bound
+ * to the query markers in order.
+ */
+public class AccessorInvocationHandler implements InvocationHandler {
+
+    /**
+     * Creates row mappers for the entity classes returned by accessor methods
+     */
+    @FunctionalInterface
+    public interface RowMapperFactory {
+        java.util.function.Function<Row, ?> create(Class<?> entityClass);
+    }
+
+    private enum Kind {
+        VOID, RESULT_SET, ONE, ALL, STREAM
+    }
+
+    private final Class<?> accessorClass;
+    private final Session session;
+    private final Vertx vertx;
+    private final Map<Method, AccessorMethod> methods = new HashMap<>();
+
+    /**
+     * Creates an accessor
+     *
+     * @param accessorClass the {@link Accessor} annotated interface
+     * @param session       the session
+     * @param vertx         the vert.x instance
+     * @param rowMappers    creates the row mappers of returned entities
+     * @param adapters      the supported async result types
+     * @param <T>           the accessor type
+     * @return the accessor
+     */
+    public static <T> T create(
+            Class<T> accessorClass,
+            Session session,
+            Vertx vertx,
+            RowMapperFactory rowMappers,
+            List<AccessorResultAdapter> adapters) {
+
+        AccessorInvocationHandler handler = new AccessorInvocationHandler(accessorClass, session, vertx, rowMappers, adapters);
+        Object proxy = Proxy.newProxyInstance(accessorClass.getClassLoader(), new Class<?>[]{accessorClass}, handler);
+        return accessorClass.cast(proxy);
+    }
+
+    private AccessorInvocationHandler(
+            Class<?> accessorClass,
+            Session session,
+            Vertx vertx,
+            RowMapperFactory rowMappers,
+            List<AccessorResultAdapter> adapters) {
+
+        if (!accessorClass.isInterface() || accessorClass.getAnnotation(Accessor.class) == null) {
+            throw new IllegalArgumentException(accessorClass.getName() + " is not an @Accessor annotated interface");
+        }
+
+        this.accessorClass = accessorClass;
+        this.session = session;
+        this.vertx = vertx;
+
+        for (Method method : accessorClass.getMethods()) {
+            methods.put(method, new AccessorMethod(method, rowMappers, adapters));
+        }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return accessorClass.getName() + " accessor";
+            }
+        }
+
+        return methods.get(method).invoke(args == null ? new Object[0] : args);
+    }
+
+    private class AccessorMethod {
+
+        private final PreparedQuery query;
+        private final ConsistencyLevel consistency;
+        private final int fetchSize;
+        private final boolean tracing;
+        private final Kind kind;
+        private final java.util.function.Function<Row, ?> rowMapper;
+        private final AccessorResultAdapter adapter;
+
+        private AccessorMethod(Method method, RowMapperFactory rowMappers, List<AccessorResultAdapter> adapters) {
+
+            Query annotation = method.getAnnotation(Query.class);
+            if (annotation == null) {
+                throw new IllegalArgumentException("Accessor method " + method + " is not annotated with @Query");
+            }
+
+            query = new PreparedQuery(session, annotation.value());
+            consistency = annotation.consistency().isEmpty() ? null : ConsistencyLevel.valueOf(annotation.consistency().toUpperCase());
+            fetchSize = annotation.fetchSize();
+            tracing = annotation.tracing();
+
+            Class<?> returnType = method.getReturnType();
+            Type result = getTypeArgument(method, method.getGenericReturnType());
+
+            if (returnType == ReadStream.class) {
+                adapter = null;
+                kind = Kind.STREAM;
+                rowMapper = rowMapper(method, result, rowMappers);
+            } else {
+                adapter = adapters.stream()
+                        .filter(a -> a.getResultType() == returnType)
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Accessor method " + method + " has unsupported return type"));
+
+                if (result == Void.class) {
+                    kind = Kind.VOID;
+                    rowMapper = null;
+                } else if (result == ResultSet.class) {
+                    kind = Kind.RESULT_SET;
+                    rowMapper = null;
+                } else if (result instanceof ParameterizedType && ((ParameterizedType) result).getRawType() == List.class) {
+                    kind = Kind.ALL;
+                    rowMapper = rowMapper(method, getTypeArgument(method, result), rowMappers);
+                } else {
+                    kind = Kind.ONE;
+                    rowMapper = rowMapper(method, result, rowMappers);
+                }
+            }
+
+            // Prepare now, so the first call does not wait for it
+            query.get();
+        }
+
+        private Object invoke(Object[] args) {
+
+            if (kind == Kind.STREAM) {
+                return new ResultSetReadStream<>(() -> execute(args), rowMapper, vertx);
+            }
+
+            ListenableFuture<ResultSet> future = execute(args);
+            Function<ResultSet, Object> transform;
+
+            switch (kind) {
+                case VOID:
+                    transform = rs -> null;
+                    break;
+                case RESULT_SET:
+                    transform = rs -> rs;
+                    break;
+                case ONE:
+                    transform = rs -> {
+                        Row row = rs.one();
+                        return row == null ? null : rowMapper.apply(row);
+                    };
+                    break;
+                default:
+                    transform = rs -> {
+                        List<Object> list = new ArrayList<>(rs.getAvailableWithoutFetching());
+                        for (Row row : rs) {
+                            list.add(rowMapper.apply(row));
+                        }
+                        return list;
+                    };
+                    future = fetchAll(future);
+                    break;
+            }
+
+            return adapter.adapt(Futures.transform(future, transform));
+        }
+
+        private ListenableFuture<ResultSet> execute(Object[] args) {
+
+            return query.execute(ps -> {
+                BoundStatement statement = ps.bind(args);
+                if (fetchSize > 0) {
+                    statement.setFetchSize(fetchSize);
+                }
+                if (tracing) {
+                    statement.enableTracing();
+                }
+                return statement;
+            }, consistency);
+        }
+
+    }
+
+    /**
+     * Fetches all pages of a result set asynchronously, so iterating it afterwards does not block
+     */
+    private static ListenableFuture<ResultSet> fetchAll(ListenableFuture<ResultSet> future) {
+        AsyncFunction<ResultSet, ResultSet> fetchMore = rs -> {
+            if (rs.isFullyFetched()) {
+                return Futures.immediateFuture(rs);
+            }
+            Function<Void, ResultSet> toResultSet = aVoid -> rs;
+            return fetchAll(Futures.transform(rs.fetchMoreResults(), toResultSet));
+        };
+        return Futures.transform(future, fetchMore);
+    }
+
+    private static java.util.function.Function<Row, ?> rowMapper(Method method, Type type, RowMapperFactory rowMappers) {
+        if (type == Row.class) {
+            return row -> row;
+        }
+        if (!(type instanceof Class)) {
+            throw new IllegalArgumentException("Accessor method " + method + " has unsupported result type " + type);
+        }
+        return rowMappers.create((Class<?>) type);
+    }
+
+    private static Type getTypeArgument(Method method, Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            throw new IllegalArgumentException("Accessor method " + method + " must declare its result type");
+        }
+        return ((ParameterizedType) type).getActualTypeArguments()[0];
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Converts the result of an accessor query to the async type an accessor method returns
+ */
+public interface AccessorResultAdapter {
+
+    /**
+     * @return the accessor method return type this adapter produces
+     */
+    Class<?> getResultType();
+
+    /**
+     * Converts a query result
+     *
+     * @param future the future query result
+     * @return the result to return from the accessor method
+     */
+    Object adapt(ListenableFuture<Object> future);
+
+}
@@ -0,0 +1,130 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.mapping.Mapper;
+import com.englishtown.vertx.cassandra.FutureUtils;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCache;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Bulk save, get and delete operations shared by the mapper implementations.
+ * <p>
+ * Operations run with bounded concurrency and results are returned in input order.  When the entity class is known,
+ * saves and deletes of entities in the same partition are grouped into unlogged batches, which cassandra applies as a
+ * single mutation.
+ */
+public class BulkMapperSupport<T> {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 32;
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private static final com.google.common.base.Function<Object, Void> TO_VOID = input -> null;
+
+    private final Mapper<T> mapper;
+    private final EntityOperations<T> operations;
+    private final EntityIntrospector<T> introspector;
+    private final NearCache<T> nearCache;
+
+    /**
+     * @param mapper       the datastax mapper
+     * @param introspector optional entity introspector, required to group writes by partition
+     * @param nearCache    optional near cache
+     */
+    public BulkMapperSupport(Mapper<T> mapper, EntityIntrospector<T> introspector, NearCache<T> nearCache) {
+        this(mapper, new MapperEntityOperations<>(mapper), introspector, nearCache);
+    }
+
+    /**
+     * @param mapper       the datastax mapper, used to build batched statements
+     * @param operations   the single entity operations
+     * @param introspector optional entity introspector, required to group writes by partition
+     * @param nearCache    optional near cache
+     */
+    public BulkMapperSupport(
+            Mapper<T> mapper,
+            EntityOperations<T> operations,
+            EntityIntrospector<T> introspector,
+            NearCache<T> nearCache) {
+        this.mapper = mapper;
+        this.operations = operations;
+        this.introspector = introspector != null ? introspector : nearCache != null ? nearCache.getIntrospector() : null;
+        this.nearCache = nearCache;
+    }
+
+    public ListenableFuture<Void> saveAll(List<T> entities, int maxConcurrency) {
+        return writeAll(entities, maxConcurrency, mapper::saveQuery, operations::saveAsync);
+    }
+
+    public ListenableFuture<Void> deleteAll(List<T> entities, int maxConcurrency) {
+        return writeAll(entities, maxConcurrency, mapper::deleteQuery, operations::deleteAsync);
+    }
+
+    public ListenableFuture<List<T>> getAll(List<Object[]> primaryKeys, int maxConcurrency) {
+        return FutureUtils.allAsList(primaryKeys, maxConcurrency, primaryKey -> nearCache == null
+                ? operations.getAsync(primaryKey)
+                : nearCache.get(primaryKey, () -> operations.getAsync(primaryKey)));
+    }
+
+    private ListenableFuture<Void> writeAll(
+            List<T> entities,
+            int maxConcurrency,
+            Function<T, Statement> query,
+            Function<T, ListenableFuture<Void>> single) {
+
+        List<List<T>> units = groupByPartition(entities);
+
+        ListenableFuture<List<Void>> future = FutureUtils.allAsList(units, maxConcurrency, unit -> {
+            if (nearCache == null) {
+                return write(unit, query, single);
+            }
+            List<Object[]> primaryKeys = new ArrayList<>(unit.size());
+            unit.forEach(entity -> primaryKeys.add(introspector.getPrimaryKey(entity)));
+            return nearCache.writeAll(primaryKeys, () -> write(unit, query, single));
+        });
+
+        return Futures.transform(future, TO_VOID);
+    }
+
+    private ListenableFuture<Void> write(
+            List<T> unit,
+            Function<T, Statement> query,
+            Function<T, ListenableFuture<Void>> single) {
+
+        if (unit.size() == 1) {
+            return single.apply(unit.get(0));
+        }
+
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        unit.forEach(entity -> batch.add(query.apply(entity)));
+
+        ListenableFuture<ResultSet> future = mapper.getManager().getSession().executeAsync(batch);
+        return Futures.transform(future, TO_VOID);
+    }
+
+    private List<List<T>> groupByPartition(List<T> entities) {
+
+        // Batches are built by the datastax mapper, which cannot convert @Compressed fields
+        if (introspector == null || introspector.hasCompressedColumns()) {
+            return Lists.partition(entities, 1);
+        }
+
+        Map<List<Object>, List<T>> partitions = new LinkedHashMap<>();
+        for (T entity : entities) {
+            partitions.computeIfAbsent(introspector.getPartitionKey(entity), k -> new ArrayList<>()).add(entity);
+        }
+
+        List<List<T>> units = new ArrayList<>();
+        for (List<T> partition : partitions.values()) {
+            units.addAll(Lists.partition(partition, MAX_BATCH_SIZE));
+        }
+        return units;
+    }
+
+}
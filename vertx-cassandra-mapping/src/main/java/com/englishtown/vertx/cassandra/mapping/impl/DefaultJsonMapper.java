@@ -0,0 +1,48 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.TableMetadata;
+import com.englishtown.vertx.cassandra.FutureUtils;
+import com.englishtown.vertx.cassandra.mapping.JsonMapper;
+import com.google.common.util.concurrent.FutureCallback;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Default implementation of {@link JsonMapper}
+ */
+public class DefaultJsonMapper implements JsonMapper {
+
+    private final JsonTable table;
+    private final Vertx vertx;
+
+    public DefaultJsonMapper(JsonTable table, Vertx vertx) {
+        this.table = table;
+        this.vertx = vertx;
+    }
+
+    @Override
+    public TableMetadata getTable() {
+        return table.getTable();
+    }
+
+    @Override
+    public void saveAsync(JsonObject json, FutureCallback<Void> callback) {
+        FutureUtils.addCallback(table.save(json), callback, vertx);
+    }
+
+    @Override
+    public void deleteAsync(JsonObject json, FutureCallback<Void> callback) {
+        FutureUtils.addCallback(table.delete(json), callback, vertx);
+    }
+
+    @Override
+    public void deleteAsync(FutureCallback<Void> callback, Object... primaryKey) {
+        FutureUtils.addCallback(table.delete(primaryKey), callback, vertx);
+    }
+
+    @Override
+    public void getAsync(FutureCallback<JsonObject> callback, Object... primaryKey) {
+        FutureUtils.addCallback(table.get(primaryKey), callback, vertx);
+    }
+
+}
@@ -1,11 +1,20 @@
 package com.englishtown.vertx.cassandra.mapping.impl;
 
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.mapping.Mapper;
 import com.englishtown.vertx.cassandra.FutureUtils;
+import com.englishtown.vertx.cassandra.mapping.SaveMode;
 import com.englishtown.vertx.cassandra.mapping.VertxMapper;
+import com.englishtown.vertx.cassandra.mapping.WriteOptions;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCache;
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.List;
 
 /**
  * Default implementation of {@link VertxMapper}
@@ -13,11 +22,33 @@ import io.vertx.core.Vertx;
 public class DefaultVertxMapper<T> implements VertxMapper<T> {
 
     private final Mapper<T> mapper;
+    private final EntityOperations<T> operations;
+    private final EntityIntrospector<T> introspector;
+    private EntityWriter<T> writer;
+    private ProjectionReader<T> reader;
+    private EntityStreamer<T> streamer;
     private final Vertx vertx;
+    private final NearCache<T> nearCache;
+    private final BulkMapperSupport<T> bulk;
 
     public DefaultVertxMapper(Mapper<T> mapper, Vertx vertx) {
-        this.mapper = mapper;
+        this(new MapperComponents<>(mapper), vertx);
+    }
+
+    /**
+     * @param components the datastax mapper and the optional components to use
+     * @param vertx      the vert.x instance
+     */
+    DefaultVertxMapper(MapperComponents<T> components, Vertx vertx) {
+        this.mapper = components.getMapper();
+        this.operations = components.getOperations();
+        this.writer = components.getWriter();
+        this.reader = components.getReader();
+        this.streamer = components.getStreamer();
+        this.introspector = components.getIntrospector();
         this.vertx = vertx;
+        this.nearCache = components.getNearCache();
+        this.bulk = new BulkMapperSupport<>(mapper, operations, introspector, nearCache);
     }
 
     @Override
@@ -25,27 +56,163 @@ public class DefaultVertxMapper<T> implements VertxMapper<T> {
         return mapper;
     }
 
+    @Override
+    public NearCache<T> getNearCache() {
+        return nearCache;
+    }
+
     @Override
     public void saveAsync(T entity, FutureCallback<Void> callback) {
-        ListenableFuture<Void> future = mapper.saveAsync(entity);
+        ListenableFuture<Void> future = nearCache == null
+                ? operations.saveAsync(entity)
+                : nearCache.write(entity, () -> operations.saveAsync(entity));
+        FutureUtils.addCallback(future, callback, vertx);
+    }
+
+    @Override
+    public void saveAsync(T entity, SaveMode mode, FutureCallback<Void> callback) {
+        saveAsync(entity, mode, null, callback);
+    }
+
+    @Override
+    public void saveAsync(T entity, WriteOptions options, FutureCallback<Void> callback) {
+        saveAsync(entity, SaveMode.ALL, options, callback);
+    }
+
+    @Override
+    public void saveAsync(T entity, SaveMode mode, WriteOptions options, FutureCallback<Void> callback) {
+        if (mode == SaveMode.ALL && options == null) {
+            saveAsync(entity, callback);
+            return;
+        }
+        EntityWriter<T> writer = getWriter();
+        ListenableFuture<Void> future = nearCache == null
+                ? writer.save(entity, mode, options)
+                : nearCache.write(entity, () -> writer.save(entity, mode, options));
         FutureUtils.addCallback(future, callback, vertx);
     }
 
     @Override
     public void deleteAsync(T entity, FutureCallback<Void> callback) {
-        ListenableFuture<Void> future = mapper.deleteAsync(entity);
+        ListenableFuture<Void> future = nearCache == null
+                ? operations.deleteAsync(entity)
+                : nearCache.write(entity, () -> operations.deleteAsync(entity));
         FutureUtils.addCallback(future, callback, vertx);
     }
 
     @Override
     public void deleteAsync(FutureCallback<Void> callback, Object... primaryKey) {
-        ListenableFuture<Void> future = mapper.deleteAsync(primaryKey);
+        ListenableFuture<Void> future = nearCache == null
+                ? operations.deleteAsync(primaryKey)
+                : nearCache.write(primaryKey, () -> operations.deleteAsync(primaryKey));
         FutureUtils.addCallback(future, callback, vertx);
     }
 
     @Override
     public void getAsync(FutureCallback<T> callback, Object... primaryKey) {
-        ListenableFuture<T> future = mapper.getAsync(primaryKey);
-        FutureUtils.addCallback(future, callback, vertx);
+        ListenableFuture<T> future = nearCache == null
+                ? operations.getAsync(primaryKey)
+                : nearCache.get(primaryKey, () -> operations.getAsync(primaryKey));
+        FutureUtils.addCallback(track(future), callback, vertx);
+    }
+
+    @Override
+    public void getAsync(List<String> columns, FutureCallback<T> callback, Object... primaryKey) {
+        FutureUtils.addCallback(track(getReader().get(columns, primaryKey)), callback, vertx);
+    }
+
+    @Override
+    public <V> void getAsync(Class<V> viewClass, FutureCallback<V> callback, Object... primaryKey) {
+        FutureUtils.addCallback(getReader().get(viewClass, primaryKey), callback, vertx);
+    }
+
+    @Override
+    public ReadStream<T> stream(Statement statement) {
+        return getStreamer().stream(statement, vertx);
+    }
+
+    @Override
+    public ReadStream<T> streamPartition(Object... partitionKey) {
+        return getStreamer().streamPartition(vertx, partitionKey);
     }
+
+    @Override
+    public void saveAllAsync(List<T> entities, FutureCallback<Void> callback) {
+        saveAllAsync(entities, BulkMapperSupport.DEFAULT_MAX_CONCURRENCY, callback);
+    }
+
+    @Override
+    public void saveAllAsync(List<T> entities, int maxConcurrency, FutureCallback<Void> callback) {
+        FutureUtils.addCallback(bulk.saveAll(entities, maxConcurrency), callback, vertx);
+    }
+
+    @Override
+    public void deleteAllAsync(List<T> entities, FutureCallback<Void> callback) {
+        deleteAllAsync(entities, BulkMapperSupport.DEFAULT_MAX_CONCURRENCY, callback);
+    }
+
+    @Override
+    public void deleteAllAsync(List<T> entities, int maxConcurrency, FutureCallback<Void> callback) {
+        FutureUtils.addCallback(bulk.deleteAll(entities, maxConcurrency), callback, vertx);
+    }
+
+    @Override
+    public void getAllAsync(List<Object[]> primaryKeys, FutureCallback<List<T>> callback) {
+        getAllAsync(primaryKeys, BulkMapperSupport.DEFAULT_MAX_CONCURRENCY, callback);
+    }
+
+    @Override
+    public void getAllAsync(List<Object[]> primaryKeys, int maxConcurrency, FutureCallback<List<T>> callback) {
+        FutureUtils.addCallback(trackAll(bulk.getAll(primaryKeys, maxConcurrency)), callback, vertx);
+    }
+
+    private EntityWriter<T> getWriter() {
+        if (writer == null) {
+            if (introspector == null) {
+                throw new IllegalStateException("Partial saves need the entity introspector, create the mapper with the mapping manager");
+            }
+            writer = new EntityWriter<>(introspector, mapper.getManager().getSession());
+        }
+        return writer;
+    }
+
+    private ProjectionReader<T> getReader() {
+        if (reader == null) {
+            if (introspector == null) {
+                throw new IllegalStateException("Projections need the entity introspector, create the mapper with the mapping manager");
+            }
+            reader = new ProjectionReader<>(introspector, mapper.getManager().getSession());
+        }
+        return reader;
+    }
+
+    private EntityStreamer<T> getStreamer() {
+        if (streamer == null) {
+            if (introspector == null) {
+                throw new IllegalStateException("Streams need the entity introspector, create the mapper with the mapping manager");
+            }
+            streamer = new EntityStreamer<>(introspector, mapper.getManager().getSession());
+        }
+        return streamer;
+    }
+
+    private ListenableFuture<T> track(ListenableFuture<T> future) {
+        if (writer == null || !writer.isDirtyTracking()) {
+            return future;
+        }
+        Function<T, T> track = writer::track;
+        return Futures.transform(future, track);
+    }
+
+    private ListenableFuture<List<T>> trackAll(ListenableFuture<List<T>> future) {
+        if (writer == null || !writer.isDirtyTracking()) {
+            return future;
+        }
+        Function<List<T>, List<T>> track = entities -> {
+            entities.forEach(writer::track);
+            return entities;
+        };
+        return Futures.transform(future, track);
+    }
+
 }
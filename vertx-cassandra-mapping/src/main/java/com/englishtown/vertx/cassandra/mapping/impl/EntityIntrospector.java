@@ -0,0 +1,395 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.mapping.EnumType;
+import com.datastax.driver.mapping.annotations.ClusteringColumn;
+import com.datastax.driver.mapping.annotations.Column;
+import com.datastax.driver.mapping.annotations.Enumerated;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import com.datastax.driver.mapping.annotations.Transient;
+import com.englishtown.vertx.cassandra.mapping.annotations.Compressed;
+import com.englishtown.vertx.cassandra.mapping.compression.CompressedValueCodec;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Reflection helper for mapped entities: reads primary keys and column values, sets column values and makes copies
+ */
+public class EntityIntrospector<T> {
+
+    private final Class<T> klass;
+    private final Constructor<T> constructor;
+    private final List<Field> partitionKeyFields;
+    private final List<Field> primaryKeyFields;
+    private final List<Field> fields;
+    private final List<Field> columnFields;
+    private final String[] columns;
+    private final CompressedValueCodec[] compressed;
+    private final EnumType[] enumTypes;
+    private final int[] primaryKeyColumns;
+    private final String table;
+    private final ConsistencyLevel readConsistency;
+    private final ConsistencyLevel writeConsistency;
+
+    public EntityIntrospector(Class<T> klass) {
+        this.klass = klass;
+
+        try {
+            constructor = klass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Mapped entity " + klass.getName() + " must have a no-arg constructor", e);
+        }
+
+        List<Field> partitionKeys = new ArrayList<>();
+        List<Field> clusteringColumns = new ArrayList<>();
+        fields = new ArrayList<>();
+        columnFields = new ArrayList<>();
+
+        for (Field field : klass.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            if (!Modifier.isFinal(field.getModifiers())) {
+                fields.add(field);
+                if (!field.isAnnotationPresent(Transient.class)) {
+                    columnFields.add(field);
+                }
+            }
+            if (field.isAnnotationPresent(PartitionKey.class)) {
+                partitionKeys.add(field);
+            } else if (field.isAnnotationPresent(ClusteringColumn.class)) {
+                clusteringColumns.add(field);
+            }
+        }
+
+        Table annotation = klass.getAnnotation(Table.class);
+
+        // Classes without @Table are views of a subset of an entity's columns, they need no primary key
+        if (partitionKeys.isEmpty() && annotation != null) {
+            throw new IllegalArgumentException("Mapped entity " + klass.getName() + " has no @PartitionKey");
+        }
+
+        partitionKeys.sort(Comparator.comparingInt(f -> f.getAnnotation(PartitionKey.class).value()));
+        clusteringColumns.sort(Comparator.comparingInt(f -> f.getAnnotation(ClusteringColumn.class).value()));
+
+        partitionKeyFields = partitionKeys;
+        primaryKeyFields = new ArrayList<>(partitionKeys);
+        primaryKeyFields.addAll(clusteringColumns);
+
+        columns = new String[columnFields.size()];
+        compressed = new CompressedValueCodec[columns.length];
+        enumTypes = new EnumType[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Field field = columnFields.get(i);
+            Column column = field.getAnnotation(Column.class);
+            columns[i] = column != null && !column.name().isEmpty() ? column.name() : field.getName();
+            Compressed compression = field.getAnnotation(Compressed.class);
+            if (compression != null) {
+                if (primaryKeyFields.contains(field)) {
+                    throw new IllegalArgumentException("Primary key field " + field.getName() + " of " + klass.getName() + " cannot be @Compressed");
+                }
+                compressed[i] = new CompressedValueCodec(compression.threshold(), field.getType());
+            }
+            if (field.getType().isEnum()) {
+                Enumerated enumerated = field.getAnnotation(Enumerated.class);
+                enumTypes[i] = enumerated == null ? EnumType.STRING : enumerated.value();
+            }
+        }
+
+        primaryKeyColumns = new int[primaryKeyFields.size()];
+        for (int i = 0; i < primaryKeyColumns.length; i++) {
+            primaryKeyColumns[i] = columnFields.indexOf(primaryKeyFields.get(i));
+            if (primaryKeyColumns[i] < 0) {
+                throw new IllegalArgumentException("Primary key field " + primaryKeyFields.get(i).getName() + " of "
+                        + klass.getName() + " is not a mapped column");
+            }
+        }
+
+        if (annotation != null) {
+            String name = annotation.caseSensitiveTable() ? Metadata.quote(annotation.name()) : annotation.name();
+            String keyspace = annotation.caseSensitiveKeyspace() ? Metadata.quote(annotation.keyspace()) : annotation.keyspace();
+            table = annotation.keyspace().isEmpty() ? name : keyspace + "." + name;
+            readConsistency = consistency(annotation.readConsistency());
+            writeConsistency = consistency(annotation.writeConsistency());
+        } else {
+            table = null;
+            readConsistency = null;
+            writeConsistency = null;
+        }
+    }
+
+    public Class<T> getEntityClass() {
+        return klass;
+    }
+
+    /**
+     * @return the mapped column names, in field declaration order
+     */
+    public String[] getColumns() {
+        return columns.clone();
+    }
+
+    /**
+     * @return the indices in {@link #getColumns()} of the partition key columns followed by the clustering columns
+     */
+    public int[] getPrimaryKeyColumns() {
+        return primaryKeyColumns.clone();
+    }
+
+    /**
+     * @return true if any column is {@code @Compressed}
+     */
+    public boolean hasCompressedColumns() {
+        for (CompressedValueCodec codec : compressed) {
+            if (codec != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the codecs of the {@code @Compressed} columns by column name, empty if there are none
+     */
+    public Map<String, CompressedValueCodec> getCompressedColumns() {
+        Map<String, CompressedValueCodec> codecs = new LinkedHashMap<>();
+        for (int i = 0; i < compressed.length; i++) {
+            if (compressed[i] != null) {
+                codecs.put(columns[i], compressed[i]);
+            }
+        }
+        return codecs;
+    }
+
+    /**
+     * Converts a field value to the value bound to its column, which compresses {@code @Compressed} fields and
+     * stores enum fields by name or, if {@code @Enumerated(EnumType.ORDINAL)}, by ordinal
+     *
+     * @param column the index of the column in {@link #getColumns()}
+     * @param value  the field value
+     * @return the column value
+     */
+    public Object toColumnValue(int column, Object value) {
+        if (value instanceof Enum && enumTypes[column] != null) {
+            Enum<?> constant = (Enum<?>) value;
+            return enumTypes[column] == EnumType.ORDINAL ? constant.ordinal() : constant.name();
+        }
+        CompressedValueCodec codec = compressed[column];
+        return codec == null ? value : codec.encode(value);
+    }
+
+    /**
+     * Converts primary key values, as returned by {@link #getPrimaryKey(Object)} or given by a caller, to the values
+     * bound to the primary key columns
+     *
+     * @param primaryKey the partition key values followed by the clustering column values
+     * @return the column values
+     */
+    public Object[] toPrimaryKeyValues(Object... primaryKey) {
+        Object[] values = new Object[primaryKey.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < primaryKeyColumns.length ? toColumnValue(primaryKeyColumns[i], primaryKey[i]) : primaryKey[i];
+        }
+        return values;
+    }
+
+    /**
+     * @return the indices in {@link #getColumns()} of the partition key columns
+     */
+    public int[] getPartitionKeyColumns() {
+        return Arrays.copyOf(primaryKeyColumns, partitionKeyFields.size());
+    }
+
+    /**
+     * @return the table name of the {@code @Table} annotation, qualified with the keyspace if set
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return the read consistency of the {@code @Table} annotation, or null if not set
+     */
+    public ConsistencyLevel getReadConsistency() {
+        return readConsistency;
+    }
+
+    /**
+     * @return the write consistency of the {@code @Table} annotation, or null if not set
+     */
+    public ConsistencyLevel getWriteConsistency() {
+        return writeConsistency;
+    }
+
+    /**
+     * Returns the column values of an entity
+     *
+     * @param entity the entity
+     * @return the values, in {@link #getColumns()} order
+     */
+    public Object[] getValues(T entity) {
+        Object[] values = new Object[columnFields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(columnFields.get(i), entity);
+        }
+        return values;
+    }
+
+    /**
+     * Returns a snapshot of the column values of an entity.  Collection values are copied, so later changes to the
+     * entity do not change the snapshot.
+     *
+     * @param entity the entity
+     * @return the values, in {@link #getColumns()} order
+     */
+    public Object[] snapshot(T entity) {
+        Object[] values = getValues(entity);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = copyValue(values[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Creates an empty entity
+     *
+     * @return the new entity
+     */
+    public T newInstance() {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create " + klass.getName(), e);
+        }
+    }
+
+    /**
+     * Sets a column value of an entity.  Enum fields accept the enum name or ordinal, {@code @Compressed} fields are
+     * decompressed, and null leaves primitive fields unchanged.
+     *
+     * @param entity the entity
+     * @param column the index of the column in {@link #getColumns()}
+     * @param value  the column value
+     */
+    @SuppressWarnings("unchecked")
+    public void set(T entity, int column, Object value) {
+
+        Field field = columnFields.get(column);
+        Class<?> type = field.getType();
+
+        if (compressed[column] != null && value instanceof ByteBuffer) {
+            value = compressed[column].decode((ByteBuffer) value);
+        }
+
+        if (value == null && type.isPrimitive()) {
+            return;
+        }
+        if (type.isEnum() && value != null) {
+            Object[] constants = type.getEnumConstants();
+            value = value instanceof Integer
+                    ? constants[(Integer) value]
+                    : Enum.valueOf(type.asSubclass(Enum.class), value.toString());
+        }
+
+        try {
+            field.set(entity, value);
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new IllegalStateException("Unable to set " + field.getName() + " of " + klass.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the primary key of an entity in the order expected by {@link com.datastax.driver.mapping.Mapper#get(Object...)}
+     *
+     * @param entity the entity
+     * @return the partition key values followed by the clustering column values
+     */
+    public Object[] getPrimaryKey(T entity) {
+        Object[] values = new Object[primaryKeyFields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(primaryKeyFields.get(i), entity);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the partition key of an entity, which can be used to group entities by partition
+     *
+     * @param entity the entity
+     * @return the partition key values
+     */
+    public List<Object> getPartitionKey(T entity) {
+        List<Object> values = new ArrayList<>(partitionKeyFields.size());
+        for (Field field : partitionKeyFields) {
+            values.add(get(field, entity));
+        }
+        return values;
+    }
+
+    /**
+     * Makes a copy of an entity.  Collection fields are copied as well, other values are shared.
+     *
+     * @param entity the entity to copy
+     * @return the copy
+     */
+    public T copy(T entity) {
+        if (entity == null) {
+            return null;
+        }
+        try {
+            T copy = constructor.newInstance();
+            for (Field field : fields) {
+                field.set(copy, copyValue(field.get(entity)));
+            }
+            return copy;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to copy " + klass.getName(), e);
+        }
+    }
+
+    private static ConsistencyLevel consistency(String value) {
+        return value.isEmpty() ? null : ConsistencyLevel.valueOf(value.toUpperCase());
+    }
+
+    private Object copyValue(Object value) {
+        if (value instanceof SortedSet) {
+            return new TreeSet<>((SortedSet<?>) value);
+        }
+        if (value instanceof Set) {
+            return new LinkedHashSet<>((Set<?>) value);
+        }
+        if (value instanceof List) {
+            return new ArrayList<>((List<?>) value);
+        }
+        if (value instanceof SortedMap) {
+            return new TreeMap<>((SortedMap<?, ?>) value);
+        }
+        if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<?, ?>) value);
+        }
+        if (value instanceof ByteBuffer) {
+            return ((ByteBuffer) value).duplicate();
+        }
+        if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        }
+        return value;
+    }
+
+    private Object get(Field field, T entity) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to read " + field.getName() + " of " + klass.getName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * The single entity reads and writes behind the mapper implementations
+ */
+public interface EntityOperations<T> {
+
+    ListenableFuture<Void> saveAsync(T entity);
+
+    ListenableFuture<Void> deleteAsync(T entity);
+
+    ListenableFuture<Void> deleteAsync(Object... primaryKey);
+
+    ListenableFuture<T> getAsync(Object... primaryKey);
+
+}
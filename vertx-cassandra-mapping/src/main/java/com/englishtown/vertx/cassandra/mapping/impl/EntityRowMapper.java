@@ -0,0 +1,100 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.englishtown.vertx.cassandra.mapping.codec.EntityCodec;
+import com.englishtown.vertx.cassandra.mapping.codec.EntityCodecs;
+
+import java.util.function.Function;
+
+/**
+ * Maps the rows of any query to entities by column name.
+ * <p>
+ * Column indices are resolved once per result metadata and reused for every row.  Entities with a generated
+ * {@link EntityCodec} are decoded through it, others through reflection.
+ */
+public class EntityRowMapper<T> implements Function<Row, T> {
+
+    private final EntityCodec<T> codec;
+    private final EntityIntrospector<T> introspector;
+    private final Session session;
+    private final String[] columns;
+    private volatile Indices resolved;
+    private volatile ProtocolVersion protocolVersion;
+
+    /**
+     * @param codec        optional generated codec of the entity
+     * @param introspector the entity introspector, used when there is no codec
+     * @param session      the session, used to find the protocol version when there is no codec
+     */
+    public EntityRowMapper(EntityCodec<T> codec, EntityIntrospector<T> introspector, Session session) {
+        this.codec = codec;
+        this.introspector = introspector;
+        this.session = session;
+        this.columns = codec != null ? codec.getColumns() : introspector.getColumns();
+    }
+
+    /**
+     * Creates a row mapper for an entity or view class, using its generated codec if there is one
+     *
+     * @param klass   the entity or view class
+     * @param session the session
+     * @return the row mapper
+     */
+    public static <T> EntityRowMapper<T> create(Class<T> klass, Session session) {
+        return new EntityRowMapper<>(EntityCodecs.find(klass), new EntityIntrospector<>(klass), session);
+    }
+
+    @Override
+    public T apply(Row row) {
+
+        ColumnDefinitions definitions = row.getColumnDefinitions();
+        Indices indices = resolved;
+        if (indices == null || indices.definitions != definitions) {
+            indices = new Indices(definitions, columns);
+            resolved = indices;
+        }
+
+        if (codec != null) {
+            return codec.decode(row, indices.values);
+        }
+
+        ProtocolVersion version = getProtocolVersion();
+        T entity = introspector.newInstance();
+        for (int i = 0; i < indices.values.length; i++) {
+            int index = indices.values[i];
+            if (index >= 0) {
+                Object value = definitions.getType(index).deserialize(row.getBytesUnsafe(index), version);
+                introspector.set(entity, i, value);
+            }
+        }
+        return entity;
+    }
+
+    private ProtocolVersion getProtocolVersion() {
+        ProtocolVersion version = protocolVersion;
+        if (version == null) {
+            version = session.getCluster().getConfiguration().getProtocolOptions().getProtocolVersionEnum();
+            protocolVersion = version;
+        }
+        return version;
+    }
+
+    private static class Indices {
+
+        private final ColumnDefinitions definitions;
+        private final int[] values;
+
+        private Indices(ColumnDefinitions definitions, String[] columns) {
+            this.definitions = definitions;
+            this.values = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = definitions.getIndexOf(columns[i]);
+            }
+        }
+
+    }
+
+}
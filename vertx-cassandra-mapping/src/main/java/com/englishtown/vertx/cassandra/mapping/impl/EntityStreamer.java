@@ -0,0 +1,82 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.function.Function;
+
+/**
+ * Streams the rows of multi-row queries as entities, see {@link ResultSetReadStream}.
+ * <p>
+ * The partition select is prepared once, on first use.  Rows are decoded one at a time as they are delivered, so
+ * only the current page is held in memory.
+ */
+public class EntityStreamer<T> {
+
+    private final EntityIntrospector<T> introspector;
+    private final Session session;
+    private final Function<Row, T> rowMapper;
+    private final PreparedQuery partition;
+
+    public EntityStreamer(EntityIntrospector<T> introspector, Session session) {
+        this(introspector, session, EntityRowMapper.create(introspector.getEntityClass(), session));
+    }
+
+    /**
+     * @param introspector the entity introspector
+     * @param session      the session
+     * @param rowMapper    maps rows to entities
+     */
+    public EntityStreamer(EntityIntrospector<T> introspector, Session session, Function<Row, T> rowMapper) {
+        if (introspector.getTable() == null) {
+            throw new IllegalArgumentException(introspector.getEntityClass().getName() + " has no @Table annotation");
+        }
+        this.introspector = introspector;
+        this.session = session;
+        this.rowMapper = rowMapper;
+
+        String[] columns = introspector.getColumns();
+        StringBuilder sb = new StringBuilder("SELECT ")
+                .append(String.join(",", columns))
+                .append(" FROM ")
+                .append(introspector.getTable())
+                .append(" WHERE ");
+        int[] partitionKeyColumns = introspector.getPartitionKeyColumns();
+        for (int i = 0; i < partitionKeyColumns.length; i++) {
+            if (i > 0) {
+                sb.append(" AND ");
+            }
+            sb.append(columns[partitionKeyColumns[i]]).append("=?");
+        }
+        this.partition = new PreparedQuery(session, sb.toString());
+    }
+
+    /**
+     * Streams the entities returned by a statement.  Rows are mapped by column name, so the statement can select any
+     * subset of the columns.
+     *
+     * @param statement the statement, its fetch size sets the page size
+     * @param vertx     the vert.x instance
+     * @return the entity stream, which starts the query when a handler is set
+     */
+    public ReadStream<T> stream(Statement statement, Vertx vertx) {
+        return new ResultSetReadStream<>(() -> session.executeAsync(statement), rowMapper, vertx);
+    }
+
+    /**
+     * Streams all entities of a partition, in clustering order, a page of the session fetch size at a time
+     *
+     * @param vertx        the vert.x instance
+     * @param partitionKey the partition key values
+     * @return the entity stream, which starts the query when a handler is set
+     */
+    public ReadStream<T> streamPartition(Vertx vertx, Object... partitionKey) {
+        ConsistencyLevel consistency = introspector.getReadConsistency();
+        return new ResultSetReadStream<>(() -> partition.execute(partitionKey, consistency), rowMapper, vertx);
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.policies.FallthroughRetryPolicy;
+import com.englishtown.vertx.cassandra.mapping.SaveMode;
+import com.englishtown.vertx.cassandra.mapping.WriteOptions;
+import com.google.common.base.Function;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saves the columns of an entity selected by a {@link SaveMode}.
+ * <p>
+ * One insert statement is prepared and cached per set of written columns and {@code USING} clause.  The TTL and
+ * timestamp of {@link WriteOptions} are bound to markers, so their values do not need new statements.  With dirty
+ * tracking enabled, a snapshot of each loaded entity is kept (weakly, by identity) to find the columns changed since it
+ * was loaded.
+ */
+public class EntityWriter<T> {
+
+    private static final Function<ResultSet, Void> TO_VOID = input -> null;
+
+    private final EntityIntrospector<T> introspector;
+    private final Session session;
+    private final String[] columns;
+    private final int[] primaryKeyColumns;
+    private final Map<BitSet, PreparedQuery> inserts = new ConcurrentHashMap<>();
+    private final Map<T, Object[]> snapshots = new MapMaker().weakKeys().makeMap();
+    private volatile boolean dirtyTracking;
+
+    public EntityWriter(EntityIntrospector<T> introspector, Session session) {
+        if (introspector.getTable() == null) {
+            throw new IllegalArgumentException(introspector.getEntityClass().getName() + " has no @Table annotation");
+        }
+        this.introspector = introspector;
+        this.session = session;
+        this.columns = introspector.getColumns();
+        this.primaryKeyColumns = introspector.getPrimaryKeyColumns();
+    }
+
+    public boolean isDirtyTracking() {
+        return dirtyTracking;
+    }
+
+    public EntityWriter<T> setDirtyTracking(boolean dirtyTracking) {
+        this.dirtyTracking = dirtyTracking;
+        if (!dirtyTracking) {
+            snapshots.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Records the loaded state of an entity, if dirty tracking is enabled
+     *
+     * @param entity the loaded entity (may be null)
+     * @return the entity
+     */
+    public T track(T entity) {
+        if (dirtyTracking && entity != null) {
+            snapshots.put(entity, introspector.snapshot(entity));
+        }
+        return entity;
+    }
+
+    /**
+     * Saves the columns of an entity selected by the save mode
+     *
+     * @param entity the entity
+     * @param mode   the save mode
+     * @return the save future
+     */
+    public ListenableFuture<Void> save(T entity, SaveMode mode) {
+        return save(entity, mode, null);
+    }
+
+    /**
+     * Saves the columns of an entity selected by the save mode
+     *
+     * @param entity  the entity
+     * @param mode    the save mode
+     * @param options optional per call write options
+     * @return the save future
+     */
+    public ListenableFuture<Void> save(T entity, SaveMode mode, WriteOptions options) {
+
+        Integer ttl = options != null ? options.getTtl() : null;
+        Long timestamp = options != null ? options.getTimestamp() : null;
+
+        Object[] values = introspector.getValues(entity);
+        Object[] snapshot = mode == SaveMode.DIRTY ? snapshots.get(entity) : null;
+
+        BitSet written = new BitSet(values.length);
+        for (int i : primaryKeyColumns) {
+            written.set(i);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (mode == SaveMode.ALL
+                    || (snapshot == null && values[i] != null)
+                    || (snapshot != null && !Objects.equals(values[i], snapshot[i]))) {
+                written.set(i);
+            }
+        }
+
+        if (snapshot != null && written.cardinality() == primaryKeyColumns.length) {
+            // Nothing changed
+            return Futures.immediateFuture(null);
+        }
+
+        Object[] bound = new Object[written.cardinality() + (ttl != null ? 1 : 0) + (timestamp != null ? 1 : 0)];
+        int j = 0;
+        for (int i = written.nextSetBit(0); i >= 0; i = written.nextSetBit(i + 1)) {
+            bound[j++] = introspector.toColumnValue(i, values[i]);
+        }
+
+        // The USING clause is part of the statement shape, the values are bound
+        BitSet shape = (BitSet) written.clone();
+        if (ttl != null) {
+            shape.set(columns.length);
+            bound[j++] = ttl;
+        }
+        if (timestamp != null) {
+            shape.set(columns.length + 1);
+            bound[j] = timestamp;
+        }
+
+        ConsistencyLevel consistency = options != null && options.getConsistency() != null
+                ? options.getConsistency()
+                : introspector.getWriteConsistency();
+        boolean noRetry = options != null && Boolean.FALSE.equals(options.getIdempotent());
+
+        PreparedQuery insert = inserts.computeIfAbsent(shape, this::createInsert);
+        ListenableFuture<ResultSet> executed = insert.execute(ps -> {
+            BoundStatement statement = ps.bind(bound);
+            if (noRetry) {
+                statement.setRetryPolicy(FallthroughRetryPolicy.INSTANCE);
+            }
+            return statement;
+        }, consistency);
+        ListenableFuture<Void> future = Futures.transform(executed, TO_VOID);
+
+        if (mode == SaveMode.DIRTY && dirtyTracking) {
+            Object[] saved = introspector.snapshot(entity);
+            Futures.addCallback(future, new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    snapshots.put(entity, saved);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    // Keep the loaded snapshot, so the changes are written again on the next save
+                }
+            });
+        }
+
+        return future;
+    }
+
+    /**
+     * @return the number of distinct statement shapes prepared so far
+     */
+    public int getPreparedCount() {
+        return inserts.size();
+    }
+
+    private PreparedQuery createInsert(BitSet shape) {
+
+        StringBuilder names = new StringBuilder();
+        StringBuilder markers = new StringBuilder();
+        for (int i = shape.nextSetBit(0); i >= 0 && i < columns.length; i = shape.nextSetBit(i + 1)) {
+            if (names.length() > 0) {
+                names.append(",");
+                markers.append(",");
+            }
+            names.append(columns[i]);
+            markers.append("?");
+        }
+
+        String query = "INSERT INTO " + introspector.getTable() + " (" + names + ") VALUES (" + markers + ")";
+        if (shape.get(columns.length) && shape.get(columns.length + 1)) {
+            query += " USING TTL ? AND TIMESTAMP ?";
+        } else if (shape.get(columns.length)) {
+            query += " USING TTL ?";
+        } else if (shape.get(columns.length + 1)) {
+            query += " USING TIMESTAMP ?";
+        }
+        return new PreparedQuery(session, query);
+    }
+
+}
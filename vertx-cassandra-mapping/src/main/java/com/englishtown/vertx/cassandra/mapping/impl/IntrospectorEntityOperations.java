@@ -0,0 +1,70 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.englishtown.vertx.cassandra.mapping.SaveMode;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link EntityOperations} built on the {@link EntityIntrospector}, for entities whose field values need converting
+ * before they are bound, such as {@link com.englishtown.vertx.cassandra.mapping.annotations.Compressed} fields
+ */
+public class IntrospectorEntityOperations<T> implements EntityOperations<T> {
+
+    private static final Function<ResultSet, Void> TO_VOID = input -> null;
+
+    private final EntityIntrospector<T> introspector;
+    private final EntityWriter<T> writer;
+    private final ProjectionReader<T> reader;
+    private final List<String> columns;
+    private final PreparedQuery delete;
+
+    public IntrospectorEntityOperations(
+            EntityIntrospector<T> introspector,
+            EntityWriter<T> writer,
+            ProjectionReader<T> reader,
+            Session session) {
+        this.introspector = introspector;
+        this.writer = writer;
+        this.reader = reader;
+        this.columns = Arrays.asList(introspector.getColumns());
+
+        StringBuilder sb = new StringBuilder("DELETE FROM ").append(introspector.getTable()).append(" WHERE ");
+        int[] primaryKeyColumns = introspector.getPrimaryKeyColumns();
+        for (int i = 0; i < primaryKeyColumns.length; i++) {
+            if (i > 0) {
+                sb.append(" AND ");
+            }
+            sb.append(columns.get(primaryKeyColumns[i])).append("=?");
+        }
+        this.delete = new PreparedQuery(session, sb.toString());
+    }
+
+    @Override
+    public ListenableFuture<Void> saveAsync(T entity) {
+        return writer.save(entity, SaveMode.ALL);
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(T entity) {
+        return deleteAsync(introspector.getPrimaryKey(entity));
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(Object... primaryKey) {
+        ConsistencyLevel consistency = introspector.getWriteConsistency();
+        return Futures.transform(delete.execute(introspector.toPrimaryKeyValues(primaryKey), consistency), TO_VOID);
+    }
+
+    @Override
+    public ListenableFuture<T> getAsync(Object... primaryKey) {
+        return reader.get(columns, primaryKey);
+    }
+
+}
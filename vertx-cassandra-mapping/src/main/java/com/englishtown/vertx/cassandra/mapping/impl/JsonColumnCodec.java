@@ -0,0 +1,168 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import com.google.common.net.InetAddresses;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Converts the values of one column between their JSON and serialized cassandra forms.
+ * <p>
+ * Timestamps are epoch milliseconds in JSON (ISO-8601 strings are also accepted), uuids and inet addresses are
+ * strings, decimals and varints are strings so no precision is lost (numbers are also accepted), blobs are base64
+ * strings, lists and sets are arrays and maps are objects.  UDT, tuple and custom columns
+ * are not supported.
+ */
+public class JsonColumnCodec {
+
+    private final String name;
+    private final DataType type;
+
+    public JsonColumnCodec(String name, DataType type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataType getType() {
+        return type;
+    }
+
+    /**
+     * Serializes a JSON value
+     *
+     * @param value   the JSON value (may be null)
+     * @param version the protocol version
+     * @return the serialized value, or null for null
+     */
+    public ByteBuffer encode(Object value, ProtocolVersion version) {
+        if (value == null) {
+            return null;
+        }
+        return type.serialize(toCql(type, value), version);
+    }
+
+    /**
+     * Deserializes a column value
+     *
+     * @param bytes   the serialized value (may be null)
+     * @param version the protocol version
+     * @return the JSON value, or null for null
+     */
+    public Object decode(ByteBuffer bytes, ProtocolVersion version) {
+        if (bytes == null) {
+            return null;
+        }
+        return toJson(type, type.deserialize(bytes, version));
+    }
+
+    private Object toCql(DataType type, Object value) {
+
+        switch (type.getName()) {
+            case ASCII:
+            case TEXT:
+            case VARCHAR:
+                return value.toString();
+            case BIGINT:
+            case COUNTER:
+                return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(value.toString());
+            case INT:
+                return value instanceof Number ? ((Number) value).intValue() : Integer.valueOf(value.toString());
+            case DOUBLE:
+                return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(value.toString());
+            case FLOAT:
+                return value instanceof Number ? ((Number) value).floatValue() : Float.valueOf(value.toString());
+            case BOOLEAN:
+                return value instanceof Boolean ? value : Boolean.valueOf(value.toString());
+            case DECIMAL:
+                return value instanceof BigDecimal ? value : new BigDecimal(value.toString());
+            case VARINT:
+                return value instanceof BigInteger ? value : new BigInteger(value.toString());
+            case UUID:
+            case TIMEUUID:
+                return value instanceof UUID ? value : UUID.fromString(value.toString());
+            case TIMESTAMP:
+                if (value instanceof Number) {
+                    return new Date(((Number) value).longValue());
+                }
+                return value instanceof Date ? value : Date.from(Instant.parse(value.toString()));
+            case BLOB:
+                return ByteBuffer.wrap(value instanceof byte[] ? (byte[]) value : Base64.getDecoder().decode(value.toString()));
+            case INET:
+                // Parses literal addresses only, never resolves host names
+                return value instanceof InetAddress ? value : InetAddresses.forString(value.toString());
+            case LIST:
+            case SET:
+                DataType elementType = type.getTypeArguments().get(0);
+                Collection<Object> collection = type.getName() == DataType.Name.LIST ? new ArrayList<>() : new LinkedHashSet<>();
+                for (Object element : value instanceof JsonArray ? ((JsonArray) value).getList() : (Collection<?>) value) {
+                    collection.add(toCql(elementType, element));
+                }
+                return collection;
+            case MAP:
+                DataType keyType = type.getTypeArguments().get(0);
+                DataType valueType = type.getTypeArguments().get(1);
+                Map<Object, Object> map = new LinkedHashMap<>();
+                Map<?, ?> entries = value instanceof JsonObject ? ((JsonObject) value).getMap() : (Map<?, ?>) value;
+                for (Map.Entry<?, ?> entry : entries.entrySet()) {
+                    map.put(toCql(keyType, entry.getKey()), entry.getValue() == null ? null : toCql(valueType, entry.getValue()));
+                }
+                return map;
+            default:
+                throw new IllegalArgumentException("Column " + name + " of type " + type + " is not supported in JSON");
+        }
+
+    }
+
+    private Object toJson(DataType type, Object value) {
+
+        switch (type.getName()) {
+            case UUID:
+            case TIMEUUID:
+            case DECIMAL:
+            case VARINT:
+                // JSON objects can't hold BigDecimal or BigInteger values
+                return value.toString();
+            case INET:
+                return ((InetAddress) value).getHostAddress();
+            case TIMESTAMP:
+                return ((Date) value).getTime();
+            case BLOB:
+                ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return Base64.getEncoder().encodeToString(bytes);
+            case LIST:
+            case SET:
+                DataType elementType = type.getTypeArguments().get(0);
+                JsonArray array = new JsonArray();
+                for (Object element : (Collection<?>) value) {
+                    array.add(toJson(elementType, element));
+                }
+                return array;
+            case MAP:
+                DataType keyType = type.getTypeArguments().get(0);
+                DataType valueType = type.getTypeArguments().get(1);
+                JsonObject json = new JsonObject();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    json.put(String.valueOf(toJson(keyType, entry.getKey())), toJson(valueType, entry.getValue()));
+                }
+                return json;
+            default:
+                return value;
+        }
+
+    }
+
+}
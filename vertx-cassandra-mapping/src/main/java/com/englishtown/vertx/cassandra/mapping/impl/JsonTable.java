@@ -0,0 +1,216 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ColumnMetadata;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ProtocolVersion;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.TableMetadata;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.json.JsonObject;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes the rows of a table as {@link JsonObject}s, driven by the table metadata.
+ * <p>
+ * JSON fields are matched to columns by name.  The column index and {@link JsonColumnCodec} of each column are
+ * resolved once, and values are bound in their serialized form.  A save writes only the fields present in the JSON
+ * object (a JSON null writes a null), with one insert statement prepared per set of present columns.  The select and
+ * delete statements are prepared once, on first use.
+ */
+public class JsonTable {
+
+    private static final Function<ResultSet, Void> TO_VOID = input -> null;
+
+    private final TableMetadata table;
+    private final Session session;
+    private final String name;
+    private final JsonColumnCodec[] codecs;
+    private final Map<String, Integer> indices = new HashMap<>();
+    private final int[] primaryKey;
+    private final Map<BitSet, PreparedQuery> inserts = new ConcurrentHashMap<>();
+    private final PreparedQuery select;
+    private final PreparedQuery delete;
+    private final Function<ResultSet, JsonObject> decode = this::decode;
+    private volatile ProtocolVersion protocolVersion;
+
+    public JsonTable(TableMetadata table, Session session) {
+        this.table = table;
+        this.session = session;
+        this.name = Metadata.quote(table.getKeyspace().getName()) + "." + Metadata.quote(table.getName());
+
+        List<ColumnMetadata> columns = table.getColumns();
+        codecs = new JsonColumnCodec[columns.size()];
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < codecs.length; i++) {
+            ColumnMetadata column = columns.get(i);
+            codecs[i] = new JsonColumnCodec(column.getName(), column.getType());
+            indices.put(column.getName(), i);
+            if (i > 0) {
+                names.append(",");
+            }
+            names.append(Metadata.quote(column.getName()));
+        }
+
+        List<ColumnMetadata> primaryKeyColumns = table.getPrimaryKey();
+        primaryKey = new int[primaryKeyColumns.size()];
+        StringBuilder where = new StringBuilder(" WHERE ");
+        for (int i = 0; i < primaryKey.length; i++) {
+            primaryKey[i] = indices.get(primaryKeyColumns.get(i).getName());
+            if (i > 0) {
+                where.append(" AND ");
+            }
+            where.append(Metadata.quote(primaryKeyColumns.get(i).getName())).append("=?");
+        }
+
+        select = new PreparedQuery(session, "SELECT " + names + " FROM " + name + where);
+        delete = new PreparedQuery(session, "DELETE FROM " + name + where);
+    }
+
+    public TableMetadata getTable() {
+        return table;
+    }
+
+    /**
+     * Saves the fields of a JSON object.  Every primary key column must be present, other absent fields are left
+     * unchanged.
+     *
+     * @param json the JSON row
+     * @return the save future
+     */
+    public ListenableFuture<Void> save(JsonObject json) {
+
+        BitSet present = new BitSet(codecs.length);
+        for (String field : json.fieldNames()) {
+            Integer index = indices.get(field);
+            if (index == null) {
+                return Futures.immediateFailedFuture(new IllegalArgumentException(field + " is not a column of " + name));
+            }
+            present.set(index);
+        }
+        for (int i : primaryKey) {
+            if (json.getValue(codecs[i].getName()) == null) {
+                return Futures.immediateFailedFuture(new IllegalArgumentException("Primary key column " + codecs[i].getName() + " is missing"));
+            }
+        }
+
+        PreparedQuery insert = inserts.computeIfAbsent(present, this::createInsert);
+        ListenableFuture<ResultSet> future = insert.execute(ps -> {
+            ProtocolVersion version = getProtocolVersion();
+            BoundStatement statement = ps.bind();
+            for (int i = present.nextSetBit(0), j = 0; i >= 0; i = present.nextSetBit(i + 1), j++) {
+                statement.setBytesUnsafe(j, codecs[i].encode(json.getValue(codecs[i].getName()), version));
+            }
+            return statement;
+        }, null);
+        return Futures.transform(future, TO_VOID);
+    }
+
+    /**
+     * Gets a row by primary key
+     *
+     * @param primaryKey the partition key values followed by the clustering column values, in their JSON form
+     * @return the future JSON row, or null if not found
+     */
+    public ListenableFuture<JsonObject> get(Object... primaryKey) {
+        return Futures.transform(select.execute(bindPrimaryKey(primaryKey), null), decode);
+    }
+
+    /**
+     * Deletes the row of a JSON object
+     *
+     * @param json the JSON row, only the primary key fields are used
+     * @return the delete future
+     */
+    public ListenableFuture<Void> delete(JsonObject json) {
+        Object[] values = new Object[primaryKey.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = json.getValue(codecs[primaryKey[i]].getName());
+        }
+        return delete(values);
+    }
+
+    /**
+     * Deletes a row by primary key
+     *
+     * @param primaryKey the partition key values followed by the clustering column values, in their JSON form
+     * @return the delete future
+     */
+    public ListenableFuture<Void> delete(Object... primaryKey) {
+        return Futures.transform(delete.execute(bindPrimaryKey(primaryKey), null), TO_VOID);
+    }
+
+    /**
+     * @return the number of distinct insert column sets prepared so far
+     */
+    public int getPreparedCount() {
+        return inserts.size();
+    }
+
+    private java.util.function.Function<PreparedStatement, BoundStatement> bindPrimaryKey(Object... values) {
+        return ps -> {
+            if (values.length != primaryKey.length) {
+                throw new IllegalArgumentException("Expected " + primaryKey.length + " primary key values but got " + values.length);
+            }
+            ProtocolVersion version = getProtocolVersion();
+            BoundStatement statement = ps.bind();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    throw new IllegalArgumentException("Primary key column " + codecs[primaryKey[i]].getName() + " is null");
+                }
+                statement.setBytesUnsafe(i, codecs[primaryKey[i]].encode(values[i], version));
+            }
+            return statement;
+        };
+    }
+
+    private JsonObject decode(ResultSet rs) {
+        Row row = rs.one();
+        if (row == null) {
+            return null;
+        }
+        // The select lists every column in table order, so result indices are the column indices
+        ProtocolVersion version = getProtocolVersion();
+        JsonObject json = new JsonObject();
+        for (int i = 0; i < codecs.length; i++) {
+            json.put(codecs[i].getName(), codecs[i].decode(row.getBytesUnsafe(i), version));
+        }
+        return json;
+    }
+
+    private PreparedQuery createInsert(BitSet present) {
+
+        StringBuilder names = new StringBuilder();
+        StringBuilder markers = new StringBuilder();
+        for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+            if (names.length() > 0) {
+                names.append(",");
+                markers.append(",");
+            }
+            names.append(Metadata.quote(codecs[i].getName()));
+            markers.append("?");
+        }
+
+        return new PreparedQuery(session, "INSERT INTO " + name + " (" + names + ") VALUES (" + markers + ")");
+    }
+
+    private ProtocolVersion getProtocolVersion() {
+        ProtocolVersion version = protocolVersion;
+        if (version == null) {
+            version = session.getCluster().getConfiguration().getProtocolOptions().getProtocolVersionEnum();
+            protocolVersion = version;
+        }
+        return version;
+    }
+
+}
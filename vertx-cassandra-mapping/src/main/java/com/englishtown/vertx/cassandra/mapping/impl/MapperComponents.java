@@ -0,0 +1,113 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.mapping.Mapper;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCache;
+
+/**
+ * The datastax mapper and the optional components a vert.x mapper works with.  Components that are not set fall
+ * back to the datastax mapper, or are created on demand from the introspector.
+ */
+public class MapperComponents<T> {
+
+    private final Mapper<T> mapper;
+    private EntityOperations<T> operations;
+    private EntityWriter<T> writer;
+    private ProjectionReader<T> reader;
+    private EntityStreamer<T> streamer;
+    private EntityIntrospector<T> introspector;
+    private NearCache<T> nearCache;
+
+    public MapperComponents(Mapper<T> mapper) {
+        this.mapper = mapper;
+    }
+
+    public Mapper<T> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * The single entity operations, such as those of a generated entity codec
+     *
+     * @return the operations, the datastax mapper's if not set
+     */
+    public EntityOperations<T> getOperations() {
+        return operations != null ? operations : new MapperEntityOperations<>(mapper);
+    }
+
+    public MapperComponents<T> setOperations(EntityOperations<T> operations) {
+        this.operations = operations;
+        return this;
+    }
+
+    /**
+     * The writer for partial saves
+     *
+     * @return the writer, or null to create it on demand
+     */
+    public EntityWriter<T> getWriter() {
+        return writer;
+    }
+
+    public MapperComponents<T> setWriter(EntityWriter<T> writer) {
+        this.writer = writer;
+        return this;
+    }
+
+    /**
+     * The reader for column projections
+     *
+     * @return the reader, or null to create it on demand
+     */
+    public ProjectionReader<T> getReader() {
+        return reader;
+    }
+
+    public MapperComponents<T> setReader(ProjectionReader<T> reader) {
+        this.reader = reader;
+        return this;
+    }
+
+    /**
+     * The streamer for multi-row queries
+     *
+     * @return the streamer, or null to create it on demand
+     */
+    public EntityStreamer<T> getStreamer() {
+        return streamer;
+    }
+
+    public MapperComponents<T> setStreamer(EntityStreamer<T> streamer) {
+        this.streamer = streamer;
+        return this;
+    }
+
+    /**
+     * The introspector of the mapped entity class, used to group bulk writes by partition and to create the other
+     * components on demand
+     *
+     * @return the introspector, the near cache's if not set, or null
+     */
+    public EntityIntrospector<T> getIntrospector() {
+        return introspector != null ? introspector : nearCache != null ? nearCache.getIntrospector() : null;
+    }
+
+    public MapperComponents<T> setIntrospector(EntityIntrospector<T> introspector) {
+        this.introspector = introspector;
+        return this;
+    }
+
+    /**
+     * The near cache of the mapped entities
+     *
+     * @return the near cache, or null if not enabled
+     */
+    public NearCache<T> getNearCache() {
+        return nearCache;
+    }
+
+    public MapperComponents<T> setNearCache(NearCache<T> nearCache) {
+        this.nearCache = nearCache;
+        return this;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.mapping.Mapper;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * {@link EntityOperations} of the reflective datastax {@link Mapper}
+ */
+public class MapperEntityOperations<T> implements EntityOperations<T> {
+
+    private final Mapper<T> mapper;
+
+    public MapperEntityOperations(Mapper<T> mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public ListenableFuture<Void> saveAsync(T entity) {
+        return mapper.saveAsync(entity);
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(T entity) {
+        return mapper.deleteAsync(entity);
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(Object... primaryKey) {
+        return mapper.deleteAsync(primaryKey);
+    }
+
+    @Override
+    public ListenableFuture<T> getAsync(Object... primaryKey) {
+        return mapper.getAsync(primaryKey);
+    }
+
+}
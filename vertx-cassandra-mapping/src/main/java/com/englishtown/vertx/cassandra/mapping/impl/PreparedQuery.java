@@ -0,0 +1,97 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A CQL query that is prepared asynchronously once and then shared.  A failed prepare is retried on the next call.
+ */
+public class PreparedQuery {
+
+    private final Session session;
+    private final String query;
+    private final AtomicReference<ListenableFuture<PreparedStatement>> prepared = new AtomicReference<>();
+
+    public PreparedQuery(Session session, String query) {
+        this.session = session;
+        this.query = query;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Returns the prepared statement, preparing it on the first call
+     *
+     * @return the future prepared statement
+     */
+    public ListenableFuture<PreparedStatement> get() {
+
+        ListenableFuture<PreparedStatement> existing = prepared.get();
+        if (existing != null) {
+            return existing;
+        }
+
+        SettableFuture<PreparedStatement> future = SettableFuture.create();
+        if (!prepared.compareAndSet(null, future)) {
+            return prepared.get();
+        }
+
+        Futures.addCallback(session.prepareAsync(query), new FutureCallback<PreparedStatement>() {
+            @Override
+            public void onSuccess(PreparedStatement result) {
+                future.set(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                // Prepare again on the next call
+                prepared.compareAndSet(future, null);
+                future.setException(t);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Executes the statement bound to the values, preparing it on the first call
+     *
+     * @param values      the bind variable values
+     * @param consistency the consistency level, or null for the default
+     * @return the future result set
+     */
+    public ListenableFuture<ResultSet> execute(Object[] values, ConsistencyLevel consistency) {
+        return execute(ps -> ps.bind(values), consistency);
+    }
+
+    /**
+     * Executes the statement returned by a binder, preparing it on the first call
+     *
+     * @param binder      binds the prepared statement, and sets any other statement options
+     * @param consistency the consistency level, or null for the default
+     * @return the future result set
+     */
+    public ListenableFuture<ResultSet> execute(Function<PreparedStatement, BoundStatement> binder, ConsistencyLevel consistency) {
+        return Futures.transform(get(), (AsyncFunction<PreparedStatement, ResultSet>) ps -> {
+            BoundStatement statement = binder.apply(ps);
+            if (consistency != null) {
+                statement.setConsistencyLevel(consistency);
+            }
+            return session.executeAsync(statement);
+        });
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads a subset of the columns of an entity by primary key, into a partially populated entity or a view class.
+ * <p>
+ * A view class has fields named after the entity columns it selects (or annotated with {@code @Column}) and needs no
+ * {@code @Table} or key annotations.  One select statement is prepared and cached per projection.
+ */
+public class ProjectionReader<T> {
+
+    private final EntityIntrospector<T> introspector;
+    private final Session session;
+    private final AccessorInvocationHandler.RowMapperFactory rowMappers;
+    private final List<String> columns;
+    private final String where;
+    private final Map<Object, Projection<?>> projections = new ConcurrentHashMap<>();
+
+    public ProjectionReader(EntityIntrospector<T> introspector, Session session) {
+        this(introspector, session, klass -> EntityRowMapper.create(klass, session));
+    }
+
+    /**
+     * @param introspector the entity introspector
+     * @param session      the session
+     * @param rowMappers   creates the row mappers of partial entities and views
+     */
+    public ProjectionReader(EntityIntrospector<T> introspector, Session session, AccessorInvocationHandler.RowMapperFactory rowMappers) {
+        if (introspector.getTable() == null) {
+            throw new IllegalArgumentException(introspector.getEntityClass().getName() + " has no @Table annotation");
+        }
+        this.introspector = introspector;
+        this.session = session;
+        this.rowMappers = rowMappers;
+        this.columns = Arrays.asList(introspector.getColumns());
+
+        StringBuilder sb = new StringBuilder(" WHERE ");
+        int[] primaryKeyColumns = introspector.getPrimaryKeyColumns();
+        for (int i = 0; i < primaryKeyColumns.length; i++) {
+            if (i > 0) {
+                sb.append(" AND ");
+            }
+            sb.append(columns.get(primaryKeyColumns[i])).append("=?");
+        }
+        this.where = sb.toString();
+    }
+
+    /**
+     * Reads some columns of an entity
+     *
+     * @param columns    the columns to select, the other fields are left unset
+     * @param primaryKey the primary key of the entity
+     * @return the future partial entity, or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public ListenableFuture<T> get(List<String> columns, Object... primaryKey) {
+        Projection<T> projection = (Projection<T>) projections.get(columns);
+        if (projection == null) {
+            List<String> key = Collections.unmodifiableList(new ArrayList<>(columns));
+            projection = (Projection<T>) projections.computeIfAbsent(key,
+                    k -> createProjection(key, introspector.getEntityClass()));
+        }
+        return projection.get(primaryKey);
+    }
+
+    /**
+     * Reads the columns of an entity selected by a view class
+     *
+     * @param viewClass  the view class
+     * @param primaryKey the primary key of the entity
+     * @return the future view, or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public <V> ListenableFuture<V> get(Class<V> viewClass, Object... primaryKey) {
+        Projection<V> projection = (Projection<V>) projections.computeIfAbsent(viewClass,
+                k -> createProjection(Arrays.asList(new EntityIntrospector<>(viewClass).getColumns()), viewClass));
+        return projection.get(primaryKey);
+    }
+
+    /**
+     * @return the number of distinct projections prepared so far
+     */
+    public int getPreparedCount() {
+        return projections.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> Projection<V> createProjection(List<String> selected, Class<V> resultClass) {
+
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("A projection of " + introspector.getEntityClass().getName() + " needs at least one column");
+        }
+        for (String column : selected) {
+            if (!columns.contains(column)) {
+                throw new IllegalArgumentException(column + " is not a column of " + introspector.getEntityClass().getName());
+            }
+        }
+
+        String query = "SELECT " + String.join(",", selected) + " FROM " + introspector.getTable() + where;
+        return new Projection<>(new PreparedQuery(session, query),
+                (java.util.function.Function<Row, V>) rowMappers.create(resultClass));
+    }
+
+    private class Projection<V> {
+
+        private final PreparedQuery select;
+        private final Function<ResultSet, V> decode;
+
+        private Projection(PreparedQuery select, java.util.function.Function<Row, V> rowMapper) {
+            this.select = select;
+            this.decode = rs -> {
+                Row row = rs.one();
+                return row == null ? null : rowMapper.apply(row);
+            };
+        }
+
+        private ListenableFuture<V> get(Object... primaryKey) {
+            ConsistencyLevel consistency = introspector.getReadConsistency();
+            return Futures.transform(select.execute(introspector.toPrimaryKeyValues(primaryKey), consistency), decode);
+        }
+
+    }
+
+}
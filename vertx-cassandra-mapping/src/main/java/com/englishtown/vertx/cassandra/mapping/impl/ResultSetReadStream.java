@@ -0,0 +1,154 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.englishtown.vertx.cassandra.FutureUtils;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ReadStream} over the rows of a query, mapped one at a time.
+ * <p>
+ * The query starts when a handler is set.  Only rows already fetched are delivered, the next page is fetched
+ * asynchronously, so the stream never blocks the event loop.  While paused no rows are delivered and no further pages
+ * are fetched.  All handlers are called on the vert.x context.
+ */
+public class ResultSetReadStream<T> implements ReadStream<T> {
+
+    private final Supplier<ListenableFuture<ResultSet>> query;
+    private final Function<Row, T> mapper;
+    private final Vertx vertx;
+
+    private Handler<T> handler;
+    private Handler<Void> endHandler;
+    private Handler<Throwable> exceptionHandler;
+    private ResultSet resultSet;
+    private boolean started;
+    private boolean paused;
+    private boolean fetching;
+    private boolean ended;
+
+    /**
+     * @param query  starts the query
+     * @param mapper maps each row
+     * @param vertx  the vert.x instance
+     */
+    public ResultSetReadStream(Supplier<ListenableFuture<ResultSet>> query, Function<Row, T> mapper, Vertx vertx) {
+        this.query = query;
+        this.mapper = mapper;
+        this.vertx = vertx;
+    }
+
+    @Override
+    public ReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> handler(Handler<T> handler) {
+        this.handler = handler;
+        if (handler != null && !started) {
+            started = true;
+            fetching = true;
+            FutureUtils.addCallback(query.get(), new FutureCallback<ResultSet>() {
+                @Override
+                public void onSuccess(ResultSet result) {
+                    resultSet = result;
+                    fetching = false;
+                    drain();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    fail(t);
+                }
+            }, vertx);
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> pause() {
+        paused = true;
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> resume() {
+        if (paused) {
+            paused = false;
+            if (resultSet != null) {
+                vertx.runOnContext(aVoid -> drain());
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> endHandler(Handler<Void> handler) {
+        this.endHandler = handler;
+        return this;
+    }
+
+    private void drain() {
+
+        while (!paused && !fetching && !ended && handler != null) {
+
+            if (resultSet.getAvailableWithoutFetching() == 0) {
+                if (resultSet.isFullyFetched()) {
+                    ended = true;
+                    if (endHandler != null) {
+                        endHandler.handle(null);
+                    }
+                } else {
+                    fetchMore();
+                }
+                return;
+            }
+
+            T item;
+            try {
+                item = mapper.apply(resultSet.one());
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            handler.handle(item);
+        }
+    }
+
+    private void fetchMore() {
+        fetching = true;
+        FutureUtils.addCallback(resultSet.fetchMoreResults(), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                fetching = false;
+                drain();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                fail(t);
+            }
+        }, vertx);
+    }
+
+    private void fail(Throwable t) {
+        fetching = false;
+        if (ended) {
+            return;
+        }
+        ended = true;
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(t);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.englishtown.vertx.cassandra.FutureUtils;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+/**
+ * Adapts accessor query results to vert.x {@link Future}s completed on the vert.x context
+ */
+public class VertxFutureAdapter implements AccessorResultAdapter {
+
+    private final Vertx vertx;
+
+    public VertxFutureAdapter(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    @Override
+    public Class<?> getResultType() {
+        return Future.class;
+    }
+
+    @Override
+    public Object adapt(ListenableFuture<Object> future) {
+
+        Future<Object> result = Future.future();
+
+        FutureUtils.addCallback(future, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(Object value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.fail(t);
+            }
+        }, vertx);
+
+        return result;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.englishtown.vertx.cassandra.mapping.promises;
+
+import com.datastax.driver.core.TableMetadata;
+import com.englishtown.promises.Promise;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * When.java version of {@link com.englishtown.vertx.cassandra.mapping.JsonMapper}
+ */
+public interface WhenJsonMapper {
+
+    TableMetadata getTable();
+
+    /**
+     * Saves the fields of a JSON object.  Every primary key column must be present, absent fields are left unchanged.
+     *
+     * @param json the JSON row
+     * @return the promise for completion
+     */
+    Promise<Void> saveAsync(JsonObject json);
+
+    Promise<Void> deleteAsync(JsonObject json);
+
+    Promise<Void> deleteAsync(Object... primaryKey);
+
+    /**
+     * Gets a row by primary key
+     *
+     * @param primaryKey the partition key values followed by the clustering column values
+     * @return the promise for the JSON row (null if not found)
+     */
+    Promise<JsonObject> getAsync(Object... primaryKey);
+
+}
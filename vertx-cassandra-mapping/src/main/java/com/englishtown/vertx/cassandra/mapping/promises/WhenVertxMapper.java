@@ -1,8 +1,15 @@
 package com.englishtown.vertx.cassandra.mapping.promises;
 
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.mapping.Mapper;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCache;
 import com.englishtown.promises.Promise;
+import com.englishtown.vertx.cassandra.mapping.SaveMode;
 import com.englishtown.vertx.cassandra.mapping.VertxMapper;
+import com.englishtown.vertx.cassandra.mapping.WriteOptions;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.List;
 
 /**
  * When.java wrapper over {@link VertxMapper}
@@ -11,12 +18,105 @@ public interface WhenVertxMapper<T> {
 
     Mapper<T> getMapper();
 
+    /**
+     * Returns the near cache of the mapped entities
+     *
+     * @return the near cache, or null if not enabled for the entity class
+     */
+    NearCache<T> getNearCache();
+
     Promise<Void> saveAsync(T entity);
 
+    /**
+     * Saves the columns of an entity selected by a save mode.  Statements are prepared once per set of columns.
+     *
+     * @param entity the entity to save
+     * @param mode   which columns to write
+     * @return the promise for completion
+     */
+    Promise<Void> saveAsync(T entity, SaveMode mode);
+
+    /**
+     * Saves an entity with per call options.  The TTL and timestamp are bound to cached prepared statements.
+     *
+     * @param entity  the entity to save
+     * @param options the TTL, timestamp, consistency and idempotence of the write
+     * @return the promise for completion
+     */
+    Promise<Void> saveAsync(T entity, WriteOptions options);
+
+    Promise<Void> saveAsync(T entity, SaveMode mode, WriteOptions options);
+
     Promise<Void> deleteAsync(T entity);
 
     Promise<Void> deleteAsync(Object... primaryKey);
 
     Promise<T> getAsync(Object... primaryKey);
 
+    /**
+     * Gets some columns of an entity by primary key.  The other fields of the entity are left unset, and the near
+     * cache is not used.
+     *
+     * @param columns    the columns to select
+     * @param primaryKey the primary key of the entity
+     * @return the promise for the partial entity (null if not found)
+     */
+    Promise<T> getAsync(List<String> columns, Object... primaryKey);
+
+    /**
+     * Gets the columns of an entity selected by a view class, whose fields are named after the entity columns
+     *
+     * @param viewClass  the view class
+     * @param primaryKey the primary key of the entity
+     * @return the promise for the view (null if not found)
+     */
+    <V> Promise<V> getAsync(Class<V> viewClass, Object... primaryKey);
+
+    /**
+     * Streams the entities returned by a statement.  Pages are fetched asynchronously while the stream is not paused,
+     * and rows are decoded one at a time, so large results are read with bounded memory.
+     *
+     * @param statement the statement, its fetch size sets the page size
+     * @return the entity stream, which starts the query when a handler is set
+     */
+    ReadStream<T> stream(Statement statement);
+
+    /**
+     * Streams all entities of a partition, in clustering order
+     *
+     * @param partitionKey the partition key values
+     * @return the entity stream, which starts the query when a handler is set
+     */
+    ReadStream<T> streamPartition(Object... partitionKey);
+
+    /**
+     * Saves entities with bounded concurrency.  Entities in the same partition are saved in one unlogged batch.
+     *
+     * @param entities the entities to save
+     * @return the promise for completion
+     */
+    Promise<Void> saveAllAsync(List<T> entities);
+
+    Promise<Void> saveAllAsync(List<T> entities, int maxConcurrency);
+
+    /**
+     * Deletes entities with bounded concurrency.  Entities in the same partition are deleted in one unlogged batch.
+     *
+     * @param entities the entities to delete
+     * @return the promise for completion
+     */
+    Promise<Void> deleteAllAsync(List<T> entities);
+
+    Promise<Void> deleteAllAsync(List<T> entities, int maxConcurrency);
+
+    /**
+     * Gets entities by primary key with bounded concurrency
+     *
+     * @param primaryKeys the primary keys
+     * @return the promise for the entities in primary key order (null where not found)
+     */
+    Promise<List<T>> getAllAsync(List<Object[]> primaryKeys);
+
+    Promise<List<T>> getAllAsync(List<Object[]> primaryKeys, int maxConcurrency);
+
 }
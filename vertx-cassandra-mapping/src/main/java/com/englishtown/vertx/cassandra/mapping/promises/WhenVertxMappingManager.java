@@ -1,6 +1,8 @@
 package com.englishtown.vertx.cassandra.mapping.promises;
 
 import com.datastax.driver.mapping.MappingManager;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCache;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCacheOptions;
 import com.englishtown.vertx.cassandra.mapping.VertxMappingManager;
 
 /**
@@ -24,5 +26,47 @@ public interface WhenVertxMappingManager {
      */
     <T> WhenVertxMapper<T> mapper(Class<T> klass);
 
+    /**
+     * Enables a near cache for an entity class.  Mappers returned afterwards read through and invalidate it.
+     *
+     * @param klass   the entity class
+     * @param options the near cache options
+     * @param <T>     the entity type
+     * @return the near cache
+     */
+    <T> NearCache<T> enableNearCache(Class<T> klass, NearCacheOptions options);
+
+    /**
+     * Enables dirty tracking for an entity class, so {@link com.englishtown.vertx.cassandra.mapping.SaveMode#DIRTY}
+     * saves write only the columns changed since an entity was loaded.  Entities loaded by mappers afterwards are
+     * tracked.
+     *
+     * @param klass the entity class
+     * @param <T>   the entity type
+     */
+    <T> void enableDirtyTracking(Class<T> klass);
+
+    /**
+     * Creates an implementation of a {@link com.datastax.driver.mapping.annotations.Accessor} interface.  The query of
+     * each {@link com.datastax.driver.mapping.annotations.Query} method is prepared once, when the accessor is created.
+     * Methods return {@link com.englishtown.promises.Promise}s or vert.x {@link io.vertx.core.Future}s of {@code Void}, a {@link com.datastax.driver.core.ResultSet}, an entity or a
+     * {@code List} of entities, or a {@link io.vertx.core.streams.ReadStream} of entities.
+     *
+     * @param klass the accessor interface
+     * @param <T>   the accessor type
+     * @return the accessor
+     */
+    <T> T createAccessor(Class<T> klass);
+
+
+    /**
+     * Returns a mapper that reads and writes the rows of a table as JSON objects.  The columns are read from the
+     * cluster metadata; statements are prepared once and shared by all mappers of the table.
+     *
+     * @param keyspace the keyspace name
+     * @param table    the table name
+     * @return the JSON mapper
+     */
+    WhenJsonMapper jsonMapper(String keyspace, String table);
 
 }
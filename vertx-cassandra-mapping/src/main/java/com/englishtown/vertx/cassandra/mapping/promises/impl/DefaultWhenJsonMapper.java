@@ -0,0 +1,76 @@
+package com.englishtown.vertx.cassandra.mapping.promises.impl;
+
+import com.datastax.driver.core.TableMetadata;
+import com.englishtown.promises.Deferred;
+import com.englishtown.promises.Promise;
+import com.englishtown.promises.When;
+import com.englishtown.vertx.cassandra.FutureUtils;
+import com.englishtown.vertx.cassandra.mapping.impl.JsonTable;
+import com.englishtown.vertx.cassandra.mapping.promises.WhenJsonMapper;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Default implementation of {@link WhenJsonMapper}
+ */
+public class DefaultWhenJsonMapper implements WhenJsonMapper {
+
+    private final JsonTable table;
+    private final When when;
+    private final Vertx vertx;
+
+    public DefaultWhenJsonMapper(JsonTable table, When when, Vertx vertx) {
+        this.table = table;
+        this.when = when;
+        this.vertx = vertx;
+    }
+
+    @Override
+    public TableMetadata getTable() {
+        return table.getTable();
+    }
+
+    @Override
+    public Promise<Void> saveAsync(JsonObject json) {
+        return convertFuture(table.save(json));
+    }
+
+    @Override
+    public Promise<Void> deleteAsync(JsonObject json) {
+        return convertFuture(table.delete(json));
+    }
+
+    @Override
+    public Promise<Void> deleteAsync(Object... primaryKey) {
+        return convertFuture(table.delete(primaryKey));
+    }
+
+    @Override
+    public Promise<JsonObject> getAsync(Object... primaryKey) {
+        return convertFuture(table.get(primaryKey));
+    }
+
+    private <T> Promise<T> convertFuture(ListenableFuture<T> future) {
+
+        Deferred<T> d = when.defer();
+
+        FutureCallback<T> callback = new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                d.resolve(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                d.reject(t);
+            }
+        };
+
+        FutureUtils.addCallback(future, callback, vertx);
+        return d.getPromise();
+
+    }
+
+}
@@ -1,14 +1,30 @@
 package com.englishtown.vertx.cassandra.mapping.promises.impl;
 
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.mapping.Mapper;
 import com.englishtown.promises.Deferred;
 import com.englishtown.promises.Promise;
 import com.englishtown.promises.When;
 import com.englishtown.vertx.cassandra.FutureUtils;
+import com.englishtown.vertx.cassandra.mapping.SaveMode;
+import com.englishtown.vertx.cassandra.mapping.WriteOptions;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCache;
+import com.englishtown.vertx.cassandra.mapping.impl.BulkMapperSupport;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityIntrospector;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityOperations;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityStreamer;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityWriter;
+import com.englishtown.vertx.cassandra.mapping.impl.MapperComponents;
+import com.englishtown.vertx.cassandra.mapping.impl.ProjectionReader;
 import com.englishtown.vertx.cassandra.mapping.promises.WhenVertxMapper;
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.List;
 
 /**
  * Default implementation of {@link WhenVertxMapper}
@@ -16,13 +32,36 @@ import io.vertx.core.Vertx;
 public class DefaultWhenVertxMapper<T> implements WhenVertxMapper<T> {
 
     private final Mapper<T> mapper;
+    private final EntityOperations<T> operations;
+    private final EntityIntrospector<T> introspector;
+    private EntityWriter<T> writer;
+    private ProjectionReader<T> reader;
+    private EntityStreamer<T> streamer;
     private final When when;
     private final Vertx vertx;
+    private final NearCache<T> nearCache;
+    private final BulkMapperSupport<T> bulk;
 
     public DefaultWhenVertxMapper(Mapper<T> mapper, When when, Vertx vertx) {
-        this.mapper = mapper;
+        this(new MapperComponents<>(mapper), when, vertx);
+    }
+
+    /**
+     * @param components the datastax mapper and the optional components to use
+     * @param when       the when.java instance
+     * @param vertx      the vert.x instance
+     */
+    DefaultWhenVertxMapper(MapperComponents<T> components, When when, Vertx vertx) {
+        this.mapper = components.getMapper();
+        this.operations = components.getOperations();
+        this.writer = components.getWriter();
+        this.reader = components.getReader();
+        this.streamer = components.getStreamer();
+        this.introspector = components.getIntrospector();
         this.when = when;
         this.vertx = vertx;
+        this.nearCache = components.getNearCache();
+        this.bulk = new BulkMapperSupport<>(mapper, operations, introspector, nearCache);
     }
 
     @Override
@@ -30,24 +69,162 @@ public class DefaultWhenVertxMapper<T> implements WhenVertxMapper<T> {
         return mapper;
     }
 
+    @Override
+    public NearCache<T> getNearCache() {
+        return nearCache;
+    }
+
     @Override
     public Promise<Void> saveAsync(T entity) {
-        return convertFuture(mapper.saveAsync(entity));
+        if (nearCache != null) {
+            return convertFuture(nearCache.write(entity, () -> operations.saveAsync(entity)));
+        }
+        return convertFuture(operations.saveAsync(entity));
+    }
+
+    @Override
+    public Promise<Void> saveAsync(T entity, SaveMode mode) {
+        return saveAsync(entity, mode, null);
+    }
+
+    @Override
+    public Promise<Void> saveAsync(T entity, WriteOptions options) {
+        return saveAsync(entity, SaveMode.ALL, options);
+    }
+
+    @Override
+    public Promise<Void> saveAsync(T entity, SaveMode mode, WriteOptions options) {
+        if (mode == SaveMode.ALL && options == null) {
+            return saveAsync(entity);
+        }
+        EntityWriter<T> writer = getWriter();
+        if (nearCache != null) {
+            return convertFuture(nearCache.write(entity, () -> writer.save(entity, mode, options)));
+        }
+        return convertFuture(writer.save(entity, mode, options));
     }
 
     @Override
     public Promise<Void> deleteAsync(T entity) {
-        return convertFuture(mapper.deleteAsync(entity));
+        if (nearCache != null) {
+            return convertFuture(nearCache.write(entity, () -> operations.deleteAsync(entity)));
+        }
+        return convertFuture(operations.deleteAsync(entity));
     }
 
     @Override
     public Promise<Void> deleteAsync(Object... primaryKey) {
-        return convertFuture(mapper.deleteAsync(primaryKey));
+        if (nearCache != null) {
+            return convertFuture(nearCache.write(primaryKey, () -> operations.deleteAsync(primaryKey)));
+        }
+        return convertFuture(operations.deleteAsync(primaryKey));
     }
 
     @Override
     public Promise<T> getAsync(Object... primaryKey) {
-        return convertFuture(mapper.getAsync(primaryKey));
+        if (nearCache != null) {
+            return convertFuture(track(nearCache.get(primaryKey, () -> operations.getAsync(primaryKey))));
+        }
+        return convertFuture(track(operations.getAsync(primaryKey)));
+    }
+
+    @Override
+    public Promise<T> getAsync(List<String> columns, Object... primaryKey) {
+        return convertFuture(track(getReader().get(columns, primaryKey)));
+    }
+
+    @Override
+    public <V> Promise<V> getAsync(Class<V> viewClass, Object... primaryKey) {
+        return convertFuture(getReader().get(viewClass, primaryKey));
+    }
+
+    @Override
+    public ReadStream<T> stream(Statement statement) {
+        return getStreamer().stream(statement, vertx);
+    }
+
+    @Override
+    public ReadStream<T> streamPartition(Object... partitionKey) {
+        return getStreamer().streamPartition(vertx, partitionKey);
+    }
+
+    @Override
+    public Promise<Void> saveAllAsync(List<T> entities) {
+        return saveAllAsync(entities, BulkMapperSupport.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    @Override
+    public Promise<Void> saveAllAsync(List<T> entities, int maxConcurrency) {
+        return convertFuture(bulk.saveAll(entities, maxConcurrency));
+    }
+
+    @Override
+    public Promise<Void> deleteAllAsync(List<T> entities) {
+        return deleteAllAsync(entities, BulkMapperSupport.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    @Override
+    public Promise<Void> deleteAllAsync(List<T> entities, int maxConcurrency) {
+        return convertFuture(bulk.deleteAll(entities, maxConcurrency));
+    }
+
+    @Override
+    public Promise<List<T>> getAllAsync(List<Object[]> primaryKeys) {
+        return getAllAsync(primaryKeys, BulkMapperSupport.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    @Override
+    public Promise<List<T>> getAllAsync(List<Object[]> primaryKeys, int maxConcurrency) {
+        return convertFuture(trackAll(bulk.getAll(primaryKeys, maxConcurrency)));
+    }
+
+    private EntityWriter<T> getWriter() {
+        if (writer == null) {
+            if (introspector == null) {
+                throw new IllegalStateException("Partial saves need the entity introspector, create the mapper with the mapping manager");
+            }
+            writer = new EntityWriter<>(introspector, mapper.getManager().getSession());
+        }
+        return writer;
+    }
+
+    private ProjectionReader<T> getReader() {
+        if (reader == null) {
+            if (introspector == null) {
+                throw new IllegalStateException("Projections need the entity introspector, create the mapper with the mapping manager");
+            }
+            reader = new ProjectionReader<>(introspector, mapper.getManager().getSession());
+        }
+        return reader;
+    }
+
+    private EntityStreamer<T> getStreamer() {
+        if (streamer == null) {
+            if (introspector == null) {
+                throw new IllegalStateException("Streams need the entity introspector, create the mapper with the mapping manager");
+            }
+            streamer = new EntityStreamer<>(introspector, mapper.getManager().getSession());
+        }
+        return streamer;
+    }
+
+    private ListenableFuture<T> track(ListenableFuture<T> future) {
+        if (writer == null || !writer.isDirtyTracking()) {
+            return future;
+        }
+        Function<T, T> track = writer::track;
+        return Futures.transform(future, track);
+    }
+
+    private ListenableFuture<List<T>> trackAll(ListenableFuture<List<T>> future) {
+        if (writer == null || !writer.isDirtyTracking()) {
+            return future;
+        }
+        Function<List<T>, List<T>> track = entities -> {
+            entities.forEach(writer::track);
+            return entities;
+        };
+        return Futures.transform(future, track);
     }
 
     private <T> Promise<T> convertFuture(ListenableFuture<T> future) {
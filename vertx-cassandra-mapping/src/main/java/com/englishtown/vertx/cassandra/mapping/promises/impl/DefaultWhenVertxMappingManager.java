@@ -1,13 +1,37 @@
 package com.englishtown.vertx.cassandra.mapping.promises.impl;
 
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.TableMetadata;
 import com.datastax.driver.mapping.Mapper;
 import com.datastax.driver.mapping.MappingManager;
 import com.englishtown.promises.When;
 import com.englishtown.vertx.cassandra.CassandraSession;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCache;
+import com.englishtown.vertx.cassandra.mapping.cache.NearCacheOptions;
+import com.englishtown.vertx.cassandra.mapping.codec.CodecEntityOperations;
+import com.englishtown.vertx.cassandra.mapping.codec.EntityCodec;
+import com.englishtown.vertx.cassandra.mapping.codec.EntityCodecs;
+import com.englishtown.vertx.cassandra.mapping.impl.AccessorInvocationHandler;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityIntrospector;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityOperations;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityRowMapper;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityStreamer;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityWriter;
+import com.englishtown.vertx.cassandra.mapping.impl.IntrospectorEntityOperations;
+import com.englishtown.vertx.cassandra.mapping.impl.JsonTable;
+import com.englishtown.vertx.cassandra.mapping.impl.MapperComponents;
+import com.englishtown.vertx.cassandra.mapping.impl.MapperEntityOperations;
+import com.englishtown.vertx.cassandra.mapping.impl.ProjectionReader;
+import com.englishtown.vertx.cassandra.mapping.impl.VertxFutureAdapter;
+import com.englishtown.vertx.cassandra.mapping.promises.WhenJsonMapper;
 import com.englishtown.vertx.cassandra.mapping.promises.WhenVertxMapper;
 import com.englishtown.vertx.cassandra.mapping.promises.WhenVertxMappingManager;
 
 import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Default implementation of {@link WhenVertxMappingManager}
@@ -17,6 +41,13 @@ public class DefaultWhenVertxMappingManager implements WhenVertxMappingManager {
     private final CassandraSession session;
     private final When when;
     private final MappingManager mappingManager;
+    private final Map<Class<?>, NearCache<?>> nearCaches = new ConcurrentHashMap<>();
+    private final Map<Class<?>, EntityIntrospector<?>> introspectors = new ConcurrentHashMap<>();
+    private final Map<Class<?>, EntityOperations<?>> operations = new ConcurrentHashMap<>();
+    private final Map<Class<?>, EntityWriter<?>> writers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ProjectionReader<?>> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, EntityStreamer<?>> streamers = new ConcurrentHashMap<>();
+    private final Map<String, JsonTable> jsonTables = new ConcurrentHashMap<>();
 
     @Inject
     public DefaultWhenVertxMappingManager(CassandraSession session, When when) {
@@ -36,7 +67,8 @@ public class DefaultWhenVertxMappingManager implements WhenVertxMappingManager {
     }
 
     /**
-     * Returns a vert.x wrapped {@link Mapper}
+     * Returns a vert.x wrapped {@link Mapper}.  Entities with a generated {@link EntityCodec} are read and written
+     * through the codec instead of the reflective mapper.
      *
      * @param klass
      * @return
@@ -44,6 +76,131 @@ public class DefaultWhenVertxMappingManager implements WhenVertxMappingManager {
     @Override
     public <T> WhenVertxMapper<T> mapper(Class<T> klass) {
         Mapper<T> mapper = getMappingManager().mapper(klass);
-        return new DefaultWhenVertxMapper<>(mapper, when, session.getVertx());
+        return new DefaultWhenVertxMapper<>(getComponents(klass, mapper), when, session.getVertx());
     }
+
+    /**
+     * Enables a near cache for an entity class.  Mappers returned afterwards read through and invalidate it.
+     *
+     * @param klass   the entity class
+     * @param options the near cache options
+     * @return the near cache
+     */
+    @Override
+    public <T> NearCache<T> enableNearCache(Class<T> klass, NearCacheOptions options) {
+        NearCache<T> nearCache = new NearCache<>(klass, options, session.getVertx(), session.getMetricRegistry());
+        NearCache<?> existing = nearCaches.put(klass, nearCache);
+        if (existing != null) {
+            existing.close();
+        }
+        return nearCache;
+    }
+
+    /**
+     * Enables dirty tracking for an entity class
+     *
+     * @param klass the entity class
+     */
+    @Override
+    public <T> void enableDirtyTracking(Class<T> klass) {
+        getWriter(klass).setDirtyTracking(true);
+    }
+
+    /**
+     * Creates an implementation of an accessor interface with async query methods
+     *
+     * @param klass the accessor interface
+     * @return the accessor
+     */
+    @Override
+    public <T> T createAccessor(Class<T> klass) {
+        return AccessorInvocationHandler.create(klass, session, session.getVertx(), this::createRowMapper,
+                Arrays.asList(
+                new PromiseAdapter(when, session.getVertx()),
+                new VertxFutureAdapter(session.getVertx())));
+    }
+
+    /**
+     * Returns a mapper that reads and writes the rows of a table as JSON objects
+     *
+     * @param keyspace the keyspace name
+     * @param table    the table name
+     * @return the JSON mapper
+     */
+    @Override
+    public WhenJsonMapper jsonMapper(String keyspace, String table) {
+        return new DefaultWhenJsonMapper(getJsonTable(keyspace, table), when, session.getVertx());
+    }
+
+    private JsonTable getJsonTable(String keyspace, String table) {
+        return jsonTables.computeIfAbsent(keyspace + "." + table, k -> {
+            KeyspaceMetadata keyspaceMetadata = session.getMetadata().getKeyspace(keyspace);
+            TableMetadata tableMetadata = keyspaceMetadata == null ? null : keyspaceMetadata.getTable(table);
+            if (tableMetadata == null) {
+                throw new IllegalArgumentException("Table " + k + " does not exist");
+            }
+            return new JsonTable(tableMetadata, session);
+        });
+    }
+
+    private <T> EntityRowMapper<T> createRowMapper(Class<T> klass) {
+        return new EntityRowMapper<>(EntityCodecs.find(klass), getIntrospector(klass), session);
+    }
+
+    private <T> MapperComponents<T> getComponents(Class<T> klass, Mapper<T> mapper) {
+        return new MapperComponents<>(mapper)
+                .setOperations(getOperations(klass, mapper))
+                .setWriter(getWriter(klass))
+                .setReader(getReader(klass))
+                .setStreamer(getStreamer(klass))
+                .setIntrospector(getIntrospector(klass))
+                .setNearCache(getNearCache(klass));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> EntityIntrospector<T> getIntrospector(Class<T> klass) {
+        return (EntityIntrospector<T>) introspectors.computeIfAbsent(klass, k -> {
+            EntityIntrospector<T> introspector = new EntityIntrospector<>(klass);
+            introspector.getCompressedColumns().forEach((column, codec) -> codec.registerMetrics(
+                    session.getMetricRegistry(), MetricRegistry.name("compression", klass.getSimpleName(), column)));
+            return introspector;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> EntityWriter<T> getWriter(Class<T> klass) {
+        return (EntityWriter<T>) writers.computeIfAbsent(klass, k -> new EntityWriter<>(getIntrospector(klass), session));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ProjectionReader<T> getReader(Class<T> klass) {
+        return (ProjectionReader<T>) readers.computeIfAbsent(klass,
+                k -> new ProjectionReader<>(getIntrospector(klass), session, this::createRowMapper));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> EntityStreamer<T> getStreamer(Class<T> klass) {
+        return (EntityStreamer<T>) streamers.computeIfAbsent(klass,
+                k -> new EntityStreamer<>(getIntrospector(klass), session, createRowMapper(klass)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> EntityOperations<T> getOperations(Class<T> klass, Mapper<T> mapper) {
+        return (EntityOperations<T>) operations.computeIfAbsent(klass, k -> {
+            EntityCodec<T> codec = EntityCodecs.find(klass);
+            if (codec != null) {
+                return new CodecEntityOperations<>(codec, session);
+            }
+            if (getIntrospector(klass).hasCompressedColumns()) {
+                return new IntrospectorEntityOperations<>(getIntrospector(klass), getWriter(klass), getReader(klass), session);
+            }
+            return new MapperEntityOperations<>(mapper);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> NearCache<T> getNearCache(Class<T> klass) {
+        return (NearCache<T>) nearCaches.get(klass);
+    }
+
 }
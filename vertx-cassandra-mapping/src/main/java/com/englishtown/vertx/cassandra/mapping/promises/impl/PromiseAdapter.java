@@ -0,0 +1,50 @@
+package com.englishtown.vertx.cassandra.mapping.promises.impl;
+
+import com.englishtown.promises.Deferred;
+import com.englishtown.promises.Promise;
+import com.englishtown.promises.When;
+import com.englishtown.vertx.cassandra.FutureUtils;
+import com.englishtown.vertx.cassandra.mapping.impl.AccessorResultAdapter;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.Vertx;
+
+/**
+ * Adapts accessor query results to when.java {@link Promise}s resolved on the vert.x context
+ */
+public class PromiseAdapter implements AccessorResultAdapter {
+
+    private final When when;
+    private final Vertx vertx;
+
+    public PromiseAdapter(When when, Vertx vertx) {
+        this.when = when;
+        this.vertx = vertx;
+    }
+
+    @Override
+    public Class<?> getResultType() {
+        return Promise.class;
+    }
+
+    @Override
+    public Object adapt(ListenableFuture<Object> future) {
+
+        Deferred<Object> d = when.defer();
+
+        FutureUtils.addCallback(future, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(Object result) {
+                d.resolve(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                d.reject(t);
+            }
+        }, vertx);
+
+        return d.getPromise();
+    }
+
+}
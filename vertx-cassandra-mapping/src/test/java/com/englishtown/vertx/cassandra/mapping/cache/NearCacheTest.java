@@ -0,0 +1,190 @@
+package com.englishtown.vertx.cassandra.mapping.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import com.englishtown.vertx.cassandra.mapping.integration.TestEntity;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link NearCache}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class NearCacheTest {
+
+    private NearCache<TestEntity> nearCache;
+    private MetricRegistry registry = new MetricRegistry();
+    private TestEntity entity = new TestEntity();
+    private String address = NearCache.ADDRESS_PREFIX + TestEntity.class.getName();
+
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private EventBus eventBus;
+    @Mock
+    private MessageConsumer<JsonObject> consumer;
+    @Mock
+    private Message<JsonObject> message;
+    @Mock
+    private Supplier<ListenableFuture<TestEntity>> loader;
+    @Captor
+    private ArgumentCaptor<Handler<Message<JsonObject>>> handlerCaptor;
+    @Captor
+    private ArgumentCaptor<JsonObject> messageCaptor;
+
+    @Before
+    public void setUp() throws Exception {
+
+        entity.setId("123");
+        entity.setProp1("value");
+
+        when(vertx.eventBus()).thenReturn(eventBus);
+        when(eventBus.<JsonObject>consumer(anyString(), any())).thenReturn(consumer);
+        when(loader.get()).thenReturn(Futures.immediateFuture(entity));
+
+        nearCache = new NearCache<>(TestEntity.class, new NearCacheOptions(), vertx, registry);
+        verify(eventBus).consumer(eq(address), handlerCaptor.capture());
+
+    }
+
+    @Test
+    public void testGet() throws Exception {
+
+        TestEntity result1 = nearCache.get(new Object[]{"123"}, loader).get();
+        TestEntity result2 = nearCache.get(new Object[]{"123"}, loader).get();
+
+        verify(loader, times(1)).get();
+        assertEquals(entity, result1);
+        assertNotSame(result1, result2);
+        assertEquals("value", result2.getProp1());
+
+        assertEquals(1L, registry.getGauges().get("near-cache.TestEntity.hits").getValue());
+        assertEquals(1L, registry.getGauges().get("near-cache.TestEntity.misses").getValue());
+
+        // Changing a returned entity does not change the cache
+        result2.setProp1("changed");
+        assertEquals("value", nearCache.get(new Object[]{"123"}, loader).get().getProp1());
+
+    }
+
+    @Test
+    public void testWrite_Invalidates() throws Exception {
+
+        nearCache.get(new Object[]{"123"}, loader).get();
+        assertEquals(1, nearCache.size());
+
+        SettableFuture<Void> write = SettableFuture.create();
+        nearCache.write(entity, () -> write);
+        assertEquals(0, nearCache.size());
+
+        write.set(null);
+        verify(eventBus).publish(eq(address), messageCaptor.capture());
+        assertEquals(new JsonArray().add("123"), messageCaptor.getValue().getJsonArray("key"));
+
+        nearCache.get(new Object[]{"123"}, loader).get();
+        verify(loader, times(2)).get();
+
+    }
+
+    @Test
+    public void testGet_Racing_Write_Not_Cached() throws Exception {
+
+        SettableFuture<TestEntity> read = SettableFuture.create();
+        when(loader.get()).thenReturn(read);
+        nearCache.get(new Object[]{"123"}, loader);
+
+        nearCache.write(entity, () -> Futures.immediateFuture(null));
+        read.set(entity);
+
+        assertEquals(0, nearCache.size());
+
+    }
+
+    @Test
+    public void testGet_Racing_Other_Write_Cached() throws Exception {
+
+        SettableFuture<TestEntity> read = SettableFuture.create();
+        when(loader.get()).thenReturn(read);
+        nearCache.get(new Object[]{"123"}, loader);
+
+        // Writes of other keys don't affect the read
+        nearCache.write(new Object[]{"456"}, () -> Futures.immediateFuture(null));
+        read.set(entity);
+
+        assertEquals(1, nearCache.size());
+
+    }
+
+    @Test
+    public void testGet_Failed_Not_Cached() throws Exception {
+
+        when(loader.get()).thenReturn(Futures.immediateFailedFuture(new RuntimeException()));
+        try {
+            nearCache.get(new Object[]{"123"}, loader).get();
+            fail();
+        } catch (ExecutionException e) {
+            // Expected
+        }
+
+        when(loader.get()).thenReturn(Futures.immediateFuture(entity));
+        nearCache.get(new Object[]{"123"}, loader).get();
+        assertEquals(1, nearCache.size());
+
+    }
+
+    @Test
+    public void testRemote_Invalidation() throws Exception {
+
+        nearCache.get(new Object[]{"123"}, loader).get();
+        assertEquals(1, nearCache.size());
+
+        // Own messages are ignored
+        nearCache.invalidate("456");
+        verify(eventBus).publish(eq(address), messageCaptor.capture());
+        when(message.body()).thenReturn(messageCaptor.getValue());
+        handlerCaptor.getValue().handle(message);
+        assertEquals(1, nearCache.size());
+
+        when(message.body()).thenReturn(new JsonObject()
+                .put("origin", "other")
+                .put("key", new JsonArray().add("123")));
+        handlerCaptor.getValue().handle(message);
+        assertEquals(0, nearCache.size());
+
+    }
+
+    @Test
+    public void testNo_Broadcast() throws Exception {
+
+        reset(eventBus);
+        nearCache = new NearCache<>(TestEntity.class, new NearCacheOptions().setBroadcast(false), vertx, null);
+        nearCache.invalidate("123");
+
+        verifyZeroInteractions(eventBus);
+
+    }
+
+}
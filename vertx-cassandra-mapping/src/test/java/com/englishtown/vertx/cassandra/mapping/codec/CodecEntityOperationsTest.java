@@ -0,0 +1,116 @@
+package com.englishtown.vertx.cassandra.mapping.codec;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.mapping.integration.TestEntity;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CodecEntityOperations}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CodecEntityOperationsTest {
+
+    private CodecEntityOperations<TestEntity> operations;
+    private TestEntity entity = new TestEntity();
+
+    @Mock
+    private EntityCodec<TestEntity> codec;
+    @Mock
+    private Session session;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private BoundStatement boundStatement;
+    @Mock
+    private ResultSetFuture resultSetFuture;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private Row row;
+
+    @Before
+    public void setUp() throws Exception {
+
+        when(codec.getSelectQuery()).thenReturn("select");
+        when(codec.getInsertQuery()).thenReturn("insert");
+        when(codec.getReadConsistency()).thenReturn(ConsistencyLevel.LOCAL_QUORUM);
+        when(codec.decode(row)).thenReturn(entity);
+        when(codec.bindInsert(preparedStatement, entity)).thenReturn(boundStatement);
+
+        when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(preparedStatement));
+        when(preparedStatement.bind(any())).thenReturn(boundStatement);
+        when(session.executeAsync(any(Statement.class))).thenReturn(resultSetFuture);
+        when(resultSetFuture.get()).thenReturn(resultSet);
+        when(resultSetFuture.isDone()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(resultSetFuture).addListener(any(), any());
+        when(resultSet.one()).thenReturn(row);
+
+        operations = new CodecEntityOperations<>(codec, session);
+
+    }
+
+    @Test
+    public void testGetAsync() throws Exception {
+
+        assertEquals(entity, operations.getAsync("123").get());
+        assertEquals(entity, operations.getAsync("456").get());
+
+        // Prepared once
+        verify(session, times(1)).prepareAsync("select");
+        verify(preparedStatement).bind("123");
+        verify(boundStatement, times(2)).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+
+        when(resultSet.one()).thenReturn(null);
+        assertNull(operations.getAsync("789").get());
+
+    }
+
+    @Test
+    public void testSaveAsync() throws Exception {
+
+        operations.saveAsync(entity).get();
+
+        verify(session).prepareAsync("insert");
+        verify(session).executeAsync(boundStatement);
+        verify(boundStatement, never()).setConsistencyLevel(any());
+
+    }
+
+    @Test
+    public void testPrepare_Failure_Retried() throws Exception {
+
+        SettableFuture<PreparedStatement> failed = SettableFuture.create();
+        failed.setException(new RuntimeException());
+        when(session.prepareAsync(anyString())).thenReturn(failed, Futures.immediateFuture(preparedStatement));
+
+        ListenableFuture<TestEntity> future = operations.getAsync("123");
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            // expected
+        }
+
+        assertEquals(entity, operations.getAsync("123").get());
+        verify(session, times(2)).prepareAsync("select");
+
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.englishtown.vertx.cassandra.mapping.codec;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.mapping.annotations.ClusteringColumn;
+import com.datastax.driver.mapping.annotations.Column;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import com.datastax.driver.mapping.annotations.Transient;
+import com.englishtown.vertx.cassandra.mapping.integration.TestEntity;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EntityCodecs} and the codecs generated by the entity codec processor
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EntityCodecsTest {
+
+    @Mock
+    private Row row;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private BoundStatement boundStatement;
+
+    @Test
+    public void testFind() throws Exception {
+
+        EntityCodec<TestEntity> codec = EntityCodecs.find(TestEntity.class);
+
+        assertNotNull(codec);
+        assertEquals(TestEntity.class, codec.getEntityClass());
+        assertEquals("SELECT id,prop1,prop2 FROM test_vertx_mod_cass.test_entity WHERE id=?", codec.getSelectQuery());
+        assertEquals("INSERT INTO test_vertx_mod_cass.test_entity (id,prop1,prop2) VALUES (?,?,?)", codec.getInsertQuery());
+        assertEquals("DELETE FROM test_vertx_mod_cass.test_entity WHERE id=?", codec.getDeleteQuery());
+        assertNull(codec.getReadConsistency());
+
+    }
+
+    @Test
+    public void testFind_Not_Generated() throws Exception {
+        assertNull(EntityCodecs.find(String.class));
+    }
+
+    @Test
+    public void testGetCodecClassName() throws Exception {
+        assertEquals("a.b.Entity_Codec", EntityCodecs.getCodecClassName("a.b.Entity"));
+        assertEquals("a.b.Outer_Inner_Codec", EntityCodecs.getCodecClassName("a.b.Outer$Inner"));
+        assertEquals("Entity_Codec", EntityCodecs.getCodecClassName("Entity"));
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+
+        EntityCodec<TestEntity> codec = EntityCodecs.find(TestEntity.class);
+
+        when(row.getString(0)).thenReturn("123");
+        when(row.getString(1)).thenReturn("value");
+        when(row.isNull(2)).thenReturn(true);
+
+        TestEntity entity = codec.decode(row);
+
+        assertEquals("123", entity.getId());
+        assertEquals("value", entity.getProp1());
+        assertNull(entity.getProp2());
+        verify(row, never()).getInt(2);
+
+    }
+
+    @Test
+    public void testBindInsert() throws Exception {
+
+        EntityCodec<TestEntity> codec = EntityCodecs.find(TestEntity.class);
+        when(preparedStatement.bind()).thenReturn(boundStatement);
+
+        TestEntity entity = new TestEntity();
+        entity.setId("123");
+
+        assertEquals(boundStatement, codec.bindInsert(preparedStatement, entity));
+        verify(boundStatement).setString(0, "123");
+        verify(boundStatement).setBytesUnsafe(1, null);
+        verify(boundStatement).setBytesUnsafe(2, null);
+
+    }
+
+    @Test
+    public void testCompound_Key_Entity() throws Exception {
+
+        EntityCodec<CodecEntity> codec = EntityCodecs.find(CodecEntity.class);
+        assertNotNull(codec);
+
+        assertEquals("SELECT b,a,c,tag_list,flag FROM codec_entity WHERE a=? AND b=? AND c=?", codec.getSelectQuery());
+        assertEquals(ConsistencyLevel.QUORUM, codec.getWriteConsistency());
+
+        CodecEntity entity = new CodecEntity();
+        entity.setA("a");
+        entity.setB(1);
+        entity.setC(UUID.randomUUID());
+        assertArrayEquals(new Object[]{"a", 1, entity.getC()}, codec.getPrimaryKey(entity));
+
+        List<String> tags = Arrays.asList("x", "y");
+        when(row.getList(3, String.class)).thenReturn(tags);
+        when(row.getBool(4)).thenReturn(true);
+
+        CodecEntity decoded = codec.decode(row);
+        assertEquals(tags, decoded.getTags());
+        assertTrue(decoded.isFlag());
+
+    }
+
+    @Table(name = "codec_entity", writeConsistency = "quorum")
+    public static class CodecEntity {
+
+        @PartitionKey(1)
+        private int b;
+        @PartitionKey(0)
+        private String a;
+        @ClusteringColumn
+        private UUID c;
+        @Column(name = "tag_list")
+        private List<String> tags;
+        private boolean flag;
+        @Transient
+        private Object ignored;
+
+        public int getB() {
+            return b;
+        }
+
+        public void setB(int b) {
+            this.b = b;
+        }
+
+        public String getA() {
+            return a;
+        }
+
+        public void setA(String a) {
+            this.a = a;
+        }
+
+        public UUID getC() {
+            return c;
+        }
+
+        public void setC(UUID c) {
+            this.c = c;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public boolean isFlag() {
+            return flag;
+        }
+
+        public void setFlag(boolean flag) {
+            this.flag = flag;
+        }
+
+    }
+
+}
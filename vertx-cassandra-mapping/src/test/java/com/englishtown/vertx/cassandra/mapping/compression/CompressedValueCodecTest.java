@@ -0,0 +1,112 @@
+package com.englishtown.vertx.cassandra.mapping.compression;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import com.englishtown.vertx.cassandra.mapping.annotations.Compressed;
+import com.englishtown.vertx.cassandra.mapping.impl.EntityIntrospector;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CompressedValueCodec}
+ */
+public class CompressedValueCodecTest {
+
+    @Table(keyspace = "test_vertx_mod_cass", name = "compressed_entity")
+    public static class CompressedEntity {
+        @PartitionKey
+        private String id;
+        @Compressed(threshold = 100)
+        private String document;
+    }
+
+    private String document(int length) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append("{\"name\":\"value\",\"count\":").append(sb.length() % 10).append("}");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testEncode_Compressed() throws Exception {
+
+        CompressedValueCodec codec = new CompressedValueCodec(100, String.class);
+        String value = document(4096);
+
+        ByteBuffer blob = codec.encode(value);
+
+        assertEquals(CompressedValueCodec.FORMAT_LZ4, blob.get(0));
+        assertEquals(value.length(), blob.getInt(1));
+        assertTrue(blob.remaining() < value.length() / 2);
+        assertEquals(value, codec.decode(blob));
+        assertEquals(1, codec.getRatio().getCount());
+
+    }
+
+    @Test
+    public void testEncode_Below_Threshold() throws Exception {
+
+        CompressedValueCodec codec = new CompressedValueCodec(100, byte[].class);
+        byte[] value = "short".getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer blob = codec.encode(value);
+
+        assertEquals(CompressedValueCodec.FORMAT_RAW, blob.get(0));
+        assertEquals(value.length + 1, blob.remaining());
+        assertArrayEquals(value, (byte[]) codec.decode(blob));
+        assertEquals(0, codec.getRatio().getCount());
+
+    }
+
+    @Test
+    public void testEncode_Null() throws Exception {
+
+        CompressedValueCodec codec = new CompressedValueCodec(100, ByteBuffer.class);
+        assertNull(codec.encode(null));
+        assertNull(codec.decode(null));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupported_Type() throws Exception {
+        new CompressedValueCodec(100, Integer.class);
+    }
+
+    @Test
+    public void testRegisterMetrics() throws Exception {
+
+        MetricRegistry registry = new MetricRegistry();
+        new CompressedValueCodec(100, String.class).registerMetrics(registry, "compression.Entity.document");
+        new CompressedValueCodec(100, String.class).registerMetrics(registry, "compression.Entity.document");
+
+        assertNotNull(registry.getHistograms().get("compression.Entity.document.ratio"));
+        assertNotNull(registry.getTimers().get("compression.Entity.document.compress"));
+        assertNotNull(registry.getTimers().get("compression.Entity.document.decompress"));
+
+    }
+
+    @Test
+    public void testIntrospector() throws Exception {
+
+        EntityIntrospector<CompressedEntity> introspector = new EntityIntrospector<>(CompressedEntity.class);
+        assertTrue(introspector.hasCompressedColumns());
+        assertEquals(1, introspector.getCompressedColumns().size());
+
+        String value = document(1000);
+        Object column = introspector.toColumnValue(1, value);
+        assertTrue(column instanceof ByteBuffer);
+        assertEquals("123", introspector.toColumnValue(0, "123"));
+
+        CompressedEntity entity = introspector.newInstance();
+        introspector.set(entity, 1, column);
+        assertEquals(value, entity.document);
+
+    }
+
+}
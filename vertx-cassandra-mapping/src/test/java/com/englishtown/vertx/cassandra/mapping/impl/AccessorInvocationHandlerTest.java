@@ -0,0 +1,181 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.*;
+import com.datastax.driver.mapping.annotations.Accessor;
+import com.datastax.driver.mapping.annotations.Query;
+import com.englishtown.vertx.cassandra.mapping.integration.TestEntity;
+import com.google.common.util.concurrent.Futures;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AccessorInvocationHandler}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AccessorInvocationHandlerTest {
+
+    private TestAccessor accessor;
+    private TestEntity entity = new TestEntity();
+
+    @Mock
+    private Session session;
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private Context context;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private BoundStatement boundStatement;
+    @Mock
+    private ResultSetFuture resultSetFuture;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private Row row;
+
+    @Accessor
+    public interface TestAccessor {
+
+        @Query("SELECT * FROM test_entity WHERE id=?")
+        Future<TestEntity> get(String id);
+
+        @Query(value = "SELECT * FROM test_entity", consistency = "local_quorum", fetchSize = 100)
+        Future<List<TestEntity>> getAll();
+
+        @Query("DELETE FROM test_entity WHERE id=?")
+        Future<Void> delete(String id);
+
+        @Query("SELECT * FROM test_entity")
+        ReadStream<Row> stream();
+
+    }
+
+    public interface NotAnAccessor {
+    }
+
+    @Accessor
+    public interface UnsupportedAccessor {
+
+        @Query("SELECT * FROM test_entity")
+        List<TestEntity> getAll();
+
+    }
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+
+        when(vertx.getOrCreateContext()).thenReturn(context);
+        doAnswer(invocation -> {
+            ((Handler<Void>) invocation.getArguments()[0]).handle(null);
+            return null;
+        }).when(context).runOnContext(any());
+
+        when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(preparedStatement));
+        when(preparedStatement.bind(anyVararg())).thenReturn(boundStatement);
+        when(session.executeAsync(any(Statement.class))).thenReturn(resultSetFuture);
+        when(resultSetFuture.get()).thenReturn(resultSet);
+        when(resultSetFuture.isDone()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(resultSetFuture).addListener(any(), any());
+        when(resultSet.one()).thenReturn(row);
+        when(resultSet.isFullyFetched()).thenReturn(true);
+
+        accessor = AccessorInvocationHandler.create(TestAccessor.class, session, vertx, klass -> r -> entity,
+                Collections.singletonList(new VertxFutureAdapter(vertx)));
+
+    }
+
+    @Test
+    public void testCreate_Prepares() throws Exception {
+        verify(session).prepareAsync("SELECT * FROM test_entity WHERE id=?");
+        verify(session).prepareAsync("DELETE FROM test_entity WHERE id=?");
+        verify(session, times(4)).prepareAsync(anyString());
+    }
+
+    @Test
+    public void testGet() throws Exception {
+
+        Future<TestEntity> future = accessor.get("123");
+
+        assertTrue(future.succeeded());
+        assertEquals(entity, future.result());
+        verify(preparedStatement).bind("123");
+
+    }
+
+    @Test
+    public void testGetAll() throws Exception {
+
+        when(resultSet.iterator()).thenReturn(Arrays.asList(row, row).iterator());
+
+        Future<List<TestEntity>> future = accessor.getAll();
+
+        assertEquals(Arrays.asList(entity, entity), future.result());
+        verify(boundStatement).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        verify(boundStatement).setFetchSize(100);
+
+    }
+
+    @Test
+    public void testDelete_Failure() throws Exception {
+
+        RuntimeException e = new RuntimeException();
+        when(session.executeAsync(any(Statement.class))).thenThrow(e);
+
+        Future<Void> future = accessor.delete("123");
+
+        assertTrue(future.failed());
+        assertEquals(e, future.cause());
+
+    }
+
+    @Test
+    public void testStream_Starts_With_Handler() throws Exception {
+
+        ReadStream<Row> stream = accessor.stream();
+        verify(session, never()).executeAsync(any(Statement.class));
+
+        when(resultSet.getAvailableWithoutFetching()).thenReturn(1, 0);
+        Handler<Row> handler = mock(Handler.class);
+        Handler<Void> endHandler = mock(Handler.class);
+        stream.endHandler(endHandler).handler(handler);
+
+        verify(handler).handle(row);
+        verify(endHandler).handle(null);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_Not_Accessor() throws Exception {
+        AccessorInvocationHandler.create(NotAnAccessor.class, session, vertx, klass -> r -> entity, Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_Unsupported_Return_Type() throws Exception {
+        AccessorInvocationHandler.create(UnsupportedAccessor.class, session, vertx, klass -> r -> entity,
+                Collections.singletonList(new VertxFutureAdapter(vertx)));
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.mapping.Mapper;
+import com.datastax.driver.mapping.MappingManager;
+import com.englishtown.vertx.cassandra.mapping.integration.TestEntity;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BulkMapperSupport}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BulkMapperSupportTest {
+
+    private BulkMapperSupport<TestEntity> bulk;
+
+    @Mock
+    private Mapper<TestEntity> mapper;
+    @Mock
+    private MappingManager mappingManager;
+    @Mock
+    private Session session;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSetFuture resultSetFuture;
+    @Captor
+    private ArgumentCaptor<Statement> statementCaptor;
+
+    @Before
+    public void setUp() throws Exception {
+
+        bulk = new BulkMapperSupport<>(mapper, new EntityIntrospector<>(TestEntity.class), null);
+
+        when(mapper.getManager()).thenReturn(mappingManager);
+        when(mappingManager.getSession()).thenReturn(session);
+        when(session.executeAsync(any(Statement.class))).thenReturn(resultSetFuture);
+        when(mapper.saveQuery(any())).thenReturn(statement);
+        when(mapper.saveAsync(any())).thenReturn(Futures.immediateFuture(null));
+
+    }
+
+    private TestEntity entity(String id) {
+        TestEntity entity = new TestEntity();
+        entity.setId(id);
+        return entity;
+    }
+
+    @Test
+    public void testSaveAll_Grouped_By_Partition() throws Exception {
+
+        TestEntity a1 = entity("a");
+        TestEntity a2 = entity("a");
+        TestEntity b = entity("b");
+
+        bulk.saveAll(Arrays.asList(a1, b, a2), 10);
+
+        // Same partition in one unlogged batch
+        verify(session).executeAsync(statementCaptor.capture());
+        BatchStatement batch = (BatchStatement) statementCaptor.getValue();
+        assertEquals(2, batch.size());
+        verify(mapper).saveQuery(a1);
+        verify(mapper).saveQuery(a2);
+
+        verify(mapper).saveAsync(b);
+
+    }
+
+    @Test
+    public void testSaveAll_Bounded_Concurrency() throws Exception {
+
+        List<SettableFuture<Void>> futures = new ArrayList<>();
+        when(mapper.saveAsync(any())).thenAnswer(invocation -> {
+            SettableFuture<Void> future = SettableFuture.create();
+            futures.add(future);
+            return future;
+        });
+
+        ListenableFuture<Void> result = bulk.saveAll(Arrays.asList(entity("a"), entity("b"), entity("c")), 2);
+
+        assertEquals(2, futures.size());
+        futures.get(0).set(null);
+        assertEquals(3, futures.size());
+        futures.get(1).set(null);
+        futures.get(2).set(null);
+
+        assertTrue(result.isDone());
+        verify(session, never()).executeAsync(any(Statement.class));
+
+    }
+
+    @Test
+    public void testGetAll_Ordered() throws Exception {
+
+        TestEntity a = entity("a");
+        TestEntity b = entity("b");
+        SettableFuture<TestEntity> futureA = SettableFuture.create();
+        when(mapper.getAsync("a")).thenReturn(futureA);
+        when(mapper.getAsync("b")).thenReturn(Futures.immediateFuture(b));
+        when(mapper.getAsync("c")).thenReturn(Futures.immediateFuture(null));
+
+        ListenableFuture<List<TestEntity>> result = bulk.getAll(Arrays.asList(
+                new Object[]{"a"}, new Object[]{"b"}, new Object[]{"c"}), 3);
+
+        assertFalse(result.isDone());
+        futureA.set(a);
+        assertEquals(Arrays.asList(a, b, null), result.get());
+
+    }
+
+}
@@ -14,6 +14,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +39,8 @@ public class DefaultVertxMapperTest {
     private ListenableFuture<Void> voidFuture;
     @Mock
     private ListenableFuture<TestEntity> entityFuture;
+    @Mock
+    private EntityOperations<TestEntity> operations;
 
     @Before
     public void setUp() throws Exception {
@@ -98,4 +101,17 @@ public class DefaultVertxMapperTest {
 
     }
 
+    @Test
+    public void testSaveAsync_Components() throws Exception {
+
+        when(operations.saveAsync(eq(entity))).thenReturn(voidFuture);
+        mapper = new DefaultVertxMapper<>(new MapperComponents<>(rawMapper).setOperations(operations), vertx);
+
+        mapper.saveAsync(entity, voidCallback);
+        verify(operations).saveAsync(eq(entity));
+        verify(rawMapper, never()).saveAsync(any());
+        assertNull(mapper.getNearCache());
+
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.mapping.integration.TestEntity;
+import com.google.common.util.concurrent.Futures;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EntityStreamer}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EntityStreamerTest {
+
+    private EntityStreamer<TestEntity> streamer;
+    private List<TestEntity> entities = new ArrayList<>();
+    private int available;
+
+    @Mock
+    private Session session;
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private Context context;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private BoundStatement boundStatement;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSetFuture resultSetFuture;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private Row row;
+    @Mock
+    private Handler<Void> endHandler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+
+        when(vertx.getOrCreateContext()).thenReturn(context);
+        doAnswer(invocation -> {
+            ((Handler<Void>) invocation.getArguments()[0]).handle(null);
+            return null;
+        }).when(context).runOnContext(any());
+
+        when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(preparedStatement));
+        when(preparedStatement.bind(anyVararg())).thenReturn(boundStatement);
+        when(session.executeAsync(any(Statement.class))).thenReturn(resultSetFuture);
+        when(resultSetFuture.get()).thenReturn(resultSet);
+        when(resultSetFuture.isDone()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(resultSetFuture).addListener(any(), any());
+
+        // One page of two rows
+        available = 2;
+        when(resultSet.getAvailableWithoutFetching()).thenAnswer(invocation -> available);
+        when(resultSet.isFullyFetched()).thenReturn(true);
+        when(resultSet.one()).thenAnswer(invocation -> {
+            available--;
+            return row;
+        });
+
+        streamer = new EntityStreamer<>(new EntityIntrospector<>(TestEntity.class), session, r -> new TestEntity());
+
+    }
+
+    @Test
+    public void testStreamPartition() throws Exception {
+
+        streamer.streamPartition(vertx, "123").endHandler(endHandler).handler(entities::add);
+
+        verify(session).prepareAsync("SELECT id,prop1,prop2 FROM test_vertx_mod_cass.test_entity WHERE id=?");
+        verify(preparedStatement).bind("123");
+        verify(session).executeAsync(boundStatement);
+        assertEquals(2, entities.size());
+        verify(endHandler).handle(null);
+
+    }
+
+    @Test
+    public void testStream() throws Exception {
+
+        streamer.stream(statement, vertx).handler(entities::add);
+
+        verify(session).executeAsync(statement);
+        assertEquals(2, entities.size());
+
+    }
+
+    @Test
+    public void testStream_Not_Started() throws Exception {
+
+        streamer.stream(statement, vertx);
+        verify(session, never()).executeAsync(any(Statement.class));
+
+    }
+
+}
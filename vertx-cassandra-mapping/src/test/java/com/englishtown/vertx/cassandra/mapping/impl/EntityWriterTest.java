@@ -0,0 +1,174 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.*;
+import com.datastax.driver.core.policies.FallthroughRetryPolicy;
+import com.datastax.driver.mapping.EnumType;
+import com.datastax.driver.mapping.annotations.Enumerated;
+import com.datastax.driver.mapping.annotations.PartitionKey;
+import com.datastax.driver.mapping.annotations.Table;
+import com.englishtown.vertx.cassandra.mapping.SaveMode;
+import com.englishtown.vertx.cassandra.mapping.WriteOptions;
+import com.englishtown.vertx.cassandra.mapping.integration.TestEntity;
+import com.google.common.util.concurrent.Futures;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EntityWriter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EntityWriterTest {
+
+    private EntityWriter<TestEntity> writer;
+    private TestEntity entity = new TestEntity();
+
+    @Mock
+    private Session session;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private BoundStatement boundStatement;
+    @Mock
+    private ResultSetFuture resultSetFuture;
+    @Mock
+    private ResultSet resultSet;
+
+    @Before
+    public void setUp() throws Exception {
+
+        when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(preparedStatement));
+        when(preparedStatement.bind(anyVararg())).thenReturn(boundStatement);
+        when(session.executeAsync(any(Statement.class))).thenReturn(resultSetFuture);
+        when(resultSetFuture.get()).thenReturn(resultSet);
+        when(resultSetFuture.isDone()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(resultSetFuture).addListener(any(), any());
+
+        entity.setId("123");
+        entity.setProp1("value");
+
+        writer = new EntityWriter<>(new EntityIntrospector<>(TestEntity.class), session);
+
+    }
+
+    @Test
+    public void testSave_Skip_Nulls() throws Exception {
+
+        writer.save(entity, SaveMode.SKIP_NULLS).get();
+
+        verify(session).prepareAsync("INSERT INTO test_vertx_mod_cass.test_entity (id,prop1) VALUES (?,?)");
+        verify(preparedStatement).bind("123", "value");
+
+        // Same column set reuses the prepared statement
+        entity.setProp1("other");
+        writer.save(entity, SaveMode.SKIP_NULLS).get();
+        assertEquals(1, writer.getPreparedCount());
+        verify(session, times(1)).prepareAsync(anyString());
+
+        entity.setProp2(5);
+        writer.save(entity, SaveMode.SKIP_NULLS).get();
+        verify(session).prepareAsync("INSERT INTO test_vertx_mod_cass.test_entity (id,prop1,prop2) VALUES (?,?,?)");
+        assertEquals(2, writer.getPreparedCount());
+
+    }
+
+    @Test
+    public void testSave_Dirty() throws Exception {
+
+        writer.setDirtyTracking(true);
+        writer.track(entity);
+
+        // Nothing changed
+        writer.save(entity, SaveMode.DIRTY).get();
+        verify(session, never()).executeAsync(any(Statement.class));
+
+        // Set to null is a change
+        entity.setProp1(null);
+        writer.save(entity, SaveMode.DIRTY).get();
+        verify(session).prepareAsync("INSERT INTO test_vertx_mod_cass.test_entity (id,prop1) VALUES (?,?)");
+        verify(preparedStatement).bind("123", null);
+
+        // Snapshot updated after the save
+        writer.save(entity, SaveMode.DIRTY).get();
+        verify(session, times(1)).executeAsync(any(Statement.class));
+
+    }
+
+    @Test
+    public void testSave_Options() throws Exception {
+
+        WriteOptions options = new WriteOptions()
+                .setTtl(60)
+                .setTimestamp(1000L)
+                .setConsistency(ConsistencyLevel.LOCAL_QUORUM)
+                .setIdempotent(false);
+
+        writer.save(entity, SaveMode.SKIP_NULLS, options).get();
+
+        verify(session).prepareAsync("INSERT INTO test_vertx_mod_cass.test_entity (id,prop1) VALUES (?,?) USING TTL ? AND TIMESTAMP ?");
+        verify(preparedStatement).bind("123", "value", 60, 1000L);
+        verify(boundStatement).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+        verify(boundStatement).setRetryPolicy(FallthroughRetryPolicy.INSTANCE);
+
+        // Other values reuse the prepared statement
+        writer.save(entity, SaveMode.SKIP_NULLS, options.setTtl(120).setTimestamp(2000L)).get();
+        verify(preparedStatement).bind("123", "value", 120, 2000L);
+        assertEquals(1, writer.getPreparedCount());
+
+        writer.save(entity, SaveMode.SKIP_NULLS, new WriteOptions().setTtl(60)).get();
+        verify(session).prepareAsync("INSERT INTO test_vertx_mod_cass.test_entity (id,prop1) VALUES (?,?) USING TTL ?");
+        assertEquals(2, writer.getPreparedCount());
+
+    }
+
+    @Test
+    public void testSave_Dirty_Untracked() throws Exception {
+
+        writer.setDirtyTracking(true);
+        writer.save(entity, SaveMode.DIRTY).get();
+
+        verify(session).prepareAsync("INSERT INTO test_vertx_mod_cass.test_entity (id,prop1) VALUES (?,?)");
+
+    }
+
+    @Test
+    public void testSave_Enum() throws Exception {
+
+        EntityWriter<StatusEntity> statusWriter = new EntityWriter<>(new EntityIntrospector<>(StatusEntity.class), session);
+        StatusEntity status = new StatusEntity();
+        status.id = "123";
+        status.status = Status.ACTIVE;
+        status.level = Status.ACTIVE;
+
+        statusWriter.save(status, SaveMode.SKIP_NULLS).get();
+
+        verify(session).prepareAsync("INSERT INTO ks.status (id,status,level) VALUES (?,?,?)");
+        verify(preparedStatement).bind("123", "ACTIVE", 1);
+
+    }
+
+    enum Status {
+        INACTIVE, ACTIVE
+    }
+
+    @Table(keyspace = "ks", name = "status")
+    static class StatusEntity {
+        @PartitionKey
+        private String id;
+        private Status status;
+        @Enumerated(EnumType.ORDINAL)
+        private Status level;
+    }
+
+}
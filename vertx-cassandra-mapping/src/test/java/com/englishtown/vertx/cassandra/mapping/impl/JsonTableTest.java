@@ -0,0 +1,203 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.*;
+import com.google.common.util.concurrent.Futures;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link JsonTable}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class JsonTableTest {
+
+    private static final ProtocolVersion VERSION = ProtocolVersion.NEWEST_SUPPORTED;
+
+    private JsonTable table;
+
+    @Mock
+    private Session session;
+    @Mock
+    private Cluster cluster;
+    @Mock
+    private Configuration configuration;
+    @Mock
+    private ProtocolOptions protocolOptions;
+    @Mock
+    private TableMetadata tableMetadata;
+    @Mock
+    private KeyspaceMetadata keyspaceMetadata;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private BoundStatement boundStatement;
+    @Mock
+    private ResultSetFuture resultSetFuture;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private Row row;
+
+    @Before
+    public void setUp() throws Exception {
+
+        when(session.getCluster()).thenReturn(cluster);
+        when(cluster.getConfiguration()).thenReturn(configuration);
+        when(configuration.getProtocolOptions()).thenReturn(protocolOptions);
+        when(protocolOptions.getProtocolVersionEnum()).thenReturn(VERSION);
+
+        ColumnMetadata id = column("id", DataType.text());
+        ColumnMetadata created = column("created", DataType.timestamp());
+        ColumnMetadata tags = column("tags", DataType.set(DataType.text()));
+        when(keyspaceMetadata.getName()).thenReturn("test_vertx_mod_cass");
+        when(tableMetadata.getKeyspace()).thenReturn(keyspaceMetadata);
+        when(tableMetadata.getName()).thenReturn("json_table");
+        when(tableMetadata.getColumns()).thenReturn(Arrays.asList(id, created, tags));
+        when(tableMetadata.getPrimaryKey()).thenReturn(Collections.singletonList(id));
+
+        when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(preparedStatement));
+        when(preparedStatement.bind()).thenReturn(boundStatement);
+        when(session.executeAsync(any(Statement.class))).thenReturn(resultSetFuture);
+        when(resultSetFuture.get()).thenReturn(resultSet);
+        when(resultSetFuture.isDone()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(resultSetFuture).addListener(any(), any());
+
+        table = new JsonTable(tableMetadata, session);
+
+    }
+
+    private ColumnMetadata column(String name, DataType type) {
+        ColumnMetadata column = mock(ColumnMetadata.class);
+        when(column.getName()).thenReturn(name);
+        when(column.getType()).thenReturn(type);
+        return column;
+    }
+
+    @Test
+    public void testSave() throws Exception {
+
+        table.save(new JsonObject().put("id", "123").put("created", 1000L)).get();
+
+        verify(session).prepareAsync("INSERT INTO \"test_vertx_mod_cass\".\"json_table\" (\"id\",\"created\") VALUES (?,?)");
+        verify(boundStatement).setBytesUnsafe(0, DataType.text().serialize("123", VERSION));
+        verify(boundStatement).setBytesUnsafe(1, DataType.timestamp().serialize(new Date(1000), VERSION));
+
+        // Same fields reuse the insert
+        table.save(new JsonObject().put("created", 2000L).put("id", "456")).get();
+        assertEquals(1, table.getPreparedCount());
+
+        table.save(new JsonObject().put("id", "123").put("tags", new JsonArray().add("a"))).get();
+        verify(boundStatement).setBytesUnsafe(1, DataType.set(DataType.text()).serialize(Collections.singleton("a"), VERSION));
+        assertEquals(2, table.getPreparedCount());
+
+    }
+
+    @Test
+    public void testSave_Unknown_Column() throws Exception {
+
+        try {
+            table.save(new JsonObject().put("id", "123").put("other", 1)).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+
+        verify(session, never()).executeAsync(any(Statement.class));
+
+    }
+
+    @Test
+    public void testSave_Missing_Primary_Key() throws Exception {
+
+        try {
+            table.save(new JsonObject().put("created", 1000L)).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+
+    }
+
+    @Test
+    public void testGet() throws Exception {
+
+        when(resultSet.one()).thenReturn(row);
+        when(row.getBytesUnsafe(0)).thenReturn(DataType.text().serialize("123", VERSION));
+        when(row.getBytesUnsafe(1)).thenReturn(DataType.timestamp().serialize(new Date(1000), VERSION));
+        when(row.getBytesUnsafe(2)).thenReturn(DataType.set(DataType.text())
+                .serialize(new LinkedHashSet<>(Arrays.asList("a", "b")), VERSION));
+
+        JsonObject json = table.get("123").get();
+
+        verify(session).prepareAsync("SELECT \"id\",\"created\",\"tags\" FROM \"test_vertx_mod_cass\".\"json_table\" WHERE \"id\"=?");
+        verify(boundStatement).setBytesUnsafe(0, DataType.text().serialize("123", VERSION));
+        assertEquals("123", json.getString("id"));
+        assertEquals(Long.valueOf(1000), json.getLong("created"));
+        assertEquals(new JsonArray().add("a").add("b"), json.getJsonArray("tags"));
+
+    }
+
+    @Test
+    public void testGet_Decimal() throws Exception {
+
+        ColumnMetadata id = column("id", DataType.text());
+        ColumnMetadata price = column("price", DataType.decimal());
+        ColumnMetadata count = column("count", DataType.varint());
+        when(tableMetadata.getColumns()).thenReturn(Arrays.asList(id, price, count));
+        table = new JsonTable(tableMetadata, session);
+
+        when(resultSet.one()).thenReturn(row);
+        when(row.getBytesUnsafe(0)).thenReturn(DataType.text().serialize("123", VERSION));
+        when(row.getBytesUnsafe(1)).thenReturn(DataType.decimal().serialize(new BigDecimal("12.50"), VERSION));
+        when(row.getBytesUnsafe(2)).thenReturn(DataType.varint().serialize(new BigInteger("123456789012345678901234567890"), VERSION));
+
+        JsonObject json = table.get("123").get();
+
+        assertEquals("12.50", json.getString("price"));
+        assertEquals("123456789012345678901234567890", json.getString("count"));
+
+        table.save(new JsonObject().put("id", "123").put("price", "12.50").put("count", 5)).get();
+        verify(boundStatement).setBytesUnsafe(1, DataType.decimal().serialize(new BigDecimal("12.50"), VERSION));
+        verify(boundStatement).setBytesUnsafe(2, DataType.varint().serialize(BigInteger.valueOf(5), VERSION));
+
+    }
+
+    @Test
+    public void testGet_Not_Found() throws Exception {
+
+        assertNull(table.get("123").get());
+
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+
+        table.delete(new JsonObject().put("id", "123").put("created", 1000L)).get();
+
+        verify(session).prepareAsync("DELETE FROM \"test_vertx_mod_cass\".\"json_table\" WHERE \"id\"=?");
+        verify(boundStatement).setBytesUnsafe(0, DataType.text().serialize("123", VERSION));
+
+    }
+
+}
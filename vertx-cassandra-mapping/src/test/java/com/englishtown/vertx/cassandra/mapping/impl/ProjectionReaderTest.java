@@ -0,0 +1,118 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.mapping.integration.TestEntity;
+import com.google.common.util.concurrent.Futures;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ProjectionReader}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectionReaderTest {
+
+    private ProjectionReader<TestEntity> reader;
+
+    @Mock
+    private Session session;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private BoundStatement boundStatement;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private Row row;
+
+    public static class TestView {
+        private String prop1;
+
+        public String getProp1() {
+            return prop1;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+
+        when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(preparedStatement));
+        when(preparedStatement.bind(anyVararg())).thenReturn(boundStatement);
+        when(session.executeAsync(any(Statement.class))).thenAnswer(invocation -> {
+            ResultSetFuture future = mock(ResultSetFuture.class);
+            when(future.get()).thenReturn(resultSet);
+            when(future.isDone()).thenReturn(true);
+            doAnswer(i -> {
+                ((Runnable) i.getArguments()[0]).run();
+                return null;
+            }).when(future).addListener(any(), any());
+            return future;
+        });
+        when(resultSet.one()).thenReturn(row);
+
+        reader = new ProjectionReader<>(new EntityIntrospector<>(TestEntity.class), session, klass -> r -> {
+            if (klass == TestView.class) {
+                TestView view = new TestView();
+                view.prop1 = "value";
+                return view;
+            }
+            TestEntity entity = new TestEntity();
+            entity.setProp1("value");
+            return entity;
+        });
+
+    }
+
+    @Test
+    public void testGet_Columns() throws Exception {
+
+        TestEntity entity = reader.get(Arrays.asList("prop1"), "123").get();
+
+        assertEquals("value", entity.getProp1());
+        verify(session).prepareAsync("SELECT prop1 FROM test_vertx_mod_cass.test_entity WHERE id=?");
+        verify(preparedStatement).bind("123");
+
+        reader.get(Arrays.asList("prop1"), "456").get();
+        reader.get(Arrays.asList("prop1", "prop2"), "456").get();
+
+        verify(session).prepareAsync("SELECT prop1,prop2 FROM test_vertx_mod_cass.test_entity WHERE id=?");
+        verify(session, times(2)).prepareAsync(anyString());
+        assertEquals(2, reader.getPreparedCount());
+
+    }
+
+    @Test
+    public void testGet_View() throws Exception {
+
+        TestView view = reader.get(TestView.class, "123").get();
+
+        assertEquals("value", view.getProp1());
+        verify(session).prepareAsync("SELECT prop1 FROM test_vertx_mod_cass.test_entity WHERE id=?");
+
+    }
+
+    @Test
+    public void testGet_Not_Found() throws Exception {
+
+        when(resultSet.one()).thenReturn(null);
+        assertNull(reader.get(TestView.class, "123").get());
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGet_Unknown_Column() throws Exception {
+        reader.get(Arrays.asList("prop3"), "123");
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.englishtown.vertx.cassandra.mapping.impl;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ResultSetReadStream}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResultSetReadStreamTest {
+
+    private ResultSetReadStream<String> stream;
+    private List<String> items = new ArrayList<>();
+    private int available;
+    private int page;
+    private SettableFuture<Void> fetch;
+
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private Context context;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private Row row;
+    @Mock
+    private Handler<Void> endHandler;
+    @Mock
+    private Handler<Throwable> exceptionHandler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+
+        when(vertx.getOrCreateContext()).thenReturn(context);
+        doAnswer(invocation -> {
+            ((Handler<Void>) invocation.getArguments()[0]).handle(null);
+            return null;
+        }).when(context).runOnContext(any());
+        doAnswer(invocation -> {
+            ((Handler<Void>) invocation.getArguments()[0]).handle(null);
+            return null;
+        }).when(vertx).runOnContext(any());
+
+        // Two pages of two rows
+        available = 2;
+        page = 1;
+        when(resultSet.getAvailableWithoutFetching()).thenAnswer(invocation -> available);
+        when(resultSet.isFullyFetched()).thenAnswer(invocation -> page == 2);
+        when(resultSet.one()).thenAnswer(invocation -> {
+            available--;
+            return row;
+        });
+        when(resultSet.fetchMoreResults()).thenAnswer(invocation -> {
+            fetch = SettableFuture.create();
+            return fetch;
+        });
+
+        stream = new ResultSetReadStream<>(() -> Futures.immediateFuture(resultSet), r -> "row" + items.size(), vertx);
+        stream.endHandler(endHandler).exceptionHandler(exceptionHandler);
+
+    }
+
+    private void completeFetch() {
+        available = 2;
+        page = 2;
+        fetch.set(null);
+    }
+
+    @Test
+    public void testPages() throws Exception {
+
+        stream.handler(items::add);
+        assertEquals(2, items.size());
+        verify(resultSet).fetchMoreResults();
+        verifyZeroInteractions(endHandler);
+
+        completeFetch();
+        assertEquals(4, items.size());
+        assertEquals("row3", items.get(3));
+        verify(endHandler).handle(null);
+
+    }
+
+    @Test
+    public void testPause() throws Exception {
+
+        stream.handler(item -> {
+            items.add(item);
+            stream.pause();
+        });
+        assertEquals(1, items.size());
+
+        stream.resume();
+        assertEquals(2, items.size());
+
+        // No page is fetched while paused
+        verify(resultSet, never()).fetchMoreResults();
+        stream.resume();
+        completeFetch();
+        assertEquals(3, items.size());
+
+    }
+
+    @Test
+    public void testFetch_Failure() throws Exception {
+
+        stream.handler(items::add);
+
+        RuntimeException e = new RuntimeException();
+        fetch.setException(e);
+
+        verify(exceptionHandler).handle(e);
+        verifyZeroInteractions(endHandler);
+
+    }
+
+}
@@ -3,10 +3,16 @@ package com.englishtown.vertx.cassandra;
 import com.datastax.driver.core.*;
 import com.datastax.driver.core.policies.LoadBalancingPolicy;
 import com.datastax.driver.core.policies.ReconnectionPolicy;
+import com.englishtown.vertx.cassandra.cache.ResultCacheOptions;
+import com.englishtown.vertx.cassandra.capture.CaptureOptions;
+import com.englishtown.vertx.cassandra.guard.BlockingGuardOptions;
+import com.englishtown.vertx.cassandra.guard.QueryGuardOptions;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Provides cassandra configuration for the session
@@ -69,10 +75,55 @@ public interface CassandraConfigurator {
      */
     AuthProvider getAuthProvider();
 
+    /**
+     * Optional named result cache profiles
+     *
+     * @return a map of profile name to options, empty by default
+     */
+    default Map<String, ResultCacheOptions> getResultCacheProfiles() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Optional query guard options
+     *
+     * @return the query guard options, null (the default) to leave the guard disabled
+     */
+    default QueryGuardOptions getQueryGuardOptions() {
+        return null;
+    }
+
+    /**
+     * Optional workload capture options
+     *
+     * @return the capture options, null (the default) to leave the capture disabled
+     */
+    default CaptureOptions getCaptureOptions() {
+        return null;
+    }
+
+    /**
+     * Optional blocking guard options
+     *
+     * @return the blocking guard options, null (the default) to leave the guard disabled
+     */
+    default BlockingGuardOptions getBlockingGuardOptions() {
+        return null;
+    }
+
     /**
      * Register a callback for when the configurator is ready to use
      *
      * @param callback
      */
     void onReady(Handler<AsyncResult<Void>> callback);
+
+    /**
+     * Register a callback for when the configuration changes after it was ready.  Configurators that never change
+     * (the default) do not need to override this.
+     *
+     * @param callback the callback receiving the updated configurator
+     */
+    default void onChanged(Handler<CassandraConfigurator> callback) {
+    }
 }
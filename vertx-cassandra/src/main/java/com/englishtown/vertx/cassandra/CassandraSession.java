@@ -1,6 +1,12 @@
 package com.englishtown.vertx.cassandra;
 
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.cache.RequestCoalescer;
+import com.englishtown.vertx.cassandra.cache.ResultCache;
+import com.englishtown.vertx.cassandra.capture.WorkloadCapture;
+import com.englishtown.vertx.cassandra.guard.BlockingGuard;
+import com.englishtown.vertx.cassandra.guard.QueryGuard;
 import com.google.common.util.concurrent.FutureCallback;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -43,6 +49,56 @@ public interface CassandraSession extends Session, AutoCloseable {
      */
     void prepareAsync(String query, FutureCallback<PreparedStatement> callback);
 
+    /**
+     * Returns the result cache used by {@link #executeAsync(Statement)} and
+     * {@link #executeAsync(Statement, FutureCallback)}.  Caching is opt-in per
+     * prepared SELECT statement, see {@link ResultCache#enable(PreparedStatement, String)}.
+     *
+     * @return the result cache
+     */
+    ResultCache getResultCache();
+
+    /**
+     * Returns the request coalescer used by {@link #executeAsync(Statement)} and
+     * {@link #executeAsync(Statement, FutureCallback)}.  Coalescing of identical
+     * in-flight reads is opt-in per prepared SELECT statement, see {@link RequestCoalescer#enable(PreparedStatement)}.
+     *
+     * @return the request coalescer
+     */
+    RequestCoalescer getRequestCoalescer();
+
+    /**
+     * Returns the query guard applied to statements prepared through this session.  The guard is opt-in, see
+     * {@link QueryGuard#setOptions(com.englishtown.vertx.cassandra.guard.QueryGuardOptions)}.
+     *
+     * @return the query guard
+     */
+    QueryGuard getQueryGuard();
+
+    /**
+     * Returns the capture recording the statements executed through this session.  The capture is opt-in, see
+     * {@link WorkloadCapture#setOptions(com.englishtown.vertx.cassandra.capture.CaptureOptions)}.
+     *
+     * @return the workload capture
+     */
+    WorkloadCapture getCapture();
+
+    /**
+     * Returns the guard against synchronous calls, such as {@code execute()} or iterating past the first page of a
+     * {@link ResultSet}, made on a vert.x event loop thread.  The guard is opt-in, see
+     * {@link BlockingGuard#setOptions(com.englishtown.vertx.cassandra.guard.BlockingGuardOptions)}.
+     *
+     * @return the blocking guard
+     */
+    BlockingGuard getBlockingGuard();
+
+    /**
+     * Returns the registry holding the session metrics, which other components may add their own metrics to
+     *
+     * @return the metric registry
+     */
+    MetricRegistry getMetricRegistry();
+
     /**
      * Returns cassandra metadata
      *
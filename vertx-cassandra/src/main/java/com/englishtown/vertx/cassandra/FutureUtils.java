@@ -1,11 +1,22 @@
 package com.englishtown.vertx.cassandra;
 
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.*;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 /**
  * Future vert.x utils
  */
@@ -27,4 +38,151 @@ public class FutureUtils {
         Futures.addCallback(future, callback, command -> context.runOnContext(aVoid -> command.run()));
     }
 
+    /**
+     * Applies an async function to each input with at most {@code maxConcurrency} futures outstanding at once.  The
+     * returned future completes with the results in input order, or fails with the first failure (no further inputs
+     * are started after a failure).
+     *
+     * @param inputs         the inputs
+     * @param maxConcurrency the maximum number of outstanding futures
+     * @param function       starts the async operation for an input
+     * @param <I>            the input type
+     * @param <O>            the output type
+     * @return the future ordered results
+     */
+    public static <I, O> ListenableFuture<List<O>> allAsList(List<I> inputs, int maxConcurrency, Function<? super I, ? extends ListenableFuture<? extends O>> function) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        if (inputs.isEmpty()) {
+            return Futures.immediateFuture(Collections.emptyList());
+        }
+        return new BoundedAllAsList<I, O>(inputs, function).start(maxConcurrency);
+    }
+
+    /**
+     * Adapts a result set future to a {@link ResultSetFuture}.  Like the driver's own futures, the uninterruptible
+     * getters throw the cause of a failure rather than an {@link ExecutionException}.
+     *
+     * @param future the result set future
+     * @return the future itself if it already is a {@link ResultSetFuture}, otherwise a forwarding future
+     */
+    public static ResultSetFuture toResultSetFuture(ListenableFuture<ResultSet> future) {
+        if (future instanceof ResultSetFuture) {
+            return (ResultSetFuture) future;
+        }
+        return new ForwardingResultSetFuture(future);
+    }
+
+    private static class ForwardingResultSetFuture extends ForwardingListenableFuture.SimpleForwardingListenableFuture<ResultSet>
+            implements ResultSetFuture {
+
+        private ForwardingResultSetFuture(ListenableFuture<ResultSet> future) {
+            super(future);
+        }
+
+        @Override
+        public ResultSet getUninterruptibly() {
+            try {
+                return Uninterruptibles.getUninterruptibly(delegate());
+            } catch (ExecutionException e) {
+                throw propagateCause(e);
+            }
+        }
+
+        @Override
+        public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+            try {
+                return Uninterruptibles.getUninterruptibly(delegate(), timeout, unit);
+            } catch (ExecutionException e) {
+                throw propagateCause(e);
+            }
+        }
+
+        private RuntimeException propagateCause(ExecutionException e) {
+            Throwable cause = e.getCause();
+            // Copied so the stack trace includes the caller, as the driver does
+            if (cause instanceof DriverException) {
+                throw ((DriverException) cause).copy();
+            }
+            throw Throwables.propagate(cause);
+        }
+    }
+
+    private static class BoundedAllAsList<I, O> {
+
+        private final List<I> inputs;
+        private final Function<? super I, ? extends ListenableFuture<? extends O>> function;
+        private final Object[] outputs;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final SettableFuture<List<O>> result = SettableFuture.create();
+
+        private BoundedAllAsList(List<I> inputs, Function<? super I, ? extends ListenableFuture<? extends O>> function) {
+            this.inputs = inputs;
+            this.function = function;
+            this.outputs = new Object[inputs.size()];
+            this.remaining = new AtomicInteger(inputs.size());
+        }
+
+        private ListenableFuture<List<O>> start(int maxConcurrency) {
+            for (int i = 0; i < maxConcurrency && i < inputs.size(); i++) {
+                fill();
+            }
+            return result;
+        }
+
+        /**
+         * Runs one concurrency slot.  Futures that are already done are handled in a loop rather than recursively so
+         * long runs of synchronous results (cache hits) don't grow the stack.
+         */
+        private void fill() {
+            while (!result.isDone()) {
+                int index = next.getAndIncrement();
+                if (index >= inputs.size()) {
+                    return;
+                }
+
+                ListenableFuture<? extends O> future;
+                try {
+                    future = function.apply(inputs.get(index));
+                } catch (RuntimeException e) {
+                    result.setException(e);
+                    return;
+                }
+
+                if (!future.isDone()) {
+                    future.addListener(() -> {
+                        if (complete(index, future)) {
+                            fill();
+                        }
+                    }, MoreExecutors.sameThreadExecutor());
+                    return;
+                }
+
+                if (!complete(index, future)) {
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean complete(int index, ListenableFuture<? extends O> future) {
+            try {
+                outputs[index] = Uninterruptibles.getUninterruptibly(future);
+            } catch (ExecutionException e) {
+                result.setException(e.getCause());
+                return false;
+            } catch (RuntimeException e) {
+                // Cancelled
+                result.setException(e);
+                return false;
+            }
+            if (remaining.decrementAndGet() == 0) {
+                result.set((List<O>) Arrays.asList(outputs));
+            }
+            return true;
+        }
+    }
+
 }
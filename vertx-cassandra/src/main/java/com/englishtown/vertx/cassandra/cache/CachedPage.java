@@ -0,0 +1,96 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.collect.ImmutableList;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * An immutable, fully fetched page of rows captured from a {@link ResultSet}
+ */
+public final class CachedPage {
+
+    // Rough per object overhead used to estimate memory footprint
+    private static final int ROW_OVERHEAD = 32;
+    private static final int VALUE_OVERHEAD = 16;
+
+    private final ColumnDefinitions columnDefinitions;
+    private final List<Row> rows;
+    private final ExecutionInfo executionInfo;
+    private final boolean applied;
+    private final int weight;
+
+    private CachedPage(ColumnDefinitions columnDefinitions, List<Row> rows, ExecutionInfo executionInfo, boolean applied) {
+        this.columnDefinitions = columnDefinitions;
+        this.rows = rows;
+        this.executionInfo = executionInfo;
+        this.applied = applied;
+        this.weight = estimateWeight(rows, columnDefinitions.size());
+    }
+
+    /**
+     * Captures the rows of a fully fetched result set.  The result set is exhausted afterwards.
+     *
+     * @param resultSet the result set to capture
+     * @return the cached page
+     */
+    public static CachedPage from(ResultSet resultSet) {
+        if (!resultSet.isFullyFetched()) {
+            throw new IllegalArgumentException("Only fully fetched result sets can be cached");
+        }
+        boolean applied = resultSet.wasApplied();
+        return new CachedPage(resultSet.getColumnDefinitions(), ImmutableList.copyOf(resultSet.all()),
+                resultSet.getExecutionInfo(), applied);
+    }
+
+    private static int estimateWeight(List<Row> rows, int columns) {
+        long weight = 0;
+        for (Row row : rows) {
+            weight += ROW_OVERHEAD;
+            for (int i = 0; i < columns; i++) {
+                ByteBuffer bytes = row.getBytesUnsafe(i);
+                weight += VALUE_OVERHEAD + (bytes == null ? 0 : bytes.remaining());
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    public ColumnDefinitions getColumnDefinitions() {
+        return columnDefinitions;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public ExecutionInfo getExecutionInfo() {
+        return executionInfo;
+    }
+
+    public boolean wasApplied() {
+        return applied;
+    }
+
+    /**
+     * Returns the estimated memory footprint of the page
+     *
+     * @return the weight in bytes
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns a new {@link ResultSet} view over the page.  Each call returns an independent cursor.
+     *
+     * @return a result set over the cached rows
+     */
+    public ResultSet newResultSet() {
+        return new CachedResultSet(this);
+    }
+
+}
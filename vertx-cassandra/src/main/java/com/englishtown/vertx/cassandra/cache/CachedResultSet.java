@@ -0,0 +1,103 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link ResultSet} cursor over a {@link CachedPage}
+ */
+class CachedResultSet implements ResultSet {
+
+    private final CachedPage page;
+    private int position;
+
+    CachedResultSet(CachedPage page) {
+        this.page = page;
+    }
+
+    @Override
+    public ColumnDefinitions getColumnDefinitions() {
+        return page.getColumnDefinitions();
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return position >= page.getRows().size();
+    }
+
+    @Override
+    public Row one() {
+        return isExhausted() ? null : page.getRows().get(position++);
+    }
+
+    @Override
+    public List<Row> all() {
+        List<Row> rows = page.getRows();
+        List<Row> remaining = rows.subList(Math.min(position, rows.size()), rows.size());
+        position = rows.size();
+        return remaining;
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new Iterator<Row>() {
+            @Override
+            public boolean hasNext() {
+                return !isExhausted();
+            }
+
+            @Override
+            public Row next() {
+                if (isExhausted()) {
+                    throw new NoSuchElementException();
+                }
+                return one();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public int getAvailableWithoutFetching() {
+        return page.getRows().size() - position;
+    }
+
+    @Override
+    public boolean isFullyFetched() {
+        return true;
+    }
+
+    @Override
+    public ListenableFuture<Void> fetchMoreResults() {
+        return Futures.immediateFuture(null);
+    }
+
+    @Override
+    public ExecutionInfo getExecutionInfo() {
+        return page.getExecutionInfo();
+    }
+
+    @Override
+    public List<ExecutionInfo> getAllExecutionInfo() {
+        return Collections.singletonList(page.getExecutionInfo());
+    }
+
+    @Override
+    public boolean wasApplied() {
+        return page.wasApplied();
+    }
+
+}
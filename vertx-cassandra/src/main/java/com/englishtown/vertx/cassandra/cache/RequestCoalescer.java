@@ -0,0 +1,151 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Statement;
+import com.google.common.base.Function;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.*;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-flight coalescing of identical concurrent reads.
+ * <p>
+ * While a bound statement of an enabled prepared SELECT is in flight, identical statements (same prepared statement,
+ * bound values and consistency level) attach to the pending request instead of issuing a new query.  Every caller
+ * receives its own {@link ResultSet} view of the shared rows.  Results that need paging can't be shared, so waiting
+ * callers re-issue their own query in that case.
+ * <p>
+ * The in-flight map is thread safe, so requests from different event loops coalesce as well.
+ */
+public class RequestCoalescer {
+
+    public static final String METRIC_COALESCED = "coalesced-requests";
+
+    private final Set<PreparedStatement> enabled = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+    private final ConcurrentMap<StatementKey, ListenableFuture<CachedPage>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public RequestCoalescer(MetricRegistry registry) {
+        coalesced = registry.counter(METRIC_COALESCED);
+    }
+
+    /**
+     * Enables coalescing for a prepared SELECT statement
+     *
+     * @param statement the prepared statement
+     * @return the current {@link RequestCoalescer}
+     */
+    public RequestCoalescer enable(PreparedStatement statement) {
+        if (!StatementKey.isSelect(statement)) {
+            throw new IllegalArgumentException("Only SELECT statements can be coalesced: " + statement.getQueryString());
+        }
+        enabled.add(statement);
+        return this;
+    }
+
+    /**
+     * Disables coalescing for a prepared statement
+     *
+     * @param statement the prepared statement
+     * @return the current {@link RequestCoalescer}
+     */
+    public RequestCoalescer disable(PreparedStatement statement) {
+        enabled.remove(statement);
+        return this;
+    }
+
+    /**
+     * Returns how many requests were merged into an in-flight request
+     *
+     * @return the coalesced request count
+     */
+    public long getCoalescedCount() {
+        return coalesced.getCount();
+    }
+
+    /**
+     * Returns the number of distinct requests currently in flight
+     *
+     * @return the in-flight count
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Executes a statement, attaching to an identical in-flight request when coalescing is enabled for it
+     *
+     * @param statement the statement to execute
+     * @param executor  executes the statement when nothing identical is in flight
+     * @return the future result set
+     */
+    public ListenableFuture<ResultSet> executeAsync(Statement statement, StatementExecutor executor) {
+
+        if (!(statement instanceof BoundStatement)
+                || !enabled.contains(((BoundStatement) statement).preparedStatement())) {
+            return executor.executeAsync(statement);
+        }
+
+        StatementKey key = new StatementKey((BoundStatement) statement);
+        SettableFuture<CachedPage> shared = SettableFuture.create();
+        ListenableFuture<CachedPage> pending = inFlight.putIfAbsent(key, shared);
+
+        if (pending != null) {
+            coalesced.inc();
+            AsyncFunction<CachedPage, ResultSet> follow = page -> page == null
+                    ? executor.executeAsync(statement)
+                    : Futures.immediateFuture(page.newResultSet());
+            return Futures.transform(pending, follow);
+        }
+
+        ListenableFuture<ResultSet> future;
+        try {
+            future = executor.executeAsync(statement);
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.setException(e);
+            throw e;
+        }
+
+        Function<ResultSet, ResultSet> share = resultSet -> {
+            // Later identical requests must start a new query
+            inFlight.remove(key, shared);
+            if (!resultSet.isFullyFetched()) {
+                shared.set(null);
+                return resultSet;
+            }
+            try {
+                CachedPage page = CachedPage.from(resultSet);
+                shared.set(page);
+                return page.newResultSet();
+            } catch (RuntimeException e) {
+                shared.setException(e);
+                throw e;
+            }
+        };
+
+        Futures.addCallback(future, new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess(ResultSet result) {
+                // Handled by the share function
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                inFlight.remove(key, shared);
+                shared.setException(t);
+            }
+        });
+
+        return Futures.transform(future, share);
+    }
+
+}
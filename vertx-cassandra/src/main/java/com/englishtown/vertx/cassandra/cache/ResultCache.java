@@ -0,0 +1,239 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.*;
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in, size bounded and TTL based read-through cache for idempotent SELECT statements.
+ * <p>
+ * Caching is configured with named profiles (see {@link ResultCacheOptions}) and enabled per
+ * {@link PreparedStatement}.  Entries are keyed by the prepared statement and the serialized bound values, and only
+ * single page results are cached.  Cached results are stored as immutable {@link CachedPage}s and each hit returns a
+ * new {@link ResultSet} view, never the original driver result set.
+ */
+public class ResultCache {
+
+    public static final String METRIC_PREFIX = "result-cache";
+
+    private final MetricRegistry registry;
+    private final ConcurrentMap<String, Profile> profiles = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PreparedStatement, Profile> enabled = new MapMaker().weakKeys().makeMap();
+
+    public ResultCache(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Adds or replaces a named cache profile
+     *
+     * @param name    the profile name
+     * @param options the profile options
+     * @return the current {@link ResultCache}
+     */
+    public ResultCache addProfile(String name, ResultCacheOptions options) {
+        Profile profile = new Profile(name, options);
+        Profile existing = profiles.put(name, profile);
+        if (existing != null) {
+            existing.cache.invalidateAll();
+            enabled.replaceAll((statement, p) -> p == existing ? profile : p);
+        }
+        profile.registerMetrics();
+        return this;
+    }
+
+    /**
+     * Enables result caching for a prepared SELECT statement
+     *
+     * @param statement the prepared statement to cache results for
+     * @param profile   the profile name
+     * @return the current {@link ResultCache}
+     */
+    public ResultCache enable(PreparedStatement statement, String profile) {
+        Profile p = profiles.get(profile);
+        if (p == null) {
+            throw new IllegalArgumentException("Result cache profile '" + profile + "' does not exist");
+        }
+        if (!StatementKey.isSelect(statement)) {
+            throw new IllegalArgumentException("Only SELECT statements can be cached: " + statement.getQueryString());
+        }
+        enabled.put(statement, p);
+        return this;
+    }
+
+    /**
+     * Disables result caching for a prepared statement
+     *
+     * @param statement the prepared statement
+     * @return the current {@link ResultCache}
+     */
+    public ResultCache disable(PreparedStatement statement) {
+        enabled.remove(statement);
+        return this;
+    }
+
+    /**
+     * Removes all cached results for a profile
+     *
+     * @param profile the profile name
+     */
+    public void invalidate(String profile) {
+        Profile p = profiles.get(profile);
+        if (p != null) {
+            p.cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Removes all cached results
+     */
+    public void invalidateAll() {
+        profiles.values().forEach(p -> p.cache.invalidateAll());
+    }
+
+    /**
+     * Returns the cache statistics for a profile
+     *
+     * @param profile the profile name
+     * @return the cache stats or null if the profile does not exist
+     */
+    public CacheStats getStats(String profile) {
+        Profile p = profiles.get(profile);
+        return p == null ? null : p.cache.stats();
+    }
+
+    /**
+     * Returns the estimated memory footprint of a profile's cached pages
+     *
+     * @param profile the profile name
+     * @return the size in bytes
+     */
+    public long getBytes(String profile) {
+        Profile p = profiles.get(profile);
+        return p == null ? 0 : p.bytes.get();
+    }
+
+    /**
+     * Executes a statement, serving it from the cache when caching is enabled for it
+     *
+     * @param statement the statement to execute
+     * @param session   the session to execute cache misses with
+     * @return the future result set
+     */
+    public ListenableFuture<ResultSet> executeAsync(Statement statement, Session session) {
+        return executeAsync(statement, session::executeAsync);
+    }
+
+    /**
+     * Executes a statement, serving it from the cache when caching is enabled for it
+     *
+     * @param statement the statement to execute
+     * @param executor  executes cache misses
+     * @return the future result set
+     */
+    public ListenableFuture<ResultSet> executeAsync(Statement statement, StatementExecutor executor) {
+
+        if (!(statement instanceof BoundStatement)) {
+            return executor.executeAsync(statement);
+        }
+
+        BoundStatement bound = (BoundStatement) statement;
+        Profile profile = enabled.get(bound.preparedStatement());
+        if (profile == null) {
+            return executor.executeAsync(statement);
+        }
+
+        StatementKey key = new StatementKey(bound);
+        CachedPage page = profile.cache.getIfPresent(key);
+        if (page != null) {
+            return Futures.immediateFuture(page.newResultSet());
+        }
+
+        Function<ResultSet, ResultSet> store = resultSet -> {
+            // Multi page results stay uncached so paging works as usual
+            if (!resultSet.isFullyFetched()) {
+                return resultSet;
+            }
+            CachedPage newPage = CachedPage.from(resultSet);
+            profile.put(key, newPage);
+            return newPage.newResultSet();
+        };
+
+        return Futures.transform(executor.executeAsync(statement), store);
+    }
+
+    private class Profile {
+
+        private final String name;
+        private final Cache<StatementKey, CachedPage> cache;
+        private final AtomicLong bytes = new AtomicLong();
+
+        private Profile(String name, ResultCacheOptions options) {
+            this.name = name;
+            this.cache = CacheBuilder.newBuilder()
+                    .maximumWeight(options.getMaxBytes())
+                    .weigher((StatementKey key, CachedPage page) -> page.getWeight())
+                    .expireAfterWrite(options.getTtlMillis(), TimeUnit.MILLISECONDS)
+                    .removalListener(notification -> bytes.addAndGet(-notification.getValue().getWeight()))
+                    .recordStats()
+                    .build();
+        }
+
+        private void put(StatementKey key, CachedPage page) {
+            bytes.addAndGet(page.getWeight());
+            cache.put(key, page);
+        }
+
+        private void registerMetrics() {
+
+            String name = MetricRegistry.name(METRIC_PREFIX, this.name, "hit-ratio");
+            registry.remove(name);
+            registry.register(name, new Gauge<Double>() {
+                @Override
+                public Double getValue() {
+                    return cache.stats().hitRate();
+                }
+            });
+
+            name = MetricRegistry.name(METRIC_PREFIX, this.name, "evictions");
+            registry.remove(name);
+            registry.register(name, new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return cache.stats().evictionCount();
+                }
+            });
+
+            name = MetricRegistry.name(METRIC_PREFIX, this.name, "bytes");
+            registry.remove(name);
+            registry.register(name, new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return bytes.get();
+                }
+            });
+
+            name = MetricRegistry.name(METRIC_PREFIX, this.name, "entries");
+            registry.remove(name);
+            registry.register(name, new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return cache.size();
+                }
+            });
+        }
+    }
+
+}
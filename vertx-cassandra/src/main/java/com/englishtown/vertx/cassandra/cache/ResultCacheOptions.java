@@ -0,0 +1,58 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for a named {@link ResultCache} profile
+ */
+public class ResultCacheOptions {
+
+    public static final long DEFAULT_MAX_BYTES = 10 * 1024 * 1024;
+    public static final long DEFAULT_TTL_MILLIS = 60000;
+
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long ttlMillis = DEFAULT_TTL_MILLIS;
+
+    public ResultCacheOptions() {
+    }
+
+    public ResultCacheOptions(JsonObject json) {
+        setMaxBytes(json.getLong("max_bytes", DEFAULT_MAX_BYTES));
+        setTtlMillis(json.getLong("ttl_millis", DEFAULT_TTL_MILLIS));
+    }
+
+    /**
+     * The approximate maximum memory used by cached pages before the least recently used are evicted
+     *
+     * @return the max size in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public ResultCacheOptions setMaxBytes(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("max_bytes must be greater than 0");
+        }
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * How long a cached page is served after it was read from cassandra
+     *
+     * @return the time to live in milliseconds
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public ResultCacheOptions setTtlMillis(long ttlMillis) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttl_millis must be greater than 0");
+        }
+        this.ttlMillis = ttlMillis;
+        return this;
+    }
+
+}
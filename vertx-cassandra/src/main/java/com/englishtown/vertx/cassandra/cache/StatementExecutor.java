@@ -0,0 +1,21 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Executes a statement asynchronously, used to chain the caching layers in front of a session
+ */
+@FunctionalInterface
+public interface StatementExecutor {
+
+    /**
+     * Executes a statement asynchronously
+     *
+     * @param statement the statement to execute
+     * @return the future result set
+     */
+    ListenableFuture<ResultSet> executeAsync(Statement statement);
+
+}
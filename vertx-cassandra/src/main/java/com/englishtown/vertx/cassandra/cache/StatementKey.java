@@ -0,0 +1,65 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Identity of a bound statement: the prepared statement, its serialized bound values and consistency level
+ */
+final class StatementKey {
+
+    private final PreparedStatement statement;
+    private final ByteBuffer[] values;
+    private final ConsistencyLevel consistencyLevel;
+    private final int hashCode;
+
+    StatementKey(BoundStatement bound) {
+        statement = bound.preparedStatement();
+        values = new ByteBuffer[statement.getVariables().size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = bound.getBytesUnsafe(i);
+        }
+        consistencyLevel = bound.getConsistencyLevel();
+        hashCode = 31 * System.identityHashCode(statement) + Arrays.hashCode(values);
+    }
+
+    /**
+     * Whether a prepared statement is a read that can be safely cached or shared
+     *
+     * @param statement the prepared statement
+     * @return true for SELECT statements
+     */
+    static boolean isSelect(PreparedStatement statement) {
+        return statement.getQueryString().trim().toUpperCase().startsWith("SELECT");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StatementKey)) {
+            return false;
+        }
+        StatementKey other = (StatementKey) o;
+        return statement == other.statement
+                && consistencyLevel == other.consistencyLevel
+                && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toString(statement.getQueryString()) + " " + Arrays.toString(values);
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.englishtown.vertx.cassandra.capture;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The capture file format.  A file is a sequence of segments, one per capture session, each starting with a header:
+ * <pre>
+ * segment   = "VXCW" version:byte record*
+ * record    = DEFINE id:varint prepared:byte keyspace:string query:string
+ *           | EXECUTE delta:varint id:varint consistency:byte values
+ *           | BATCH delta:varint consistency:byte type:byte count:varint (id:varint values)*
+ * values    = 0 | 1 count:varint (length+1:varint bytes)*     (a length of 0 is a null value)
+ * string    = length:varint utf8
+ * </pre>
+ * Statement ids are defined once per segment before their first use.  Deltas are the microseconds since the
+ * previous execution of the segment, consistencies are ordinals plus one with 0 for the session default, batch types
+ * are {@link BatchStatement.Type} ordinals, and varints are unsigned LEB128.  Version 1 segments have no batch type,
+ * their batches are read as logged.
+ */
+final class CaptureFormat {
+
+    static final byte[] MAGIC = {'V', 'X', 'C', 'W'};
+    static final int VERSION = 2;
+    static final int VERSION_WITHOUT_BATCH_TYPE = 1;
+
+    static final int DEFINE = 1;
+    static final int EXECUTE = 2;
+    static final int BATCH = 3;
+
+    private CaptureFormat() {
+    }
+
+    static void writeVarint(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarint(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeConsistency(DataOutput out, ConsistencyLevel consistency) throws IOException {
+        out.writeByte(consistency == null ? 0 : consistency.ordinal() + 1);
+    }
+
+    static ConsistencyLevel readConsistency(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        return ordinal == 0 ? null : ConsistencyLevel.values()[ordinal - 1];
+    }
+
+    static void writeBatchType(DataOutput out, BatchStatement.Type type) throws IOException {
+        out.writeByte(type.ordinal());
+    }
+
+    static BatchStatement.Type readBatchType(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= BatchStatement.Type.values().length) {
+            throw new IOException("Unknown batch type " + ordinal);
+        }
+        return BatchStatement.Type.values()[ordinal];
+    }
+
+    static void writeValues(DataOutput out, List<ByteBuffer> values) throws IOException {
+        if (values == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(1);
+        writeVarint(out, values.size());
+        for (ByteBuffer value : values) {
+            if (value == null) {
+                writeVarint(out, 0);
+                continue;
+            }
+            ByteBuffer duplicate = value.duplicate();
+            writeVarint(out, duplicate.remaining() + 1);
+            if (duplicate.hasArray()) {
+                out.write(duplicate.array(), duplicate.arrayOffset() + duplicate.position(), duplicate.remaining());
+            } else {
+                byte[] bytes = new byte[duplicate.remaining()];
+                duplicate.get(bytes);
+                out.write(bytes);
+            }
+        }
+    }
+
+    static List<ByteBuffer> readValues(DataInput in) throws IOException {
+        if (in.readUnsignedByte() == 0) {
+            return null;
+        }
+        int count = (int) readVarint(in);
+        List<ByteBuffer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = (int) readVarint(in);
+            if (length == 0) {
+                values.add(null);
+                continue;
+            }
+            byte[] bytes = new byte[length - 1];
+            in.readFully(bytes);
+            values.add(ByteBuffer.wrap(bytes));
+        }
+        return values;
+    }
+
+}
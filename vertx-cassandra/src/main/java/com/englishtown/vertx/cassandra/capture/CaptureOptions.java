@@ -0,0 +1,98 @@
+package com.englishtown.vertx.cassandra.capture;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.Objects;
+
+/**
+ * Options for the {@link WorkloadCapture}
+ */
+public class CaptureOptions {
+
+    public static final double DEFAULT_VALUE_SAMPLE_RATE = 0.1;
+    public static final int DEFAULT_MAX_PENDING = 65536;
+
+    private String file;
+    private double valueSampleRate = DEFAULT_VALUE_SAMPLE_RATE;
+    private int maxPending = DEFAULT_MAX_PENDING;
+
+    public CaptureOptions() {
+    }
+
+    public CaptureOptions(JsonObject json) {
+        String file = json.getString("file");
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("A capture file is required");
+        }
+        setFile(file);
+        setValueSampleRate(json.getDouble("value_sample_rate", DEFAULT_VALUE_SAMPLE_RATE));
+        setMaxPending(json.getInteger("max_pending", DEFAULT_MAX_PENDING));
+    }
+
+    /**
+     * The file statements are appended to
+     *
+     * @return the file path
+     */
+    public String getFile() {
+        return file;
+    }
+
+    public CaptureOptions setFile(String file) {
+        this.file = file;
+        return this;
+    }
+
+    /**
+     * The fraction of statements whose bound values are recorded.  Replay reuses the sampled values of a statement
+     * for its unsampled executions.
+     *
+     * @return the sample rate between 0 and 1
+     */
+    public double getValueSampleRate() {
+        return valueSampleRate;
+    }
+
+    public CaptureOptions setValueSampleRate(double valueSampleRate) {
+        if (valueSampleRate < 0 || valueSampleRate > 1) {
+            throw new IllegalArgumentException("value_sample_rate must be between 0 and 1");
+        }
+        this.valueSampleRate = valueSampleRate;
+        return this;
+    }
+
+    /**
+     * The number of statements waiting to be written before new ones are dropped
+     *
+     * @return the maximum pending statements
+     */
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public CaptureOptions setMaxPending(int maxPending) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("max_pending must be positive");
+        }
+        this.maxPending = maxPending;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CaptureOptions)) {
+            return false;
+        }
+        CaptureOptions other = (CaptureOptions) o;
+        return Objects.equals(file, other.file) && valueSampleRate == other.valueSampleRate && maxPending == other.maxPending;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(file);
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.englishtown.vertx.cassandra.capture;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Reads the executions of a capture file written by {@link WorkloadCapture}, in order.  The segments of successive
+ * capture sessions are read as one timeline, each starting where the previous one ended.  A record truncated by
+ * a crash ends the file.
+ */
+public class CaptureReader implements Closeable {
+
+    private final DataInputStream in;
+    private final Map<Integer, CapturedStatement> statements = new HashMap<>();
+    private final List<CapturedStatement> allStatements = new ArrayList<>();
+    private long offsetMicros;
+    private int version;
+
+    public CaptureReader(String file) throws IOException {
+        this(new FileInputStream(file));
+    }
+
+    public CaptureReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        if (!readHeader(this.in.read())) {
+            throw new IOException("Not a capture file");
+        }
+    }
+
+    /**
+     * Reads the next execution
+     *
+     * @return the execution, or null at the end of the file
+     * @throws IOException if the file can't be read or is corrupt
+     */
+    public CapturedExecution next() throws IOException {
+        try {
+            while (true) {
+                int tag = in.read();
+                switch (tag) {
+                    case -1:
+                        return null;
+                    case CaptureFormat.DEFINE:
+                        int id = (int) CaptureFormat.readVarint(in);
+                        boolean prepared = in.readUnsignedByte() == 1;
+                        String keyspace = CaptureFormat.readString(in);
+                        CapturedStatement statement = new CapturedStatement(id, prepared,
+                                keyspace.isEmpty() ? null : keyspace, CaptureFormat.readString(in));
+                        if (statements.put(id, statement) == null) {
+                            allStatements.add(statement);
+                        }
+                        break;
+                    case CaptureFormat.EXECUTE:
+                        offsetMicros += CaptureFormat.readVarint(in);
+                        CapturedStatement executed = statement((int) CaptureFormat.readVarint(in));
+                        ConsistencyLevel consistency = CaptureFormat.readConsistency(in);
+                        return new CapturedExecution(offsetMicros, executed, consistency, CaptureFormat.readValues(in));
+                    case CaptureFormat.BATCH:
+                        offsetMicros += CaptureFormat.readVarint(in);
+                        ConsistencyLevel batchConsistency = CaptureFormat.readConsistency(in);
+                        BatchStatement.Type batchType = version == CaptureFormat.VERSION_WITHOUT_BATCH_TYPE
+                                ? BatchStatement.Type.LOGGED : CaptureFormat.readBatchType(in);
+                        int count = (int) CaptureFormat.readVarint(in);
+                        List<CapturedExecution> batch = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            CapturedStatement child = statement((int) CaptureFormat.readVarint(in));
+                            batch.add(new CapturedExecution(offsetMicros, child, null, CaptureFormat.readValues(in)));
+                        }
+                        return new CapturedExecution(offsetMicros, batchConsistency, batchType, batch);
+                    default:
+                        if (!readHeader(tag)) {
+                            throw new IOException("Corrupt capture file, unknown record " + tag);
+                        }
+                        // The ids of a new segment are its own
+                        statements.clear();
+                        break;
+                }
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the distinct statements read so far
+     *
+     * @return the statements
+     */
+    public List<CapturedStatement> getStatements() {
+        return Collections.unmodifiableList(allStatements);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private CapturedStatement statement(int id) throws IOException {
+        CapturedStatement statement = statements.get(id);
+        if (statement == null) {
+            throw new IOException("Corrupt capture file, undefined statement " + id);
+        }
+        return statement;
+    }
+
+    private boolean readHeader(int first) throws IOException {
+        if (first != CaptureFormat.MAGIC[0]) {
+            return false;
+        }
+        for (int i = 1; i < CaptureFormat.MAGIC.length; i++) {
+            if (in.readUnsignedByte() != CaptureFormat.MAGIC[i]) {
+                return false;
+            }
+        }
+        int version = in.readUnsignedByte();
+        if (version != CaptureFormat.VERSION && version != CaptureFormat.VERSION_WITHOUT_BATCH_TYPE) {
+            throw new IOException("Unsupported capture file version " + version);
+        }
+        this.version = version;
+        return true;
+    }
+
+}
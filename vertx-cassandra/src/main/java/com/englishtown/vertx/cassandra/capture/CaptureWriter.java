@@ -0,0 +1,179 @@
+package com.englishtown.vertx.cassandra.capture;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.impl.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends captured executions to a file from a background thread, so that the executing threads only enqueue.
+ * Opening, draining and closing the file all happen on that thread, so no caller ever waits for the file.
+ */
+class CaptureWriter implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaptureWriter.class);
+
+    private final String file;
+    private final BlockingQueue<Entry> queue;
+    private final ListenableFuture<Void> previous;
+    private final Thread thread;
+    private final SettableFuture<Void> done = SettableFuture.create();
+    private final Set<Integer> defined = new HashSet<>();
+    private DataOutputStream out;
+    private long lastNanos;
+    private volatile boolean closed;
+
+    /**
+     * @param file       the capture file, appended to
+     * @param maxPending the most executions queued for writing
+     * @param previous   completes once the previous writer closed its file, this one opens the file after it
+     */
+    CaptureWriter(String file, int maxPending, ListenableFuture<Void> previous) {
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.previous = previous;
+        lastNanos = System.nanoTime();
+
+        thread = new Thread(this, "vertx-cassandra-capture");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues an execution to be written
+     *
+     * @param entry the execution
+     * @return false if the queue is full or the writer closed
+     */
+    boolean offer(Entry entry) {
+        return !closed && queue.offer(entry);
+    }
+
+    /**
+     * Stops accepting executions.  The queued executions are written and the file closed in the background.
+     *
+     * @return a future completed once the file is closed
+     */
+    ListenableFuture<Void> close() {
+        closed = true;
+        return done;
+    }
+
+    @Override
+    public void run() {
+        try {
+            // Segments of the same file must not interleave
+            previous.get();
+
+            // Each capture session appends a new segment
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024));
+            out.write(CaptureFormat.MAGIC);
+            out.writeByte(CaptureFormat.VERSION);
+
+            while (!closed || !queue.isEmpty()) {
+                Entry entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    out.flush();
+                } else {
+                    write(entry);
+                }
+            }
+        } catch (IOException e) {
+            closed = true;
+            logger.error("Unable to write to capture file " + file + ", capture stopped", e);
+        } catch (InterruptedException | ExecutionException e) {
+            closed = true;
+        } finally {
+            try {
+                if (out != null) {
+                    out.close();
+                }
+            } catch (IOException e) {
+                logger.warn("Unable to close capture file " + file, e);
+            }
+            done.set(null);
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        if (entry.batch == null) {
+            define(entry.statement);
+        } else {
+            for (Entry child : entry.batch) {
+                define(child.statement);
+            }
+        }
+
+        // Executions are queued roughly in order by concurrent threads, never go back in time
+        long delta = Math.max(0, entry.nanos - lastNanos);
+        lastNanos += delta;
+
+        if (entry.batch == null) {
+            out.writeByte(CaptureFormat.EXECUTE);
+            CaptureFormat.writeVarint(out, TimeUnit.NANOSECONDS.toMicros(delta));
+            CaptureFormat.writeVarint(out, entry.statement.getId());
+            CaptureFormat.writeConsistency(out, entry.consistency);
+            CaptureFormat.writeValues(out, entry.values);
+        } else {
+            out.writeByte(CaptureFormat.BATCH);
+            CaptureFormat.writeVarint(out, TimeUnit.NANOSECONDS.toMicros(delta));
+            CaptureFormat.writeConsistency(out, entry.consistency);
+            CaptureFormat.writeBatchType(out, entry.batchType);
+            CaptureFormat.writeVarint(out, entry.batch.size());
+            for (Entry child : entry.batch) {
+                CaptureFormat.writeVarint(out, child.statement.getId());
+                CaptureFormat.writeValues(out, child.values);
+            }
+        }
+    }
+
+    private void define(CapturedStatement statement) throws IOException {
+        if (defined.add(statement.getId())) {
+            out.writeByte(CaptureFormat.DEFINE);
+            CaptureFormat.writeVarint(out, statement.getId());
+            out.writeByte(statement.isPrepared() ? 1 : 0);
+            CaptureFormat.writeString(out, statement.getKeyspace());
+            CaptureFormat.writeString(out, statement.getQuery());
+        }
+    }
+
+    /**
+     * An execution waiting to be written
+     */
+    static class Entry {
+
+        final long nanos;
+        final CapturedStatement statement;
+        final ConsistencyLevel consistency;
+        final List<ByteBuffer> values;
+        final BatchStatement.Type batchType;
+        final List<Entry> batch;
+
+        Entry(long nanos, CapturedStatement statement, ConsistencyLevel consistency, List<ByteBuffer> values) {
+            this(nanos, statement, consistency, values, null, null);
+        }
+
+        Entry(long nanos, CapturedStatement statement, ConsistencyLevel consistency, List<ByteBuffer> values,
+              BatchStatement.Type batchType, List<Entry> batch) {
+            this.nanos = nanos;
+            this.statement = statement;
+            this.consistency = consistency;
+            this.values = values;
+            this.batchType = batchType;
+            this.batch = batch;
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.englishtown.vertx.cassandra.capture;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * An execution read from a capture file, of a single statement or of a batch
+ */
+public class CapturedExecution {
+
+    private final long offsetMicros;
+    private final CapturedStatement statement;
+    private final ConsistencyLevel consistency;
+    private final List<ByteBuffer> values;
+    private final BatchStatement.Type batchType;
+    private final List<CapturedExecution> batch;
+
+    CapturedExecution(long offsetMicros, CapturedStatement statement, ConsistencyLevel consistency,
+                      List<ByteBuffer> values) {
+        this(offsetMicros, statement, consistency, values, null, null);
+    }
+
+    CapturedExecution(long offsetMicros, ConsistencyLevel consistency, BatchStatement.Type batchType,
+                      List<CapturedExecution> batch) {
+        this(offsetMicros, null, consistency, null, batchType, batch);
+    }
+
+    private CapturedExecution(long offsetMicros, CapturedStatement statement, ConsistencyLevel consistency,
+                              List<ByteBuffer> values, BatchStatement.Type batchType, List<CapturedExecution> batch) {
+        this.offsetMicros = offsetMicros;
+        this.statement = statement;
+        this.consistency = consistency;
+        this.values = values;
+        this.batchType = batchType;
+        this.batch = batch;
+    }
+
+    /**
+     * Returns when the statement was executed, relative to the start of the capture
+     *
+     * @return the offset in microseconds
+     */
+    public long getOffsetMicros() {
+        return offsetMicros;
+    }
+
+    /**
+     * Returns the executed statement
+     *
+     * @return the statement, or null for a batch
+     */
+    public CapturedStatement getStatement() {
+        return statement;
+    }
+
+    /**
+     * Returns the consistency level set on the statement
+     *
+     * @return the consistency, or null for the session default
+     */
+    public ConsistencyLevel getConsistency() {
+        return consistency;
+    }
+
+    /**
+     * Returns the serialized bound values, as sent to cassandra
+     *
+     * @return the values (an element is null for a null value), or null if the values were not sampled
+     */
+    public List<ByteBuffer> getValues() {
+        return values;
+    }
+
+    /**
+     * Flag to indicate the execution is a batch
+     *
+     * @return true for a batch
+     */
+    public boolean isBatch() {
+        return batch != null;
+    }
+
+    /**
+     * Returns the type of a batch
+     *
+     * @return the batch type, or null if not a batch
+     */
+    public BatchStatement.Type getBatchType() {
+        return batchType;
+    }
+
+    /**
+     * Returns the statements of a batch, which have no offset or consistency of their own
+     *
+     * @return the batch statements, or null if not a batch
+     */
+    public List<CapturedExecution> getBatch() {
+        return batch;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.englishtown.vertx.cassandra.capture;
+
+/**
+ * A distinct statement in a capture file: a prepared statement, or the query text of a regular statement
+ */
+public class CapturedStatement {
+
+    private final int id;
+    private final boolean prepared;
+    private final String keyspace;
+    private final String query;
+
+    public CapturedStatement(int id, boolean prepared, String keyspace, String query) {
+        this.id = id;
+        this.prepared = prepared;
+        this.keyspace = keyspace;
+        this.query = query;
+    }
+
+    /**
+     * Returns the id of the statement within its capture file
+     *
+     * @return the id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Flag to indicate the statement was executed as a bound prepared statement
+     *
+     * @return true if prepared
+     */
+    public boolean isPrepared() {
+        return prepared;
+    }
+
+    /**
+     * Returns the keyspace of the statement, if known
+     *
+     * @return the keyspace or null
+     */
+    public String getKeyspace() {
+        return keyspace;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    @Override
+    public String toString() {
+        return query;
+    }
+
+}
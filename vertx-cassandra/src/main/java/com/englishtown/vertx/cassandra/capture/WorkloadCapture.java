@@ -0,0 +1,230 @@
+package com.englishtown.vertx.cassandra.capture;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.*;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.impl.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the statements executed through a session to an append-only capture file, for replay against other
+ * configurations.
+ * <p>
+ * Each execution is recorded with its statement, consistency and time, and the bound values of a sample of them.  Executing threads only queue the execution, a background thread writes the file in the
+ * {@link CaptureReader} format.  When the queue is full executions are dropped rather than slowing the caller, and
+ * counted under {@code capture.dropped}.
+ */
+public class WorkloadCapture {
+
+    public static final String METRIC_PREFIX = "capture";
+
+    // Regular statements with inline literals would otherwise each be remembered
+    private static final int MAX_REGULAR_STATEMENTS = 10000;
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadCapture.class);
+
+    // The driver does not expose the type of a batch, so it is read from its field
+    private static final Field BATCH_TYPE = batchTypeField();
+
+    private final Counter captured;
+    private final Counter dropped;
+    private final Map<PreparedStatement, CapturedStatement> prepared = new ConcurrentHashMap<>();
+    private final Map<String, CapturedStatement> regular = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile CaptureOptions options;
+    private volatile CaptureWriter writer;
+    private ListenableFuture<Void> lastClose = Futures.immediateFuture(null);
+
+    public WorkloadCapture(MetricRegistry registry) {
+        captured = registry.counter(MetricRegistry.name(METRIC_PREFIX, "captured"));
+        dropped = registry.counter(MetricRegistry.name(METRIC_PREFIX, "dropped"));
+    }
+
+    /**
+     * Returns the capture options
+     *
+     * @return the options, or null if the capture is disabled
+     */
+    public CaptureOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Starts capturing, or stops with null.  Changing the file starts a new segment in the new file.
+     *
+     * @param options the capture options
+     * @return the current {@link WorkloadCapture}
+     */
+    public synchronized WorkloadCapture setOptions(CaptureOptions options) {
+        if (Objects.equals(this.options, options)) {
+            return this;
+        }
+
+        // The old writer finishes in the background, a new writer waits for it before appending its segment
+        CaptureWriter oldWriter = writer;
+        writer = null;
+        this.options = null;
+        if (oldWriter != null) {
+            lastClose = oldWriter.close();
+        }
+
+        if (options != null) {
+            writer = new CaptureWriter(options.getFile(), options.getMaxPending(), lastClose);
+            this.options = options;
+        }
+        return this;
+    }
+
+    /**
+     * Flag to indicate executions are recorded
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * Records the execution of a statement
+     *
+     * @param statement       the statement
+     * @param loggedKeyspace  the keyspace of the session, which regular statements without one of their own use
+     * @param protocolVersion the protocol version regular statement values are serialized with
+     */
+    public void record(Statement statement, String loggedKeyspace, ProtocolVersion protocolVersion) {
+        CaptureWriter writer = this.writer;
+        CaptureOptions options = this.options;
+        if (writer == null || options == null) {
+            return;
+        }
+
+        long nanos = System.nanoTime();
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < options.getValueSampleRate();
+
+        CaptureWriter.Entry entry;
+        if (statement instanceof BatchStatement) {
+            List<CaptureWriter.Entry> batch = new ArrayList<>();
+            for (Statement child : ((BatchStatement) statement).getStatements()) {
+                CaptureWriter.Entry childEntry = entry(0, child, sampled, loggedKeyspace, protocolVersion);
+                if (childEntry != null) {
+                    batch.add(childEntry);
+                }
+            }
+            entry = new CaptureWriter.Entry(nanos, null, statement.getConsistencyLevel(), null,
+                    batchType((BatchStatement) statement), batch);
+        } else {
+            entry = entry(nanos, statement, sampled, loggedKeyspace, protocolVersion);
+        }
+
+        if (entry == null) {
+            return;
+        }
+        if (writer.offer(entry)) {
+            captured.inc();
+        } else {
+            dropped.inc();
+        }
+    }
+
+    /**
+     * Records the execution of a CQL query
+     *
+     * @param query           the query
+     * @param values          the bound values, if any
+     * @param loggedKeyspace  the keyspace of the session
+     * @param protocolVersion the protocol version the values are serialized with
+     */
+    public void record(String query, Object[] values, String loggedKeyspace, ProtocolVersion protocolVersion) {
+        if (writer != null) {
+            record(values == null || values.length == 0 ? new SimpleStatement(query) : new SimpleStatement(query, values),
+                    loggedKeyspace, protocolVersion);
+        }
+    }
+
+    /**
+     * Stops capturing.  The queued executions are written and the file closed in the background, so this never
+     * blocks the calling thread.
+     *
+     * @return a future completed once the file is closed
+     */
+    public synchronized ListenableFuture<Void> close() {
+        setOptions(null);
+        return lastClose;
+    }
+
+    private static Field batchTypeField() {
+        try {
+            Field field = BatchStatement.class.getDeclaredField("batchType");
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Batch types cannot be read, batches will be captured as logged", e);
+            return null;
+        }
+    }
+
+    private static BatchStatement.Type batchType(BatchStatement batch) {
+        if (BATCH_TYPE != null) {
+            try {
+                return (BatchStatement.Type) BATCH_TYPE.get(batch);
+            } catch (IllegalAccessException e) {
+                // Fall through to the default
+            }
+        }
+        return BatchStatement.Type.LOGGED;
+    }
+
+    private CaptureWriter.Entry entry(long nanos, Statement statement, boolean sampled, String loggedKeyspace,
+                                      ProtocolVersion protocolVersion) {
+        if (statement instanceof BoundStatement) {
+            BoundStatement bound = (BoundStatement) statement;
+            CapturedStatement capturedStatement = prepared.computeIfAbsent(bound.preparedStatement(),
+                    ps -> new CapturedStatement(nextId.getAndIncrement(), true, ps.getQueryKeyspace(), ps.getQueryString()));
+
+            List<ByteBuffer> values = null;
+            if (sampled) {
+                int count = bound.preparedStatement().getVariables().size();
+                values = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    values.add(bound.isSet(i) ? bound.getBytesUnsafe(i) : null);
+                }
+            }
+            return new CaptureWriter.Entry(nanos, capturedStatement, statement.getConsistencyLevel(), values);
+        }
+
+        if (statement instanceof RegularStatement) {
+            RegularStatement regularStatement = (RegularStatement) statement;
+            String query = regularStatement.getQueryString();
+            // Unqualified tables are resolved in the session keyspace, so the replay needs it
+            String keyspace = statement.getKeyspace() != null ? statement.getKeyspace() : loggedKeyspace;
+            String key = keyspace + "/" + query;
+            CapturedStatement capturedStatement = regular.get(key);
+            if (capturedStatement == null) {
+                capturedStatement = new CapturedStatement(nextId.getAndIncrement(), false, keyspace, query);
+                if (regular.size() < MAX_REGULAR_STATEMENTS) {
+                    CapturedStatement existing = regular.putIfAbsent(key, capturedStatement);
+                    capturedStatement = existing == null ? capturedStatement : existing;
+                }
+            }
+
+            List<ByteBuffer> values = null;
+            if (sampled) {
+                values = regularStatement.hasValues()
+                        ? Arrays.asList(regularStatement.getValues(protocolVersion)) : Collections.emptyList();
+            }
+            return new CaptureWriter.Entry(nanos, capturedStatement, statement.getConsistencyLevel(), values);
+        }
+
+        return null;
+    }
+
+}
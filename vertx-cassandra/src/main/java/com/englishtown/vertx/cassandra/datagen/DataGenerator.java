@@ -0,0 +1,443 @@
+package com.englishtown.vertx.cassandra.datagen;
+
+import com.datastax.driver.core.*;
+import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import com.datastax.driver.core.exceptions.QueryTimeoutException;
+import com.datastax.driver.core.exceptions.UnavailableException;
+import com.englishtown.vertx.cassandra.CassandraSession;
+import com.englishtown.vertx.cassandra.tablebuilder.BuiltTableStatement;
+import com.englishtown.vertx.cassandra.tablebuilder.CreateTable;
+import com.google.common.util.concurrent.*;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.impl.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates synthetic rows for a table and loads them, so benchmark datasets can be rebuilt exactly.
+ * <p>
+ * The table is read from a {@link CreateTable} or the driver {@link TableMetadata}.  Partition {@code i} of
+ * {@link #getPartitions()} always has the same key and rows for the same seed: its key columns are derived from
+ * {@code i} and spread over the token ring, its number of rows is drawn from the partition size
+ * {@link Distribution}, its clustering columns are derived from the row number within the partition, and the other
+ * columns are random values sized by the value size {@link Distribution}.  Tables without clustering columns have
+ * one row per partition.
+ * <p>
+ * {@link #load(CassandraSession)} inserts the partitions through a prepared statement, grouping the rows of a
+ * partition into unlogged batches.  It keeps as many statements in flight as the cluster sustains: timeouts and
+ * unavailable errors halve the number in flight and retry the statement after a delay, and each success grows it
+ * back towards {@link #getMaxInFlight()}.
+ */
+public class DataGenerator {
+
+    public static final long DEFAULT_PARTITIONS = 1000;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+    public static final int DEFAULT_MAX_BATCH_ROWS = 50;
+    public static final int DEFAULT_MAX_RETRIES = 10;
+
+    private static final long RETRY_DELAY_MILLIS = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    private final String keyspace;
+    private final String table;
+    private final List<String> columns = new ArrayList<>();
+    private final List<DataType> types = new ArrayList<>();
+    private final int partitionKeyCount;
+    private final int clusteringCount;
+    private final Set<Integer> staticColumns = new HashSet<>();
+    private long seed;
+    private long partitions = DEFAULT_PARTITIONS;
+    private Distribution partitionSize = Distribution.fixed(1);
+    private Distribution valueSize = Distribution.fixed(16);
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private int maxBatchRows = DEFAULT_MAX_BATCH_ROWS;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+
+    /**
+     * Creates a generator for a table to be created
+     *
+     * @param table the table create statement, with a keyspace
+     * @throws IllegalArgumentException if the table has no primary key or a column type is not supported
+     */
+    public DataGenerator(CreateTable table) {
+        this.keyspace = table.getKeyspace();
+        this.table = table.getTable();
+
+        Map<String, BuiltTableStatement.Column> byName = new LinkedHashMap<>();
+        for (BuiltTableStatement.Column column : table.getColumns()) {
+            byName.put(column.getName(), column);
+        }
+        List<String> partitionKeys = table.getPartitionKeys();
+        List<String> clusteringColumns = table.getClusteringColumns();
+        if (partitionKeys.isEmpty()) {
+            throw new IllegalArgumentException("Table " + this.table + " has no primary key");
+        }
+
+        for (String name : partitionKeys) {
+            addColumn(name, byName.remove(name), false);
+        }
+        for (String name : clusteringColumns) {
+            addColumn(name, byName.remove(name), false);
+        }
+        for (BuiltTableStatement.Column column : byName.values()) {
+            addColumn(column.getName(), column, column.getIsStatic());
+        }
+        this.partitionKeyCount = partitionKeys.size();
+        this.clusteringCount = clusteringColumns.size();
+    }
+
+    /**
+     * Creates a generator for an existing table
+     *
+     * @param table the table metadata
+     * @throws IllegalArgumentException if a column type is not supported
+     */
+    public DataGenerator(TableMetadata table) {
+        this.keyspace = table.getKeyspace().getName();
+        this.table = table.getName();
+
+        Set<ColumnMetadata> keys = new HashSet<>();
+        for (ColumnMetadata column : table.getPartitionKey()) {
+            addColumn(column, false);
+            keys.add(column);
+        }
+        for (ColumnMetadata column : table.getClusteringColumns()) {
+            addColumn(column, false);
+            keys.add(column);
+        }
+        for (ColumnMetadata column : table.getColumns()) {
+            if (!keys.contains(column)) {
+                addColumn(column, column.isStatic());
+            }
+        }
+        this.partitionKeyCount = table.getPartitionKey().size();
+        this.clusteringCount = table.getClusteringColumns().size();
+    }
+
+    private void addColumn(String name, BuiltTableStatement.Column column, boolean isStatic) {
+        if (column == null) {
+            throw new IllegalArgumentException("Primary key column " + name + " is not a column of " + table);
+        }
+        addColumn(name, Values.parse(column.getType()), isStatic);
+    }
+
+    private void addColumn(ColumnMetadata column, boolean isStatic) {
+        Values.check(column.getType());
+        addColumn(column.getName(), column.getType(), isStatic);
+    }
+
+    private void addColumn(String name, DataType type, boolean isStatic) {
+        if (isStatic) {
+            staticColumns.add(columns.size());
+        }
+        columns.add(name);
+        types.add(type);
+    }
+
+    /**
+     * Returns the column names, in the order of the values of a generated row: the partition key, the clustering
+     * columns and then the others
+     *
+     * @return the column names
+     */
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Returns the insert statement the rows are loaded with
+     *
+     * @return the CQL insert
+     */
+    public String getInsertQuery() {
+        StringBuilder sb = new StringBuilder("INSERT INTO ");
+        if (keyspace != null) {
+            sb.append(keyspace).append(".");
+        }
+        sb.append(table).append(" (").append(String.join(", ", columns)).append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append(")").toString();
+    }
+
+    /**
+     * The seed the keys and values are derived from
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public DataGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * The number of partitions generated
+     *
+     * @return the partition count
+     */
+    public long getPartitions() {
+        return partitions;
+    }
+
+    public DataGenerator setPartitions(long partitions) {
+        if (partitions < 0) {
+            throw new IllegalArgumentException("The partition count must not be negative");
+        }
+        this.partitions = partitions;
+        return this;
+    }
+
+    /**
+     * The distribution of the number of rows in a partition, a partition has at least one row.  Ignored for tables
+     * without clustering columns.
+     *
+     * @return the partition size distribution
+     */
+    public Distribution getPartitionSize() {
+        return partitionSize;
+    }
+
+    public DataGenerator setPartitionSize(Distribution partitionSize) {
+        this.partitionSize = Objects.requireNonNull(partitionSize);
+        return this;
+    }
+
+    /**
+     * The distribution of the size of text and blob values in characters or bytes, and of collections in elements
+     *
+     * @return the value size distribution
+     */
+    public Distribution getValueSize() {
+        return valueSize;
+    }
+
+    public DataGenerator setValueSize(Distribution valueSize) {
+        this.valueSize = Objects.requireNonNull(valueSize);
+        return this;
+    }
+
+    /**
+     * The maximum number of statements in flight while loading
+     *
+     * @return the max in flight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public DataGenerator setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("The max in flight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * The maximum number of rows of a partition inserted in one unlogged batch
+     *
+     * @return the max batch rows
+     */
+    public int getMaxBatchRows() {
+        return maxBatchRows;
+    }
+
+    public DataGenerator setMaxBatchRows(int maxBatchRows) {
+        if (maxBatchRows < 1) {
+            throw new IllegalArgumentException("The max batch rows must be at least 1");
+        }
+        this.maxBatchRows = maxBatchRows;
+        return this;
+    }
+
+    /**
+     * The number of times a statement is retried after a timeout or unavailable error before the load fails
+     *
+     * @return the max retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public DataGenerator setMaxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("The max retries must not be negative");
+        }
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * Generates the rows of a partition
+     *
+     * @param index the partition index
+     * @return the rows, each with a value per column in {@link #getColumns()} order
+     */
+    public List<Object[]> partition(long index) {
+        Random random = new Random(Values.mix(seed ^ Values.mix(index)));
+        int rowCount = clusteringCount == 0 ? 1 : Math.max(1, partitionSize.next(random));
+
+        Object[] partitionValues = new Object[columns.size()];
+        for (int i = 0; i < partitionKeyCount; i++) {
+            partitionValues[i] = Values.key(types.get(i), seed + index, true);
+        }
+        for (int i : staticColumns) {
+            partitionValues[i] = Values.random(types.get(i), random, valueSize.next(random));
+        }
+
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            Object[] values = partitionValues.clone();
+            for (int i = partitionKeyCount; i < partitionKeyCount + clusteringCount; i++) {
+                values[i] = Values.key(types.get(i), row, false);
+            }
+            for (int i = partitionKeyCount + clusteringCount; i < values.length; i++) {
+                if (!staticColumns.contains(i)) {
+                    values[i] = Values.random(types.get(i), random, valueSize.next(random));
+                }
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    /**
+     * Prepares the insert statement and loads all partitions
+     *
+     * @param session the cassandra session
+     * @return a future of the number of rows loaded, which fails with the first error that could not be retried
+     */
+    public ListenableFuture<Long> load(CassandraSession session) {
+        return Futures.transform(session.prepareAsync(getInsertQuery()),
+                (AsyncFunction<PreparedStatement, Long>) insert -> new Loader(session, insert).start());
+    }
+
+    /**
+     * Keeps statements in flight until all partitions are loaded, adjusting how many to the errors seen
+     */
+    private class Loader {
+
+        private final CassandraSession session;
+        private final PreparedStatement insert;
+        private final SettableFuture<Long> result = SettableFuture.create();
+        private final long start = System.nanoTime();
+        private long nextPartition;
+        private long rows;
+        private int inFlight;
+        private double window = maxInFlight;
+        private boolean pumping;
+
+        Loader(CassandraSession session, PreparedStatement insert) {
+            this.session = session;
+            this.insert = insert;
+        }
+
+        ListenableFuture<Long> start() {
+            pump();
+            return result;
+        }
+
+        private void pump() {
+            List<Runnable> sends = new ArrayList<>();
+            synchronized (this) {
+                // Completions during a send only update the counts, the outer loop sends the next statements
+                if (pumping || result.isDone()) {
+                    return;
+                }
+                pumping = true;
+            }
+
+            try {
+                while (true) {
+                    synchronized (this) {
+                        if (result.isDone()) {
+                            return;
+                        }
+                        if (nextPartition >= partitions || inFlight >= (int) window) {
+                            if (nextPartition >= partitions && inFlight == 0) {
+                                complete();
+                            }
+                            pumping = false;
+                            return;
+                        }
+                        long index = nextPartition++;
+                        for (Statement statement : statements(partition(index))) {
+                            inFlight++;
+                            sends.add(() -> send(statement, 0));
+                        }
+                    }
+                    sends.forEach(Runnable::run);
+                    sends.clear();
+                }
+            } finally {
+                synchronized (this) {
+                    pumping = false;
+                }
+            }
+        }
+
+        private List<Statement> statements(List<Object[]> partitionRows) {
+            List<Statement> statements = new ArrayList<>();
+            for (int from = 0; from < partitionRows.size(); from += maxBatchRows) {
+                List<Object[]> chunk = partitionRows.subList(from, Math.min(partitionRows.size(), from + maxBatchRows));
+                if (chunk.size() == 1) {
+                    statements.add(insert.bind(chunk.get(0)));
+                } else {
+                    BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+                    for (Object[] row : chunk) {
+                        batch.add(insert.bind(row));
+                    }
+                    statements.add(batch);
+                }
+            }
+            return statements;
+        }
+
+        private void send(Statement statement, int attempt) {
+            Futures.addCallback(session.executeAsync(statement), new FutureCallback<ResultSet>() {
+                @Override
+                public void onSuccess(ResultSet resultSet) {
+                    synchronized (Loader.this) {
+                        inFlight--;
+                        rows += statement instanceof BatchStatement ? ((BatchStatement) statement).size() : 1;
+                        window = Math.min(maxInFlight, window + 1 / window);
+                    }
+                    pump();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (attempt < maxRetries && isRetryable(t)) {
+                        synchronized (Loader.this) {
+                            window = Math.max(1, window / 2);
+                        }
+                        logger.debug("Retrying a generated row insert after " + t.getMessage());
+                        session.getVertx().setTimer(RETRY_DELAY_MILLIS << Math.min(attempt, 6), id -> send(statement, attempt + 1));
+                        return;
+                    }
+                    result.setException(t);
+                }
+            });
+        }
+
+        private void complete() {
+            long elapsedNanos = System.nanoTime() - start;
+            logger.info(String.format("Loaded %d rows into %s in %.1f s, %.0f rows/s", rows, table,
+                    elapsedNanos / 1e9, rows * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos)));
+            result.set(rows);
+        }
+
+    }
+
+    private static boolean isRetryable(Throwable t) {
+        return t instanceof QueryTimeoutException || t instanceof UnavailableException || t instanceof NoHostAvailableException;
+    }
+
+}
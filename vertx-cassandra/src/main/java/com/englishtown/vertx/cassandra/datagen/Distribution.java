@@ -0,0 +1,76 @@
+package com.englishtown.vertx.cassandra.datagen;
+
+import java.util.Random;
+
+/**
+ * A distribution of sizes, of partitions in rows or of values in bytes or elements, drawn from a seeded
+ * {@link Random} so the same seed always gives the same sizes
+ */
+@FunctionalInterface
+public interface Distribution {
+
+    /**
+     * Draws the next size
+     *
+     * @param random the random source
+     * @return the size, never negative
+     */
+    int next(Random random);
+
+    /**
+     * Always the same size
+     *
+     * @param size the size
+     * @return the distribution
+     */
+    static Distribution fixed(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size must not be negative");
+        }
+        return random -> size;
+    }
+
+    /**
+     * Sizes evenly spread between two bounds
+     *
+     * @param min the smallest size
+     * @param max the largest size, inclusive
+     * @return the distribution
+     */
+    static Distribution uniform(int min, int max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("The bounds must not be negative and max must be at least min");
+        }
+        return random -> min + random.nextInt(max - min + 1);
+    }
+
+    /**
+     * Sizes around a mean, cut off at zero and at four standard deviations above the mean
+     *
+     * @param mean   the mean size
+     * @param stdDev the standard deviation
+     * @return the distribution
+     */
+    static Distribution normal(int mean, int stdDev) {
+        if (mean < 0 || stdDev < 0) {
+            throw new IllegalArgumentException("The mean and standard deviation must not be negative");
+        }
+        return random -> (int) Math.max(0, Math.min(mean + 4L * stdDev, Math.round(mean + random.nextGaussian() * stdDev)));
+    }
+
+    /**
+     * Mostly small sizes with a long tail of large ones, like the partitions of a table keyed by user.  Sizes follow
+     * a Pareto distribution with a minimum size and shape 1.5, cut off at a maximum size.
+     *
+     * @param min the smallest and most common size, at least 1
+     * @param max the largest size
+     * @return the distribution
+     */
+    static Distribution longTail(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("min must be at least 1 and max must be at least min");
+        }
+        return random -> (int) Math.min(max, Math.floor(min / Math.pow(1 - random.nextDouble(), 1 / 1.5)));
+    }
+
+}
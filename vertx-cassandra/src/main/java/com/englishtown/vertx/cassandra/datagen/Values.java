@@ -0,0 +1,291 @@
+package com.englishtown.vertx.cassandra.datagen;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.DataType.Name;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Synthetic column values by CQL type
+ */
+final class Values {
+
+    // 2015-01-01T00:00:00Z, so timestamps are the same on every run
+    private static final long EPOCH_MILLIS = 1420070400000L;
+    // 100ns intervals between the UUID epoch (1582-10-15) and the unix epoch
+    private static final long UUID_EPOCH_OFFSET = 0x01b21dd213814000L;
+    private static final char[] CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+    // Collection elements are small whatever the value size, the value size is their count
+    private static final int ELEMENT_SIZE = 8;
+
+    private static final Map<String, DataType> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (DataType type : DataType.allPrimitiveTypes()) {
+            PRIMITIVES.put(type.getName().toString(), type);
+        }
+    }
+
+    private Values() {
+    }
+
+    /**
+     * Parses a CQL type as written in a {@code CREATE TABLE}
+     *
+     * @param cql the type, such as {@code text} or {@code map<text, frozen<list<int>>>}
+     * @return the driver type
+     * @throws IllegalArgumentException if the type is unknown or can't be generated
+     */
+    static DataType parse(String cql) {
+        String type = cql.trim().toLowerCase();
+        int open = type.indexOf('<');
+        if (open < 0) {
+            DataType dataType = PRIMITIVES.get(type);
+            if (dataType == null) {
+                throw new IllegalArgumentException("Unsupported CQL type " + cql);
+            }
+            check(dataType);
+            return dataType;
+        }
+        if (!type.endsWith(">")) {
+            throw new IllegalArgumentException("Unsupported CQL type " + cql);
+        }
+
+        String name = type.substring(0, open).trim();
+        List<String> arguments = splitArguments(type.substring(open + 1, type.length() - 1));
+        switch (name) {
+            case "frozen":
+                if (arguments.size() == 1) {
+                    return parse(arguments.get(0));
+                }
+                break;
+            case "list":
+                if (arguments.size() == 1) {
+                    return DataType.list(parse(arguments.get(0)));
+                }
+                break;
+            case "set":
+                if (arguments.size() == 1) {
+                    return DataType.set(parse(arguments.get(0)));
+                }
+                break;
+            case "map":
+                if (arguments.size() == 2) {
+                    return DataType.map(parse(arguments.get(0)), parse(arguments.get(1)));
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Unsupported CQL type " + cql);
+    }
+
+    /**
+     * Checks values of a type can be generated
+     *
+     * @param type the type
+     * @throws IllegalArgumentException if they can't
+     */
+    static void check(DataType type) {
+        switch (type.getName()) {
+            case COUNTER:
+                throw new IllegalArgumentException("Counter columns can't be inserted");
+            case CUSTOM:
+            case UDT:
+            case TUPLE:
+                throw new IllegalArgumentException("Type " + type + " is not supported");
+            default:
+                for (DataType argument : type.getTypeArguments()) {
+                    check(argument);
+                }
+        }
+    }
+
+    /**
+     * Returns the key value of an ordinal, different ordinals give different values where the type allows
+     *
+     * @param type    the key type
+     * @param ordinal the ordinal
+     * @param spread  true to scramble the ordinal, so consecutive ordinals are spread over the token ring rather
+     *                than sorting in order
+     * @return the value
+     */
+    static Object key(DataType type, long ordinal, boolean spread) {
+        if (spread) {
+            // 32 bit types are scrambled within 32 bits to stay distinct
+            Name name = type.getName();
+            ordinal = name == Name.INT || name == Name.INET ? mix32((int) ordinal) : mix(ordinal);
+        }
+        switch (type.getName()) {
+            case ASCII:
+            case TEXT:
+            case VARCHAR:
+                return String.format("%016x", ordinal);
+            case INT:
+                return (int) ordinal;
+            case BIGINT:
+                return ordinal;
+            case VARINT:
+                return BigInteger.valueOf(ordinal);
+            case DECIMAL:
+                return BigDecimal.valueOf(ordinal);
+            case FLOAT:
+                return (float) ordinal;
+            case DOUBLE:
+                return (double) ordinal;
+            case BOOLEAN:
+                return (ordinal & 1) == 1;
+            case TIMESTAMP:
+                return new Date(EPOCH_MILLIS + ordinal);
+            case UUID:
+                return uuid(ordinal, mix(ordinal));
+            case TIMEUUID:
+                return timeUuid(ordinal, mix(ordinal));
+            case INET:
+                return inet((int) ordinal);
+            case BLOB:
+                return (ByteBuffer) ByteBuffer.allocate(8).putLong(ordinal).flip();
+            case LIST:
+                return Collections.singletonList(key(type.getTypeArguments().get(0), ordinal, false));
+            case SET:
+                return Collections.singleton(key(type.getTypeArguments().get(0), ordinal, false));
+            case MAP:
+                return Collections.singletonMap(key(type.getTypeArguments().get(0), ordinal, false),
+                        key(type.getTypeArguments().get(1), ordinal, false));
+            default:
+                throw new IllegalArgumentException("Unsupported key type " + type);
+        }
+    }
+
+    /**
+     * Returns a random value
+     *
+     * @param type   the column type
+     * @param random the random source
+     * @param size   the length of text and blob values, or the number of elements of a collection
+     * @return the value
+     */
+    static Object random(DataType type, Random random, int size) {
+        switch (type.getName()) {
+            case ASCII:
+            case TEXT:
+            case VARCHAR:
+                char[] chars = new char[size];
+                for (int i = 0; i < size; i++) {
+                    chars[i] = CHARS[random.nextInt(CHARS.length)];
+                }
+                return new String(chars);
+            case BLOB:
+                byte[] bytes = new byte[size];
+                random.nextBytes(bytes);
+                return ByteBuffer.wrap(bytes);
+            case INT:
+                return random.nextInt();
+            case BIGINT:
+                return random.nextLong();
+            case VARINT:
+                return BigInteger.valueOf(random.nextLong());
+            case DECIMAL:
+                return BigDecimal.valueOf(random.nextLong(), 2);
+            case FLOAT:
+                return random.nextFloat();
+            case DOUBLE:
+                return random.nextDouble();
+            case BOOLEAN:
+                return random.nextBoolean();
+            case TIMESTAMP:
+                // Within a year of the epoch
+                return new Date(EPOCH_MILLIS + (long) (random.nextDouble() * 365 * 86400000L));
+            case UUID:
+                return uuid(random.nextLong(), random.nextLong());
+            case TIMEUUID:
+                return timeUuid((long) (random.nextDouble() * 365 * 86400000L * 10000), random.nextLong());
+            case INET:
+                return inet(random.nextInt());
+            case LIST:
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(random(type.getTypeArguments().get(0), random, ELEMENT_SIZE));
+                }
+                return list;
+            case SET:
+                Set<Object> set = new LinkedHashSet<>();
+                for (int i = 0; i < size; i++) {
+                    set.add(random(type.getTypeArguments().get(0), random, ELEMENT_SIZE));
+                }
+                return set;
+            case MAP:
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(random(type.getTypeArguments().get(0), random, ELEMENT_SIZE),
+                            random(type.getTypeArguments().get(1), random, ELEMENT_SIZE));
+                }
+                return map;
+            default:
+                throw new IllegalArgumentException("Unsupported type " + type);
+        }
+    }
+
+    /**
+     * Scrambles a long, one to one, so consecutive ordinals give keys spread over the token ring
+     *
+     * @param value the value
+     * @return the scrambled value
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static int mix32(int value) {
+        value = (value ^ (value >>> 16)) * 0x85ebca6b;
+        value = (value ^ (value >>> 13)) * 0xc2b2ae35;
+        return value ^ (value >>> 16);
+    }
+
+    private static UUID uuid(long msb, long lsb) {
+        // Version 4, IETF variant
+        return new UUID((msb & ~0xf000L) | 0x4000L, (lsb & 0x3fffffffffffffffL) | 0x8000000000000000L);
+    }
+
+    private static UUID timeUuid(long time, long lsb) {
+        // Version 1, the time is in 100ns intervals since the unix epoch
+        long timestamp = (time + UUID_EPOCH_OFFSET) & 0x0fffffffffffffffL;
+        long msb = (timestamp << 32) | ((timestamp >>> 16) & 0xffff0000L) | 0x1000L | (timestamp >>> 48);
+        return new UUID(msb, (lsb & 0x3fffffffffffffffL) | 0x8000000000000000L);
+    }
+
+    private static InetAddress inet(int address) {
+        try {
+            return InetAddress.getByAddress(ByteBuffer.allocate(4).putInt(address).array());
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> splitArguments(String arguments) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                result.add(arguments.substring(start, i));
+                start = i + 1;
+            }
+        }
+        result.add(arguments.substring(start));
+        return result;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.englishtown.vertx.cassandra.guard;
+
+/**
+ * The synchronous session calls that block the calling thread until cassandra responds
+ */
+public enum BlockingCall {
+    /**
+     * {@code execute()} waits for the first page of results
+     */
+    EXECUTE,
+    /**
+     * {@code prepare()} waits for the statement to be prepared on the cluster
+     */
+    PREPARE,
+    /**
+     * {@code init()} waits for the connection pools to be created
+     */
+    INIT,
+    /**
+     * Iterating a {@code ResultSet} past the fetched rows waits for the next page
+     */
+    FETCH;
+
+    /**
+     * Returns the metric name suffix, such as {@code execute}
+     *
+     * @return the metric name
+     */
+    public String getMetricName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,147 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.impl.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Detects synchronous session calls made on a vert.x event loop thread, where they block every handler on the loop
+ * until cassandra responds.
+ * <p>
+ * Each {@link BlockingCall} made on an event loop thread is counted and timed under {@code blocking-guard.<call>},
+ * and then handled according to the {@link GuardAction}.  Calls made on worker threads, including
+ * {@link Vertx#executeBlocking} handlers, are not affected.
+ */
+public class BlockingGuard {
+
+    public static final String METRIC_PREFIX = "blocking-guard";
+
+    private static final String EVENT_LOOP_THREAD_PREFIX = "vert.x-eventloop-thread-";
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingGuard.class);
+
+    private final Map<BlockingCall, Timer> timers = new EnumMap<>(BlockingCall.class);
+    private final Map<BlockingCall, Counter> rejected = new EnumMap<>(BlockingCall.class);
+    private volatile BlockingGuardOptions options;
+
+    public BlockingGuard(MetricRegistry registry) {
+        for (BlockingCall call : BlockingCall.values()) {
+            timers.put(call, registry.timer(MetricRegistry.name(METRIC_PREFIX, call.getMetricName())));
+            rejected.put(call, registry.counter(MetricRegistry.name(METRIC_PREFIX, call.getMetricName(), "rejected")));
+        }
+    }
+
+    /**
+     * Returns the guard options
+     *
+     * @return the options, or null if the guard is disabled
+     */
+    public BlockingGuardOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Enables the guard, or disables it with null
+     *
+     * @param options the guard options
+     * @return the current {@link BlockingGuard}
+     */
+    public BlockingGuard setOptions(BlockingGuardOptions options) {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Flag to indicate blocking calls are checked
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return options != null;
+    }
+
+    /**
+     * Makes a blocking call, counting, timing and applying the configured action if on an event loop thread
+     *
+     * @param call     the kind of call
+     * @param blocking the call
+     * @param <T>      the result type
+     * @return the call result
+     * @throws IllegalStateException if on an event loop thread and the action is to reject
+     */
+    public <T> T call(BlockingCall call, Supplier<T> blocking) {
+        BlockingGuardOptions options = this.options;
+        if (options == null || !isEventLoopThread()) {
+            return blocking.get();
+        }
+
+        switch (options.getAction()) {
+            case REJECT:
+                rejected.get(call).inc();
+                throw new IllegalStateException("Blocking " + call + " rejected on event loop thread "
+                        + Thread.currentThread().getName() + ", use the async methods instead");
+            case LOG:
+                logger.warn("Blocking " + call + " on event loop thread " + Thread.currentThread().getName(),
+                        new Exception("Blocking " + call + " call site"));
+                break;
+            default:
+                break;
+        }
+
+        Timer.Context context = timers.get(call).time();
+        try {
+            return blocking.get();
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * Wraps a result set so iterating past the fetched rows is guarded as a {@link BlockingCall#FETCH}
+     *
+     * @param resultSet the result set
+     * @return the guarded result set, or the result set itself if the guard is disabled
+     */
+    public ResultSet wrap(ResultSet resultSet) {
+        if (options == null || resultSet == null || resultSet instanceof GuardedResultSet) {
+            return resultSet;
+        }
+        return new GuardedResultSet(resultSet, this);
+    }
+
+    /**
+     * Wraps a result set future so the result set it returns is guarded, see {@link #wrap(ResultSet)}
+     *
+     * @param future the result set future
+     * @return the guarded future, or the future itself if the guard is disabled
+     */
+    public ResultSetFuture wrap(ResultSetFuture future) {
+        if (options == null || future == null || future instanceof GuardedResultSetFuture) {
+            return future;
+        }
+        return new GuardedResultSetFuture(future, this);
+    }
+
+    /**
+     * Flag to indicate the current thread is a vert.x event loop thread.  Worker threads running
+     * {@link Vertx#executeBlocking} handlers carry the event loop context, so the thread itself is checked too.
+     *
+     * @return true if on an event loop thread
+     */
+    protected boolean isEventLoopThread() {
+        Context context = Vertx.currentContext();
+        return context != null && context.isEventLoopContext()
+                && Thread.currentThread().getName().startsWith(EVENT_LOOP_THREAD_PREFIX);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for the {@link BlockingGuard}.  A {@link GuardAction#REJECT}ed call fails with an
+ * {@link IllegalStateException} before it blocks.
+ */
+public class BlockingGuardOptions extends GuardOptions<BlockingGuardOptions> {
+
+    public BlockingGuardOptions() {
+    }
+
+    public BlockingGuardOptions(JsonObject json) {
+        super(json, "blocking guard");
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.englishtown.vertx.cassandra.guard;
+
+/**
+ * What a guard does with a call or query it flags.  Every flagged call or query is counted regardless.
+ */
+public enum GuardAction {
+    /**
+     * Only count it
+     */
+    COUNT,
+    /**
+     * Count it and log a warning
+     */
+    LOG,
+    /**
+     * Count it and fail it, the guard decides the exception
+     */
+    REJECT
+}
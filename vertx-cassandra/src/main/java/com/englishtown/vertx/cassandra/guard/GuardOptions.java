@@ -0,0 +1,48 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The options shared by the guards
+ *
+ * @param <T> the options type, returned by the fluent setters
+ */
+public abstract class GuardOptions<T extends GuardOptions<T>> {
+
+    public static final GuardAction DEFAULT_ACTION = GuardAction.LOG;
+
+    private GuardAction action = DEFAULT_ACTION;
+
+    protected GuardOptions() {
+    }
+
+    protected GuardOptions(JsonObject json, String guardName) {
+        String action = json.getString("action");
+        if (action != null) {
+            try {
+                setAction(GuardAction.valueOf(action.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("'" + action + "' is not a valid " + guardName + " action.");
+            }
+        }
+    }
+
+    /**
+     * The action taken for what the guard flags
+     *
+     * @return the action
+     */
+    public GuardAction getAction() {
+        return action;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T setAction(GuardAction action) {
+        if (action == null) {
+            throw new IllegalArgumentException("action must not be null");
+        }
+        this.action = action;
+        return (T) this;
+    }
+
+}
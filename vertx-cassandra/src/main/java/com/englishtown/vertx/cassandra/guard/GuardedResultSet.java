@@ -0,0 +1,97 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ExecutionInfo;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link ResultSet} that passes calls which fetch the next page through the {@link BlockingGuard}
+ */
+class GuardedResultSet implements ResultSet {
+
+    private final ResultSet resultSet;
+    private final BlockingGuard guard;
+
+    GuardedResultSet(ResultSet resultSet, BlockingGuard guard) {
+        this.resultSet = resultSet;
+        this.guard = guard;
+    }
+
+    /**
+     * Flag to indicate the next row has to be fetched from cassandra
+     */
+    private boolean willFetch() {
+        return resultSet.getAvailableWithoutFetching() == 0 && !resultSet.isFullyFetched();
+    }
+
+    @Override
+    public ColumnDefinitions getColumnDefinitions() {
+        return resultSet.getColumnDefinitions();
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return willFetch() ? guard.call(BlockingCall.FETCH, resultSet::isExhausted) : resultSet.isExhausted();
+    }
+
+    @Override
+    public Row one() {
+        return willFetch() ? guard.call(BlockingCall.FETCH, resultSet::one) : resultSet.one();
+    }
+
+    @Override
+    public List<Row> all() {
+        return resultSet.isFullyFetched() ? resultSet.all() : guard.call(BlockingCall.FETCH, resultSet::all);
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        Iterator<Row> iterator = resultSet.iterator();
+        return new Iterator<Row>() {
+            @Override
+            public boolean hasNext() {
+                return willFetch() ? guard.call(BlockingCall.FETCH, iterator::hasNext) : iterator.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                return willFetch() ? guard.call(BlockingCall.FETCH, iterator::next) : iterator.next();
+            }
+        };
+    }
+
+    @Override
+    public int getAvailableWithoutFetching() {
+        return resultSet.getAvailableWithoutFetching();
+    }
+
+    @Override
+    public boolean isFullyFetched() {
+        return resultSet.isFullyFetched();
+    }
+
+    @Override
+    public ListenableFuture<Void> fetchMoreResults() {
+        return resultSet.fetchMoreResults();
+    }
+
+    @Override
+    public ExecutionInfo getExecutionInfo() {
+        return resultSet.getExecutionInfo();
+    }
+
+    @Override
+    public List<ExecutionInfo> getAllExecutionInfo() {
+        return resultSet.getAllExecutionInfo();
+    }
+
+    @Override
+    public boolean wasApplied() {
+        return resultSet.wasApplied();
+    }
+}
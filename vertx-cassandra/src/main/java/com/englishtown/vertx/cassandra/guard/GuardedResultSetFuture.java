@@ -0,0 +1,50 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.util.concurrent.ForwardingListenableFuture;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link ResultSetFuture} whose result set is wrapped by the {@link BlockingGuard}
+ */
+class GuardedResultSetFuture extends ForwardingListenableFuture.SimpleForwardingListenableFuture<ResultSet>
+        implements ResultSetFuture {
+
+    private final ResultSetFuture future;
+    private final BlockingGuard guard;
+
+    GuardedResultSetFuture(ResultSetFuture future, BlockingGuard guard) {
+        super(future);
+        this.future = future;
+        this.guard = guard;
+    }
+
+    @Override
+    public ResultSet get() throws InterruptedException, ExecutionException {
+        return guard.wrap(future.get());
+    }
+
+    @Override
+    public ResultSet get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return guard.wrap(future.get(timeout, unit));
+    }
+
+    @Override
+    public ResultSet getUninterruptibly() {
+        return guard.wrap(future.getUninterruptibly());
+    }
+
+    @Override
+    public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+        return guard.wrap(future.getUninterruptibly(timeout, unit));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return future.cancel(mayInterruptIfRunning);
+    }
+}
@@ -0,0 +1,50 @@
+package com.englishtown.vertx.cassandra.guard;
+
+/**
+ * How many nodes a SELECT statement reaches, from its WHERE clause and the table metadata
+ */
+public enum QueryClass {
+    /**
+     * Every partition key column is restricted by equality, so the replicas of one partition are queried
+     */
+    SINGLE_PARTITION(false),
+    /**
+     * Every partition key column is restricted, at least one with IN, so the replicas of each listed partition are
+     * queried
+     */
+    MULTI_PARTITION(false),
+    /**
+     * The partition key is not restricted but an indexed column is, so the secondary index of every token range is
+     * queried
+     */
+    INDEX(true),
+    /**
+     * Neither the partition key nor an indexed column is restricted (or a token range is), so every token range is
+     * scanned
+     */
+    FULL_SCAN(true);
+
+    private final boolean clusterWide;
+
+    QueryClass(boolean clusterWide) {
+        this.clusterWide = clusterWide;
+    }
+
+    /**
+     * Flag to indicate queries of this class fan out to every token range in the cluster
+     *
+     * @return true for index and full scan queries
+     */
+    public boolean isClusterWide() {
+        return clusterWide;
+    }
+
+    /**
+     * Returns the metric name suffix, such as {@code full-scan}
+     *
+     * @return the metric name
+     */
+    public String getMetricName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
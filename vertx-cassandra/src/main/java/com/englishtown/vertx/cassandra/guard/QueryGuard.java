@@ -0,0 +1,192 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.*;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.impl.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies prepared SELECT statements by how many nodes they reach, and logs, counts or rejects cluster-wide ones.
+ * <p>
+ * Each prepared SELECT on a table known to the cluster {@link Metadata} is classified as a {@link QueryClass} from
+ * its WHERE clause and counted under {@code query-guard.<class>}.  Secondary index and full scan queries are then
+ * handled according to the {@link GuardAction}.  Classification happens once per prepare, never per execution.
+ */
+public class QueryGuard {
+
+    public static final String METRIC_PREFIX = "query-guard";
+
+    private static final Pattern SELECT = Pattern.compile(
+            "^\\s*SELECT\\s+.+?\\s+FROM\\s+([\\w.\"]+)(?:\\s+WHERE\\s+(.+?))?(?:\\s+ORDER\\s+BY\\s+.+?)?"
+                    + "(?:\\s+LIMIT\\s+\\S+)?(\\s+ALLOW\\s+FILTERING)?\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern AND = Pattern.compile("\\s+AND\\s+", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RELATION = Pattern.compile(
+            "^\\s*(\"(?:[^\"]|\"\")+\"|\\w+|\\(.*?\\)|token\\s*\\(.*?\\))\\s*(=|<=|>=|<|>|IN\\b|CONTAINS\\s+KEY\\b|CONTAINS\\b)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryGuard.class);
+
+    private final Map<QueryClass, Counter> counters = new EnumMap<>(QueryClass.class);
+    private volatile QueryGuardOptions options;
+
+    public QueryGuard(MetricRegistry registry) {
+        for (QueryClass queryClass : QueryClass.values()) {
+            counters.put(queryClass, registry.counter(MetricRegistry.name(METRIC_PREFIX, queryClass.getMetricName())));
+        }
+    }
+
+    /**
+     * Returns the guard options
+     *
+     * @return the options, or null if the guard is disabled
+     */
+    public QueryGuardOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Enables the guard, or disables it with null
+     *
+     * @param options the guard options
+     * @return the current {@link QueryGuard}
+     */
+    public QueryGuard setOptions(QueryGuardOptions options) {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Flag to indicate prepared statements are checked
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return options != null;
+    }
+
+    /**
+     * Classifies, counts and applies the configured action to a prepared statement
+     *
+     * @param statement the prepared statement
+     * @param metadata  the cluster metadata
+     * @return the statement
+     * @throws IllegalArgumentException if the statement is cluster-wide and the action is to reject
+     */
+    public PreparedStatement check(PreparedStatement statement, Metadata metadata) {
+        QueryGuardOptions options = this.options;
+        if (options == null || metadata == null) {
+            return statement;
+        }
+
+        QueryClass queryClass = classify(statement.getQueryString(), statement.getQueryKeyspace(), metadata);
+        if (queryClass == null) {
+            return statement;
+        }
+        counters.get(queryClass).inc();
+
+        if (queryClass.isClusterWide()) {
+            switch (options.getAction()) {
+                case REJECT:
+                    throw new IllegalArgumentException("Cluster-wide " + queryClass + " query rejected: " + statement.getQueryString());
+                case LOG:
+                    logger.warn("Cluster-wide " + queryClass + " query prepared: " + statement.getQueryString());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return statement;
+    }
+
+    /**
+     * Classifies a SELECT query
+     *
+     * @param query    the CQL query
+     * @param keyspace the keyspace of an unqualified table name
+     * @param metadata the cluster metadata
+     * @return the query class, or null if the query is not a SELECT or its table is unknown
+     */
+    public QueryClass classify(String query, String keyspace, Metadata metadata) {
+
+        // Literals can contain anything, keywords included
+        Matcher matcher = SELECT.matcher(LITERAL.matcher(query).replaceAll("?"));
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        TableMetadata table = getTable(matcher.group(1), keyspace, metadata);
+        if (table == null) {
+            return null;
+        }
+
+        String where = matcher.group(2);
+        if (where == null) {
+            return QueryClass.FULL_SCAN;
+        }
+
+        // Relation operator by restricted column
+        Map<ColumnMetadata, String> restrictions = new HashMap<>();
+        for (String relation : AND.split(where)) {
+            Matcher relationMatcher = RELATION.matcher(relation);
+            if (!relationMatcher.find()) {
+                continue;
+            }
+            String column = relationMatcher.group(1);
+            if (column.regionMatches(true, 0, "token", 0, 5) && column.endsWith(")")) {
+                return QueryClass.FULL_SCAN;
+            }
+            ColumnMetadata columnMetadata = table.getColumn(column);
+            if (columnMetadata != null) {
+                restrictions.put(columnMetadata, relationMatcher.group(2).toUpperCase());
+            }
+        }
+
+        boolean multiPartition = false;
+        boolean partitionRestricted = true;
+        for (ColumnMetadata column : table.getPartitionKey()) {
+            String operator = restrictions.get(column);
+            if ("IN".equals(operator)) {
+                multiPartition = true;
+            } else if (!"=".equals(operator)) {
+                partitionRestricted = false;
+                break;
+            }
+        }
+        if (partitionRestricted) {
+            return multiPartition ? QueryClass.MULTI_PARTITION : QueryClass.SINGLE_PARTITION;
+        }
+
+        for (Map.Entry<ColumnMetadata, String> entry : restrictions.entrySet()) {
+            String operator = entry.getValue();
+            if (entry.getKey().getIndex() != null && (operator.equals("=") || operator.startsWith("CONTAINS"))) {
+                return QueryClass.INDEX;
+            }
+        }
+
+        return QueryClass.FULL_SCAN;
+    }
+
+    private TableMetadata getTable(String name, String keyspace, Metadata metadata) {
+        int dot = name.indexOf('.');
+        if (dot >= 0) {
+            keyspace = name.substring(0, dot);
+            name = name.substring(dot + 1);
+        }
+        if (keyspace == null) {
+            return null;
+        }
+        KeyspaceMetadata keyspaceMetadata = metadata.getKeyspace(keyspace);
+        return keyspaceMetadata == null ? null : keyspaceMetadata.getTable(name);
+    }
+
+}
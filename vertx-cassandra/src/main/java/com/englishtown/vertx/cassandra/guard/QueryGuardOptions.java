@@ -0,0 +1,18 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for the {@link QueryGuard}.  A {@link GuardAction#REJECT}ed query fails its prepare with an
+ * {@link IllegalArgumentException}.
+ */
+public class QueryGuardOptions extends GuardOptions<QueryGuardOptions> {
+
+    public QueryGuardOptions() {
+    }
+
+    public QueryGuardOptions(JsonObject json) {
+        super(json, "query guard");
+    }
+
+}
@@ -9,6 +9,24 @@ public class AlterKeyspace extends KeyspaceBuilderBase {
         super(keyspace);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AlterKeyspace simpleStrategy(int replicationFactor) {
+        super.simpleStrategy(replicationFactor);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AlterKeyspace durableWrites(boolean durableWrites) {
+        super.durableWrites(durableWrites);
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -19,6 +37,7 @@ public class AlterKeyspace extends KeyspaceBuilderBase {
         sb.append("ALTER KEYSPACE ").append(keyspace);
         buildReplicationStrategy(sb);
         sb.append(" }");
+        buildDurableWrites(sb);
 
         return sb;
     }
@@ -16,6 +16,24 @@ public class CreateKeyspace extends KeyspaceBuilderBase {
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CreateKeyspace simpleStrategy(int replicationFactor) {
+        super.simpleStrategy(replicationFactor);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CreateKeyspace durableWrites(boolean durableWrites) {
+        super.durableWrites(durableWrites);
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -30,6 +48,7 @@ public class CreateKeyspace extends KeyspaceBuilderBase {
         sb.append(keyspace);
         buildReplicationStrategy(sb);
         sb.append(" }");
+        buildDurableWrites(sb);
         return sb;
     }
 
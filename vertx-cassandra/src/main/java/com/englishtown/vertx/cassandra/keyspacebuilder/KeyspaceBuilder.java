@@ -1,5 +1,7 @@
 package com.englishtown.vertx.cassandra.keyspacebuilder;
 
+import com.datastax.driver.core.KeyspaceMetadata;
+
 /**
  * Static methods to build a CQL3 keyspace statement
  */
@@ -25,6 +27,33 @@ public class KeyspaceBuilder {
         return new AlterKeyspace(keyspace);
     }
 
+    /**
+     * Returns an {@link com.englishtown.vertx.cassandra.keyspacebuilder.AlterKeyspace} statement to bring an existing
+     * keyspace to the desired replication strategy, per data center replication factors and durable writes.
+     *
+     * @param existing the existing keyspace
+     * @param desired  the desired keyspace, as built by {@link #create(String)} or {@link #alter(String)}
+     * @return the alter statement, or null if the keyspace already matches
+     */
+    public static AlterKeyspace alter(KeyspaceMetadata existing, BuiltKeyspaceStatement desired) {
+        KeyspaceBuilderBase builder;
+        if (desired instanceof KeyspaceBuilderBase) {
+            builder = (KeyspaceBuilderBase) desired;
+        } else if (desired instanceof KeyspaceBuilderBase.Datacenter) {
+            builder = ((KeyspaceBuilderBase.Datacenter) desired).getBuilder();
+        } else {
+            throw new IllegalArgumentException("Only keyspace create or alter statements can be diffed");
+        }
+
+        if (builder.matches(existing)) {
+            return null;
+        }
+
+        AlterKeyspace alter = alter(desired.getKeyspace());
+        builder.copyTo(alter);
+        return alter;
+    }
+
     /**
      * Returns a {@link com.englishtown.vertx.cassandra.keyspacebuilder.DropKeyspace} builder
      *
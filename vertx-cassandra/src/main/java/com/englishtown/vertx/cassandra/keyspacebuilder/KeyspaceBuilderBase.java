@@ -1,5 +1,7 @@
 package com.englishtown.vertx.cassandra.keyspacebuilder;
 
+import com.datastax.driver.core.KeyspaceMetadata;
+
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -11,6 +13,7 @@ abstract class KeyspaceBuilderBase extends BuiltKeyspaceStatement {
     private String strategy = REPLICATION_STRATEGY_SIMPLE;
     private int replicationFactor = 1;
     private Map<String, Integer> dcReplicationFactors = new LinkedHashMap<>();
+    private Boolean durableWrites;
 
     public static final String REPLICATION_STRATEGY_SIMPLE = "SimpleStrategy";
     public static final String REPLICATION_STRATEGY_NETWORK_TOPOLOGY = "NetworkTopologyStrategy";
@@ -30,6 +33,70 @@ abstract class KeyspaceBuilderBase extends BuiltKeyspaceStatement {
         return new Datacenter(keyspace);
     }
 
+    /**
+     * Sets whether writes go through the commit log.  Disabling it risks losing recent writes when a node fails.
+     *
+     * @param durableWrites false to skip the commit log
+     * @return the current builder
+     */
+    public KeyspaceBuilderBase durableWrites(boolean durableWrites) {
+        this.durableWrites = durableWrites;
+        return this;
+    }
+
+    /**
+     * Copies the replication and durable writes settings to another builder
+     *
+     * @param other the builder to copy to
+     */
+    void copyTo(KeyspaceBuilderBase other) {
+        other.strategy = strategy;
+        other.replicationFactor = replicationFactor;
+        other.dcReplicationFactors = new LinkedHashMap<>(dcReplicationFactors);
+        other.durableWrites = durableWrites;
+    }
+
+    /**
+     * Flag to indicate an existing keyspace already has these settings.  Durable writes are only compared when set.
+     *
+     * @param existing the existing keyspace
+     * @return true if the replication and durable writes match
+     */
+    boolean matches(KeyspaceMetadata existing) {
+        if (durableWrites != null && durableWrites != existing.isDurableWrites()) {
+            return false;
+        }
+
+        Map<String, String> replication = existing.getReplication();
+        String existingStrategy = replication.get("class");
+        // Metadata has the fully qualified class name
+        if (existingStrategy == null || !strategy.equals(existingStrategy.substring(existingStrategy.lastIndexOf('.') + 1))) {
+            return false;
+        }
+
+        if (REPLICATION_STRATEGY_SIMPLE.equals(strategy)) {
+            return String.valueOf(replicationFactor).equals(replication.get("replication_factor"));
+        }
+
+        // Every data center other than the class entry must match, any extra one would be dropped by an alter
+        if (replication.size() - 1 != dcReplicationFactors.size()) {
+            return false;
+        }
+        for (Map.Entry<String, Integer> entry : dcReplicationFactors.entrySet()) {
+            if (!String.valueOf(entry.getValue()).equals(replication.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected StringBuilder buildDurableWrites(StringBuilder sb) {
+        if (durableWrites != null) {
+            sb.append(" AND DURABLE_WRITES = ").append(durableWrites);
+        }
+        return sb;
+    }
+
     protected StringBuilder buildReplicationStrategy(StringBuilder sb) {
         sb.append(" WITH REPLICATION = { 'class' : '");
 
@@ -62,6 +129,20 @@ abstract class KeyspaceBuilderBase extends BuiltKeyspaceStatement {
             return this;
         }
 
+        public Datacenter durableWrites(boolean durableWrites) {
+            KeyspaceBuilderBase.this.durableWrites(durableWrites);
+            return this;
+        }
+
+        /**
+         * Returns the keyspace builder this data center list belongs to
+         *
+         * @return the keyspace builder
+         */
+        KeyspaceBuilderBase getBuilder() {
+            return KeyspaceBuilderBase.this;
+        }
+
         /**
          * Builds the CQL3 statement
          *
@@ -0,0 +1,236 @@
+package com.englishtown.vertx.cassandra.loader;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.CassandraSession;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.FutureCallback;
+import io.vertx.core.Vertx;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Batches single row reads by key requested during the same event loop tick.
+ * <p>
+ * Each call to {@link #load(Object, FutureCallback)} queues the key, and once the current tick completes all queued
+ * keys are dispatched together.  Duplicate keys are read once.  Keys are grouped by the replicas owning their
+ * partition; keys sharing replicas are read with a single {@code IN} query routed to those replicas, while all other
+ * keys are read in parallel with the single key statement.  Every caller receives its own row, or null if no row
+ * exists.
+ * <p>
+ * A loader is not thread safe and should be used from a single vert.x context, like a {@link CassandraSession} per
+ * verticle.
+ */
+public class RowLoader {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+    private final CassandraSession session;
+    private final PreparedStatement select;
+    private final PreparedStatement selectIn;
+    private final String keyColumn;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private Map<ByteBuffer, PendingKey> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    /**
+     * Creates a loader that reads each key with its own statement in parallel
+     *
+     * @param session the cassandra session
+     * @param select  the single key statement, with the key as the only bind variable ({@code WHERE id = ?})
+     */
+    public RowLoader(CassandraSession session, PreparedStatement select) {
+        this(session, select, null, null);
+    }
+
+    /**
+     * Creates a loader that groups keys owned by the same replicas into {@code IN} queries
+     *
+     * @param session   the cassandra session
+     * @param select    the single key statement, with the key as the only bind variable ({@code WHERE id = ?})
+     * @param selectIn  the multi key statement, with a list of keys as the only bind variable ({@code WHERE id IN ?})
+     * @param keyColumn the key column name, which must be selected by {@code selectIn}
+     */
+    public RowLoader(CassandraSession session, PreparedStatement select, PreparedStatement selectIn, String keyColumn) {
+        if (select.getVariables().size() != 1) {
+            throw new IllegalArgumentException("The select statement must have the key as the only bind variable");
+        }
+        if (selectIn != null && keyColumn == null) {
+            throw new IllegalArgumentException("A key column is required to match IN query rows to keys");
+        }
+        this.session = session;
+        this.select = select;
+        this.selectIn = selectIn;
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * The maximum number of keys in one {@code IN} query
+     *
+     * @return the max batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public RowLoader setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The max batch size must be at least 1");
+        }
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * Queues a key to be read once the current event loop tick completes
+     *
+     * @param key      the key value
+     * @param callback the callback receiving the row, or null if there is no row for the key
+     */
+    public void load(Object key, FutureCallback<Row> callback) {
+
+        BoundStatement bound = select.bind(key);
+        ByteBuffer serialized = bound.getBytesUnsafe(0);
+
+        pending.computeIfAbsent(serialized, k -> new PendingKey(key, serialized, bound)).callbacks.add(callback);
+
+        if (!scheduled) {
+            scheduled = true;
+            getVertx().runOnContext(aVoid -> dispatch());
+        }
+    }
+
+    /**
+     * Dispatches all queued keys immediately
+     */
+    public void dispatch() {
+
+        scheduled = false;
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Collection<PendingKey> keys = pending.values();
+        pending = new LinkedHashMap<>();
+
+        if (selectIn == null || keys.size() == 1) {
+            keys.forEach(this::loadOne);
+            return;
+        }
+
+        for (List<PendingKey> group : groupByReplicas(keys)) {
+            for (List<PendingKey> batch : Lists.partition(group, maxBatchSize)) {
+                if (batch.size() == 1) {
+                    loadOne(batch.get(0));
+                } else {
+                    loadMany(batch);
+                }
+            }
+        }
+    }
+
+    protected List<List<PendingKey>> groupByReplicas(Collection<PendingKey> keys) {
+
+        Metadata metadata = session.getMetadata();
+        String keyspace = select.getQueryKeyspace() != null ? select.getQueryKeyspace() : session.getLoggedKeyspace();
+
+        Map<Set<Host>, List<PendingKey>> groups = new LinkedHashMap<>();
+        List<List<PendingKey>> result = new ArrayList<>();
+
+        for (PendingKey key : keys) {
+            ByteBuffer routingKey = key.bound.getRoutingKey();
+            Set<Host> replicas = (routingKey == null || keyspace == null)
+                    ? Collections.emptySet()
+                    : metadata.getReplicas(keyspace, routingKey);
+
+            if (replicas.isEmpty()) {
+                // Unknown ownership, fan out
+                result.add(Collections.singletonList(key));
+            } else {
+                groups.computeIfAbsent(replicas, r -> new ArrayList<>()).add(key);
+            }
+        }
+
+        result.addAll(groups.values());
+        return result;
+    }
+
+    private void loadOne(PendingKey key) {
+
+        session.executeAsync(key.bound, new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess(ResultSet result) {
+                key.complete(result.one());
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                key.fail(t);
+            }
+        });
+    }
+
+    private void loadMany(List<PendingKey> batch) {
+
+        List<Object> values = new ArrayList<>(batch.size());
+        batch.forEach(key -> values.add(key.value));
+
+        BoundStatement statement = selectIn.bind(values);
+        // Route to the replicas shared by the batch
+        statement.setRoutingKey(batch.get(0).bound.getRoutingKey());
+
+        session.executeAsync(statement, new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess(ResultSet result) {
+                // Iterating past the fetched page would block the event loop, so only the first page is read and
+                // the keys without a row in it are read on their own.  Each key gets its first row, like loadOne.
+                Map<ByteBuffer, Row> rows = new HashMap<>();
+                for (int i = result.getAvailableWithoutFetching(); i > 0; i--) {
+                    Row row = result.one();
+                    rows.putIfAbsent(row.getBytesUnsafe(keyColumn), row);
+                }
+                boolean fullyFetched = result.isFullyFetched();
+                for (PendingKey key : batch) {
+                    Row row = rows.get(key.serialized);
+                    if (row == null && !fullyFetched) {
+                        loadOne(key);
+                    } else {
+                        key.complete(row);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                batch.forEach(key -> key.fail(t));
+            }
+        });
+    }
+
+    private Vertx getVertx() {
+        return session.getVertx();
+    }
+
+    protected static class PendingKey {
+
+        private final Object value;
+        private final ByteBuffer serialized;
+        private final BoundStatement bound;
+        private final List<FutureCallback<Row>> callbacks = new ArrayList<>(1);
+
+        private PendingKey(Object value, ByteBuffer serialized, BoundStatement bound) {
+            this.value = value;
+            this.serialized = serialized;
+            this.bound = bound;
+        }
+
+        private void complete(Row row) {
+            callbacks.forEach(callback -> callback.onSuccess(row));
+        }
+
+        private void fail(Throwable t) {
+            callbacks.forEach(callback -> callback.onFailure(t));
+        }
+    }
+
+}
@@ -1,10 +1,25 @@
 package com.englishtown.vertx.cassandra.mapping.impl;
 
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.*;
+import com.datastax.driver.core.policies.LoadBalancingPolicy;
+import com.datastax.driver.core.policies.ReconnectionPolicy;
 import com.englishtown.vertx.cassandra.CassandraConfigurator;
 import com.englishtown.vertx.cassandra.CassandraSession;
 import com.englishtown.vertx.cassandra.FutureUtils;
+import com.englishtown.vertx.cassandra.cache.RequestCoalescer;
+import com.englishtown.vertx.cassandra.cache.ResultCache;
+import com.englishtown.vertx.cassandra.capture.CaptureOptions;
+import com.englishtown.vertx.cassandra.capture.WorkloadCapture;
+import com.englishtown.vertx.cassandra.guard.BlockingCall;
+import com.englishtown.vertx.cassandra.guard.BlockingGuard;
+import com.englishtown.vertx.cassandra.guard.BlockingGuardOptions;
+import com.englishtown.vertx.cassandra.guard.QueryGuard;
+import com.englishtown.vertx.cassandra.guard.QueryGuardOptions;
+import com.google.common.base.Function;
+import com.google.common.collect.MapMaker;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.vertx.core.*;
 import io.vertx.core.logging.Logger;
@@ -12,10 +27,17 @@ import io.vertx.core.logging.impl.LoggerFactory;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Default implementation of {@link CassandraSession}
+ * <p>
+ * When a configuration change requires a new cluster, the statements prepared through this session are prepared
+ * again on the new cluster before it is swapped in, so existing {@link PreparedStatement}s keep working.
+ * Statements prepared directly on the driver session returned by {@link #getSession()} are not tracked.
  */
 public class DefaultCassandraSession implements CassandraSession {
 
@@ -23,11 +45,20 @@ public class DefaultCassandraSession implements CassandraSession {
     private final Vertx vertx;
     private List<Handler<AsyncResult<Void>>> onReadyCallbacks = new ArrayList<>();
 
-    protected Cluster cluster;
-    protected Session session;
+    protected volatile Cluster cluster;
+    protected volatile Session session;
     protected Metrics metrics;
+    protected final ResultCache resultCache;
+    protected final RequestCoalescer requestCoalescer;
+    protected final QueryGuard queryGuard;
+    protected final WorkloadCapture capture;
+    protected final BlockingGuard blockingGuard;
+    private final MetricRegistry registry;
     protected CassandraConfigurator configurator;
     protected AsyncResult<Void> initResult;
+    private volatile AppliedConfig appliedConfig;
+    // Weak so statements the application no longer holds are not prepared again on a rebuild
+    private final Set<PreparedStatement> preparedStatements = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
 
     private final Logger logger = LoggerFactory.getLogger(DefaultCassandraSession.class);
 
@@ -37,6 +68,12 @@ public class DefaultCassandraSession implements CassandraSession {
         this.configurator = configurator;
         this.vertx = vertx;
         this.metrics = new Metrics(this);
+        this.registry = metrics.getRegistry();
+        this.resultCache = new ResultCache(registry);
+        this.requestCoalescer = new RequestCoalescer(registry);
+        this.queryGuard = new QueryGuard(registry);
+        this.capture = new WorkloadCapture(registry);
+        this.blockingGuard = new BlockingGuard(registry);
 
         configurator.onReady(result -> {
             if (result.failed()) {
@@ -45,6 +82,7 @@ public class DefaultCassandraSession implements CassandraSession {
             }
             init(configurator);
         });
+        configurator.onChanged(this::reconfigure);
     }
 
     CassandraConfigurator getConfigurator() {
@@ -53,6 +91,25 @@ public class DefaultCassandraSession implements CassandraSession {
 
     protected void init(CassandraConfigurator configurator) {
 
+        // Build cluster and connect
+        cluster = buildCluster(clusterBuilder, configurator);
+        configurator.getResultCacheProfiles().forEach(resultCache::addProfile);
+        applySessionOptions(configurator, null);
+        appliedConfig = new AppliedConfig(configurator);
+        reconnect();
+
+        runOnReadyCallbacks(Future.succeededFuture(null));
+    }
+
+    /**
+     * Applies the configurator settings to a cluster builder and builds the cluster
+     *
+     * @param clusterBuilder the cluster builder
+     * @param configurator   the configuration to apply
+     * @return the built cluster
+     */
+    protected Cluster buildCluster(Cluster.Builder clusterBuilder, CassandraConfigurator configurator) {
+
         // Get array of IPs, default to localhost
         List<String> seeds = configurator.getSeeds();
         if (seeds == null || seeds.isEmpty()) {
@@ -96,11 +153,158 @@ public class DefaultCassandraSession implements CassandraSession {
             clusterBuilder.withAuthProvider(configurator.getAuthProvider());
         }
 
-        // Build cluster and connect
-        cluster = clusterBuilder.build();
-        reconnect();
+        return clusterBuilder.build();
+    }
 
-        runOnReadyCallbacks(Future.succeededFuture(null));
+    /**
+     * Creates a new cluster builder for a background rebuild.  The injected builder has already been used to build
+     * the current cluster and cannot be reused.
+     *
+     * @return a new cluster builder
+     */
+    protected Cluster.Builder createClusterBuilder() {
+        return Cluster.builder();
+    }
+
+    /**
+     * Applies a configuration change.  Pooling and query options are applied to the live cluster in place, any other
+     * change requires a new cluster which is built in the background and swapped in once connected.
+     *
+     * @param configurator the changed configuration
+     */
+    protected void reconfigure(CassandraConfigurator configurator) {
+
+        if (cluster == null) {
+            // Not initialized yet or already closed
+            return;
+        }
+
+        // Session level options don't depend on the cluster, so they apply whether or not it is rebuilt
+        applySessionOptions(configurator, appliedConfig);
+
+        if (appliedConfig.requiresRebuild(configurator)) {
+            logger.info("Cassandra configuration changed, rebuilding the cluster in the background");
+            rebuild(configurator);
+            return;
+        }
+
+        logger.info("Cassandra configuration changed, applying to the live cluster");
+        Configuration configuration = cluster.getConfiguration();
+        if (configurator.getPoolingOptions() != null) {
+            applyPoolingOptions(configurator.getPoolingOptions(), configuration.getPoolingOptions());
+        }
+        if (configurator.getQueryOptions() != null) {
+            applyQueryOptions(configurator.getQueryOptions(), configuration.getQueryOptions());
+        }
+
+        appliedConfig = new AppliedConfig(configurator);
+        if (metrics != null) {
+            metrics.afterConfigChanged();
+        }
+    }
+
+    private void applySessionOptions(CassandraConfigurator configurator, AppliedConfig applied) {
+        // Only changed sections are applied, so an unrelated change keeps the options set at runtime
+        if (applied == null || applied.queryGuardOptions != configurator.getQueryGuardOptions()) {
+            queryGuard.setOptions(configurator.getQueryGuardOptions());
+        }
+        if (applied == null || applied.captureOptions != configurator.getCaptureOptions()) {
+            capture.setOptions(configurator.getCaptureOptions());
+        }
+        if (applied == null || applied.blockingGuardOptions != configurator.getBlockingGuardOptions()) {
+            blockingGuard.setOptions(configurator.getBlockingGuardOptions());
+        }
+    }
+
+    private void rebuild(CassandraConfigurator configurator) {
+
+        vertx.<Session>executeBlocking(
+                future -> {
+                    Cluster newCluster = null;
+                    try {
+                        newCluster = buildCluster(createClusterBuilder(), configurator);
+                        Session newSession = newCluster.connect();
+                        reprepare(newSession);
+                        future.complete(newSession);
+                    } catch (Throwable t) {
+                        if (newCluster != null) {
+                            newCluster.closeAsync();
+                        }
+                        future.fail(t);
+                    }
+                },
+                result -> {
+                    if (result.failed()) {
+                        logger.error("Failed to rebuild the cassandra cluster, keeping the current cluster", result.cause());
+                        return;
+                    }
+
+                    Session newSession = result.result();
+                    if (cluster == null) {
+                        // Closed while rebuilding
+                        newSession.getCluster().closeAsync();
+                        return;
+                    }
+
+                    // Swap in the new cluster and let in flight requests on the old one complete
+                    Cluster oldCluster = cluster;
+                    if (metrics != null) {
+                        metrics.close();
+                    }
+                    cluster = newSession.getCluster();
+                    session = newSession;
+                    appliedConfig = new AppliedConfig(configurator);
+                    oldCluster.closeAsync();
+
+                    if (metrics != null) {
+                        metrics.afterReconnect();
+                        metrics.afterConfigChanged();
+                    }
+                });
+    }
+
+    /**
+     * Prepares the statements prepared through this session on a new cluster.  Prepared statement ids only depend on
+     * the query, so the existing {@link PreparedStatement}s can then be executed on the new cluster.
+     *
+     * @param newSession the session of the new cluster
+     */
+    private void reprepare(Session newSession) {
+        for (PreparedStatement statement : new ArrayList<>(preparedStatements)) {
+            try {
+                newSession.prepare(statement.getQueryString());
+            } catch (RuntimeException e) {
+                logger.warn("Failed to prepare statement on the rebuilt cluster: " + statement.getQueryString(), e);
+            }
+        }
+    }
+
+    private void applyPoolingOptions(PoolingOptions desired, PoolingOptions live) {
+
+        for (HostDistance distance : new HostDistance[]{HostDistance.LOCAL, HostDistance.REMOTE}) {
+
+            // Core must never exceed max, so order the updates based on the current max
+            int core = desired.getCoreConnectionsPerHost(distance);
+            int max = desired.getMaxConnectionsPerHost(distance);
+            if (core > live.getMaxConnectionsPerHost(distance)) {
+                live.setMaxConnectionsPerHost(distance, max);
+                live.setCoreConnectionsPerHost(distance, core);
+            } else {
+                live.setCoreConnectionsPerHost(distance, core);
+                live.setMaxConnectionsPerHost(distance, max);
+            }
+
+            live.setMinSimultaneousRequestsPerConnectionThreshold(distance, desired.getMinSimultaneousRequestsPerConnectionThreshold(distance));
+            live.setMaxSimultaneousRequestsPerConnectionThreshold(distance, desired.getMaxSimultaneousRequestsPerConnectionThreshold(distance));
+            live.setMaxSimultaneousRequestsPerHostThreshold(distance, desired.getMaxSimultaneousRequestsPerHostThreshold(distance));
+        }
+
+    }
+
+    private void applyQueryOptions(QueryOptions desired, QueryOptions live) {
+        live.setConsistencyLevel(desired.getConsistencyLevel());
+        live.setSerialConsistencyLevel(desired.getSerialConsistencyLevel());
+        live.setFetchSize(desired.getFetchSize());
     }
 
     private void runOnReadyCallbacks(AsyncResult<Void> result) {
@@ -208,7 +412,7 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public Session init() {
-        return getSession().init();
+        return blockingGuard.call(BlockingCall.INIT, () -> getSession().init());
     }
 
     /**
@@ -216,7 +420,8 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public ResultSet execute(String query) {
-        return getSession().execute(query);
+        capture(query, null);
+        return blockingGuard.wrap(blockingGuard.call(BlockingCall.EXECUTE, () -> getSession().execute(query)));
     }
 
     /**
@@ -224,7 +429,8 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public ResultSet execute(String query, Object... values) {
-        return getSession().execute(query, values);
+        capture(query, values);
+        return blockingGuard.wrap(blockingGuard.call(BlockingCall.EXECUTE, () -> getSession().execute(query, values)));
     }
 
     /**
@@ -232,7 +438,8 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public ResultSet execute(Statement statement) {
-        return getSession().execute(statement);
+        capture(statement);
+        return blockingGuard.wrap(blockingGuard.call(BlockingCall.EXECUTE, () -> getSession().execute(statement)));
     }
 
     /**
@@ -240,7 +447,8 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public ResultSetFuture executeAsync(String query) {
-        return getSession().executeAsync(query);
+        capture(query, null);
+        return blockingGuard.wrap(getSession().executeAsync(query));
     }
 
     /**
@@ -248,7 +456,8 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public ResultSetFuture executeAsync(String query, Object... values) {
-        return getSession().executeAsync(query, values);
+        capture(query, values);
+        return blockingGuard.wrap(getSession().executeAsync(query, values));
     }
 
     /**
@@ -256,7 +465,7 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public ResultSetFuture executeAsync(Statement statement) {
-        return getSession().executeAsync(statement);
+        return blockingGuard.wrap(FutureUtils.toResultSetFuture(executeCached(statement)));
     }
 
     /**
@@ -267,7 +476,7 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public void executeAsync(Statement statement, FutureCallback<ResultSet> callback) {
-        addCallback(executeAsync(statement), callback);
+        addResultCallback(executeCached(statement), callback);
     }
 
     /**
@@ -278,7 +487,7 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public void executeAsync(String query, FutureCallback<ResultSet> callback) {
-        addCallback(executeAsync(query), callback);
+        addResultCallback(executeAsync(query), callback);
     }
 
     /**
@@ -286,7 +495,7 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public PreparedStatement prepare(String query) {
-        return getSession().prepare(query);
+        return track(queryGuard.check(blockingGuard.call(BlockingCall.PREPARE, () -> getSession().prepare(query)), getMetadata()));
     }
 
     /**
@@ -294,7 +503,7 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public PreparedStatement prepare(RegularStatement statement) {
-        return getSession().prepare(statement);
+        return track(queryGuard.check(blockingGuard.call(BlockingCall.PREPARE, () -> getSession().prepare(statement)), getMetadata()));
     }
 
     /**
@@ -302,7 +511,7 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public ListenableFuture<PreparedStatement> prepareAsync(String query) {
-        return getSession().prepareAsync(query);
+        return checkAndTrack(getSession().prepareAsync(query));
     }
 
     /**
@@ -310,7 +519,7 @@ public class DefaultCassandraSession implements CassandraSession {
      */
     @Override
     public ListenableFuture<PreparedStatement> prepareAsync(RegularStatement statement) {
-        return getSession().prepareAsync(statement);
+        return checkAndTrack(getSession().prepareAsync(statement));
     }
 
     /**
@@ -335,6 +544,54 @@ public class DefaultCassandraSession implements CassandraSession {
         addCallback(prepareAsync(query), callback);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueryGuard getQueryGuard() {
+        return queryGuard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WorkloadCapture getCapture() {
+        return capture;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BlockingGuard getBlockingGuard() {
+        return blockingGuard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MetricRegistry getMetricRegistry() {
+        return registry;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -346,6 +603,7 @@ public class DefaultCassandraSession implements CassandraSession {
     @Override
     public void close() {
         logger.debug("Call to close the session has been made");
+        capture.close();
         if (metrics != null) {
             metrics.close();
             metrics = null;
@@ -358,6 +616,54 @@ public class DefaultCassandraSession implements CassandraSession {
         clusterBuilder = null;
     }
 
+    private ListenableFuture<ResultSet> executeCached(Statement statement) {
+        // Cache misses are coalesced with identical in-flight reads
+        return resultCache.executeAsync(statement, s -> requestCoalescer.executeAsync(s, this::send));
+    }
+
+    // Only executions that reach cassandra are captured, so a replay doesn't add the cache hits and coalesced reads
+    private ResultSetFuture send(Statement statement) {
+        capture(statement);
+        return getSession().executeAsync(statement);
+    }
+
+    private ListenableFuture<PreparedStatement> checkAndTrack(ListenableFuture<PreparedStatement> future) {
+        return Futures.transform(future, (Function<PreparedStatement, PreparedStatement>) ps -> track(queryGuard.check(ps, getMetadata())));
+    }
+
+    private PreparedStatement track(PreparedStatement statement) {
+        if (statement != null) {
+            preparedStatements.add(statement);
+        }
+        return statement;
+    }
+
+    private void capture(Statement statement) {
+        if (capture.isEnabled()) {
+            capture.record(statement, session.getLoggedKeyspace(), getProtocolVersion());
+        }
+    }
+
+    private void capture(String query, Object[] values) {
+        if (capture.isEnabled()) {
+            capture.record(query, values, session.getLoggedKeyspace(), getProtocolVersion());
+        }
+    }
+
+    private ProtocolVersion getProtocolVersion() {
+        ProtocolVersion protocolVersion = cluster == null ? null
+                : cluster.getConfiguration().getProtocolOptions().getProtocolVersionEnum();
+        return protocolVersion == null ? ProtocolVersion.NEWEST_SUPPORTED : protocolVersion;
+    }
+
+    private void addResultCallback(ListenableFuture<ResultSet> future, FutureCallback<ResultSet> callback) {
+        // Callbacks run on the event loop, so paging through their results is guarded too
+        if (blockingGuard.isEnabled()) {
+            future = Futures.transform(future, (Function<ResultSet, ResultSet>) blockingGuard::wrap);
+        }
+        addCallback(future, callback);
+    }
+
     private <V> void addCallback(final ListenableFuture<V> future, FutureCallback<V> callback) {
         FutureUtils.addCallback(future, callback, vertx);
     }
@@ -368,4 +674,43 @@ public class DefaultCassandraSession implements CassandraSession {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * The configuration settings a cluster was built with which cannot be changed without a new cluster, and the
+     * session options last applied
+     */
+    private static class AppliedConfig {
+
+        private final List<String> seeds;
+        private final LoadBalancingPolicy loadBalancingPolicy;
+        private final ReconnectionPolicy reconnectionPolicy;
+        private final SocketOptions socketOptions;
+        private final MetricsOptions metricsOptions;
+        private final AuthProvider authProvider;
+        private final QueryGuardOptions queryGuardOptions;
+        private final CaptureOptions captureOptions;
+        private final BlockingGuardOptions blockingGuardOptions;
+
+        AppliedConfig(CassandraConfigurator configurator) {
+            seeds = configurator.getSeeds() == null ? null : new ArrayList<>(configurator.getSeeds());
+            loadBalancingPolicy = configurator.getLoadBalancingPolicy();
+            reconnectionPolicy = configurator.getReconnectionPolicy();
+            socketOptions = configurator.getSocketOptions();
+            metricsOptions = configurator.getMetricsOptions();
+            authProvider = configurator.getAuthProvider();
+            queryGuardOptions = configurator.getQueryGuardOptions();
+            captureOptions = configurator.getCaptureOptions();
+            blockingGuardOptions = configurator.getBlockingGuardOptions();
+        }
+
+        boolean requiresRebuild(CassandraConfigurator configurator) {
+            // Configurators create new option instances when a section changes, so compare by reference
+            return !Objects.equals(seeds, configurator.getSeeds())
+                    || loadBalancingPolicy != configurator.getLoadBalancingPolicy()
+                    || reconnectionPolicy != configurator.getReconnectionPolicy()
+                    || socketOptions != configurator.getSocketOptions()
+                    || metricsOptions != configurator.getMetricsOptions()
+                    || authProvider != configurator.getAuthProvider();
+        }
+    }
+
+}
@@ -3,6 +3,10 @@ package com.englishtown.vertx.cassandra.mapping.impl;
 import com.datastax.driver.core.*;
 import com.datastax.driver.core.policies.*;
 import com.englishtown.vertx.cassandra.CassandraConfigurator;
+import com.englishtown.vertx.cassandra.cache.ResultCacheOptions;
+import com.englishtown.vertx.cassandra.capture.CaptureOptions;
+import com.englishtown.vertx.cassandra.guard.BlockingGuardOptions;
+import com.englishtown.vertx.cassandra.guard.QueryGuardOptions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import io.vertx.core.AsyncResult;
@@ -14,7 +18,9 @@ import io.vertx.core.json.JsonObject;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Json configuration based implementation of {@link com.englishtown.vertx.cassandra.CassandraConfigurator}
@@ -29,6 +35,10 @@ public class JsonCassandraConfigurator implements CassandraConfigurator {
     protected QueryOptions queryOptions;
     protected MetricsOptions metricsOptions;
     protected AuthProvider authProvider;
+    protected Map<String, ResultCacheOptions> resultCacheProfiles = new HashMap<>();
+    protected QueryGuardOptions queryGuardOptions;
+    protected CaptureOptions captureOptions;
+    protected BlockingGuardOptions blockingGuardOptions;
 
     protected final List<String> DEFAULT_SEEDS = ImmutableList.of("127.0.0.1");
 
@@ -39,6 +49,11 @@ public class JsonCassandraConfigurator implements CassandraConfigurator {
     public static final String CONFIG_METRICS = "metrics";
     public static final String CONFIG_AUTH = "auth";
     public static final String CONFIG_CONSISTENCY_LEVEL = "consistency_level";
+    public static final String CONFIG_FETCH_SIZE = "fetch_size";
+    public static final String CONFIG_RESULT_CACHE = "result_cache";
+    public static final String CONFIG_QUERY_GUARD = "query_guard";
+    public static final String CONFIG_CAPTURE = "capture";
+    public static final String CONFIG_BLOCKING_GUARD = "blocking_guard";
 
     public static final String CONSISTENCY_ANY = "ANY";
     public static final String CONSISTENCY_ONE = "ONE";
@@ -89,6 +104,26 @@ public class JsonCassandraConfigurator implements CassandraConfigurator {
         return authProvider;
     }
 
+    @Override
+    public Map<String, ResultCacheOptions> getResultCacheProfiles() {
+        return resultCacheProfiles;
+    }
+
+    @Override
+    public QueryGuardOptions getQueryGuardOptions() {
+        return queryGuardOptions;
+    }
+
+    @Override
+    public CaptureOptions getCaptureOptions() {
+        return captureOptions;
+    }
+
+    @Override
+    public BlockingGuardOptions getBlockingGuardOptions() {
+        return blockingGuardOptions;
+    }
+
     @Override
     public void onReady(Handler<AsyncResult<Void>> callback) {
         callback.handle(Future.succeededFuture(null));
@@ -113,6 +148,10 @@ public class JsonCassandraConfigurator implements CassandraConfigurator {
         initQueryOptions(config);
         initMetricsOptions(config.getJsonObject(CONFIG_METRICS));
         initAuthProvider(config.getJsonObject(CONFIG_AUTH));
+        initResultCacheProfiles(config.getJsonObject(CONFIG_RESULT_CACHE));
+        initQueryGuardOptions(config.getJsonObject(CONFIG_QUERY_GUARD));
+        initCaptureOptions(config.getJsonObject(CONFIG_CAPTURE));
+        initBlockingGuardOptions(config.getJsonObject(CONFIG_BLOCKING_GUARD));
 
     }
 
@@ -252,6 +291,8 @@ public class JsonCassandraConfigurator implements CassandraConfigurator {
         Integer min_simultaneous_requests_remote = poolingConfig.getInteger("min_simultaneous_requests_remote");
         Integer max_simultaneous_requests_local = poolingConfig.getInteger("max_simultaneous_requests_local");
         Integer max_simultaneous_requests_remote = poolingConfig.getInteger("max_simultaneous_requests_remote");
+        Integer max_simultaneous_requests_per_host_local = poolingConfig.getInteger("max_simultaneous_requests_per_host_local");
+        Integer max_simultaneous_requests_per_host_remote = poolingConfig.getInteger("max_simultaneous_requests_per_host_remote");
 
         if (core_connections_per_host_local != null) {
             poolingOptions.setCoreConnectionsPerHost(HostDistance.LOCAL, core_connections_per_host_local);
@@ -277,6 +318,12 @@ public class JsonCassandraConfigurator implements CassandraConfigurator {
         if (max_simultaneous_requests_remote != null) {
             poolingOptions.setMaxSimultaneousRequestsPerConnectionThreshold(HostDistance.REMOTE, max_simultaneous_requests_remote);
         }
+        if (max_simultaneous_requests_per_host_local != null) {
+            poolingOptions.setMaxSimultaneousRequestsPerHostThreshold(HostDistance.LOCAL, max_simultaneous_requests_per_host_local);
+        }
+        if (max_simultaneous_requests_per_host_remote != null) {
+            poolingOptions.setMaxSimultaneousRequestsPerHostThreshold(HostDistance.REMOTE, max_simultaneous_requests_per_host_remote);
+        }
 
     }
 
@@ -327,12 +374,20 @@ public class JsonCassandraConfigurator implements CassandraConfigurator {
     protected void initQueryOptions(JsonObject config) {
 
         ConsistencyLevel consistency = getConsistency(config.getString(CONFIG_CONSISTENCY_LEVEL));
+        Integer fetchSize = config.getInteger(CONFIG_FETCH_SIZE);
 
-        if (consistency == null) {
+        if (consistency == null && fetchSize == null) {
             return;
         }
 
-        queryOptions = new QueryOptions().setConsistencyLevel(consistency);
+        queryOptions = new QueryOptions();
+
+        if (consistency != null) {
+            queryOptions.setConsistencyLevel(consistency);
+        }
+        if (fetchSize != null) {
+            queryOptions.setFetchSize(fetchSize);
+        }
 
     }
 
@@ -384,6 +439,52 @@ public class JsonCassandraConfigurator implements CassandraConfigurator {
 
     }
 
+    protected void initResultCacheProfiles(JsonObject resultCache) {
+
+        if (resultCache == null) {
+            return;
+        }
+
+        for (String name : resultCache.fieldNames()) {
+            JsonObject profile = resultCache.getJsonObject(name);
+            if (profile == null) {
+                throw new IllegalArgumentException("Result cache profile '" + name + "' must be a json object.");
+            }
+            resultCacheProfiles.put(name, new ResultCacheOptions(profile));
+        }
+
+    }
+
+    protected void initQueryGuardOptions(JsonObject queryGuard) {
+
+        if (queryGuard == null) {
+            return;
+        }
+
+        queryGuardOptions = new QueryGuardOptions(queryGuard);
+
+    }
+
+    protected void initCaptureOptions(JsonObject capture) {
+
+        if (capture == null) {
+            return;
+        }
+
+        captureOptions = new CaptureOptions(capture);
+
+    }
+
+    protected void initBlockingGuardOptions(JsonObject blockingGuard) {
+
+        if (blockingGuard == null) {
+            return;
+        }
+
+        blockingGuardOptions = new BlockingGuardOptions(blockingGuard);
+
+    }
+
     protected void initAuthProvider(JsonObject auth) {
 
         if (auth == null) {
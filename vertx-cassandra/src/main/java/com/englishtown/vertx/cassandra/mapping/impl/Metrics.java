@@ -30,6 +30,10 @@ class Metrics implements AutoCloseable {
         this.session = session;
     }
 
+    MetricRegistry getRegistry() {
+        return registry;
+    }
+
     protected void afterReconnect() {
 
         // Close any existing metrics
@@ -38,17 +42,9 @@ class Metrics implements AutoCloseable {
         final Cluster cluster = session.getCluster();
         Configuration configuration = cluster.getConfiguration();
 
-        String name = "config";
-        final String config = getConfiguration(session.getConfigurator(), configuration).encodePrettily();
-        registry.remove(name);
-        registry.register(name, new Gauge<String>() {
-            @Override
-            public String getValue() {
-                return config;
-            }
-        });
+        registerConfigGauge(configuration);
 
-        name = "closed";
+        String name = "closed";
         registry.remove(name);
         registry.register(name, new Gauge<Boolean>() {
             @Override
@@ -72,6 +68,26 @@ class Metrics implements AutoCloseable {
 
     }
 
+    /**
+     * Bumps the config version and refreshes the config gauge after a configuration change was applied
+     */
+    protected void afterConfigChanged() {
+        registry.counter("config-version").inc();
+        registerConfigGauge(session.getCluster().getConfiguration());
+    }
+
+    private void registerConfigGauge(Configuration configuration) {
+        String name = "config";
+        final String config = getConfiguration(session.getConfigurator(), configuration).encodePrettily();
+        registry.remove(name);
+        registry.register(name, new Gauge<String>() {
+            @Override
+            public String getValue() {
+                return config;
+            }
+        });
+    }
+
     private JsonObject getConfiguration(CassandraConfigurator configurator, Configuration configuration) {
 
         JsonObject json = new JsonObject();
@@ -111,6 +127,8 @@ class Metrics implements AutoCloseable {
             pooling.put("min_simultaneous_requests_remote", poolingOptions.getMinSimultaneousRequestsPerConnectionThreshold(HostDistance.REMOTE));
             pooling.put("max_simultaneous_requests_local", poolingOptions.getMaxSimultaneousRequestsPerConnectionThreshold(HostDistance.LOCAL));
             pooling.put("max_simultaneous_requests_remote", poolingOptions.getMaxSimultaneousRequestsPerConnectionThreshold(HostDistance.REMOTE));
+            pooling.put("max_simultaneous_requests_per_host_local", poolingOptions.getMaxSimultaneousRequestsPerHostThreshold(HostDistance.LOCAL));
+            pooling.put("max_simultaneous_requests_per_host_remote", poolingOptions.getMaxSimultaneousRequestsPerHostThreshold(HostDistance.REMOTE));
         }
 
         SocketOptions socketOptions = configuration.getSocketOptions();
@@ -0,0 +1,233 @@
+package com.englishtown.vertx.cassandra.schema;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.CassandraSession;
+import com.englishtown.vertx.cassandra.FutureUtils;
+import com.englishtown.vertx.cassandra.keyspacebuilder.AlterKeyspace;
+import com.englishtown.vertx.cassandra.keyspacebuilder.BuiltKeyspaceStatement;
+import com.englishtown.vertx.cassandra.keyspacebuilder.KeyspaceBuilder;
+import com.englishtown.vertx.cassandra.tablebuilder.CreateIndex;
+import com.englishtown.vertx.cassandra.tablebuilder.CreateTable;
+import com.englishtown.vertx.cassandra.tablebuilder.TableBuilder;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.*;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.impl.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Brings the cluster schema to a desired set of keyspaces and tables.
+ * <p>
+ * The desired definitions are diffed against the driver {@link Metadata}, so when the schema is already up to date
+ * nothing is sent to cassandra at all.  Otherwise keyspaces are created or altered first, then the statements of each
+ * table (a create, or the alters from {@link TableBuilder#alter(TableMetadata, CreateTable)}, followed by its
+ * indexes) run in order while different tables run in parallel.  The driver completes a schema statement only once
+ * the nodes agree on the schema or its {@link Cluster.Builder#withMaxSchemaAgreementWaitSeconds} wait is over, so
+ * each phase starts after the previous one has spread.
+ * <p>
+ * The applied statements are recorded against a version in a tracking table, as a history for operators.  The
+ * migrator never reads it back, what to apply is always decided from the metadata.
+ */
+public class SchemaMigrator {
+
+    public static final String DEFAULT_TRACKING_TABLE = "schema_migrations";
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private final CassandraSession session;
+    private final String trackingKeyspace;
+    private final List<BuiltKeyspaceStatement> keyspaces = new ArrayList<>();
+    private final Map<String, CreateTable> tables = new LinkedHashMap<>();
+    private final List<CreateIndex> indexes = new ArrayList<>();
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+    /**
+     * Creates a migrator
+     *
+     * @param session          the cassandra session
+     * @param trackingKeyspace the keyspace of the tracking table, which is created if missing
+     */
+    public SchemaMigrator(CassandraSession session, String trackingKeyspace) {
+        this.session = session;
+        this.trackingKeyspace = trackingKeyspace;
+        table(TableBuilder.create(trackingKeyspace, DEFAULT_TRACKING_TABLE)
+                .column("version", "text")
+                .column("applied_at", "timestamp")
+                .column("statements", "list<text>")
+                .primaryKey("version"));
+    }
+
+    /**
+     * Adds a desired keyspace, which is created if missing or altered if its replication or durable writes differ
+     *
+     * @param keyspace the keyspace create statement
+     * @return the current {@link SchemaMigrator}
+     */
+    public SchemaMigrator keyspace(BuiltKeyspaceStatement keyspace) {
+        keyspaces.add(keyspace);
+        return this;
+    }
+
+    /**
+     * Adds a desired table, which is created if missing or has its new and changed columns altered
+     *
+     * @param table the table create statement, with a keyspace
+     * @return the current {@link SchemaMigrator}
+     */
+    public SchemaMigrator table(CreateTable table) {
+        if (table.getKeyspace() == null) {
+            throw new IllegalArgumentException("Table " + table.getTable() + " must have a keyspace");
+        }
+        tables.put(table.getKeyspace() + "." + table.getTable(), table);
+        return this;
+    }
+
+    /**
+     * Adds a desired secondary index, which is created after its table
+     *
+     * @param index the index create statement, with a keyspace
+     * @return the current {@link SchemaMigrator}
+     */
+    public SchemaMigrator index(CreateIndex index) {
+        if (index.getKeyspace() == null) {
+            throw new IllegalArgumentException("Index on " + index.getTable() + " must have a keyspace");
+        }
+        indexes.add(index);
+        return this;
+    }
+
+    /**
+     * The maximum number of tables migrated at once
+     *
+     * @return the max concurrency
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public SchemaMigrator setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The max concurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Diffs the desired keyspaces and tables against the current metadata
+     *
+     * @param metadata the cluster metadata
+     * @return the statements to run, empty when the schema is up to date
+     */
+    public SchemaPlan plan(Metadata metadata) {
+        SchemaPlan plan = new SchemaPlan();
+
+        for (BuiltKeyspaceStatement keyspace : keyspaces) {
+            KeyspaceMetadata existing = metadata.getKeyspace(keyspace.getKeyspace());
+            if (existing == null) {
+                plan.addKeyspaceStatement(keyspace);
+            } else {
+                AlterKeyspace alter = KeyspaceBuilder.alter(existing, keyspace);
+                if (alter != null) {
+                    plan.addKeyspaceStatement(alter);
+                }
+            }
+        }
+
+        for (Map.Entry<String, CreateTable> entry : tables.entrySet()) {
+            CreateTable desired = entry.getValue();
+            KeyspaceMetadata keyspace = metadata.getKeyspace(desired.getKeyspace());
+            TableMetadata existing = (keyspace == null ? null : keyspace.getTable(desired.getTable()));
+
+            if (existing == null) {
+                plan.addTableStatement(entry.getKey(), desired);
+            } else {
+                for (RegularStatement statement : TableBuilder.alter(existing, desired)) {
+                    plan.addTableStatement(entry.getKey(), statement);
+                }
+            }
+        }
+
+        for (CreateIndex index : indexes) {
+            KeyspaceMetadata keyspace = metadata.getKeyspace(index.getKeyspace());
+            TableMetadata existing = (keyspace == null ? null : keyspace.getTable(index.getTable()));
+            String table = index.getKeyspace() + "." + index.getTable();
+
+            if (existing == null) {
+                plan.addTableStatement(table, index);
+            } else {
+                for (RegularStatement statement : TableBuilder.alter(existing, index)) {
+                    plan.addTableStatement(table, statement);
+                }
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Migrates the schema and runs the callback on the vert.x context
+     *
+     * @param version  the version recorded in the tracking table if anything was applied
+     * @param callback receives the applied CQL statements, empty when the schema was up to date
+     */
+    public void migrate(String version, FutureCallback<List<String>> callback) {
+        FutureUtils.addCallback(migrate(version), callback, session.getVertx());
+    }
+
+    /**
+     * Migrates the schema
+     *
+     * @param version the version recorded in the tracking table if anything was applied
+     * @return the future applied CQL statements, empty when the schema was up to date
+     */
+    public ListenableFuture<List<String>> migrate(String version) {
+
+        SchemaPlan plan = plan(session.getMetadata());
+        if (plan.isEmpty()) {
+            logger.debug("Schema is up to date, skipping version " + version);
+            return Futures.immediateFuture(Collections.emptyList());
+        }
+
+        List<String> queries = plan.getQueries();
+        logger.info("Migrating schema to version " + version + " with " + queries.size() + " statements");
+
+        List<List<RegularStatement>> keyspaceGroups = new ArrayList<>();
+        for (RegularStatement statement : plan.getKeyspaceStatements()) {
+            keyspaceGroups.add(Collections.singletonList(statement));
+        }
+        List<List<RegularStatement>> tableGroups = new ArrayList<>(plan.getTableStatements().values());
+
+        ListenableFuture<Void> tablesDone = Futures.transform(executePhase(keyspaceGroups),
+                (AsyncFunction<Void, Void>) aVoid -> executePhase(tableGroups));
+
+        return Futures.transform(tablesDone, (AsyncFunction<Void, List<String>>) aVoid -> {
+            Statement record = new SimpleStatement("INSERT INTO " + trackingKeyspace + "." + DEFAULT_TRACKING_TABLE
+                    + " (version, applied_at, statements) VALUES (?, ?, ?)", version, new Date(), queries);
+            return Futures.transform(session.executeAsync(record), (Function<ResultSet, List<String>>) rs -> queries);
+        });
+    }
+
+    /**
+     * Runs groups of statements in parallel, the statements of a group in order
+     */
+    private ListenableFuture<Void> executePhase(List<List<RegularStatement>> groups) {
+        if (groups.isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+        return Futures.transform(FutureUtils.allAsList(groups, maxConcurrency, this::executeInOrder),
+                (Function<List<ResultSet>, Void>) results -> null);
+    }
+
+    private ListenableFuture<ResultSet> executeInOrder(List<RegularStatement> statements) {
+        ListenableFuture<ResultSet> future = session.executeAsync(statements.get(0));
+        for (int i = 1; i < statements.size(); i++) {
+            RegularStatement next = statements.get(i);
+            future = Futures.transform(future, (AsyncFunction<ResultSet, ResultSet>) rs -> session.executeAsync(next));
+        }
+        return future;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.englishtown.vertx.cassandra.schema;
+
+import com.datastax.driver.core.RegularStatement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The DDL statements needed to bring the current schema to the desired one.
+ * <p>
+ * Keyspace statements run first.  Table statements are grouped per table: the statements of one table run in order,
+ * while different tables are independent of each other.
+ */
+public class SchemaPlan {
+
+    private final List<RegularStatement> keyspaceStatements = new ArrayList<>();
+    private final Map<String, List<RegularStatement>> tableStatements = new LinkedHashMap<>();
+
+    void addKeyspaceStatement(RegularStatement statement) {
+        keyspaceStatements.add(statement);
+    }
+
+    void addTableStatement(String table, RegularStatement statement) {
+        tableStatements.computeIfAbsent(table, key -> new ArrayList<>()).add(statement);
+    }
+
+    /**
+     * Returns the keyspace statements
+     *
+     * @return the keyspace statements
+     */
+    public List<RegularStatement> getKeyspaceStatements() {
+        return Collections.unmodifiableList(keyspaceStatements);
+    }
+
+    /**
+     * Returns the table statements, by fully qualified table name
+     *
+     * @return the ordered statements of each table
+     */
+    public Map<String, List<RegularStatement>> getTableStatements() {
+        return Collections.unmodifiableMap(tableStatements);
+    }
+
+    /**
+     * Returns the CQL of every statement, keyspace statements first
+     *
+     * @return the CQL statements
+     */
+    public List<String> getQueries() {
+        List<String> queries = new ArrayList<>();
+        for (RegularStatement statement : keyspaceStatements) {
+            queries.add(statement.getQueryString());
+        }
+        for (List<RegularStatement> statements : tableStatements.values()) {
+            for (RegularStatement statement : statements) {
+                queries.add(statement.getQueryString());
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Flag to indicate the current schema already matches the desired one
+     *
+     * @return true if there is nothing to run
+     */
+    public boolean isEmpty() {
+        return keyspaceStatements.isEmpty() && tableStatements.isEmpty();
+    }
+
+}
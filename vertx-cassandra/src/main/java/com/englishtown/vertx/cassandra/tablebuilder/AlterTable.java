@@ -10,6 +10,7 @@ public class AlterTable extends BuiltTableStatement {
     private Column dropColumn;
     private Column renameColumnFrom;
     private Column renameColumnTo;
+    private TableOptions options;
 
     AlterTable(String keyspace, String table) {
         super(keyspace, table);
@@ -36,6 +37,17 @@ public class AlterTable extends BuiltTableStatement {
         return this;
     }
 
+    /**
+     * Changes table options
+     *
+     * @param options the options to change
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.AlterTable}
+     */
+    public AlterTable withOptions(TableOptions options) {
+        this.options = options;
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -67,6 +79,9 @@ public class AlterTable extends BuiltTableStatement {
                     .append(renameColumnFrom.getName())
                     .append(" TO ")
                     .append(renameColumnTo.getName());
+        } else if (options != null) {
+            sb.append("WITH ")
+                    .append(String.join(" AND ", options.buildOptions()));
         }
 
         return sb;
@@ -0,0 +1,177 @@
+package com.englishtown.vertx.cassandra.tablebuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A CQL3 table compaction strategy and its sub-options
+ *
+ * @param <T> the strategy type, returned by the fluent setters
+ */
+public abstract class CompactionStrategy<T extends CompactionStrategy<T>> {
+
+    private final String className;
+    private final Map<String, Object> options = new LinkedHashMap<>();
+
+    protected CompactionStrategy(String className) {
+        this.className = className;
+    }
+
+    /**
+     * Returns a size-tiered compaction strategy
+     *
+     * @return the size-tiered strategy builder
+     */
+    public static SizeTiered sizeTiered() {
+        return new SizeTiered();
+    }
+
+    /**
+     * Returns a leveled compaction strategy
+     *
+     * @return the leveled strategy builder
+     */
+    public static Leveled leveled() {
+        return new Leveled();
+    }
+
+    /**
+     * Returns a date-tiered compaction strategy
+     *
+     * @return the date-tiered strategy builder
+     */
+    public static DateTiered dateTiered() {
+        return new DateTiered();
+    }
+
+    /**
+     * Returns the unqualified strategy class name
+     *
+     * @return the strategy class name
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the sub-options that have been set
+     *
+     * @return the sub-options
+     */
+    public Map<String, Object> getOptions() {
+        return Collections.unmodifiableMap(options);
+    }
+
+    /**
+     * Sets the ratio of droppable tombstones that triggers a single sstable compaction
+     *
+     * @param tombstoneThreshold the tombstone ratio
+     * @return the current strategy
+     */
+    public T tombstoneThreshold(double tombstoneThreshold) {
+        return option("tombstone_threshold", tombstoneThreshold);
+    }
+
+    /**
+     * Sets the minimum age of an sstable before it is considered for a tombstone compaction
+     *
+     * @param seconds the interval in seconds
+     * @return the current strategy
+     */
+    public T tombstoneCompactionInterval(int seconds) {
+        return option("tombstone_compaction_interval", seconds);
+    }
+
+    /**
+     * Sets a sub-option
+     *
+     * @param name  the sub-option name
+     * @param value the sub-option value
+     * @return the current strategy
+     */
+    @SuppressWarnings("unchecked")
+    public T option(String name, Object value) {
+        options.put(name, value);
+        return (T) this;
+    }
+
+    /**
+     * SizeTieredCompactionStrategy, the default, suited to write heavy tables
+     */
+    public static class SizeTiered extends CompactionStrategy<SizeTiered> {
+
+        private SizeTiered() {
+            super("SizeTieredCompactionStrategy");
+        }
+
+        public SizeTiered minThreshold(int minThreshold) {
+            return option("min_threshold", minThreshold);
+        }
+
+        public SizeTiered maxThreshold(int maxThreshold) {
+            return option("max_threshold", maxThreshold);
+        }
+
+        public SizeTiered bucketLow(double bucketLow) {
+            return option("bucket_low", bucketLow);
+        }
+
+        public SizeTiered bucketHigh(double bucketHigh) {
+            return option("bucket_high", bucketHigh);
+        }
+
+        public SizeTiered minSstableSize(long bytes) {
+            return option("min_sstable_size", bytes);
+        }
+
+        public SizeTiered coldReadsToOmit(double coldReadsToOmit) {
+            return option("cold_reads_to_omit", coldReadsToOmit);
+        }
+    }
+
+    /**
+     * LeveledCompactionStrategy, suited to read heavy tables with updates
+     */
+    public static class Leveled extends CompactionStrategy<Leveled> {
+
+        private Leveled() {
+            super("LeveledCompactionStrategy");
+        }
+
+        public Leveled sstableSizeInMb(int sstableSizeInMb) {
+            return option("sstable_size_in_mb", sstableSizeInMb);
+        }
+    }
+
+    /**
+     * DateTieredCompactionStrategy, suited to time series tables written in time order
+     */
+    public static class DateTiered extends CompactionStrategy<DateTiered> {
+
+        private DateTiered() {
+            super("DateTieredCompactionStrategy");
+        }
+
+        public DateTiered baseTimeSeconds(long baseTimeSeconds) {
+            return option("base_time_seconds", baseTimeSeconds);
+        }
+
+        public DateTiered maxSstableAgeDays(int maxSstableAgeDays) {
+            return option("max_sstable_age_days", maxSstableAgeDays);
+        }
+
+        public DateTiered timestampResolution(String timestampResolution) {
+            return option("timestamp_resolution", timestampResolution);
+        }
+
+        public DateTiered minThreshold(int minThreshold) {
+            return option("min_threshold", minThreshold);
+        }
+
+        public DateTiered maxThreshold(int maxThreshold) {
+            return option("max_threshold", maxThreshold);
+        }
+    }
+
+}
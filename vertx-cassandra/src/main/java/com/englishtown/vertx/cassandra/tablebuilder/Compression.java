@@ -0,0 +1,87 @@
+package com.englishtown.vertx.cassandra.tablebuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A CQL3 table sstable compression setting
+ */
+public class Compression {
+
+    private final String className;
+    private final Map<String, Object> options = new LinkedHashMap<>();
+
+    private Compression(String className) {
+        this.className = className;
+    }
+
+    /**
+     * @return LZ4 compression, the default
+     */
+    public static Compression lz4() {
+        return new Compression("LZ4Compressor");
+    }
+
+    /**
+     * @return Snappy compression
+     */
+    public static Compression snappy() {
+        return new Compression("SnappyCompressor");
+    }
+
+    /**
+     * @return Deflate compression, smaller but slower
+     */
+    public static Compression deflate() {
+        return new Compression("DeflateCompressor");
+    }
+
+    /**
+     * @return no compression
+     */
+    public static Compression none() {
+        return new Compression("");
+    }
+
+    /**
+     * Returns the unqualified compressor class name, empty for no compression
+     *
+     * @return the compressor class name
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the sub-options that have been set
+     *
+     * @return the sub-options
+     */
+    public Map<String, Object> getOptions() {
+        return Collections.unmodifiableMap(options);
+    }
+
+    /**
+     * Sets the compression chunk size.  Smaller chunks read less for small partitions at the cost of a worse ratio.
+     *
+     * @param chunkLengthKb the chunk size in kb
+     * @return the current {@link Compression}
+     */
+    public Compression chunkLengthKb(int chunkLengthKb) {
+        options.put("chunk_length_kb", chunkLengthKb);
+        return this;
+    }
+
+    /**
+     * Sets the probability of checking the checksum of a compressed chunk on read
+     *
+     * @param crcCheckChance the probability between 0 and 1
+     * @return the current {@link Compression}
+     */
+    public Compression crcCheckChance(double crcCheckChance) {
+        options.put("crc_check_chance", crcCheckChance);
+        return this;
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.englishtown.vertx.cassandra.tablebuilder;
+
+/**
+ * CREATE INDEX CQL3 statement builder
+ */
+public class CreateIndex extends BuiltTableStatement {
+
+    private final String column;
+    private String name;
+    private boolean ifNotExists = false;
+    private boolean keys = false;
+    private String customClass;
+
+    CreateIndex(String keyspace, String table, String column) {
+        super(keyspace, table);
+        this.column = column;
+    }
+
+    /**
+     * Returns the indexed column
+     *
+     * @return the column name
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the index name, null if cassandra generates it
+     *
+     * @return the index name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the custom index class name, null for a regular secondary index
+     *
+     * @return the custom index class
+     */
+    public String getCustomClass() {
+        return customClass;
+    }
+
+    /**
+     * Sets the index name.  Without a name cassandra generates one from the table and column names.
+     *
+     * @param name the index name
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateIndex}
+     */
+    public CreateIndex name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Adds the "IF NOT EXISTS" cql clause
+     *
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateIndex}
+     */
+    public CreateIndex ifNotExists() {
+        ifNotExists = true;
+        return this;
+    }
+
+    /**
+     * Indexes the keys of a map column instead of its values
+     *
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateIndex}
+     */
+    public CreateIndex keys() {
+        keys = true;
+        return this;
+    }
+
+    /**
+     * Creates a custom index
+     *
+     * @param customClass the index implementation class name
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateIndex}
+     */
+    public CreateIndex using(String customClass) {
+        this.customClass = customClass;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StringBuilder buildQueryString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("CREATE ");
+        if (customClass != null) {
+            sb.append("CUSTOM ");
+        }
+        sb.append("INDEX ");
+        if (ifNotExists) {
+            sb.append("IF NOT EXISTS ");
+        }
+        if (name != null) {
+            sb.append(name).append(" ");
+        }
+        sb.append("ON ");
+        if (keyspace != null) {
+            sb.append(keyspace).append(".");
+        }
+        sb.append(table).append(" (");
+        if (keys) {
+            sb.append("KEYS(").append(column).append(")");
+        } else {
+            sb.append(column);
+        }
+        sb.append(")");
+        if (customClass != null) {
+            sb.append(" USING '").append(customClass).append("'");
+        }
+
+        return sb;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getQueryString();
+    }
+
+}
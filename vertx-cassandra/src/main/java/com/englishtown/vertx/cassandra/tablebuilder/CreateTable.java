@@ -1,5 +1,7 @@
 package com.englishtown.vertx.cassandra.tablebuilder;
 
+import com.datastax.driver.core.TableMetadata;
+
 import java.util.*;
 
 /**
@@ -12,6 +14,8 @@ public class CreateTable extends BuiltTableStatement {
     private boolean ifNotExists = false;
     private Set<String> primaryKeys = new LinkedHashSet<>();
     private Set<String> partitioningKeys = new LinkedHashSet<>();
+    private Map<String, TableMetadata.Order> clusteringOrder = new LinkedHashMap<>();
+    private TableOptions options = new TableOptions();
 
     CreateTable(String keyspace, String table) {
         super(keyspace, table);
@@ -122,6 +126,130 @@ public class CreateTable extends BuiltTableStatement {
         return this;
     }
 
+    /**
+     * Sets the clustering order of a clustering column, in clustering column order.  The clustering order can't be
+     * changed once the table exists.
+     *
+     * @param column the clustering column name
+     * @param order  ascending or descending
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateTable}
+     */
+    public CreateTable clusteringOrder(String column, TableMetadata.Order order) {
+        clusteringOrder.put(column, order);
+        return this;
+    }
+
+    /**
+     * Returns the partition key column names.  Without composite partition key columns, the first primary key is the
+     * partition key.
+     *
+     * @return the partition key column names, in order
+     */
+    public List<String> getPartitionKeys() {
+        if (!partitioningKeys.isEmpty()) {
+            return new ArrayList<>(partitioningKeys);
+        }
+        return primaryKeys.isEmpty() ? Collections.emptyList() : Collections.singletonList(primaryKeys.iterator().next());
+    }
+
+    /**
+     * Returns the clustering column names, the primary keys that are not part of the partition key
+     *
+     * @return the clustering column names, in order
+     */
+    public List<String> getClusteringColumns() {
+        List<String> clustering = new ArrayList<>(primaryKeys);
+        if (partitioningKeys.isEmpty() && !clustering.isEmpty()) {
+            clustering.remove(0);
+        }
+        return clustering;
+    }
+
+    /**
+     * Returns the clustering order of the clustering columns that have one
+     *
+     * @return the clustering orders by column name
+     */
+    public Map<String, TableMetadata.Order> getClusteringOrder() {
+        return Collections.unmodifiableMap(clusteringOrder);
+    }
+
+    /**
+     * Returns the table options, which can also be set directly on the builder
+     *
+     * @return the table options
+     */
+    public TableOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Sets the compaction strategy
+     *
+     * @param compaction the compaction strategy
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateTable}
+     */
+    public CreateTable compaction(CompactionStrategy<?> compaction) {
+        options.compaction(compaction);
+        return this;
+    }
+
+    /**
+     * Sets the sstable compression
+     *
+     * @param compression the compression
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateTable}
+     */
+    public CreateTable compression(Compression compression) {
+        options.compression(compression);
+        return this;
+    }
+
+    /**
+     * Sets the key and row caching
+     *
+     * @param keys             ALL or NONE
+     * @param rowsPerPartition ALL, NONE or a number of rows as a string
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateTable}
+     */
+    public CreateTable caching(String keys, String rowsPerPartition) {
+        options.caching(keys, rowsPerPartition);
+        return this;
+    }
+
+    /**
+     * Sets the bloom filter false positive chance
+     *
+     * @param bloomFilterFpChance the false positive chance between 0 and 1
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateTable}
+     */
+    public CreateTable bloomFilterFpChance(double bloomFilterFpChance) {
+        options.bloomFilterFpChance(bloomFilterFpChance);
+        return this;
+    }
+
+    /**
+     * Sets the TTL applied to writes without their own TTL
+     *
+     * @param seconds the default TTL in seconds
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateTable}
+     */
+    public CreateTable defaultTimeToLive(int seconds) {
+        options.defaultTimeToLive(seconds);
+        return this;
+    }
+
+    /**
+     * Sets how long tombstones are kept before they can be purged
+     *
+     * @param seconds the grace period in seconds
+     * @return the current {@link com.englishtown.vertx.cassandra.tablebuilder.CreateTable}
+     */
+    public CreateTable gcGraceSeconds(int seconds) {
+        options.gcGraceSeconds(seconds);
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -167,6 +295,22 @@ public class CreateTable extends BuiltTableStatement {
 
         sb.append(")");
 
+        // Add options
+        List<String> with = new ArrayList<>();
+        if (!clusteringOrder.isEmpty()) {
+            StringBuilder order = new StringBuilder("CLUSTERING ORDER BY (");
+            delimiter = "";
+            for (Map.Entry<String, TableMetadata.Order> entry : clusteringOrder.entrySet()) {
+                order.append(delimiter).append(entry.getKey()).append(" ").append(entry.getValue());
+                delimiter = ", ";
+            }
+            with.add(order.append(")").toString());
+        }
+        with.addAll(options.buildOptions());
+        if (!with.isEmpty()) {
+            sb.append(" WITH ").append(String.join(" AND ", with));
+        }
+
         return sb;
     }
 
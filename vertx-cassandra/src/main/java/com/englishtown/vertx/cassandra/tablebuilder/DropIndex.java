@@ -0,0 +1,48 @@
+package com.englishtown.vertx.cassandra.tablebuilder;
+
+/**
+ * DROP INDEX CQL3 statement builder.  Indexes are named per keyspace, so there is no table.
+ */
+public class DropIndex extends BuiltTableStatement {
+
+    private final String name;
+    private boolean ifExists = false;
+
+    DropIndex(String keyspace, String name) {
+        super(keyspace, null);
+        this.name = name;
+    }
+
+    /**
+     * Returns the index name
+     *
+     * @return the index name
+     */
+    public String getName() {
+        return name;
+    }
+
+    public DropIndex ifExists() {
+        ifExists = true;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StringBuilder buildQueryString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("DROP INDEX ");
+        if (ifExists) {
+            sb.append("IF EXISTS ");
+        }
+        if (keyspace != null) {
+            sb.append(keyspace).append(".");
+        }
+        sb.append(name);
+
+        return sb;
+    }
+}
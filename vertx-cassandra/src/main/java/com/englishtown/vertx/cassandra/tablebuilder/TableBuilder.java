@@ -5,6 +5,7 @@ import com.datastax.driver.core.TableMetadata;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Static methods to build a CQL3 table statement
@@ -39,7 +40,8 @@ public final class TableBuilder {
     /**
      * Returns a {@link com.datastax.driver.core.BatchStatement} with all the alter statements necessary to modify an existing table.
      * <p>
-     * Note: Columns will only be added or modified, not dropped.
+     * Note: Columns will only be added or modified, not dropped.  Table options that differ from the existing ones are
+     * changed with a single alter statement.
      *
      * @param existing the existing table to be modified
      * @param desired  the desired end result
@@ -60,9 +62,75 @@ public final class TableBuilder {
             }
         }
 
+        List<ColumnMetadata> clusteringColumns = existing.getClusteringColumns();
+        for (Map.Entry<String, TableMetadata.Order> entry : desired.getClusteringOrder().entrySet()) {
+            int index = clusteringColumns == null ? -1 : clusteringColumns.indexOf(existing.getColumn(entry.getKey()));
+            if (index >= 0 && existing.getClusteringOrder().get(index) != entry.getValue()) {
+                throw new IllegalArgumentException("The clustering order of column " + entry.getKey() + " cannot be modified");
+            }
+        }
+
+        TableOptions options = (existing.getOptions() == null ? desired.getOptions() : desired.getOptions().diff(existing.getOptions()));
+        if (!options.isEmpty()) {
+            results.add(alter(desired.getKeyspace(), desired.getTable()).withOptions(options));
+        }
+
+        return results;
+    }
+
+    /**
+     * Returns a {@link com.englishtown.vertx.cassandra.tablebuilder.CreateIndex} builder
+     *
+     * @param keyspace the keyspace of the indexed table
+     * @param table    the indexed table name
+     * @param column   the indexed column name
+     * @return the create index builder
+     */
+    public static CreateIndex createIndex(String keyspace, String table, String column) {
+        return new CreateIndex(keyspace, table, column);
+    }
+
+    /**
+     * Returns the statements necessary to bring the index of an existing table column to the desired one.  The list
+     * is empty if the column already has the index (any index when no name is given), or has a drop of a differently
+     * named or typed index followed by the create, as a column can only have one index.
+     *
+     * @param existing the existing table
+     * @param desired  the desired index
+     * @return the statements to create the index
+     */
+    public static List<BuiltTableStatement> alter(TableMetadata existing, CreateIndex desired) {
+        List<BuiltTableStatement> results = new ArrayList<>();
+
+        ColumnMetadata column = existing.getColumn(desired.getColumn());
+        ColumnMetadata.IndexMetadata index = (column == null ? null : column.getIndex());
+
+        if (index != null) {
+            boolean sameName = desired.getName() == null || desired.getName().equalsIgnoreCase(index.getName());
+            boolean sameClass = (desired.getCustomClass() == null
+                    ? !index.isCustomIndex()
+                    : desired.getCustomClass().equals(index.getIndexClassName()));
+            if (sameName && sameClass) {
+                return results;
+            }
+            results.add(dropIndex(desired.getKeyspace(), index.getName()));
+        }
+
+        results.add(desired);
         return results;
     }
 
+    /**
+     * Returns a {@link com.englishtown.vertx.cassandra.tablebuilder.DropIndex} statement
+     *
+     * @param keyspace the keyspace of the index
+     * @param name     the index name
+     * @return the drop index builder
+     */
+    public static DropIndex dropIndex(String keyspace, String name) {
+        return new DropIndex(keyspace, name);
+    }
+
     /**
      * Returns a {@link com.englishtown.vertx.cassandra.tablebuilder.DropTable} statement
      *
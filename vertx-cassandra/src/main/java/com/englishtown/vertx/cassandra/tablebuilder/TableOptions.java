@@ -0,0 +1,242 @@
+package com.englishtown.vertx.cassandra.tablebuilder;
+
+import com.datastax.driver.core.TableMetadata;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CQL3 table options for the WITH clause of CREATE TABLE and ALTER TABLE.  Options that are not set are left to the
+ * cassandra defaults (or their current value when altering).
+ */
+public class TableOptions {
+
+    private CompactionStrategy<?> compaction;
+    private Compression compression;
+    private Map<String, Object> caching;
+    private Double bloomFilterFpChance;
+    private Integer defaultTimeToLive;
+    private Integer gcGraceSeconds;
+
+    public CompactionStrategy<?> getCompaction() {
+        return compaction;
+    }
+
+    /**
+     * Sets the compaction strategy
+     *
+     * @param compaction the strategy, see {@link CompactionStrategy#sizeTiered()}, {@link CompactionStrategy#leveled()}
+     *                   and {@link CompactionStrategy#dateTiered()}
+     * @return the current {@link TableOptions}
+     */
+    public TableOptions compaction(CompactionStrategy<?> compaction) {
+        this.compaction = compaction;
+        return this;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Sets the sstable compression
+     *
+     * @param compression the compression
+     * @return the current {@link TableOptions}
+     */
+    public TableOptions compression(Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    public Map<String, Object> getCaching() {
+        return caching;
+    }
+
+    /**
+     * Sets the key and row caching
+     *
+     * @param keys             ALL or NONE
+     * @param rowsPerPartition ALL, NONE or a number of rows as a string
+     * @return the current {@link TableOptions}
+     */
+    public TableOptions caching(String keys, String rowsPerPartition) {
+        caching = new LinkedHashMap<>();
+        caching.put("keys", keys);
+        caching.put("rows_per_partition", rowsPerPartition);
+        return this;
+    }
+
+    public Double getBloomFilterFpChance() {
+        return bloomFilterFpChance;
+    }
+
+    /**
+     * Sets the bloom filter false positive chance.  Lower values use more memory to save sstable reads.
+     *
+     * @param bloomFilterFpChance the false positive chance between 0 and 1
+     * @return the current {@link TableOptions}
+     */
+    public TableOptions bloomFilterFpChance(double bloomFilterFpChance) {
+        this.bloomFilterFpChance = bloomFilterFpChance;
+        return this;
+    }
+
+    public Integer getDefaultTimeToLive() {
+        return defaultTimeToLive;
+    }
+
+    /**
+     * Sets the TTL applied to writes without their own TTL
+     *
+     * @param seconds the default TTL in seconds, 0 for none
+     * @return the current {@link TableOptions}
+     */
+    public TableOptions defaultTimeToLive(int seconds) {
+        this.defaultTimeToLive = seconds;
+        return this;
+    }
+
+    public Integer getGcGraceSeconds() {
+        return gcGraceSeconds;
+    }
+
+    /**
+     * Sets how long tombstones are kept before they can be purged by compaction
+     *
+     * @param seconds the grace period in seconds
+     * @return the current {@link TableOptions}
+     */
+    public TableOptions gcGraceSeconds(int seconds) {
+        this.gcGraceSeconds = seconds;
+        return this;
+    }
+
+    /**
+     * Flag to indicate no option has been set
+     *
+     * @return true if there are no options
+     */
+    public boolean isEmpty() {
+        return compaction == null
+                && compression == null
+                && caching == null
+                && bloomFilterFpChance == null
+                && defaultTimeToLive == null
+                && gcGraceSeconds == null;
+    }
+
+    /**
+     * Returns the options that differ from those of an existing table.  Only the sub-options that are set are
+     * compared, but a changed compaction strategy or compression is returned with all its sub-options as cassandra
+     * replaces them as a whole.
+     *
+     * @param existing the existing table options
+     * @return the changed options, empty if there are none
+     */
+    public TableOptions diff(TableMetadata.Options existing) {
+        TableOptions changed = new TableOptions();
+
+        if (compaction != null && !matches(compaction.getClassName(), compaction.getOptions(), existing.getCompaction(), "class")) {
+            changed.compaction = compaction;
+        }
+        if (compression != null && !matches(compression.getClassName(), compression.getOptions(), existing.getCompression(), "sstable_compression")) {
+            changed.compression = compression;
+        }
+        if (caching != null && !matches(null, caching, existing.getCaching(), null)) {
+            changed.caching = caching;
+        }
+        if (bloomFilterFpChance != null && Math.abs(bloomFilterFpChance - existing.getBloomFilterFalsePositiveChance()) > 1e-9) {
+            changed.bloomFilterFpChance = bloomFilterFpChance;
+        }
+        if (defaultTimeToLive != null && defaultTimeToLive != existing.getDefaultTimeToLive()) {
+            changed.defaultTimeToLive = defaultTimeToLive;
+        }
+        if (gcGraceSeconds != null && gcGraceSeconds != existing.getGcGraceInSeconds()) {
+            changed.gcGraceSeconds = gcGraceSeconds;
+        }
+
+        return changed;
+    }
+
+    /**
+     * Builds the CQL of each option that is set
+     *
+     * @return the option clauses, to be joined with AND
+     */
+    public List<String> buildOptions() {
+        List<String> options = new ArrayList<>();
+
+        if (compaction != null) {
+            StringBuilder sb = new StringBuilder("compaction = { 'class' : '").append(compaction.getClassName()).append("'");
+            options.add(appendMap(sb, compaction.getOptions(), ", ").append(" }").toString());
+        }
+        if (compression != null) {
+            StringBuilder sb = new StringBuilder("compression = { 'sstable_compression' : '").append(compression.getClassName()).append("'");
+            options.add(appendMap(sb, compression.getOptions(), ", ").append(" }").toString());
+        }
+        if (caching != null) {
+            StringBuilder sb = new StringBuilder("caching = { ");
+            options.add(appendMap(sb, caching, "").append(" }").toString());
+        }
+        if (bloomFilterFpChance != null) {
+            options.add("bloom_filter_fp_chance = " + bloomFilterFpChance);
+        }
+        if (defaultTimeToLive != null) {
+            options.add("default_time_to_live = " + defaultTimeToLive);
+        }
+        if (gcGraceSeconds != null) {
+            options.add("gc_grace_seconds = " + gcGraceSeconds);
+        }
+
+        return options;
+    }
+
+    private static StringBuilder appendMap(StringBuilder sb, Map<String, Object> map, String delimiter) {
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            sb.append(delimiter).append("'").append(entry.getKey()).append("' : ");
+            delimiter = ", ";
+            if (entry.getValue() instanceof Number) {
+                sb.append(entry.getValue());
+            } else {
+                sb.append("'").append(entry.getValue()).append("'");
+            }
+        }
+        return sb;
+    }
+
+    private static boolean matches(String className, Map<String, Object> desired, Map<String, String> existing, String classKey) {
+        if (existing == null) {
+            return false;
+        }
+        if (classKey != null && !className.equals(simpleName(existing.get(classKey)))) {
+            return false;
+        }
+        for (Map.Entry<String, Object> entry : desired.entrySet()) {
+            String value = existing.get(entry.getKey());
+            if (value == null || !valueEquals(entry.getValue(), value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String simpleName(String className) {
+        // Metadata has fully qualified class names, the builders use the short names cassandra also accepts
+        return className == null ? "" : className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static boolean valueEquals(Object desired, String existing) {
+        if (desired instanceof Number) {
+            try {
+                return Math.abs(((Number) desired).doubleValue() - Double.parseDouble(existing)) < 1e-9;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return desired.toString().equalsIgnoreCase(existing);
+    }
+
+}
@@ -2,156 +2,284 @@ package com.englishtown.vertx.cassandra.zookeeper;
 
 import com.englishtown.promises.Promise;
 import com.englishtown.promises.When;
+import com.englishtown.vertx.cassandra.CassandraConfigurator;
 import com.englishtown.vertx.cassandra.mapping.impl.EnvironmentCassandraConfigurator;
+import com.englishtown.vertx.zookeeper.ConfigElement;
 import com.englishtown.vertx.zookeeper.ZooKeeperClient;
 import com.englishtown.vertx.zookeeper.promises.WhenConfiguratorHelper;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.impl.LoggerFactory;
+import org.apache.curator.framework.api.CuratorWatcher;
 import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.Watcher;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * ZooKeeper implementation of {@link com.englishtown.vertx.cassandra.CassandraConfigurator}
+ * <p>
+ * If a {@value #CONFIG_SNAPSHOT_FILE} is configured, the configuration resolved from ZooKeeper is saved to it after
+ * each successful load.  On the next start the configurator is ready immediately from the snapshot and reconciles
+ * with ZooKeeper in the background, reporting any differences through {@link #onChanged(Handler)}.
  */
 public class ZooKeeperCassandraConfigurator extends EnvironmentCassandraConfigurator {
 
+    public static final String CONFIG_SNAPSHOT_FILE = "zookeeper_snapshot_file";
+
+    protected static final String PATH_SEEDS = "seeds";
+    protected static final String PATH_LOAD_BALANCING = "policies/load_balancing";
+    protected static final String PATH_RECONNECTION = "policies/reconnection";
+    protected static final String PATH_POOLING = "pooling";
+    protected static final String PATH_SOCKET = "socket";
+    protected static final String PATH_QUERY = "query";
+    protected static final String PATH_METRICS = "metrics";
+    protected static final String PATH_AUTH = "auth";
+
+    private final ZooKeeperClient client;
     private final WhenConfiguratorHelper helper;
     private final When when;
+    private final Vertx vertx;
     private AsyncResult<Void> initResult;
     private final List<Handler<AsyncResult<Void>>> onReadyCallbacks = new ArrayList<>();
+    private final List<Handler<CassandraConfigurator>> onChangedCallbacks = new ArrayList<>();
+    private final List<String> zooKeeperPaths = new ArrayList<>();
+    private final JsonObject resolved = new JsonObject();
+    private String snapshotFile;
     protected String pathPrefix = "cassandra";
 
+    private static final Logger logger = LoggerFactory.getLogger(ZooKeeperCassandraConfigurator.class);
+
     @Inject
     public ZooKeeperCassandraConfigurator(ZooKeeperClient client, WhenConfiguratorHelper helper, When when, Vertx vertx, EnvVarDelegate envVarDelegate) {
         super(vertx, envVarDelegate);
+        this.client = client;
         this.helper = helper;
         this.when = when;
+        this.vertx = vertx;
+
+        // Only sections not provided by json config or env vars are read from ZooKeeper
+        if (DEFAULT_SEEDS.equals(seeds)) {
+            zooKeeperPaths.add(PATH_SEEDS);
+        }
+        if (loadBalancingPolicy == null) {
+            zooKeeperPaths.add(PATH_LOAD_BALANCING);
+        }
+        if (reconnectionPolicy == null) {
+            zooKeeperPaths.add(PATH_RECONNECTION);
+        }
+        if (poolingOptions == null) {
+            zooKeeperPaths.add(PATH_POOLING);
+        }
+        if (socketOptions == null) {
+            zooKeeperPaths.add(PATH_SOCKET);
+        }
+        if (queryOptions == null) {
+            zooKeeperPaths.add(PATH_QUERY);
+        }
+        if (metricsOptions == null) {
+            zooKeeperPaths.add(PATH_METRICS);
+        }
+        if (authProvider == null) {
+            zooKeeperPaths.add(PATH_AUTH);
+        }
+
+        snapshotFile = vertx.getOrCreateContext().config().getJsonObject("cassandra", new JsonObject()).getString(CONFIG_SNAPSHOT_FILE);
+        initSnapshot();
 
         client.onReady(result -> {
             if (result.failed()) {
-                runOnReadyCallbacks(result);
+                if (initResult == null) {
+                    runOnReadyCallbacks(result);
+                } else {
+                    // Already running from the snapshot, keep it rather than failing the configurator
+                    logger.error("Failed to connect to ZooKeeper, keeping the cassandra config snapshot", result.cause());
+                }
                 return;
             }
             initZooKeeper();
         });
     }
 
-    private void initZooKeeper() {
-
-        List<Promise<Void>> promises = new ArrayList<>();
+    private void initSnapshot() {
 
-        if (DEFAULT_SEEDS.equals(seeds)) {
-            promises.add(helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), "seeds")).then(
-                    value -> {
-                        JsonArray array = value.asJsonArray();
-                        if (array != null) {
-                            initSeeds(array);
-                        }
-                        return null;
-                    }));
-        }
-
-        if (loadBalancingPolicy == null) {
-            promises.add(helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), "policies/load_balancing")).then(
-                    value -> {
-                        JsonObject json = value.asJsonObject();
-                        if (json != null) {
-                            initLoadBalancingPolicy(json);
-                        }
-                        return null;
-                    }));
+        if (snapshotFile == null || snapshotFile.isEmpty()) {
+            return;
         }
 
-        if (reconnectionPolicy == null) {
-            promises.add(helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), "policies/reconnection")).then(
-                    value -> {
-                        JsonObject json = value.asJsonObject();
-                        if (json != null) {
-                            initLoadBalancingPolicy(json);
-                        }
-                        return null;
-                    }));
+        // Credentials are never written to the snapshot, so it can't be used if they come from ZooKeeper
+        if (zooKeeperPaths.contains(PATH_AUTH)) {
+            logger.warn("Ignoring the cassandra config snapshot because auth is read from ZooKeeper");
+            return;
         }
 
-        if (poolingOptions == null) {
-            promises.add(helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), "pooling")).then(
-                    value -> {
-                        JsonObject json = value.asJsonObject();
-                        if (json != null) {
-                            initPoolingOptions(json);
-                        }
-                        return null;
-                    }));
+        try {
+            if (!vertx.fileSystem().existsBlocking(snapshotFile)) {
+                return;
+            }
+            JsonObject snapshot = new JsonObject(vertx.fileSystem().readFileBlocking(snapshotFile).toString());
+            for (String path : zooKeeperPaths) {
+                applyConfigElement(path, snapshot.getValue(path));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load the cassandra config snapshot " + snapshotFile + ", waiting for ZooKeeper", e);
+            return;
         }
 
-        if (socketOptions == null) {
-            promises.add(helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), "socket")).then(
-                    value -> {
-                        JsonObject json = value.asJsonObject();
-                        if (json != null) {
-                            initSocketOptions(json);
-                        }
-                        return null;
-                    }));
-        }
+        logger.info("Loaded cassandra config from snapshot " + snapshotFile + ", reconciling with ZooKeeper");
+        runOnReadyCallbacks(Future.succeededFuture(null));
+    }
 
-        if (queryOptions == null) {
-            promises.add(helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), "query")).then(
-                    value -> {
-                        JsonObject json = value.asJsonObject();
-                        if (json != null) {
-                            initQueryOptions(json);
-                        }
-                        return null;
-                    }));
-        }
+    private void initZooKeeper() {
 
-        if (metricsOptions == null) {
-            promises.add(helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), "metrics")).then(
-                    value -> {
-                        JsonObject json = value.asJsonObject();
-                        if (json != null) {
-                            initMetricsOptions(json);
-                        }
-                        return null;
-                    }));
-        }
+        List<Promise<Boolean>> promises = new ArrayList<>();
 
-        if (authProvider == null) {
-            promises.add(helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), "auth")).then(
-                    value -> {
-                        JsonObject json = value.asJsonObject();
-                        if (json != null) {
-                            initAuthProvider(json);
-                        }
-                        return null;
-                    }));
+        for (String path : zooKeeperPaths) {
+            promises.add(watchConfigElement(path));
         }
 
         when.all(promises)
-                .then(aVoid -> {
-                    runOnReadyCallbacks(Future.succeededFuture(null));
+                .then(changes -> {
+                    saveSnapshot();
+                    if (initResult == null) {
+                        runOnReadyCallbacks(Future.succeededFuture(null));
+                    } else if (changes.contains(Boolean.TRUE)) {
+                        // Started from the snapshot, but ZooKeeper has moved on since
+                        runOnChangedCallbacks();
+                    }
                     return null;
                 })
                 .otherwise(t -> {
-                    runOnReadyCallbacks(Future.failedFuture(t));
+                    if (initResult == null) {
+                        runOnReadyCallbacks(Future.failedFuture(t));
+                    } else {
+                        logger.error("Failed to reconcile the cassandra config snapshot with ZooKeeper", t);
+                    }
                     return null;
                 });
     }
 
+    /**
+     * Reads a config element and leaves a watch on it.  ZooKeeper watches fire once, so each change re-reads the
+     * element (leaving a new watch), applies it and then notifies the onChanged callbacks.
+     *
+     * @param path the path relative to the path prefix
+     * @return a promise resolved with whether the element changed the configuration
+     */
+    protected Promise<Boolean> watchConfigElement(String path) {
+
+        CuratorWatcher watcher = client.wrapWatcher(event -> {
+            if (event.getType() == Watcher.Event.EventType.None) {
+                return;
+            }
+            logger.info("ZooKeeper cassandra config changed at " + event.getPath());
+            watchConfigElement(path)
+                    .then(changed -> {
+                        if (changed) {
+                            saveSnapshot();
+                            runOnChangedCallbacks();
+                        }
+                        return null;
+                    })
+                    .otherwise(t -> {
+                        logger.error("Failed to reload ZooKeeper cassandra config at " + event.getPath(), t);
+                        return null;
+                    });
+        });
+
+        return helper.getConfigElement(ZKPaths.makePath(getPathPrefix(), path), watcher).then(
+                value -> when.resolve(applyConfigElement(path, getValue(path, value))));
+    }
+
+    private Object getValue(String path, ConfigElement element) {
+        return PATH_SEEDS.equals(path) ? element.asJsonArray() : element.asJsonObject();
+    }
+
+    /**
+     * Applies a config element unless it is missing or unchanged
+     *
+     * @param path  the path relative to the path prefix
+     * @param value the {@link JsonArray} or {@link JsonObject} value
+     * @return true if the configuration changed
+     */
+    protected boolean applyConfigElement(String path, Object value) {
+
+        if (value == null || Objects.equals(value, resolved.getValue(path))) {
+            return false;
+        }
+
+        switch (path) {
+            case PATH_SEEDS:
+                initSeeds((JsonArray) value);
+                break;
+            case PATH_LOAD_BALANCING:
+                initLoadBalancingPolicy((JsonObject) value);
+                break;
+            case PATH_RECONNECTION:
+                initReconnectionPolicy((JsonObject) value);
+                break;
+            case PATH_POOLING:
+                initPoolingOptions((JsonObject) value);
+                break;
+            case PATH_SOCKET:
+                initSocketOptions((JsonObject) value);
+                break;
+            case PATH_QUERY:
+                initQueryOptions((JsonObject) value);
+                break;
+            case PATH_METRICS:
+                initMetricsOptions((JsonObject) value);
+                break;
+            case PATH_AUTH:
+                initAuthProvider((JsonObject) value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown cassandra config path " + path);
+        }
+
+        resolved.put(path, value);
+        return true;
+    }
+
+    private void saveSnapshot() {
+
+        if (snapshotFile == null || snapshotFile.isEmpty()) {
+            return;
+        }
+
+        JsonObject snapshot = resolved.copy();
+        snapshot.remove(PATH_AUTH);
+
+        vertx.fileSystem().writeFile(snapshotFile, Buffer.buffer(snapshot.encodePrettily()), result -> {
+            if (result.failed()) {
+                logger.warn("Failed to save the cassandra config snapshot " + snapshotFile, result.cause());
+            }
+        });
+    }
+
     private void runOnReadyCallbacks(AsyncResult<Void> result) {
         initResult = result;
         onReadyCallbacks.forEach(callback -> callback.handle(result));
         onReadyCallbacks.clear();
     }
 
+    private void runOnChangedCallbacks() {
+        // Changes before the first load completes are picked up by the onReady callbacks
+        if (initResult == null || initResult.failed()) {
+            return;
+        }
+        onChangedCallbacks.forEach(callback -> callback.handle(this));
+    }
+
     @Override
     public void onReady(Handler<AsyncResult<Void>> callback) {
         if (initResult != null) {
@@ -161,6 +289,11 @@ public class ZooKeeperCassandraConfigurator extends EnvironmentCassandraConfigur
         }
     }
 
+    @Override
+    public void onChanged(Handler<CassandraConfigurator> callback) {
+        onChangedCallbacks.add(callback);
+    }
+
     protected String getPathPrefix() {
         return pathPrefix;
     }
@@ -0,0 +1,124 @@
+package com.englishtown.vertx.cassandra;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link FutureUtils}
+ */
+public class FutureUtilsTest {
+
+    @Test
+    public void testAllAsList_Bounded() throws Exception {
+
+        List<SettableFuture<String>> futures = new ArrayList<>();
+        ListenableFuture<List<String>> result = FutureUtils.allAsList(Arrays.asList(1, 2, 3, 4, 5), 2, i -> {
+            SettableFuture<String> future = SettableFuture.create();
+            futures.add(future);
+            return future;
+        });
+
+        assertEquals(2, futures.size());
+
+        // Complete out of order
+        futures.get(1).set("2");
+        assertEquals(3, futures.size());
+        futures.get(0).set("1");
+        assertEquals(4, futures.size());
+        futures.get(3).set("4");
+        futures.get(2).set("3");
+        assertEquals(5, futures.size());
+        assertFalse(result.isDone());
+        futures.get(4).set("5");
+
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5"), result.get());
+
+    }
+
+    @Test
+    public void testAllAsList_Synchronous_Results() throws Exception {
+
+        List<Integer> inputs = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            inputs.add(i);
+        }
+
+        List<Integer> result = FutureUtils.allAsList(inputs, 4, Futures::immediateFuture).get();
+        assertEquals(inputs, result);
+
+    }
+
+    @Test
+    public void testAllAsList_Failure() throws Exception {
+
+        List<SettableFuture<String>> futures = new ArrayList<>();
+        ListenableFuture<List<String>> result = FutureUtils.allAsList(Arrays.asList(1, 2, 3), 1, i -> {
+            SettableFuture<String> future = SettableFuture.create();
+            futures.add(future);
+            return future;
+        });
+
+        RuntimeException e = new RuntimeException();
+        futures.get(0).setException(e);
+
+        try {
+            result.get();
+            fail();
+        } catch (ExecutionException ee) {
+            assertEquals(e, ee.getCause());
+        }
+        assertEquals(1, futures.size());
+
+    }
+
+    @Test
+    public void testToResultSetFuture() throws Exception {
+
+        ResultSet resultSet = mock(ResultSet.class);
+        SettableFuture<ResultSet> future = SettableFuture.create();
+        ResultSetFuture resultSetFuture = FutureUtils.toResultSetFuture(future);
+        assertSame(resultSetFuture, FutureUtils.toResultSetFuture(resultSetFuture));
+
+        future.set(resultSet);
+        assertTrue(resultSetFuture.isDone());
+        assertSame(resultSet, resultSetFuture.getUninterruptibly());
+        assertSame(resultSet, resultSetFuture.getUninterruptibly(1, TimeUnit.SECONDS));
+
+    }
+
+    @Test
+    public void testToResultSetFuture_Failure() throws Exception {
+
+        SettableFuture<ResultSet> future = SettableFuture.create();
+        future.setException(new InvalidQueryException("Unit test exception"));
+
+        try {
+            FutureUtils.toResultSetFuture(future).getUninterruptibly();
+            fail();
+        } catch (InvalidQueryException e) {
+            // Expected
+        }
+
+    }
+
+    @Test
+    public void testAllAsList_Empty() throws Exception {
+        assertEquals(Collections.emptyList(), FutureUtils.allAsList(Collections.<Integer>emptyList(), 1, Futures::immediateFuture).get());
+    }
+
+}
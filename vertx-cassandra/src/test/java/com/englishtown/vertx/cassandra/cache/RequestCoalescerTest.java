@@ -0,0 +1,172 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.*;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RequestCoalescer}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RequestCoalescerTest {
+
+    RequestCoalescer coalescer;
+    MetricRegistry registry = new MetricRegistry();
+    List<SettableFuture<ResultSet>> futures = new ArrayList<>();
+    StatementExecutor executor = statement -> {
+        SettableFuture<ResultSet> future = SettableFuture.create();
+        futures.add(future);
+        return future;
+    };
+
+    @Mock
+    PreparedStatement preparedStatement;
+    @Mock
+    BoundStatement statement;
+    @Mock
+    ColumnDefinitions variables;
+    @Mock
+    ColumnDefinitions columns;
+    @Mock
+    ResultSet resultSet;
+    @Mock
+    Row row;
+
+    @Before
+    public void setUp() throws Exception {
+
+        coalescer = new RequestCoalescer(registry);
+
+        when(preparedStatement.getQueryString()).thenReturn("SELECT * FROM test WHERE id = ?");
+        when(preparedStatement.getVariables()).thenReturn(variables);
+        when(variables.size()).thenReturn(1);
+        when(statement.preparedStatement()).thenReturn(preparedStatement);
+        when(statement.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[]{1}));
+
+        when(resultSet.isFullyFetched()).thenReturn(true);
+        when(resultSet.getColumnDefinitions()).thenReturn(columns);
+        when(resultSet.all()).thenReturn(Arrays.asList(row));
+
+    }
+
+    @Test
+    public void testExecuteAsync_Not_Enabled() throws Exception {
+
+        coalescer.executeAsync(statement, executor);
+        coalescer.executeAsync(statement, executor);
+
+        assertEquals(2, futures.size());
+        assertEquals(0, coalescer.getCoalescedCount());
+
+    }
+
+    @Test
+    public void testExecuteAsync_Coalesced() throws Exception {
+
+        coalescer.enable(preparedStatement);
+
+        ListenableFuture<ResultSet> f1 = coalescer.executeAsync(statement, executor);
+        ListenableFuture<ResultSet> f2 = coalescer.executeAsync(statement, executor);
+        ListenableFuture<ResultSet> f3 = coalescer.executeAsync(statement, executor);
+
+        assertEquals(1, futures.size());
+        assertEquals(1, coalescer.getInFlightCount());
+        assertEquals(2, coalescer.getCoalescedCount());
+        assertEquals(2, registry.counter(RequestCoalescer.METRIC_COALESCED).getCount());
+        assertFalse(f2.isDone());
+
+        futures.get(0).set(resultSet);
+
+        assertEquals(0, coalescer.getInFlightCount());
+        ResultSet rs1 = f1.get();
+        ResultSet rs2 = f2.get();
+        assertNotSame(rs1, rs2);
+        assertEquals(row, rs1.one());
+        assertEquals(row, rs2.one());
+        assertEquals(row, f3.get().one());
+
+        // Completed requests are not shared
+        coalescer.executeAsync(statement, executor);
+        assertEquals(2, futures.size());
+
+    }
+
+    @Test
+    public void testExecuteAsync_Different_Values() throws Exception {
+
+        coalescer.enable(preparedStatement);
+
+        coalescer.executeAsync(statement, executor);
+        when(statement.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[]{2}));
+        coalescer.executeAsync(statement, executor);
+
+        assertEquals(2, futures.size());
+        assertEquals(0, coalescer.getCoalescedCount());
+
+    }
+
+    @Test
+    public void testExecuteAsync_Not_Fully_Fetched() throws Exception {
+
+        coalescer.enable(preparedStatement);
+        when(resultSet.isFullyFetched()).thenReturn(false);
+
+        ListenableFuture<ResultSet> f1 = coalescer.executeAsync(statement, executor);
+        ListenableFuture<ResultSet> f2 = coalescer.executeAsync(statement, executor);
+
+        futures.get(0).set(resultSet);
+        assertEquals(resultSet, f1.get());
+
+        // The waiting request re-issues its own query
+        assertEquals(2, futures.size());
+        assertFalse(f2.isDone());
+        futures.get(1).set(resultSet);
+        assertEquals(resultSet, f2.get());
+
+    }
+
+    @Test
+    public void testExecuteAsync_Failure() throws Exception {
+
+        coalescer.enable(preparedStatement);
+
+        ListenableFuture<ResultSet> f1 = coalescer.executeAsync(statement, executor);
+        ListenableFuture<ResultSet> f2 = coalescer.executeAsync(statement, executor);
+
+        RuntimeException e = new RuntimeException();
+        futures.get(0).setException(e);
+
+        assertEquals(0, coalescer.getInFlightCount());
+        for (ListenableFuture<ResultSet> f : Arrays.asList(f1, f2)) {
+            try {
+                f.get();
+                fail();
+            } catch (ExecutionException ee) {
+                assertEquals(e, ee.getCause());
+            }
+        }
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnable_Not_Select() throws Exception {
+        when(preparedStatement.getQueryString()).thenReturn("DELETE FROM test WHERE id = ?");
+        coalescer.enable(preparedStatement);
+    }
+
+}
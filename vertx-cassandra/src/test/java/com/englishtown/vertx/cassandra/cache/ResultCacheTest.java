@@ -0,0 +1,157 @@
+package com.englishtown.vertx.cassandra.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.*;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ResultCache}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResultCacheTest {
+
+    ResultCache cache;
+    MetricRegistry registry = new MetricRegistry();
+
+    @Mock
+    Session session;
+    @Mock
+    PreparedStatement preparedStatement;
+    @Mock
+    BoundStatement statement;
+    @Mock
+    ColumnDefinitions variables;
+    @Mock
+    ColumnDefinitions columns;
+    @Mock
+    ResultSet resultSet;
+    @Mock
+    Row row;
+    @Mock
+    ResultSetFuture future;
+
+    @Before
+    public void setUp() throws Exception {
+
+        cache = new ResultCache(registry);
+        cache.addProfile("test", new ResultCacheOptions());
+
+        when(preparedStatement.getQueryString()).thenReturn("SELECT * FROM test WHERE id = ?");
+        when(preparedStatement.getVariables()).thenReturn(variables);
+        when(variables.size()).thenReturn(1);
+        when(statement.preparedStatement()).thenReturn(preparedStatement);
+        when(statement.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[]{1}));
+
+        when(resultSet.isFullyFetched()).thenReturn(true);
+        when(resultSet.getColumnDefinitions()).thenReturn(columns);
+        when(resultSet.all()).thenReturn(Arrays.asList(row));
+        when(columns.size()).thenReturn(1);
+        when(row.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[10]));
+
+        when(future.get()).thenReturn(resultSet);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(future).addListener(any(Runnable.class), any(Executor.class));
+        when(session.executeAsync(any(Statement.class))).thenReturn(future);
+
+    }
+
+    @Test
+    public void testExecuteAsync_Not_Enabled() throws Exception {
+
+        ListenableFuture<ResultSet> f1 = cache.executeAsync(statement, session);
+        ListenableFuture<ResultSet> f2 = cache.executeAsync(statement, session);
+
+        verify(session, times(2)).executeAsync(statement);
+        assertEquals(resultSet, f1.get());
+        assertEquals(resultSet, f2.get());
+
+    }
+
+    @Test
+    public void testExecuteAsync_Hit() throws Exception {
+
+        cache.enable(preparedStatement, "test");
+
+        ResultSet rs1 = cache.executeAsync(statement, session).get();
+        ResultSet rs2 = cache.executeAsync(statement, session).get();
+
+        verify(session, times(1)).executeAsync(statement);
+        assertNotEquals(resultSet, rs1);
+        assertEquals(row, rs1.one());
+        assertEquals(row, rs2.one());
+        assertTrue(rs1.isExhausted());
+
+        assertEquals(1, cache.getStats("test").hitCount());
+        assertEquals(1, cache.getStats("test").missCount());
+        assertEquals(58, cache.getBytes("test"));
+        assertEquals(0.5, registry.getGauges().get("result-cache.test.hit-ratio").getValue());
+
+        cache.invalidate("test");
+        assertEquals(0, cache.getBytes("test"));
+        cache.executeAsync(statement, session).get();
+        verify(session, times(2)).executeAsync(statement);
+
+    }
+
+    @Test
+    public void testExecuteAsync_Miss_Different_Values() throws Exception {
+
+        cache.enable(preparedStatement, "test");
+
+        cache.executeAsync(statement, session).get();
+        when(statement.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[]{2}));
+        cache.executeAsync(statement, session).get();
+
+        verify(session, times(2)).executeAsync(statement);
+
+    }
+
+    @Test
+    public void testExecuteAsync_Not_Fully_Fetched() throws Exception {
+
+        cache.enable(preparedStatement, "test");
+        when(resultSet.isFullyFetched()).thenReturn(false);
+
+        assertEquals(resultSet, cache.executeAsync(statement, session).get());
+        assertEquals(resultSet, cache.executeAsync(statement, session).get());
+
+        verify(session, times(2)).executeAsync(statement);
+        verify(resultSet, never()).all();
+
+    }
+
+    @Test
+    public void testEnable_Validation() throws Exception {
+
+        try {
+            cache.enable(preparedStatement, "missing");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        when(preparedStatement.getQueryString()).thenReturn("UPDATE test SET value = ? WHERE id = ?");
+        try {
+            cache.enable(preparedStatement, "test");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.englishtown.vertx.cassandra.capture;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.*;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link WorkloadCapture}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WorkloadCaptureTest {
+
+    WorkloadCapture capture;
+    MetricRegistry registry = new MetricRegistry();
+    File file;
+
+    @Mock
+    PreparedStatement preparedStatement;
+    @Mock
+    ColumnDefinitions variables;
+    @Mock
+    BoundStatement statement;
+
+    @Before
+    public void setUp() throws Exception {
+
+        file = File.createTempFile("capture", ".bin");
+        file.delete();
+        capture = new WorkloadCapture(registry);
+
+        when(preparedStatement.getQueryString()).thenReturn("SELECT * FROM test WHERE id = ? AND name = ?");
+        when(preparedStatement.getQueryKeyspace()).thenReturn("test_keyspace");
+        when(preparedStatement.getVariables()).thenReturn(variables);
+        when(variables.size()).thenReturn(2);
+        when(statement.preparedStatement()).thenReturn(preparedStatement);
+        when(statement.isSet(0)).thenReturn(true);
+        when(statement.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[]{1, 2}));
+        when(statement.getConsistencyLevel()).thenReturn(ConsistencyLevel.LOCAL_QUORUM);
+
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        capture.close().get();
+        file.delete();
+    }
+
+    @Test
+    public void testRecord_Not_Enabled() throws Exception {
+
+        assertFalse(capture.isEnabled());
+        capture.record(statement, null, ProtocolVersion.V3);
+
+        assertFalse(file.exists());
+        assertEquals(0, registry.counter("capture.captured").getCount());
+
+    }
+
+    @Test
+    public void testRecord() throws Exception {
+
+        capture.setOptions(new CaptureOptions().setFile(file.getPath()).setValueSampleRate(1));
+        assertTrue(capture.isEnabled());
+
+        capture.record(statement, null, ProtocolVersion.V3);
+        capture.record("SELECT * FROM test WHERE id = ?", new Object[]{"a"}, "logged_keyspace", ProtocolVersion.V3);
+        capture.record(new BatchStatement(BatchStatement.Type.UNLOGGED)
+                .add(statement)
+                .add(new SimpleStatement("DELETE FROM test WHERE id = 'b'")), null, ProtocolVersion.V3);
+        capture.close().get();
+
+        assertFalse(capture.isEnabled());
+        assertEquals(3, registry.counter("capture.captured").getCount());
+
+        try (CaptureReader reader = new CaptureReader(file.getPath())) {
+
+            CapturedExecution execution = reader.next();
+            CapturedStatement captured = execution.getStatement();
+            assertTrue(captured.isPrepared());
+            assertEquals("test_keyspace", captured.getKeyspace());
+            assertEquals("SELECT * FROM test WHERE id = ? AND name = ?", captured.getQuery());
+            assertEquals(ConsistencyLevel.LOCAL_QUORUM, execution.getConsistency());
+            assertEquals(Arrays.asList(ByteBuffer.wrap(new byte[]{1, 2}), null), execution.getValues());
+            long offset = execution.getOffsetMicros();
+
+            execution = reader.next();
+            assertFalse(execution.getStatement().isPrepared());
+            assertEquals("logged_keyspace", execution.getStatement().getKeyspace());
+            assertNull(execution.getConsistency());
+            assertEquals(1, execution.getValues().size());
+            assertEquals(ByteBuffer.wrap("a".getBytes(StandardCharsets.UTF_8)), execution.getValues().get(0));
+            assertTrue(execution.getOffsetMicros() >= offset);
+
+            execution = reader.next();
+            assertTrue(execution.isBatch());
+            assertEquals(BatchStatement.Type.UNLOGGED, execution.getBatchType());
+            assertEquals(2, execution.getBatch().size());
+            assertSame(captured, execution.getBatch().get(0).getStatement());
+            assertEquals("DELETE FROM test WHERE id = 'b'", execution.getBatch().get(1).getStatement().getQuery());
+
+            assertNull(reader.next());
+            assertEquals(3, reader.getStatements().size());
+
+        }
+
+    }
+
+    @Test
+    public void testRecord_Not_Sampled() throws Exception {
+
+        capture.setOptions(new CaptureOptions().setFile(file.getPath()).setValueSampleRate(0));
+        capture.record(statement, null, ProtocolVersion.V3);
+        capture.close().get();
+
+        try (CaptureReader reader = new CaptureReader(file.getPath())) {
+            CapturedExecution execution = reader.next();
+            assertEquals("SELECT * FROM test WHERE id = ? AND name = ?", execution.getStatement().getQuery());
+            assertNull(execution.getValues());
+        }
+
+    }
+
+    @Test
+    public void testSetOptions_Appends_Segment() throws Exception {
+
+        // The first writer finishes in the background, the second waits for it before appending
+        capture.setOptions(new CaptureOptions().setFile(file.getPath()));
+        capture.record(statement, null, ProtocolVersion.V3);
+        capture.close();
+
+        capture.setOptions(new CaptureOptions().setFile(file.getPath()));
+        capture.record(statement, null, ProtocolVersion.V3);
+        capture.close().get();
+
+        // The statement is defined again in the second segment and read as the same timeline
+        try (CaptureReader reader = new CaptureReader(file.getPath())) {
+            CapturedExecution first = reader.next();
+            CapturedExecution second = reader.next();
+            assertEquals(first.getStatement().getQuery(), second.getStatement().getQuery());
+            assertTrue(second.getOffsetMicros() >= first.getOffsetMicros());
+            assertNull(reader.next());
+        }
+
+    }
+
+    @Test
+    public void testClose_Not_Blocking() throws Exception {
+
+        assertTrue(capture.close().isDone());
+
+        capture.setOptions(new CaptureOptions().setFile(file.getPath()));
+        capture.record(statement, null, ProtocolVersion.V3);
+        ListenableFuture<Void> closed = capture.close();
+
+        assertFalse(capture.isEnabled());
+        closed.get(5, TimeUnit.SECONDS);
+        assertTrue(file.exists());
+
+    }
+
+    @Test
+    public void testSetOptions_Unwritable_File() throws Exception {
+
+        // The file is opened by the writer thread, so the failure is logged there and the close still completes
+        File missing = new File(file, "missing/capture.bin");
+        capture.setOptions(new CaptureOptions().setFile(missing.getPath()));
+        capture.record(statement, null, ProtocolVersion.V3);
+        capture.close().get(5, TimeUnit.SECONDS);
+
+        assertFalse(missing.exists());
+
+    }
+
+    @Test
+    public void testRead_Version1_Batch() throws Exception {
+
+        // Version 1 batches have no type and were replayed as logged
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(CaptureFormat.MAGIC);
+        out.writeByte(CaptureFormat.VERSION_WITHOUT_BATCH_TYPE);
+        out.writeByte(CaptureFormat.DEFINE);
+        CaptureFormat.writeVarint(out, 0);
+        out.writeByte(0);
+        CaptureFormat.writeString(out, "");
+        CaptureFormat.writeString(out, "DELETE FROM test WHERE id = 'b'");
+        out.writeByte(CaptureFormat.BATCH);
+        CaptureFormat.writeVarint(out, 10);
+        CaptureFormat.writeConsistency(out, null);
+        CaptureFormat.writeVarint(out, 1);
+        CaptureFormat.writeVarint(out, 0);
+        CaptureFormat.writeValues(out, null);
+
+        try (CaptureReader reader = new CaptureReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            CapturedExecution execution = reader.next();
+            assertTrue(execution.isBatch());
+            assertEquals(BatchStatement.Type.LOGGED, execution.getBatchType());
+            assertEquals("DELETE FROM test WHERE id = 'b'", execution.getBatch().get(0).getStatement().getQuery());
+            assertNull(reader.next());
+        }
+
+    }
+
+}
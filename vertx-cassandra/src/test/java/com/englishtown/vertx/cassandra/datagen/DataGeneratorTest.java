@@ -0,0 +1,250 @@
+package com.englishtown.vertx.cassandra.datagen;
+
+import com.datastax.driver.core.*;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.englishtown.vertx.cassandra.CassandraSession;
+import com.englishtown.vertx.cassandra.tablebuilder.CreateTable;
+import com.englishtown.vertx.cassandra.tablebuilder.PrimaryKeyType;
+import com.englishtown.vertx.cassandra.tablebuilder.TableBuilder;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DataGenerator}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DataGeneratorTest {
+
+    private CreateTable events = TableBuilder.create("test_keyspace", "events")
+            .column("user_id", "uuid")
+            .column("day", "int")
+            .column("seq", "bigint")
+            .column("payload", "blob")
+            .column("tags", "set<text>")
+            .staticColumn("name", "text")
+            .primaryKey("user_id", PrimaryKeyType.PARTITIONING)
+            .primaryKey("day", PrimaryKeyType.PARTITIONING)
+            .primaryKey("seq");
+
+    @Mock
+    private CassandraSession session;
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private PreparedStatement insert;
+    @Mock
+    private ResultSetFuture resultSetFuture;
+    @Mock
+    private ResultSet resultSet;
+    @Captor
+    private ArgumentCaptor<Handler<Long>> timerCaptor;
+
+    @Before
+    public void setUp() throws Exception {
+
+        when(session.getVertx()).thenReturn(vertx);
+        when(session.prepareAsync(anyString())).thenReturn(Futures.immediateFuture(insert));
+        when(insert.bind(anyVararg())).thenAnswer(invocation -> mock(BoundStatement.class));
+        when(session.executeAsync(any(Statement.class))).thenReturn(resultSetFuture);
+        complete(resultSetFuture, resultSet);
+
+    }
+
+    private void complete(ResultSetFuture future, ResultSet resultSet) throws Exception {
+        when(future.get()).thenReturn(resultSet);
+        when(future.isDone()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(future).addListener(any(), any());
+    }
+
+    @Test
+    public void testColumns() throws Exception {
+
+        DataGenerator generator = new DataGenerator(events);
+
+        assertEquals(Arrays.asList("user_id", "day", "seq", "name", "payload", "tags"), generator.getColumns());
+        assertEquals("INSERT INTO test_keyspace.events (user_id, day, seq, name, payload, tags) VALUES (?, ?, ?, ?, ?, ?)",
+                generator.getInsertQuery());
+
+    }
+
+    @Test
+    public void testColumns_Table_Metadata() throws Exception {
+
+        TableMetadata table = mock(TableMetadata.class);
+        KeyspaceMetadata keyspace = mock(KeyspaceMetadata.class);
+        ColumnMetadata id = column("id", DataType.text());
+        ColumnMetadata value = column("value", DataType.map(DataType.text(), DataType.cint()));
+        when(table.getKeyspace()).thenReturn(keyspace);
+        when(keyspace.getName()).thenReturn("test_keyspace");
+        when(table.getName()).thenReturn("kv");
+        when(table.getPartitionKey()).thenReturn(Collections.singletonList(id));
+        when(table.getColumns()).thenReturn(Arrays.asList(id, value));
+
+        DataGenerator generator = new DataGenerator(table).setPartitions(10);
+
+        assertEquals("INSERT INTO test_keyspace.kv (id, value) VALUES (?, ?)", generator.getInsertQuery());
+        Object[] row = generator.partition(0).get(0);
+        assertTrue(row[0] instanceof String);
+        assertTrue(row[1] instanceof Map);
+
+    }
+
+    private ColumnMetadata column(String name, DataType type) {
+        ColumnMetadata column = mock(ColumnMetadata.class);
+        when(column.getName()).thenReturn(name);
+        when(column.getType()).thenReturn(type);
+        return column;
+    }
+
+    @Test
+    public void testColumns_Unsupported() throws Exception {
+
+        try {
+            new DataGenerator(TableBuilder.create("test_keyspace", "counts")
+                    .column("id", "text")
+                    .column("count", "counter")
+                    .primaryKey("id"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+    }
+
+    @Test
+    public void testPartition() throws Exception {
+
+        DataGenerator generator = new DataGenerator(events)
+                .setPartitionSize(Distribution.uniform(2, 5))
+                .setValueSize(Distribution.fixed(10));
+
+        Set<Object> keys = new HashSet<>();
+        for (int index = 0; index < 100; index++) {
+            List<Object[]> rows = generator.partition(index);
+            assertTrue(rows.size() >= 2 && rows.size() <= 5);
+
+            Object[] first = rows.get(0);
+            assertTrue(keys.add(Arrays.asList(first[0], first[1])));
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                // Same partition key and static, clustering by row number
+                assertEquals(first[0], row[0]);
+                assertEquals(first[1], row[1]);
+                assertEquals((long) i, row[2]);
+                assertEquals(first[3], row[3]);
+                assertEquals(10, ((String) row[3]).length());
+                assertEquals(10, ((ByteBuffer) row[4]).remaining());
+                assertEquals(10, ((Set<?>) row[5]).size());
+            }
+        }
+
+    }
+
+    @Test
+    public void testPartition_Deterministic() throws Exception {
+
+        DataGenerator generator = new DataGenerator(events).setPartitionSize(Distribution.longTail(1, 100)).setSeed(1);
+
+        for (int index = 0; index < 10; index++) {
+            assertTrue(Arrays.deepEquals(generator.partition(index).toArray(), generator.partition(index).toArray()));
+        }
+        Object[] first = generator.partition(0).get(0);
+        Object[] other = generator.setSeed(2).partition(0).get(0);
+        assertNotEquals(first[0], other[0]);
+        assertNotEquals(first[4], other[4]);
+
+    }
+
+    @Test
+    public void testPartition_No_Clustering() throws Exception {
+
+        DataGenerator generator = new DataGenerator(TableBuilder.create("test_keyspace", "kv")
+                .column("id", "int")
+                .column("value", "text")
+                .primaryKey("id"))
+                .setPartitionSize(Distribution.fixed(10));
+
+        assertEquals(1, generator.partition(0).size());
+
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+
+        DataGenerator generator = new DataGenerator(events)
+                .setPartitions(20)
+                .setPartitionSize(Distribution.fixed(3))
+                .setMaxBatchRows(2)
+                .setMaxInFlight(4);
+
+        assertEquals(60, (long) generator.load(session).get());
+
+        // A batch of two rows and a single row per partition
+        ArgumentCaptor<Statement> captor = ArgumentCaptor.forClass(Statement.class);
+        verify(session, times(40)).executeAsync(captor.capture());
+        assertTrue(captor.getAllValues().get(0) instanceof BatchStatement);
+        assertTrue(captor.getAllValues().get(1) instanceof BoundStatement);
+
+    }
+
+    @Test
+    public void testLoad_Retry() throws Exception {
+
+        ResultSetFuture timedOut = mock(ResultSetFuture.class);
+        complete(timedOut, null);
+        when(timedOut.get()).thenThrow(new ExecutionException(
+                new WriteTimeoutException(ConsistencyLevel.ONE, WriteType.SIMPLE, 0, 1)));
+        when(session.executeAsync(any(Statement.class))).thenReturn(timedOut, resultSetFuture);
+
+        ListenableFuture<Long> result = new DataGenerator(events).setPartitions(2).load(session);
+
+        verify(vertx).setTimer(anyLong(), timerCaptor.capture());
+        assertFalse(result.isDone());
+
+        timerCaptor.getValue().handle(1L);
+        assertEquals(2, (long) result.get());
+        verify(session, times(3)).executeAsync(any(Statement.class));
+
+    }
+
+    @Test
+    public void testLoad_Failure() throws Exception {
+
+        ResultSetFuture invalid = mock(ResultSetFuture.class);
+        complete(invalid, null);
+        when(invalid.get()).thenThrow(new ExecutionException(new InvalidQueryException("Unknown column")));
+        when(session.executeAsync(any(Statement.class))).thenReturn(invalid);
+
+        try {
+            new DataGenerator(events).setPartitions(2).load(session).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InvalidQueryException);
+        }
+        verify(vertx, never()).setTimer(anyLong(), any());
+
+    }
+
+}
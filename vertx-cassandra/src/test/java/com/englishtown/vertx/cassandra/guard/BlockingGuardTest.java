@@ -0,0 +1,217 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BlockingGuard}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BlockingGuardTest {
+
+    private BlockingGuard guard;
+    private MetricRegistry registry = new MetricRegistry();
+    private boolean eventLoop = true;
+
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private Row row;
+    @Mock
+    private ResultSetFuture future;
+
+    @Before
+    public void setUp() throws Exception {
+
+        guard = new BlockingGuard(registry) {
+            @Override
+            protected boolean isEventLoopThread() {
+                return eventLoop;
+            }
+        };
+
+    }
+
+    private long count(BlockingCall call) {
+        return registry.timer(MetricRegistry.name(BlockingGuard.METRIC_PREFIX, call.getMetricName())).getCount();
+    }
+
+    private long rejected(BlockingCall call) {
+        return registry.counter(MetricRegistry.name(BlockingGuard.METRIC_PREFIX, call.getMetricName(), "rejected")).getCount();
+    }
+
+    @Test
+    public void testCall_Disabled() throws Exception {
+
+        assertFalse(guard.isEnabled());
+        assertEquals("a", guard.call(BlockingCall.EXECUTE, () -> "a"));
+        assertEquals(0, count(BlockingCall.EXECUTE));
+        assertSame(resultSet, guard.wrap(resultSet));
+
+    }
+
+    @Test
+    public void testCall_Log() throws Exception {
+
+        guard.setOptions(new BlockingGuardOptions());
+
+        assertEquals("a", guard.call(BlockingCall.EXECUTE, () -> "a"));
+        assertEquals("b", guard.call(BlockingCall.PREPARE, () -> "b"));
+        assertEquals(1, count(BlockingCall.EXECUTE));
+        assertEquals(1, count(BlockingCall.PREPARE));
+        assertEquals(0, count(BlockingCall.INIT));
+
+    }
+
+    @Test
+    public void testCall_Count() throws Exception {
+
+        guard.setOptions(new BlockingGuardOptions().setAction(GuardAction.COUNT));
+
+        guard.call(BlockingCall.INIT, () -> null);
+        guard.call(BlockingCall.INIT, () -> null);
+        assertEquals(2, count(BlockingCall.INIT));
+
+    }
+
+    @Test
+    public void testCall_Reject() throws Exception {
+
+        guard.setOptions(new BlockingGuardOptions().setAction(GuardAction.REJECT));
+
+        try {
+            guard.call(BlockingCall.EXECUTE, () -> {
+                fail();
+                return null;
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        assertEquals(1, rejected(BlockingCall.EXECUTE));
+        assertEquals(0, count(BlockingCall.EXECUTE));
+
+    }
+
+    @Test
+    public void testCall_Off_Event_Loop() throws Exception {
+
+        guard.setOptions(new BlockingGuardOptions().setAction(GuardAction.REJECT));
+        eventLoop = false;
+
+        assertEquals("a", guard.call(BlockingCall.EXECUTE, () -> "a"));
+        assertEquals(0, count(BlockingCall.EXECUTE));
+        assertEquals(0, rejected(BlockingCall.EXECUTE));
+
+    }
+
+    @Test
+    public void testIsEventLoopThread() throws Exception {
+
+        // Not a vert.x thread
+        assertFalse(new BlockingGuard(registry).isEventLoopThread());
+
+    }
+
+    @Test
+    public void testWrap_Fetched() throws Exception {
+
+        guard.setOptions(new BlockingGuardOptions().setAction(GuardAction.REJECT));
+        when(resultSet.getAvailableWithoutFetching()).thenReturn(1);
+        when(resultSet.isFullyFetched()).thenReturn(true);
+        when(resultSet.one()).thenReturn(row);
+        when(resultSet.all()).thenReturn(Collections.singletonList(row));
+        when(resultSet.iterator()).thenReturn(Collections.singletonList(row).iterator());
+
+        ResultSet guarded = guard.wrap(resultSet);
+        assertSame(guarded, guard.wrap(guarded));
+        assertSame(row, guarded.one());
+        assertEquals(Collections.singletonList(row), guarded.all());
+        Iterator<Row> iterator = guarded.iterator();
+        assertTrue(iterator.hasNext());
+        assertSame(row, iterator.next());
+        assertEquals(0, count(BlockingCall.FETCH));
+
+    }
+
+    @Test
+    public void testWrap_Fetch() throws Exception {
+
+        guard.setOptions(new BlockingGuardOptions());
+        when(resultSet.getAvailableWithoutFetching()).thenReturn(0);
+        when(resultSet.isFullyFetched()).thenReturn(false);
+        when(resultSet.one()).thenReturn(row);
+        when(resultSet.all()).thenReturn(Arrays.asList(row, row));
+        when(resultSet.iterator()).thenReturn(Collections.singletonList(row).iterator());
+
+        ResultSet guarded = guard.wrap(resultSet);
+        assertSame(row, guarded.one());
+        assertEquals(2, guarded.all().size());
+        Iterator<Row> iterator = guarded.iterator();
+        assertTrue(iterator.hasNext());
+        assertSame(row, iterator.next());
+        assertEquals(4, count(BlockingCall.FETCH));
+
+    }
+
+    @Test
+    public void testWrap_Fetch_Reject() throws Exception {
+
+        guard.setOptions(new BlockingGuardOptions().setAction(GuardAction.REJECT));
+        when(resultSet.getAvailableWithoutFetching()).thenReturn(0);
+        when(resultSet.isFullyFetched()).thenReturn(false);
+
+        try {
+            guard.wrap(resultSet).isExhausted();
+            fail();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        verify(resultSet, never()).isExhausted();
+        assertEquals(1, rejected(BlockingCall.FETCH));
+
+    }
+
+    @Test
+    public void testWrap_Future() throws Exception {
+
+        assertSame(future, guard.wrap(future));
+
+        guard.setOptions(new BlockingGuardOptions().setAction(GuardAction.REJECT));
+        when(future.get()).thenReturn(resultSet);
+        when(future.getUninterruptibly()).thenReturn(resultSet);
+        when(resultSet.getAvailableWithoutFetching()).thenReturn(0);
+        when(resultSet.isFullyFetched()).thenReturn(false);
+
+        ResultSetFuture guarded = guard.wrap(future);
+        assertSame(guarded, guard.wrap(guarded));
+        ResultSet result = guarded.get();
+        assertNotSame(resultSet, result);
+        assertSame(result, guard.wrap(result));
+        assertNotSame(resultSet, guarded.getUninterruptibly());
+
+        try {
+            result.one();
+            fail();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        verify(resultSet, never()).one();
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.englishtown.vertx.cassandra.guard;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link QueryGuard}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class QueryGuardTest {
+
+    private QueryGuard guard;
+    private MetricRegistry registry = new MetricRegistry();
+
+    @Mock
+    private Metadata metadata;
+    @Mock
+    private KeyspaceMetadata keyspace;
+    @Mock
+    private TableMetadata table;
+    @Mock
+    private ColumnMetadata bucket;
+    @Mock
+    private ColumnMetadata id;
+    @Mock
+    private ColumnMetadata time;
+    @Mock
+    private ColumnMetadata email;
+    @Mock
+    private ColumnMetadata name;
+    @Mock
+    private ColumnMetadata.IndexMetadata emailIndex;
+    @Mock
+    private PreparedStatement statement;
+
+    @Before
+    public void setUp() throws Exception {
+
+        when(metadata.getKeyspace("ks")).thenReturn(keyspace);
+        when(keyspace.getTable("users")).thenReturn(table);
+        when(table.getColumn("bucket")).thenReturn(bucket);
+        when(table.getColumn("id")).thenReturn(id);
+        when(table.getColumn("time")).thenReturn(time);
+        when(table.getColumn("email")).thenReturn(email);
+        when(table.getColumn("name")).thenReturn(name);
+        when(table.getPartitionKey()).thenReturn(Arrays.asList(bucket, id));
+        when(email.getIndex()).thenReturn(emailIndex);
+
+        guard = new QueryGuard(registry);
+
+    }
+
+    private QueryClass classify(String query) {
+        return guard.classify(query, "ks", metadata);
+    }
+
+    @Test
+    public void testClassify() throws Exception {
+
+        assertEquals(QueryClass.SINGLE_PARTITION, classify("SELECT * FROM ks.users WHERE bucket = ? AND id = ?"));
+        assertEquals(QueryClass.SINGLE_PARTITION, classify("select name from users where bucket=1 and id='a and b' and time > ? order by time desc limit 10"));
+        assertEquals(QueryClass.MULTI_PARTITION, classify("SELECT * FROM users WHERE bucket IN ? AND id = ?"));
+        assertEquals(QueryClass.INDEX, classify("SELECT * FROM users WHERE email = ?"));
+        assertEquals(QueryClass.INDEX, classify("SELECT * FROM users WHERE bucket = ? AND email = ?"));
+        assertEquals(QueryClass.FULL_SCAN, classify("SELECT * FROM users"));
+        assertEquals(QueryClass.FULL_SCAN, classify("SELECT * FROM users WHERE name = ? ALLOW FILTERING"));
+        assertEquals(QueryClass.FULL_SCAN, classify("SELECT * FROM users WHERE token(bucket, id) > ? LIMIT 100"));
+
+    }
+
+    @Test
+    public void testClassify_Unknown() throws Exception {
+
+        assertNull(classify("INSERT INTO users (bucket, id) VALUES (?, ?)"));
+        assertNull(classify("SELECT * FROM other WHERE id = ?"));
+        assertNull(guard.classify("SELECT * FROM users WHERE id = ?", null, metadata));
+
+    }
+
+    @Test
+    public void testCheck_Disabled() throws Exception {
+
+        assertFalse(guard.isEnabled());
+        assertEquals(statement, guard.check(statement, metadata));
+        verifyZeroInteractions(statement);
+
+    }
+
+    @Test
+    public void testCheck_Count() throws Exception {
+
+        guard.setOptions(new QueryGuardOptions().setAction(GuardAction.COUNT));
+        when(statement.getQueryKeyspace()).thenReturn("ks");
+        when(statement.getQueryString()).thenReturn("SELECT * FROM users WHERE email = ?");
+
+        assertEquals(statement, guard.check(statement, metadata));
+        assertEquals(1, registry.counter("query-guard.index").getCount());
+        assertEquals(0, registry.counter("query-guard.single-partition").getCount());
+
+    }
+
+    @Test
+    public void testCheck_Reject() throws Exception {
+
+        guard.setOptions(new QueryGuardOptions().setAction(GuardAction.REJECT));
+        when(statement.getQueryKeyspace()).thenReturn("ks");
+        when(statement.getQueryString()).thenReturn("SELECT * FROM users WHERE bucket = ? AND id = ?");
+
+        // Single partition queries are allowed
+        assertEquals(statement, guard.check(statement, metadata));
+
+        when(statement.getQueryString()).thenReturn("SELECT * FROM users");
+        try {
+            guard.check(statement, metadata);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        assertEquals(1, registry.counter("query-guard.full-scan").getCount());
+
+    }
+
+}
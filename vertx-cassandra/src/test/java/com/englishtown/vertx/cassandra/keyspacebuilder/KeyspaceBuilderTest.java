@@ -0,0 +1,77 @@
+package com.englishtown.vertx.cassandra.keyspacebuilder;
+
+import com.datastax.driver.core.KeyspaceMetadata;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KeyspaceBuilderTest {
+
+    private KeyspaceMetadata existing;
+    private Map<String, String> replication = new HashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        existing = mock(KeyspaceMetadata.class);
+        when(existing.getReplication()).thenReturn(replication);
+        when(existing.isDurableWrites()).thenReturn(true);
+    }
+
+    @Test
+    public void testAlter_SimpleStrategy() throws Exception {
+
+        replication.put("class", "org.apache.cassandra.locator.SimpleStrategy");
+        replication.put("replication_factor", "3");
+
+        assertNull(KeyspaceBuilder.alter(existing, KeyspaceBuilder.create("test_keyspace").simpleStrategy(3)));
+
+        AlterKeyspace alter = KeyspaceBuilder.alter(existing, KeyspaceBuilder.create("test_keyspace").simpleStrategy(2));
+        assertEquals("ALTER KEYSPACE test_keyspace WITH REPLICATION = { 'class' : 'SimpleStrategy', 'replication_factor' : 2 }", alter.toString());
+
+    }
+
+    @Test
+    public void testAlter_NetworkTopologyStrategy() throws Exception {
+
+        replication.put("class", "org.apache.cassandra.locator.NetworkTopologyStrategy");
+        replication.put("dc1", "3");
+        replication.put("dc2", "2");
+
+        assertNull(KeyspaceBuilder.alter(existing, KeyspaceBuilder.create("test_keyspace")
+                .networkTopologyStrategy()
+                .dc("dc1", 3)
+                .dc("dc2", 2)));
+
+        // A missing data center is a change
+        AlterKeyspace alter = KeyspaceBuilder.alter(existing, KeyspaceBuilder.create("test_keyspace")
+                .networkTopologyStrategy()
+                .dc("dc1", 3));
+        assertEquals("ALTER KEYSPACE test_keyspace WITH REPLICATION = { 'class' : 'NetworkTopologyStrategy', 'dc1' : 3 }", alter.toString());
+
+        // So is a strategy change
+        alter = KeyspaceBuilder.alter(existing, KeyspaceBuilder.create("test_keyspace").simpleStrategy(3));
+        assertEquals("ALTER KEYSPACE test_keyspace WITH REPLICATION = { 'class' : 'SimpleStrategy', 'replication_factor' : 3 }", alter.toString());
+
+    }
+
+    @Test
+    public void testAlter_DurableWrites() throws Exception {
+
+        replication.put("class", "org.apache.cassandra.locator.SimpleStrategy");
+        replication.put("replication_factor", "1");
+
+        assertNull(KeyspaceBuilder.alter(existing, KeyspaceBuilder.create("test_keyspace").simpleStrategy(1).durableWrites(true)));
+
+        AlterKeyspace alter = KeyspaceBuilder.alter(existing, KeyspaceBuilder.create("test_keyspace").simpleStrategy(1).durableWrites(false));
+        assertEquals("ALTER KEYSPACE test_keyspace WITH REPLICATION = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 } AND DURABLE_WRITES = false", alter.toString());
+
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.englishtown.vertx.cassandra.loader;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.CassandraSession;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.FutureCallback;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RowLoader}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RowLoaderTest {
+
+    RowLoader loader;
+
+    @Mock
+    CassandraSession session;
+    @Mock
+    Vertx vertx;
+    @Mock
+    Metadata metadata;
+    @Mock
+    Host host1;
+    @Mock
+    Host host2;
+    @Mock
+    PreparedStatement select;
+    @Mock
+    PreparedStatement selectIn;
+    @Mock
+    ColumnDefinitions variables;
+    @Mock
+    BoundStatement statementIn;
+    @Mock
+    ResultSet resultSet;
+    @Mock
+    Row row1;
+    @Mock
+    Row row2;
+    @Mock
+    FutureCallback<Row> callback1;
+    @Mock
+    FutureCallback<Row> callback2;
+    @Mock
+    FutureCallback<Row> callback3;
+    @Captor
+    ArgumentCaptor<Handler<Void>> tickCaptor;
+    @Captor
+    ArgumentCaptor<FutureCallback<ResultSet>> resultCaptor;
+
+    @Before
+    public void setUp() throws Exception {
+
+        when(session.getVertx()).thenReturn(vertx);
+        when(session.getMetadata()).thenReturn(metadata);
+        when(select.getVariables()).thenReturn(variables);
+        when(select.getQueryKeyspace()).thenReturn("test");
+        when(variables.size()).thenReturn(1);
+        when(selectIn.bind(any())).thenReturn(statementIn);
+
+        mockKey("a", host1);
+        mockKey("b", host1);
+        mockKey("c", host2);
+
+        when(row1.getBytesUnsafe("id")).thenReturn(bytes("a"));
+        when(row2.getBytesUnsafe("id")).thenReturn(bytes("b"));
+
+        loader = new RowLoader(session, select, selectIn, "id");
+    }
+
+    private ByteBuffer bytes(String key) {
+        return ByteBuffer.wrap(key.getBytes());
+    }
+
+    private void mockKey(String key, Host host) {
+        BoundStatement bound = mock(BoundStatement.class);
+        when(select.bind(eq(key))).thenReturn(bound);
+        when(bound.getBytesUnsafe(0)).thenReturn(bytes(key));
+        when(bound.getRoutingKey()).thenReturn(bytes(key));
+        when(metadata.getReplicas(anyString(), eq(bytes(key)))).thenReturn(ImmutableSet.of(host));
+    }
+
+    @Test
+    public void testLoad_Grouped_By_Replicas() throws Exception {
+
+        loader.load("a", callback1);
+        loader.load("b", callback2);
+        loader.load("a", callback3);
+        verify(vertx, times(1)).runOnContext(tickCaptor.capture());
+        verify(session, never()).executeAsync(any(Statement.class), any());
+
+        tickCaptor.getValue().handle(null);
+
+        // One IN query for the keys sharing replicas
+        verify(selectIn).bind(eq(Arrays.asList("a", "b")));
+        verify(session).executeAsync(eq(statementIn), resultCaptor.capture());
+
+        // The first row of a key wins, like a single key read
+        Row row3 = mock(Row.class);
+        when(row3.getBytesUnsafe("id")).thenReturn(bytes("a"));
+        when(resultSet.getAvailableWithoutFetching()).thenReturn(3);
+        when(resultSet.isFullyFetched()).thenReturn(true);
+        when(resultSet.one()).thenReturn(row2, row1, row3);
+        resultCaptor.getValue().onSuccess(resultSet);
+
+        verify(callback1).onSuccess(eq(row1));
+        verify(callback2).onSuccess(eq(row2));
+        verify(callback3).onSuccess(eq(row1));
+        verify(resultSet, never()).iterator();
+
+    }
+
+    @Test
+    public void testLoad_Grouped_More_Pages() throws Exception {
+
+        loader.load("a", callback1);
+        loader.load("b", callback2);
+        verify(vertx).runOnContext(tickCaptor.capture());
+        tickCaptor.getValue().handle(null);
+
+        verify(session).executeAsync(eq(statementIn), resultCaptor.capture());
+
+        // Only the fetched page is read, the key without a row in it is read on its own
+        when(resultSet.getAvailableWithoutFetching()).thenReturn(1);
+        when(resultSet.isFullyFetched()).thenReturn(false);
+        when(resultSet.one()).thenReturn(row1);
+        resultCaptor.getValue().onSuccess(resultSet);
+
+        verify(callback1).onSuccess(eq(row1));
+        verify(callback2, never()).onSuccess(any());
+        verify(resultSet, times(1)).one();
+
+        ResultSet single = mock(ResultSet.class);
+        when(single.one()).thenReturn(row2);
+        verify(session).executeAsync(eq(select.bind("b")), resultCaptor.capture());
+        resultCaptor.getValue().onSuccess(single);
+
+        verify(callback2).onSuccess(eq(row2));
+
+    }
+
+    @Test
+    public void testLoad_Fan_Out() throws Exception {
+
+        loader.load("a", callback1);
+        loader.load("c", callback2);
+        verify(vertx).runOnContext(tickCaptor.capture());
+        tickCaptor.getValue().handle(null);
+
+        verify(selectIn, never()).bind(any());
+        verify(session, times(2)).executeAsync(any(BoundStatement.class), resultCaptor.capture());
+
+        when(resultSet.one()).thenReturn(row1, (Row) null);
+        resultCaptor.getAllValues().get(0).onSuccess(resultSet);
+        resultCaptor.getAllValues().get(1).onSuccess(resultSet);
+
+        verify(callback1).onSuccess(eq(row1));
+        verify(callback2).onSuccess(null);
+
+    }
+
+    @Test
+    public void testLoad_Failure() throws Exception {
+
+        loader.load("a", callback1);
+        loader.load("b", callback2);
+        verify(vertx).runOnContext(tickCaptor.capture());
+        tickCaptor.getValue().handle(null);
+
+        verify(session).executeAsync(eq(statementIn), resultCaptor.capture());
+        Throwable t = new RuntimeException();
+        resultCaptor.getValue().onFailure(t);
+
+        verify(callback1).onFailure(eq(t));
+        verify(callback2).onFailure(eq(t));
+
+    }
+
+    @Test
+    public void testLoad_Without_In_Statement() throws Exception {
+
+        loader = new RowLoader(session, select);
+        loader.load("a", callback1);
+        loader.load("b", callback2);
+        verify(vertx).runOnContext(tickCaptor.capture());
+        tickCaptor.getValue().handle(null);
+
+        verify(session, times(2)).executeAsync(any(BoundStatement.class), any());
+        verify(metadata, never()).getReplicas(anyString(), any(ByteBuffer.class));
+
+    }
+
+}
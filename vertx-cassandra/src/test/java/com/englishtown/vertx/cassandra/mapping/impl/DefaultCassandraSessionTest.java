@@ -4,6 +4,12 @@ import com.datastax.driver.core.*;
 import com.datastax.driver.core.policies.LoadBalancingPolicy;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.englishtown.vertx.cassandra.CassandraConfigurator;
+import com.englishtown.vertx.cassandra.capture.CaptureOptions;
+import com.englishtown.vertx.cassandra.capture.CaptureReader;
+import com.englishtown.vertx.cassandra.capture.CapturedStatement;
+import com.englishtown.vertx.cassandra.guard.BlockingGuardOptions;
+import com.englishtown.vertx.cassandra.guard.GuardAction;
+import com.englishtown.vertx.cassandra.guard.QueryGuardOptions;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.vertx.core.*;
@@ -15,6 +21,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -22,6 +30,9 @@ import java.util.List;
 import java.util.concurrent.Executor;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
@@ -45,6 +56,8 @@ public class DefaultCassandraSessionTest {
     @Mock
     Cluster.Builder clusterBuilder;
     @Mock
+    Cluster.Builder newClusterBuilder;
+    @Mock
     Cluster cluster;
     @Mock
     Session session;
@@ -70,6 +83,12 @@ public class DefaultCassandraSessionTest {
     ArgumentCaptor<Handler<AsyncResult<Void>>> onReadyCaptor;
     @Captor
     ArgumentCaptor<Executor> executorCaptor;
+    @Captor
+    ArgumentCaptor<Handler<CassandraConfigurator>> onChangedCaptor;
+    @Captor
+    ArgumentCaptor<Handler<Future<Session>>> blockingCaptor;
+    @Captor
+    ArgumentCaptor<Handler<AsyncResult<Session>>> blockingResultCaptor;
 
     public static class TestLoadBalancingPolicy implements LoadBalancingPolicy {
         @Override
@@ -126,7 +145,12 @@ public class DefaultCassandraSessionTest {
         when(session.prepareAsync(any(RegularStatement.class))).thenReturn(preparedStatementFuture);
         when(session.prepareAsync(anyString())).thenReturn(preparedStatementFuture);
 
-        cassandraSession = new DefaultCassandraSession(clusterBuilder, configurator, vertx);
+        cassandraSession = new DefaultCassandraSession(clusterBuilder, configurator, vertx) {
+            @Override
+            protected Cluster.Builder createClusterBuilder() {
+                return newClusterBuilder;
+            }
+        };
 
         verify(configurator).onReady(onReadyCaptor.capture());
         onReadyCaptor.getValue().handle(Future.succeededFuture(null));
@@ -232,6 +256,148 @@ public class DefaultCassandraSessionTest {
 
     }
 
+    @Test
+    public void testExecute_Capture() throws Exception {
+
+        File file = File.createTempFile("capture", ".bin");
+        file.delete();
+        Configuration liveConfiguration = mock(Configuration.class);
+        ProtocolOptions protocolOptions = mock(ProtocolOptions.class);
+        when(cluster.getConfiguration()).thenReturn(liveConfiguration);
+        when(liveConfiguration.getProtocolOptions()).thenReturn(protocolOptions);
+        when(protocolOptions.getProtocolVersionEnum()).thenReturn(ProtocolVersion.V3);
+        when(session.executeAsync(any(Statement.class))).thenReturn(mock(ResultSetFuture.class));
+        when(session.getLoggedKeyspace()).thenReturn("test_keyspace");
+
+        cassandraSession.getCapture().setOptions(new CaptureOptions().setFile(file.getPath()));
+
+        try {
+            cassandraSession.execute("SELECT * FROM table;");
+            cassandraSession.executeAsync(new SimpleStatement("SELECT * FROM other"));
+            cassandraSession.getCapture().close().get();
+
+            try (CaptureReader reader = new CaptureReader(file.getPath())) {
+                CapturedStatement captured = reader.next().getStatement();
+                assertEquals("SELECT * FROM table;", captured.getQuery());
+                assertEquals("test_keyspace", captured.getKeyspace());
+                assertEquals("SELECT * FROM other", reader.next().getStatement().getQuery());
+                assertNull(reader.next());
+            }
+        } finally {
+            file.delete();
+        }
+
+    }
+
+    @Test
+    public void testExecuteAsync_Coalesced_Capture() throws Exception {
+
+        File file = File.createTempFile("capture", ".bin");
+        file.delete();
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ColumnDefinitions variables = mock(ColumnDefinitions.class);
+        BoundStatement statement = mock(BoundStatement.class);
+        when(preparedStatement.getQueryString()).thenReturn("SELECT * FROM table WHERE id = ?");
+        when(preparedStatement.getVariables()).thenReturn(variables);
+        when(variables.size()).thenReturn(1);
+        when(statement.preparedStatement()).thenReturn(preparedStatement);
+        when(statement.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[]{1}));
+        when(session.executeAsync(any(Statement.class))).thenReturn(mock(ResultSetFuture.class));
+        Configuration liveConfiguration = mock(Configuration.class);
+        ProtocolOptions protocolOptions = mock(ProtocolOptions.class);
+        when(cluster.getConfiguration()).thenReturn(liveConfiguration);
+        when(liveConfiguration.getProtocolOptions()).thenReturn(protocolOptions);
+        when(protocolOptions.getProtocolVersionEnum()).thenReturn(ProtocolVersion.V3);
+
+        cassandraSession.getRequestCoalescer().enable(preparedStatement);
+        cassandraSession.getCapture().setOptions(new CaptureOptions().setFile(file.getPath()));
+
+        try {
+            // The second read joins the first in flight and never reaches cassandra, so it isn't captured
+            cassandraSession.executeAsync(statement, callback);
+            cassandraSession.executeAsync(statement, callback);
+            cassandraSession.getCapture().close().get();
+
+            verify(session).executeAsync(statement);
+            try (CaptureReader reader = new CaptureReader(file.getPath())) {
+                assertEquals("SELECT * FROM table WHERE id = ?", reader.next().getStatement().getQuery());
+                assertNull(reader.next());
+            }
+        } finally {
+            file.delete();
+        }
+
+    }
+
+    @Test
+    public void testExecuteAsync_Future_Coalesced() throws Exception {
+
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ColumnDefinitions variables = mock(ColumnDefinitions.class);
+        BoundStatement statement = mock(BoundStatement.class);
+        when(preparedStatement.getQueryString()).thenReturn("SELECT * FROM table WHERE id = ?");
+        when(preparedStatement.getVariables()).thenReturn(variables);
+        when(variables.size()).thenReturn(1);
+        when(statement.preparedStatement()).thenReturn(preparedStatement);
+        when(statement.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[]{1}));
+        ResultSetFuture future = mock(ResultSetFuture.class);
+        when(session.executeAsync(any(Statement.class))).thenReturn(future);
+
+        // Not enabled, the driver's future is returned as is
+        assertSame(future, cassandraSession.executeAsync(statement));
+
+        // The future variant shares the in-flight read like the callback variant
+        cassandraSession.getRequestCoalescer().enable(preparedStatement);
+        ResultSetFuture f1 = cassandraSession.executeAsync(statement);
+        ResultSetFuture f2 = cassandraSession.executeAsync(statement);
+
+        verify(session, times(2)).executeAsync(statement);
+        assertNotSame(f1, f2);
+        assertEquals(1, cassandraSession.getRequestCoalescer().getCoalescedCount());
+
+    }
+
+    @Test
+    public void testExecute_Blocking_Guard() throws Exception {
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(session.execute(anyString())).thenReturn(resultSet);
+        when(resultSet.isFullyFetched()).thenReturn(true);
+        when(resultSet.one()).thenReturn(mock(Row.class));
+
+        cassandraSession.getBlockingGuard().setOptions(new BlockingGuardOptions().setAction(GuardAction.REJECT));
+
+        // Not on an event loop thread, so the call goes through but its results are guarded
+        ResultSet result = cassandraSession.execute("SELECT * FROM table;");
+        assertNotSame(resultSet, result);
+        result.one();
+        verify(resultSet).one();
+        assertEquals(0, cassandraSession.getMetricRegistry().timer("blocking-guard.execute").getCount());
+
+    }
+
+    @Test
+    public void testExecuteAsync_Future_Blocking_Guard() throws Exception {
+
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetFuture future = mock(ResultSetFuture.class);
+        when(session.executeAsync(anyString())).thenReturn(future);
+        when(future.getUninterruptibly()).thenReturn(resultSet);
+        when(resultSet.isFullyFetched()).thenReturn(true);
+        when(resultSet.one()).thenReturn(mock(Row.class));
+
+        assertSame(future, cassandraSession.executeAsync("SELECT * FROM table;"));
+
+        // Results of the future variants are guarded like those of the callback variants
+        cassandraSession.getBlockingGuard().setOptions(new BlockingGuardOptions());
+        ResultSetFuture guarded = cassandraSession.executeAsync("SELECT * FROM table;");
+        ResultSet result = guarded.getUninterruptibly();
+        assertNotSame(resultSet, result);
+        result.one();
+        verify(resultSet).one();
+
+    }
+
     @Test
     public void testPrepareAsync_Statement() throws Exception {
         RegularStatement statement = QueryBuilder
@@ -270,6 +436,26 @@ public class DefaultCassandraSessionTest {
         verify(session).prepare(eq(query));
     }
 
+    @Test
+    public void testPrepare_Query_Guard() throws Exception {
+        String query = "SELECT * FROM ks.table";
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        KeyspaceMetadata keyspaceMetadata = mock(KeyspaceMetadata.class);
+        when(session.prepare(query)).thenReturn(preparedStatement);
+        when(preparedStatement.getQueryString()).thenReturn(query);
+        when(metadata.getKeyspace("ks")).thenReturn(keyspaceMetadata);
+        when(keyspaceMetadata.getTable("table")).thenReturn(mock(TableMetadata.class));
+
+        cassandraSession.getQueryGuard().setOptions(new QueryGuardOptions().setAction(GuardAction.REJECT));
+
+        try {
+            cassandraSession.prepare(query);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
     @Test
     public void testGetMetadata() throws Exception {
 
@@ -277,6 +463,122 @@ public class DefaultCassandraSessionTest {
 
     }
 
+    @Test
+    public void testReconfigure_Live() throws Exception {
+
+        PoolingOptions poolingOptions = new PoolingOptions()
+                .setMaxConnectionsPerHost(HostDistance.LOCAL, 20)
+                .setCoreConnectionsPerHost(HostDistance.LOCAL, 10)
+                .setMaxSimultaneousRequestsPerHostThreshold(HostDistance.LOCAL, 500);
+        when(configurator.getPoolingOptions()).thenReturn(poolingOptions);
+        QueryOptions queryOptions = new QueryOptions()
+                .setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM)
+                .setFetchSize(100);
+        when(configurator.getQueryOptions()).thenReturn(queryOptions);
+
+        verify(configurator).onChanged(onChangedCaptor.capture());
+        onChangedCaptor.getValue().handle(configurator);
+
+        PoolingOptions livePooling = configuration.getPoolingOptions();
+        assertEquals(10, livePooling.getCoreConnectionsPerHost(HostDistance.LOCAL));
+        assertEquals(20, livePooling.getMaxConnectionsPerHost(HostDistance.LOCAL));
+        assertEquals(500, livePooling.getMaxSimultaneousRequestsPerHostThreshold(HostDistance.LOCAL));
+
+        QueryOptions liveQuery = configuration.getQueryOptions();
+        assertEquals(ConsistencyLevel.LOCAL_QUORUM, liveQuery.getConsistencyLevel());
+        assertEquals(100, liveQuery.getFetchSize());
+
+        verify(vertx, never()).executeBlocking(any(), any());
+        verify(cluster, times(1)).connect();
+
+    }
+
+    @Test
+    public void testReconfigure_Live_Keeps_Runtime_Options() throws Exception {
+
+        QueryGuardOptions queryGuardOptions = new QueryGuardOptions().setAction(GuardAction.REJECT);
+        BlockingGuardOptions blockingGuardOptions = new BlockingGuardOptions().setAction(GuardAction.REJECT);
+        cassandraSession.getQueryGuard().setOptions(queryGuardOptions);
+        cassandraSession.getBlockingGuard().setOptions(blockingGuardOptions);
+        when(configurator.getPoolingOptions()).thenReturn(new PoolingOptions());
+
+        // A pooling only change leaves the unchanged guard sections alone
+        verify(configurator).onChanged(onChangedCaptor.capture());
+        onChangedCaptor.getValue().handle(configurator);
+
+        assertEquals(queryGuardOptions, cassandraSession.getQueryGuard().getOptions());
+        assertEquals(blockingGuardOptions, cassandraSession.getBlockingGuard().getOptions());
+
+        // A changed section is applied
+        QueryGuardOptions changed = new QueryGuardOptions();
+        when(configurator.getQueryGuardOptions()).thenReturn(changed);
+        onChangedCaptor.getValue().handle(configurator);
+
+        assertEquals(changed, cassandraSession.getQueryGuard().getOptions());
+        assertEquals(blockingGuardOptions, cassandraSession.getBlockingGuard().getOptions());
+
+    }
+
+    @Test
+    public void testReconfigure_Rebuild() throws Exception {
+
+        seeds.add("127.0.0.2");
+        QueryGuardOptions queryGuardOptions = new QueryGuardOptions();
+        when(configurator.getQueryGuardOptions()).thenReturn(queryGuardOptions);
+        BlockingGuardOptions blockingGuardOptions = new BlockingGuardOptions();
+        when(configurator.getBlockingGuardOptions()).thenReturn(blockingGuardOptions);
+
+        verify(configurator).onChanged(onChangedCaptor.capture());
+        onChangedCaptor.getValue().handle(configurator);
+
+        verify(vertx).executeBlocking(blockingCaptor.capture(), blockingResultCaptor.capture());
+
+        // Guard options don't wait for the new cluster
+        assertEquals(queryGuardOptions, cassandraSession.getQueryGuard().getOptions());
+        assertEquals(blockingGuardOptions, cassandraSession.getBlockingGuard().getOptions());
+
+        // Swap in a new session once connected in the background
+        Cluster newCluster = mock(Cluster.class);
+        Session newSession = mock(Session.class);
+        when(newSession.getCluster()).thenReturn(newCluster);
+        when(newCluster.getConfiguration()).thenReturn(configuration);
+
+        blockingResultCaptor.getValue().handle(Future.succeededFuture(newSession));
+
+        assertEquals(newCluster, cassandraSession.getCluster());
+        assertEquals(newSession, cassandraSession.getSession());
+        verify(cluster).closeAsync();
+        verify(closeFuture, never()).force();
+
+    }
+
+    @Test
+    public void testReconfigure_Rebuild_Reprepares() throws Exception {
+
+        String query = "SELECT * FROM ks.table where id = ?";
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(preparedStatement.getQueryString()).thenReturn(query);
+        when(session.prepare(query)).thenReturn(preparedStatement);
+        cassandraSession.prepare(query);
+
+        Cluster newCluster = mock(Cluster.class);
+        Session newSession = mock(Session.class);
+        when(newClusterBuilder.build()).thenReturn(newCluster);
+        when(newCluster.connect()).thenReturn(newSession);
+
+        seeds.add("127.0.0.2");
+        verify(configurator).onChanged(onChangedCaptor.capture());
+        onChangedCaptor.getValue().handle(configurator);
+        verify(vertx).executeBlocking(blockingCaptor.capture(), blockingResultCaptor.capture());
+
+        // Prepared on the new cluster before it is swapped in
+        Future<Session> future = Future.future();
+        blockingCaptor.getValue().handle(future);
+        verify(newSession).prepare(query);
+        assertEquals(newSession, future.result());
+
+    }
+
     @Test
     public void testClose() throws Exception {
         cassandraSession.close();
@@ -2,6 +2,11 @@ package com.englishtown.vertx.cassandra.mapping.impl;
 
 import com.datastax.driver.core.*;
 import com.datastax.driver.core.policies.*;
+import com.englishtown.vertx.cassandra.cache.ResultCacheOptions;
+import com.englishtown.vertx.cassandra.capture.CaptureOptions;
+import com.englishtown.vertx.cassandra.guard.BlockingGuardOptions;
+import com.englishtown.vertx.cassandra.guard.GuardAction;
+import com.englishtown.vertx.cassandra.guard.QueryGuardOptions;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
@@ -221,6 +226,8 @@ public class JsonCassandraConfiguratorTest {
                         .put("min_simultaneous_requests_remote", 6)
                         .put("max_simultaneous_requests_local", 7)
                         .put("max_simultaneous_requests_remote", 8)
+                        .put("max_simultaneous_requests_per_host_local", 900)
+                        .put("max_simultaneous_requests_per_host_remote", 200)
         );
 
         configurator = new JsonCassandraConfigurator(vertx);
@@ -235,6 +242,8 @@ public class JsonCassandraConfiguratorTest {
         assertEquals(6, options.getMinSimultaneousRequestsPerConnectionThreshold(HostDistance.REMOTE));
         assertEquals(7, options.getMaxSimultaneousRequestsPerConnectionThreshold(HostDistance.LOCAL));
         assertEquals(8, options.getMaxSimultaneousRequestsPerConnectionThreshold(HostDistance.REMOTE));
+        assertEquals(900, options.getMaxSimultaneousRequestsPerHostThreshold(HostDistance.LOCAL));
+        assertEquals(200, options.getMaxSimultaneousRequestsPerHostThreshold(HostDistance.REMOTE));
 
     }
 
@@ -270,6 +279,103 @@ public class JsonCassandraConfiguratorTest {
 
     }
 
+    @Test
+    public void testGetResultCacheProfiles() throws Exception {
+
+        JsonCassandraConfigurator configurator = new JsonCassandraConfigurator(vertx);
+        assertTrue(configurator.getResultCacheProfiles().isEmpty());
+
+        config.put(JsonCassandraConfigurator.CONFIG_RESULT_CACHE, new JsonObject()
+                        .put("default", new JsonObject())
+                        .put("hot", new JsonObject().put("max_bytes", 1024).put("ttl_millis", 500))
+        );
+
+        configurator = new JsonCassandraConfigurator(vertx);
+        assertEquals(2, configurator.getResultCacheProfiles().size());
+
+        ResultCacheOptions options = configurator.getResultCacheProfiles().get("default");
+        assertEquals(ResultCacheOptions.DEFAULT_MAX_BYTES, options.getMaxBytes());
+        assertEquals(ResultCacheOptions.DEFAULT_TTL_MILLIS, options.getTtlMillis());
+
+        options = configurator.getResultCacheProfiles().get("hot");
+        assertEquals(1024, options.getMaxBytes());
+        assertEquals(500, options.getTtlMillis());
+
+    }
+
+    @Test
+    public void testGetQueryGuardOptions() throws Exception {
+
+        JsonCassandraConfigurator configurator = new JsonCassandraConfigurator(vertx);
+        assertNull(configurator.getQueryGuardOptions());
+
+        config.put(JsonCassandraConfigurator.CONFIG_QUERY_GUARD, new JsonObject());
+        configurator = new JsonCassandraConfigurator(vertx);
+        assertEquals(GuardAction.LOG, configurator.getQueryGuardOptions().getAction());
+
+        config.put(JsonCassandraConfigurator.CONFIG_QUERY_GUARD, new JsonObject().put("action", "reject"));
+        configurator = new JsonCassandraConfigurator(vertx);
+        assertEquals(GuardAction.REJECT, configurator.getQueryGuardOptions().getAction());
+
+        try {
+            config.put(JsonCassandraConfigurator.CONFIG_QUERY_GUARD, new JsonObject().put("action", "ignore"));
+            new JsonCassandraConfigurator(vertx);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+    }
+
+    @Test
+    public void testGetCaptureOptions() throws Exception {
+
+        JsonCassandraConfigurator configurator = new JsonCassandraConfigurator(vertx);
+        assertNull(configurator.getCaptureOptions());
+
+        config.put(JsonCassandraConfigurator.CONFIG_CAPTURE, new JsonObject()
+                .put("file", "/tmp/workload.capture")
+                .put("value_sample_rate", 0.5));
+        configurator = new JsonCassandraConfigurator(vertx);
+        CaptureOptions options = configurator.getCaptureOptions();
+        assertEquals("/tmp/workload.capture", options.getFile());
+        assertEquals(0.5, options.getValueSampleRate(), 0);
+        assertEquals(CaptureOptions.DEFAULT_MAX_PENDING, options.getMaxPending());
+
+        try {
+            config.put(JsonCassandraConfigurator.CONFIG_CAPTURE, new JsonObject());
+            new JsonCassandraConfigurator(vertx);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+    }
+
+    @Test
+    public void testGetBlockingGuardOptions() throws Exception {
+
+        JsonCassandraConfigurator configurator = new JsonCassandraConfigurator(vertx);
+        assertNull(configurator.getBlockingGuardOptions());
+
+        config.put(JsonCassandraConfigurator.CONFIG_BLOCKING_GUARD, new JsonObject());
+        configurator = new JsonCassandraConfigurator(vertx);
+        assertEquals(GuardAction.LOG, configurator.getBlockingGuardOptions().getAction());
+
+        config.put(JsonCassandraConfigurator.CONFIG_BLOCKING_GUARD, new JsonObject().put("action", "reject"));
+        configurator = new JsonCassandraConfigurator(vertx);
+        assertEquals(GuardAction.REJECT, configurator.getBlockingGuardOptions().getAction());
+
+        try {
+            config.put(JsonCassandraConfigurator.CONFIG_BLOCKING_GUARD, new JsonObject().put("action", "offload"));
+            new JsonCassandraConfigurator(vertx);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+    }
+
     @Test
     public void testGetQueryOptions() throws Exception {
 
@@ -318,6 +424,10 @@ public class JsonCassandraConfiguratorTest {
         configurator = new JsonCassandraConfigurator(vertx);
         assertEquals(ConsistencyLevel.TWO, configurator.getQueryOptions().getConsistencyLevel());
 
+        config.put(JsonCassandraConfigurator.CONFIG_FETCH_SIZE, 500);
+        configurator = new JsonCassandraConfigurator(vertx);
+        assertEquals(500, configurator.getQueryOptions().getFetchSize());
+
         try {
             config.put(JsonCassandraConfigurator.CONFIG_CONSISTENCY_LEVEL, "invalid consistency");
             new JsonCassandraConfigurator(vertx);
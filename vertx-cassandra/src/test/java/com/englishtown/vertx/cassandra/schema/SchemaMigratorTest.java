@@ -0,0 +1,212 @@
+package com.englishtown.vertx.cassandra.schema;
+
+import com.datastax.driver.core.*;
+import com.englishtown.vertx.cassandra.CassandraSession;
+import com.englishtown.vertx.cassandra.keyspacebuilder.KeyspaceBuilder;
+import com.englishtown.vertx.cassandra.tablebuilder.CreateIndex;
+import com.englishtown.vertx.cassandra.tablebuilder.CreateTable;
+import com.englishtown.vertx.cassandra.tablebuilder.TableBuilder;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SchemaMigrator}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SchemaMigratorTest {
+
+    private SchemaMigrator migrator;
+    private CreateTable users = TableBuilder.create("test_keyspace", "users")
+            .column("id", "text")
+            .column("name", "text")
+            .primaryKey("id");
+    private CreateTable events = TableBuilder.create("test_keyspace", "events")
+            .column("id", "timeuuid")
+            .primaryKey("id");
+
+    @Mock
+    private CassandraSession session;
+    @Mock
+    private Metadata metadata;
+    @Mock
+    private KeyspaceMetadata keyspaceMetadata;
+    @Mock
+    private ResultSetFuture resultSetFuture;
+    @Mock
+    private ResultSet resultSet;
+
+    @Before
+    public void setUp() throws Exception {
+
+        when(session.getMetadata()).thenReturn(metadata);
+        when(session.executeAsync(any(Statement.class))).thenReturn(resultSetFuture);
+        complete(resultSetFuture, resultSet);
+
+        Map<String, String> replication = new HashMap<>();
+        replication.put("class", "org.apache.cassandra.locator.SimpleStrategy");
+        replication.put("replication_factor", "1");
+        when(keyspaceMetadata.getReplication()).thenReturn(replication);
+
+        migrator = new SchemaMigrator(session, "test_keyspace")
+                .keyspace(KeyspaceBuilder.create("test_keyspace").simpleStrategy(1))
+                .table(users)
+                .table(events);
+
+    }
+
+    private void complete(ResultSetFuture future, ResultSet resultSet) throws Exception {
+        when(future.get()).thenReturn(resultSet);
+        when(future.isDone()).thenReturn(true);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(future).addListener(any(), any());
+    }
+
+    private TableMetadata table(String name) {
+        TableMetadata table = mock(TableMetadata.class);
+        when(keyspaceMetadata.getTable(name)).thenReturn(table);
+        return table;
+    }
+
+    private void column(TableMetadata table, String name, DataType type) {
+        ColumnMetadata column = mock(ColumnMetadata.class);
+        when(column.getType()).thenReturn(type);
+        when(table.getColumn(name)).thenReturn(column);
+    }
+
+    private void trackingTable() {
+        TableMetadata table = table("schema_migrations");
+        column(table, "version", DataType.text());
+        column(table, "applied_at", DataType.timestamp());
+        column(table, "statements", DataType.list(DataType.text()));
+    }
+
+    @Test
+    public void testMigrate_Up_To_Date() throws Exception {
+
+        when(metadata.getKeyspace("test_keyspace")).thenReturn(keyspaceMetadata);
+        trackingTable();
+        TableMetadata usersTable = table("users");
+        column(usersTable, "id", DataType.text());
+        column(usersTable, "name", DataType.text());
+        column(table("events"), "id", DataType.timeuuid());
+
+        List<String> applied = migrator.migrate("1").get();
+
+        assertTrue(applied.isEmpty());
+        verify(session, never()).executeAsync(any(Statement.class));
+        verify(session, never()).executeAsync(anyString());
+
+    }
+
+    @Test
+    public void testMigrate() throws Exception {
+
+        List<String> applied = migrator.migrate("1").get();
+
+        assertEquals(4, applied.size());
+        assertEquals("CREATE KEYSPACE test_keyspace WITH REPLICATION = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }", applied.get(0));
+        assertEquals(users.toString(), applied.get(2));
+        assertEquals(events.toString(), applied.get(3));
+
+        ArgumentCaptor<Statement> captor = ArgumentCaptor.forClass(Statement.class);
+        verify(session, times(5)).executeAsync(captor.capture());
+        List<Statement> statements = captor.getAllValues();
+        assertEquals(applied.get(0), statements.get(0).toString());
+        assertTrue(((RegularStatement) statements.get(4)).getQueryString().startsWith("INSERT INTO test_keyspace.schema_migrations"));
+
+        // Schema agreement is left to the driver
+        verify(session, never()).executeAsync(anyString());
+
+    }
+
+    @Test
+    public void testMigrate_Alter_Keyspace() throws Exception {
+
+        when(metadata.getKeyspace("test_keyspace")).thenReturn(keyspaceMetadata);
+        when(keyspaceMetadata.getReplication()).thenReturn(Collections.singletonMap("class", "org.apache.cassandra.locator.NetworkTopologyStrategy"));
+
+        List<String> applied = migrator.migrate("1").get();
+
+        assertEquals("ALTER KEYSPACE test_keyspace WITH REPLICATION = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }", applied.get(0));
+
+    }
+
+    @Test
+    public void testMigrate_Durable_Writes() throws Exception {
+
+        // Chained from outside the keyspacebuilder package
+        migrator.keyspace(KeyspaceBuilder.create("test_keyspace").simpleStrategy(1).durableWrites(false));
+        when(metadata.getKeyspace("test_keyspace")).thenReturn(keyspaceMetadata);
+        when(keyspaceMetadata.isDurableWrites()).thenReturn(true);
+
+        List<String> applied = migrator.migrate("1").get();
+
+        assertEquals("ALTER KEYSPACE test_keyspace WITH REPLICATION = { 'class' : 'SimpleStrategy', 'replication_factor' : 1 }"
+                + " AND DURABLE_WRITES = false", applied.get(0));
+
+    }
+
+    @Test
+    public void testMigrate_Parallel_Tables() throws Exception {
+
+        when(metadata.getKeyspace("test_keyspace")).thenReturn(keyspaceMetadata);
+        trackingTable();
+        column(table("users"), "id", DataType.text());
+
+        // The users table waits on a pending add column, the new events table is not held up by it
+        ResultSetFuture pending = mock(ResultSetFuture.class);
+        when(session.executeAsync(any(Statement.class))).thenReturn(pending, resultSetFuture);
+
+        migrator.setMaxConcurrency(2).migrate("2");
+
+        ArgumentCaptor<Statement> captor = ArgumentCaptor.forClass(Statement.class);
+        verify(session, times(2)).executeAsync(captor.capture());
+        assertEquals("ALTER TABLE test_keyspace.users ADD name text", captor.getAllValues().get(0).toString());
+        assertEquals(events.toString(), captor.getAllValues().get(1).toString());
+
+    }
+
+    @Test
+    public void testMigrate_Index() throws Exception {
+
+        CreateIndex index = TableBuilder.createIndex("test_keyspace", "users", "name").name("users_name_idx");
+        migrator.index(index);
+
+        List<String> applied = migrator.migrate("1").get();
+
+        // The index follows its table in the same group
+        assertEquals(5, applied.size());
+        assertEquals(users.toString(), applied.get(2));
+        assertEquals(index.toString(), applied.get(3));
+
+    }
+
+    @Test
+    public void testMigrate_Tables_Wait_For_Keyspaces() throws Exception {
+
+        ResultSetFuture pending = mock(ResultSetFuture.class);
+        when(session.executeAsync(any(Statement.class))).thenReturn(pending);
+
+        ListenableFuture<List<String>> result = migrator.migrate("1");
+
+        // The tables are only created once the keyspace statement completed
+        verify(session, times(1)).executeAsync(any(Statement.class));
+        assertFalse(result.isDone());
+
+    }
+
+}
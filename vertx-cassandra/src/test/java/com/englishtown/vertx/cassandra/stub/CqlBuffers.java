@@ -0,0 +1,187 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import com.datastax.driver.core.DataType;
+import io.netty.buffer.ByteBuf;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the native protocol notations ([string], [bytes], [option]...)
+ */
+final class CqlBuffers {
+
+    private CqlBuffers() {
+    }
+
+    static String readString(ByteBuf in) {
+        return readString(in, in.readUnsignedShort());
+    }
+
+    static String readLongString(ByteBuf in) {
+        return readString(in, in.readInt());
+    }
+
+    private static String readString(ByteBuf in, int length) {
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    static byte[] readShortBytes(ByteBuf in) {
+        byte[] bytes = new byte[in.readUnsignedShort()];
+        in.readBytes(bytes);
+        return bytes;
+    }
+
+    static ByteBuffer readValue(ByteBuf in) {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readBytes(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    static List<ByteBuffer> readValues(ByteBuf in) {
+        int count = in.readUnsignedShort();
+        List<ByteBuffer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readValue(in));
+        }
+        return values;
+    }
+
+    static Map<String, String> readStringMap(ByteBuf in) {
+        int count = in.readUnsignedShort();
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    static List<String> readStringList(ByteBuf in) {
+        int count = in.readUnsignedShort();
+        List<String> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(readString(in));
+        }
+        return list;
+    }
+
+    static void writeString(ByteBuf out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    static void writeShortBytes(ByteBuf out, byte[] bytes) {
+        out.writeShort(bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    static void writeValue(ByteBuf out, ByteBuffer value) {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.remaining());
+        out.writeBytes(value.duplicate());
+    }
+
+    static void writeStringMultimap(ByteBuf out, Map<String, List<String>> map) {
+        out.writeShort(map.size());
+        for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeShort(entry.getValue().size());
+            for (String value : entry.getValue()) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    static void writeInet(ByteBuf out, InetSocketAddress address) {
+        byte[] bytes = address.getAddress().getAddress();
+        out.writeByte(bytes.length);
+        out.writeBytes(bytes);
+        out.writeInt(address.getPort());
+    }
+
+    static void writeType(ByteBuf out, DataType type) {
+        switch (type.getName()) {
+            case CUSTOM:
+                out.writeShort(0x0000);
+                writeString(out, type.getCustomTypeClassName());
+                return;
+            case ASCII:
+                out.writeShort(0x0001);
+                return;
+            case BIGINT:
+                out.writeShort(0x0002);
+                return;
+            case BLOB:
+                out.writeShort(0x0003);
+                return;
+            case BOOLEAN:
+                out.writeShort(0x0004);
+                return;
+            case COUNTER:
+                out.writeShort(0x0005);
+                return;
+            case DECIMAL:
+                out.writeShort(0x0006);
+                return;
+            case DOUBLE:
+                out.writeShort(0x0007);
+                return;
+            case FLOAT:
+                out.writeShort(0x0008);
+                return;
+            case INT:
+                out.writeShort(0x0009);
+                return;
+            case TIMESTAMP:
+                out.writeShort(0x000B);
+                return;
+            case UUID:
+                out.writeShort(0x000C);
+                return;
+            case TEXT:
+            case VARCHAR:
+                out.writeShort(0x000D);
+                return;
+            case VARINT:
+                out.writeShort(0x000E);
+                return;
+            case TIMEUUID:
+                out.writeShort(0x000F);
+                return;
+            case INET:
+                out.writeShort(0x0010);
+                return;
+            case LIST:
+                out.writeShort(0x0020);
+                writeType(out, type.getTypeArguments().get(0));
+                return;
+            case MAP:
+                out.writeShort(0x0021);
+                writeType(out, type.getTypeArguments().get(0));
+                writeType(out, type.getTypeArguments().get(1));
+                return;
+            case SET:
+                out.writeShort(0x0022);
+                writeType(out, type.getTypeArguments().get(0));
+                return;
+            default:
+                throw new IllegalArgumentException("Unsupported type " + type);
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The native protocol errors a {@link StubCassandra} can respond with.  The additional error details are filled in
+ * with plausible values for the request consistency.  UNPREPARED is not scriptable, nodes answer with it on their
+ * own when executing an id they have not prepared.
+ */
+public enum ErrorCode {
+
+    SERVER_ERROR(0x0000),
+    PROTOCOL_ERROR(0x000A),
+    UNAVAILABLE(0x1000) {
+        @Override
+        void writeDetails(ByteBuf out, int consistency) {
+            out.writeShort(consistency);
+            out.writeInt(2);
+            out.writeInt(1);
+        }
+    },
+    OVERLOADED(0x1001),
+    IS_BOOTSTRAPPING(0x1002),
+    WRITE_TIMEOUT(0x1100) {
+        @Override
+        void writeDetails(ByteBuf out, int consistency) {
+            out.writeShort(consistency);
+            out.writeInt(0);
+            out.writeInt(1);
+            CqlBuffers.writeString(out, "SIMPLE");
+        }
+    },
+    READ_TIMEOUT(0x1200) {
+        @Override
+        void writeDetails(ByteBuf out, int consistency) {
+            out.writeShort(consistency);
+            out.writeInt(0);
+            out.writeInt(1);
+            out.writeByte(0);
+        }
+    },
+    SYNTAX_ERROR(0x2000),
+    UNAUTHORIZED(0x2100),
+    INVALID(0x2200),
+    CONFIG_ERROR(0x2300),
+    ALREADY_EXISTS(0x2400) {
+        @Override
+        void writeDetails(ByteBuf out, int consistency) {
+            CqlBuffers.writeString(out, StubCassandra.DEFAULT_KEYSPACE);
+            CqlBuffers.writeString(out, "");
+        }
+    };
+
+    private final int code;
+
+    ErrorCode(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    void writeDetails(ByteBuf out, int consistency) {
+    }
+
+}
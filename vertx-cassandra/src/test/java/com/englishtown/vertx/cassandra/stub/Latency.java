@@ -0,0 +1,71 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A distribution of {@link StubCassandra} response latencies
+ */
+@FunctionalInterface
+public interface Latency {
+
+    /**
+     * Samples the next latency
+     *
+     * @return the latency in nanoseconds
+     */
+    long nextNanos();
+
+    /**
+     * @return no added latency, responses are written as soon as the request is read
+     */
+    static Latency none() {
+        return () -> 0;
+    }
+
+    /**
+     * @param latency the latency of every response
+     * @param unit    the latency unit
+     * @return a constant latency
+     */
+    static Latency fixed(long latency, TimeUnit unit) {
+        long nanos = unit.toNanos(latency);
+        return () -> nanos;
+    }
+
+    /**
+     * @param min  the minimum latency
+     * @param max  the maximum latency
+     * @param unit the latency unit
+     * @return latencies spread evenly between min and max
+     */
+    static Latency uniform(long min, long max, TimeUnit unit) {
+        long minNanos = unit.toNanos(min);
+        long maxNanos = unit.toNanos(max);
+        return () -> ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1);
+    }
+
+    /**
+     * @param mean the mean latency
+     * @param unit the latency unit
+     * @return exponentially distributed latencies, as of a server at a steady load
+     */
+    static Latency exponential(long mean, TimeUnit unit) {
+        double meanNanos = unit.toNanos(mean);
+        return () -> (long) (-meanNanos * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * @param median the median latency
+     * @param p99    the 99th percentile latency
+     * @param unit   the latency unit
+     * @return log-normally distributed latencies, with the long tail of real storage nodes
+     */
+    static Latency logNormal(long median, long p99, TimeUnit unit) {
+        double medianNanos = unit.toNanos(median);
+        // 2.326 is the 99th percentile of the standard normal distribution
+        double sigma = Math.log((double) unit.toNanos(p99) / medianNanos) / 2.326;
+        return () -> (long) (medianNanos * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+}
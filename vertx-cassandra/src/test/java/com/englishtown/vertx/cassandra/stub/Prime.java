@@ -0,0 +1,185 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import com.datastax.driver.core.DataType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * A scripted {@link StubCassandra} response for the queries it matches.  A prime answers with rows, or with an error,
+ * optionally after its own latency and for a limited number of times.
+ * <p>
+ * Queries are matched on their text after whitespace is collapsed and a trailing semicolon removed, ignoring case.
+ * Prepared statements are matched on the text they were prepared with.
+ */
+public class Prime {
+
+    private final String query;
+    private final Pattern pattern;
+    private final LinkedHashMap<String, DataType> columns = new LinkedHashMap<>();
+    private final List<Object[]> rows = new ArrayList<>();
+    private LinkedHashMap<String, DataType> variables;
+    private ErrorCode error;
+    private String errorMessage;
+    private Latency latency;
+    private final AtomicInteger remaining = new AtomicInteger(-1);
+
+    private Prime(String query, Pattern pattern) {
+        this.query = query;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Primes an exact query
+     *
+     * @param query the CQL query
+     * @return a new {@link Prime}
+     */
+    public static Prime when(String query) {
+        return new Prime(normalize(query), null);
+    }
+
+    /**
+     * Primes every query matching a regular expression
+     *
+     * @param regex the regular expression, matched case insensitively against the whole normalized query
+     * @return a new {@link Prime}
+     */
+    public static Prime matching(String regex) {
+        return new Prime(null, Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL));
+    }
+
+    /**
+     * Adds a result column.  Without columns, a SELECT on a table registered with
+     * {@link StubCassandra#table(String, String, String[], DataType[])} returns that table's selected columns.
+     *
+     * @param name the column name
+     * @param type the column type
+     * @return the current {@link Prime}
+     */
+    public Prime column(String name, DataType type) {
+        columns.put(name, type);
+        return this;
+    }
+
+    /**
+     * Adds a result row
+     *
+     * @param values the column values in column order, as accepted by {@link DataType#serialize(Object,
+     *               com.datastax.driver.core.ProtocolVersion)}
+     * @return the current {@link Prime}
+     */
+    public Prime row(Object... values) {
+        rows.add(values);
+        return this;
+    }
+
+    /**
+     * Adds a bind variable returned when the query is prepared.  Without variables, they are inferred from the
+     * query and the registered table.
+     *
+     * @param name the variable name
+     * @param type the variable type
+     * @return the current {@link Prime}
+     */
+    public Prime variable(String name, DataType type) {
+        if (variables == null) {
+            variables = new LinkedHashMap<>();
+        }
+        variables.put(name, type);
+        return this;
+    }
+
+    /**
+     * Responds with an error instead of rows
+     *
+     * @param error   the error code
+     * @param message the error message
+     * @return the current {@link Prime}
+     */
+    public Prime error(ErrorCode error, String message) {
+        this.error = error;
+        this.errorMessage = message;
+        return this;
+    }
+
+    /**
+     * Delays the response, in place of the cluster latency
+     *
+     * @param latency the latency distribution
+     * @return the current {@link Prime}
+     */
+    public Prime latency(Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Limits how many requests the prime answers, after which the next matching prime (or the default response)
+     * takes over
+     *
+     * @param times the number of requests
+     * @return the current {@link Prime}
+     */
+    public Prime times(int times) {
+        remaining.set(times);
+        return this;
+    }
+
+    public LinkedHashMap<String, DataType> getColumns() {
+        return columns;
+    }
+
+    public List<Object[]> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    public LinkedHashMap<String, DataType> getVariables() {
+        return variables;
+    }
+
+    public ErrorCode getError() {
+        return error;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    boolean matches(String normalizedQuery) {
+        if (remaining.get() == 0) {
+            return false;
+        }
+        return pattern == null ? query.equalsIgnoreCase(normalizedQuery) : pattern.matcher(normalizedQuery).matches();
+    }
+
+    /**
+     * Takes one use of a limited prime
+     *
+     * @return false if the prime has been used up by a concurrent request
+     */
+    boolean use() {
+        int current;
+        do {
+            current = remaining.get();
+            if (current == 0) {
+                return false;
+            }
+        } while (current > 0 && !remaining.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    static String normalize(String query) {
+        String normalized = query.trim().replaceAll("\\s+", " ");
+        return normalized.endsWith(";") ? normalized.substring(0, normalized.length() - 1).trim() : normalized;
+    }
+
+}
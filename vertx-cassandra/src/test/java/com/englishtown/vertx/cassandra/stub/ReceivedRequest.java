@@ -0,0 +1,73 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import com.datastax.driver.core.ConsistencyLevel;
+
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * A user request received by a {@link StubCassandra} node.  Requests on the system tables are not recorded.
+ */
+public class ReceivedRequest {
+
+    public enum Type {
+        QUERY,
+        EXECUTE,
+        BATCH
+    }
+
+    private final Type type;
+    private final String query;
+    private final List<Object> values;
+    private final ConsistencyLevel consistency;
+    private final InetAddress node;
+
+    ReceivedRequest(Type type, String query, List<Object> values, ConsistencyLevel consistency, InetAddress node) {
+        this.type = type;
+        this.query = query;
+        this.values = values;
+        this.consistency = consistency;
+        this.node = node;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the query text, the prepared query text of an EXECUTE
+     *
+     * @return the query
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Returns the bound values, deserialized when the variable types are known and raw ByteBuffers otherwise
+     *
+     * @return the values
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    public ConsistencyLevel getConsistency() {
+        return consistency;
+    }
+
+    /**
+     * Returns the address of the node that received the request
+     *
+     * @return the node address
+     */
+    public InetAddress getNode() {
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + query + " " + values + " @ " + consistency;
+    }
+
+}
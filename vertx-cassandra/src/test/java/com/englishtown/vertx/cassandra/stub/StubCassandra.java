@@ -0,0 +1,284 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process stand-in for a cassandra cluster that speaks the native protocol v3, for tests and load tests that
+ * need the real driver but not a real cluster.
+ * <p>
+ * Each node listens on its own loopback address (127.0.0.1, 127.0.0.2...) on a shared ephemeral port, and answers
+ * the system table queries the driver needs to discover the cluster.  Other requests are answered from the
+ * {@link Prime}s, newest first, or with empty rows for a SELECT and a void result otherwise.  Nothing is stored:
+ * the responses are scripted, with a configurable {@link Latency} and error rate.
+ * <pre>
+ * StubCassandra cassandra = new StubCassandra(3).start();
+ * cassandra.table("ks", "users", new String[]{"id", "name"}, new DataType[]{DataType.text(), DataType.text()})
+ *         .prime(Prime.when("SELECT * FROM ks.users WHERE id = ?").row("1", "Alice"));
+ * Cluster cluster = cassandra.clusterBuilder().build();
+ * </pre>
+ */
+public class StubCassandra {
+
+    public static final String CLUSTER_NAME = "Stub Cluster";
+    public static final String DATA_CENTER = "dc1";
+    public static final String RACK = "rack1";
+    public static final String RELEASE_VERSION = "2.1.5";
+    public static final String PARTITIONER = "org.apache.cassandra.dht.Murmur3Partitioner";
+    static final String DEFAULT_KEYSPACE = "stub";
+
+    private final List<StubNode> nodes = new ArrayList<>();
+    private final Map<String, StubConnection.Table> tables = new ConcurrentHashMap<>();
+    private final List<Prime> primes = new CopyOnWriteArrayList<>();
+    private final Queue<ReceivedRequest> requests = new ConcurrentLinkedQueue<>();
+    private final UUID schemaVersion = UUID.randomUUID();
+    private EventLoopGroup eventLoopGroup;
+    private volatile Latency latency = Latency.none();
+    private volatile double errorRate;
+    private volatile ErrorCode error = ErrorCode.SERVER_ERROR;
+
+    /**
+     * Creates a single node cluster
+     */
+    public StubCassandra() {
+        this(1);
+    }
+
+    /**
+     * Creates a cluster
+     *
+     * @param nodeCount the number of nodes, at most 254
+     */
+    public StubCassandra(int nodeCount) {
+        if (nodeCount < 1 || nodeCount > 254) {
+            throw new IllegalArgumentException("nodeCount must be between 1 and 254");
+        }
+
+        // Evenly spaced murmur3 tokens, one per node
+        BigInteger range = BigInteger.ONE.shiftLeft(64).divide(BigInteger.valueOf(nodeCount));
+        for (int i = 0; i < nodeCount; i++) {
+            String token = BigInteger.valueOf(Long.MIN_VALUE).add(range.multiply(BigInteger.valueOf(i))).toString();
+            try {
+                nodes.add(new StubNode(this, InetAddress.getByAddress(new byte[]{127, 0, 0, (byte) (i + 1)}), token));
+            } catch (UnknownHostException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Starts all nodes.  The first node picks a free port which the others then share.
+     *
+     * @return the current {@link StubCassandra}
+     */
+    public synchronized StubCassandra start() {
+        if (eventLoopGroup == null) {
+            eventLoopGroup = new NioEventLoopGroup(Math.min(nodes.size(), Runtime.getRuntime().availableProcessors()));
+        }
+        int port = nodes.get(0).start().getPort();
+        for (StubNode node : nodes.subList(1, nodes.size())) {
+            node.setPort(port);
+            node.start();
+        }
+        return this;
+    }
+
+    /**
+     * Stops all nodes and releases the event loops
+     */
+    public synchronized void stop() {
+        nodes.forEach(StubNode::stop);
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+            eventLoopGroup = null;
+        }
+    }
+
+    /**
+     * Returns the native protocol port shared by all nodes
+     *
+     * @return the port, available once started
+     */
+    public int getPort() {
+        return nodes.get(0).getPort();
+    }
+
+    /**
+     * Returns the node addresses
+     *
+     * @return the contact points
+     */
+    public List<InetAddress> getContactPoints() {
+        List<InetAddress> contactPoints = new ArrayList<>();
+        for (StubNode node : nodes) {
+            contactPoints.add(node.getAddress());
+        }
+        return contactPoints;
+    }
+
+    public List<StubNode> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Returns a node
+     *
+     * @param index the node index, from 0
+     * @return the node
+     */
+    public StubNode node(int index) {
+        return nodes.get(index);
+    }
+
+    /**
+     * Returns a driver cluster builder with the stand-in contact points, port and protocol version
+     *
+     * @return a new {@link Cluster.Builder}
+     */
+    public Cluster.Builder clusterBuilder() {
+        return Cluster.builder()
+                .addContactPoints(getContactPoints())
+                .withPort(getPort())
+                .withProtocolVersion(ProtocolVersion.V3);
+    }
+
+    /**
+     * Registers a table, so that its SELECT results have columns and its prepared statements have bind variables
+     * without a {@link Prime}
+     *
+     * @param keyspace the keyspace name
+     * @param name     the table name
+     * @param columns  the column names
+     * @param types    the column types
+     * @return the current {@link StubCassandra}
+     */
+    public StubCassandra table(String keyspace, String name, String[] columns, DataType[] types) {
+        if (columns.length != types.length) {
+            throw new IllegalArgumentException("A type is required for each column");
+        }
+        LinkedHashMap<String, DataType> map = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            map.put(columns[i], types[i]);
+        }
+        tables.put(keyspace + "." + name, new StubConnection.Table(keyspace, name, map));
+        return this;
+    }
+
+    /**
+     * Adds a prime, which takes precedence over the existing primes matching the same queries
+     *
+     * @param prime the prime
+     * @return the current {@link StubCassandra}
+     */
+    public StubCassandra prime(Prime prime) {
+        primes.add(prime);
+        return this;
+    }
+
+    /**
+     * Removes all primes
+     *
+     * @return the current {@link StubCassandra}
+     */
+    public StubCassandra clearPrimes() {
+        primes.clear();
+        return this;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    /**
+     * Sets the latency of every user request that is not primed with its own
+     *
+     * @param latency the latency distribution
+     * @return the current {@link StubCassandra}
+     */
+    public StubCassandra setLatency(Latency latency) {
+        this.latency = latency == null ? Latency.none() : latency;
+        return this;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public ErrorCode getError() {
+        return error;
+    }
+
+    /**
+     * Fails a random fraction of the user requests
+     *
+     * @param errorRate the fraction of requests failed, between 0 and 1
+     * @param error     the error they fail with
+     * @return the current {@link StubCassandra}
+     */
+    public StubCassandra setErrorRate(double errorRate, ErrorCode error) {
+        this.errorRate = errorRate;
+        this.error = error;
+        return this;
+    }
+
+    /**
+     * Returns the user requests received by all nodes, oldest first
+     *
+     * @return the requests
+     */
+    public List<ReceivedRequest> getRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    public void clearRequests() {
+        requests.clear();
+    }
+
+    EventLoopGroup getEventLoopGroup() {
+        return eventLoopGroup;
+    }
+
+    UUID getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    StubConnection.Table getTable(String keyspace, String name) {
+        return keyspace == null ? null : tables.get(keyspace + "." + name);
+    }
+
+    Prime findPrime(String query) {
+        Object[] snapshot = primes.toArray();
+        for (int i = snapshot.length - 1; i >= 0; i--) {
+            Prime prime = (Prime) snapshot[i];
+            if (prime.matches(query)) {
+                return prime;
+            }
+        }
+        return null;
+    }
+
+    void record(ReceivedRequest request) {
+        requests.add(request);
+    }
+
+    void statusChanged(StubNode subject, String change) {
+        for (StubNode node : nodes) {
+            if (node != subject && node.isRunning()) {
+                node.sendEvent(change, subject);
+            }
+        }
+    }
+
+}
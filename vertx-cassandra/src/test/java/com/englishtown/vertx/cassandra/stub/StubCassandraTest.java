@@ -0,0 +1,233 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import com.datastax.driver.core.*;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link StubCassandra}, through the real driver
+ */
+public class StubCassandraTest {
+
+    private StubCassandra cassandra;
+    private Cluster cluster;
+    private Session session;
+
+    @Before
+    public void setUp() throws Exception {
+        cassandra = new StubCassandra(2).start();
+        cassandra.table("test_keyspace", "users", new String[]{"id", "name", "age"},
+                new DataType[]{DataType.text(), DataType.text(), DataType.cint()});
+        cluster = cassandra.clusterBuilder()
+                .withSocketOptions(new SocketOptions().setReadTimeoutMillis(500))
+                .withoutJMXReporting()
+                .build();
+        session = cluster.connect();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cluster.close();
+        cassandra.stop();
+    }
+
+    @Test
+    public void testConnect() throws Exception {
+
+        Metadata metadata = cluster.getMetadata();
+        assertEquals(StubCassandra.CLUSTER_NAME, metadata.getClusterName());
+        assertEquals(2, metadata.getAllHosts().size());
+        for (Host host : metadata.getAllHosts()) {
+            assertEquals(StubCassandra.DATA_CENTER, host.getDatacenter());
+            assertTrue(host.isUp());
+        }
+
+        // System queries are answered but not recorded
+        assertTrue(cassandra.getRequests().isEmpty());
+
+    }
+
+    @Test
+    public void testQuery_Prime() throws Exception {
+
+        cassandra.prime(Prime.when("SELECT * FROM test_keyspace.users WHERE id = 'a'")
+                .row("a", "Alice", 30));
+
+        List<Row> rows = session.execute("SELECT * FROM test_keyspace.users  WHERE id = 'a';").all();
+
+        assertEquals(1, rows.size());
+        assertEquals("Alice", rows.get(0).getString("name"));
+        assertEquals(30, rows.get(0).getInt("age"));
+
+        // Unprimed queries return no rows with the table columns
+        ResultSet resultSet = session.execute("SELECT name FROM test_keyspace.users WHERE id = 'b'");
+        assertTrue(resultSet.isExhausted());
+        assertEquals(1, resultSet.getColumnDefinitions().size());
+
+    }
+
+    @Test
+    public void testPrepare_Execute() throws Exception {
+
+        session.execute("USE test_keyspace");
+        PreparedStatement insert = session.prepare("INSERT INTO users (id, name, age) VALUES (?, ?, ?) USING TTL ?");
+        assertEquals(4, insert.getVariables().size());
+
+        session.execute(insert.bind("a", "Alice", 30, 60).setConsistencyLevel(ConsistencyLevel.QUORUM));
+
+        List<ReceivedRequest> requests = cassandra.getRequests();
+        ReceivedRequest request = requests.get(requests.size() - 1);
+        assertEquals(ReceivedRequest.Type.EXECUTE, request.getType());
+        assertEquals(ConsistencyLevel.QUORUM, request.getConsistency());
+        assertEquals("a", request.getValues().get(0));
+        assertEquals(30, request.getValues().get(2));
+
+    }
+
+    @Test
+    public void testPrepare_Unknown_Table() throws Exception {
+
+        try {
+            session.prepare("SELECT * FROM test_keyspace.missing WHERE id = ?");
+            fail();
+        } catch (InvalidQueryException e) {
+            // Expected
+        }
+
+    }
+
+    @Test
+    public void testPaging() throws Exception {
+
+        Prime prime = Prime.when("SELECT * FROM test_keyspace.users");
+        for (int i = 0; i < 25; i++) {
+            prime.row("id" + i, "name" + i, i);
+        }
+        cassandra.prime(prime);
+
+        PreparedStatement select = session.prepare("SELECT * FROM test_keyspace.users");
+        List<Row> rows = session.execute(select.bind().setFetchSize(10)).all();
+
+        assertEquals(25, rows.size());
+        assertEquals("name24", rows.get(24).getString("name"));
+        assertEquals(3, cassandra.getRequests().size());
+
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+
+        PreparedStatement insert = session.prepare("INSERT INTO test_keyspace.users (id, name) VALUES (?, ?)");
+        BatchStatement batch = new BatchStatement()
+                .add(insert.bind("a", "Alice"))
+                .add(insert.bind("b", "Bob"))
+                .add(new SimpleStatement("DELETE FROM test_keyspace.users WHERE id = 'c'"));
+
+        session.execute(batch);
+
+        List<ReceivedRequest> requests = cassandra.getRequests();
+        assertEquals(3, requests.size());
+        assertEquals(ReceivedRequest.Type.BATCH, requests.get(0).getType());
+        assertEquals("Bob", requests.get(1).getValues().get(1));
+
+    }
+
+    @Test
+    public void testError() throws Exception {
+
+        cassandra.prime(Prime.matching("INSERT INTO test_keyspace\\.users .*")
+                .error(ErrorCode.WRITE_TIMEOUT, "Timed out")
+                .times(1));
+
+        String insert = "INSERT INTO test_keyspace.users (id) VALUES ('a')";
+        try {
+            session.execute(insert);
+            fail();
+        } catch (WriteTimeoutException e) {
+            assertEquals(WriteType.SIMPLE, e.getWriteType());
+        }
+
+        // Used up
+        session.execute(insert);
+
+        cassandra.setErrorRate(1, ErrorCode.INVALID);
+        try {
+            session.execute(insert);
+            fail();
+        } catch (InvalidQueryException e) {
+            // Expected
+        }
+
+    }
+
+    @Test
+    public void testLatency() throws Exception {
+
+        cassandra.setLatency(Latency.fixed(200, TimeUnit.MILLISECONDS));
+
+        long start = System.nanoTime();
+        session.execute("SELECT * FROM test_keyspace.users");
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+
+        cassandra.setLatency(Latency.none());
+        cassandra.prime(Prime.when("SELECT * FROM test_keyspace.users").latency(Latency.fixed(1, TimeUnit.SECONDS)));
+        try {
+            session.execute("SELECT * FROM test_keyspace.users");
+            fail();
+        } catch (DriverException e) {
+            // Times out on every node
+        }
+
+    }
+
+    @Test
+    public void testNode_Failure() throws Exception {
+
+        PreparedStatement select = session.prepare("SELECT * FROM test_keyspace.users WHERE id = ?");
+        StubNode node = cassandra.node(1);
+        node.stop();
+
+        cassandra.clearRequests();
+        for (int i = 0; i < 10; i++) {
+            session.execute(select.bind("a"));
+        }
+        for (ReceivedRequest request : cassandra.getRequests()) {
+            assertEquals(cassandra.node(0).getAddress(), request.getNode());
+        }
+
+        // The restarted node is used again, and re-prepares the statement it lost
+        node.start();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (cassandra.getRequests().stream().noneMatch(r -> r.getNode().equals(node.getAddress()))) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            session.execute(select.bind("a"));
+            Thread.sleep(10);
+        }
+
+    }
+
+    @Test
+    public void testNode_Unresponsive() throws Exception {
+
+        cassandra.node(0).setUnresponsive(true);
+        cassandra.node(1).setUnresponsive(true);
+
+        try {
+            session.execute("SELECT * FROM test_keyspace.users");
+            fail();
+        } catch (DriverException e) {
+            // Expected
+        }
+
+    }
+
+}
@@ -0,0 +1,576 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ProtocolVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Answers the native protocol v3 frames of one client connection to a {@link StubNode}
+ */
+class StubConnection extends ChannelInboundHandlerAdapter {
+
+    static final int HEADER_LENGTH = 9;
+
+    private static final int VERSION = 3;
+    private static final int RESPONSE_VERSION = 0x80 | VERSION;
+
+    private static final int ERROR = 0x00;
+    private static final int STARTUP = 0x01;
+    private static final int READY = 0x02;
+    private static final int OPTIONS = 0x05;
+    private static final int SUPPORTED = 0x06;
+    private static final int QUERY = 0x07;
+    private static final int RESULT = 0x08;
+    private static final int PREPARE = 0x09;
+    private static final int EXECUTE = 0x0A;
+    private static final int REGISTER = 0x0B;
+    private static final int EVENT = 0x0C;
+    private static final int BATCH = 0x0D;
+
+    private static final int VOID = 0x0001;
+    private static final int ROWS = 0x0002;
+    private static final int SET_KEYSPACE = 0x0003;
+    private static final int PREPARED = 0x0004;
+
+    private static final int GLOBAL_TABLES_SPEC = 0x0001;
+    private static final int HAS_MORE_PAGES = 0x0002;
+    private static final int NO_METADATA = 0x0004;
+
+    private static final int UNPREPARED = 0x2500;
+
+    private static final Pattern USE = Pattern.compile("^USE\\s+\"?(\\w+)\"?$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SYSTEM = Pattern.compile("\\bFROM\\s+system\\.(\\w+)(?:\\s+WHERE\\s+peer\\s*=\\s*'([^']+)')?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE = Pattern.compile("\\b(?:FROM|INTO|UPDATE)\\s+(?:\"?(\\w+)\"?\\.)?\"?(\\w+)\"?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SELECTION = Pattern.compile("^SELECT\\s+(.+?)\\s+FROM\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INSERT = Pattern.compile("^INSERT\\s+INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\([^)]*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern MARKER = Pattern.compile("(?:\"?(\\w+)\"?\\s*(=|<=|>=|<|>|\\bIN\\b|\\bCONTAINS\\b)|\\b(TTL|TIMESTAMP|LIMIT))\\s*\\?", Pattern.CASE_INSENSITIVE);
+
+    private final StubCassandra cluster;
+    private final StubNode node;
+    private String keyspace;
+
+    StubConnection(StubCassandra cluster, StubNode node) {
+        this.cluster = cluster;
+        this.node = node;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        ByteBuf frame = (ByteBuf) msg;
+        try {
+            if (!node.isUnresponsive()) {
+                read(ctx, frame);
+            }
+        } finally {
+            frame.release();
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        ctx.close();
+    }
+
+    private void read(ChannelHandlerContext ctx, ByteBuf frame) {
+        int version = frame.readUnsignedByte() & 0x7F;
+        if (version != VERSION) {
+            // v1 and v2 headers have a single byte stream id, answer in kind so the driver can negotiate down
+            ByteBuf out = ctx.alloc().buffer();
+            out.writeByte(0x80 | version).writeByte(0).writeByte(frame.getByte(2)).writeByte(ERROR).writeInt(0);
+            out.writeInt(ErrorCode.PROTOCOL_ERROR.getCode());
+            CqlBuffers.writeString(out, "Invalid or unsupported protocol version: " + version);
+            out.setInt(4, out.readableBytes() - 8);
+            ctx.writeAndFlush(out);
+            return;
+        }
+
+        frame.readByte();
+        int stream = frame.readShort();
+        int opcode = frame.readUnsignedByte();
+        frame.readInt();
+
+        switch (opcode) {
+            case STARTUP:
+                CqlBuffers.readStringMap(frame);
+                ctx.writeAndFlush(frame(ctx, stream, READY));
+                break;
+            case OPTIONS:
+                ByteBuf supported = frame(ctx, stream, SUPPORTED);
+                Map<String, List<String>> options = new LinkedHashMap<>();
+                options.put("CQL_VERSION", Collections.singletonList("3.2.0"));
+                options.put("COMPRESSION", Collections.emptyList());
+                CqlBuffers.writeStringMultimap(supported, options);
+                ctx.writeAndFlush(finish(supported));
+                break;
+            case REGISTER:
+                CqlBuffers.readStringList(frame);
+                node.register(ctx.channel());
+                ctx.writeAndFlush(frame(ctx, stream, READY));
+                break;
+            case QUERY:
+                query(ctx, stream, frame);
+                break;
+            case PREPARE:
+                prepare(ctx, stream, frame);
+                break;
+            case EXECUTE:
+                execute(ctx, stream, frame);
+                break;
+            case BATCH:
+                batch(ctx, stream, frame);
+                break;
+            default:
+                ctx.writeAndFlush(error(ctx, stream, ErrorCode.PROTOCOL_ERROR, "Unsupported opcode " + opcode, 0));
+                break;
+        }
+    }
+
+    private void query(ChannelHandlerContext ctx, int stream, ByteBuf frame) {
+        String query = Prime.normalize(CqlBuffers.readLongString(frame));
+        QueryOptions options = new QueryOptions(frame);
+
+        Matcher use = USE.matcher(query);
+        if (use.matches()) {
+            keyspace = use.group(1);
+            ByteBuf out = frame(ctx, stream, RESULT);
+            out.writeInt(SET_KEYSPACE);
+            CqlBuffers.writeString(out, keyspace);
+            ctx.writeAndFlush(finish(out));
+            return;
+        }
+
+        Matcher system = SYSTEM.matcher(query);
+        if (system.find()) {
+            ctx.writeAndFlush(systemRows(ctx, stream, system.group(1).toLowerCase(), system.group(2)));
+            return;
+        }
+
+        Table table = table(query);
+        LinkedHashMap<String, DataType> variables = table == null ? null : inferVariables(query, table.columns);
+        cluster.record(new ReceivedRequest(ReceivedRequest.Type.QUERY, query, values(options.values, variables),
+                options.consistency, node.getAddress()));
+
+        Prime prime = cluster.findPrime(query);
+        respond(ctx, stream, prime, options, used -> result(ctx, stream, query, table, used, options, false));
+    }
+
+    private void prepare(ChannelHandlerContext ctx, int stream, ByteBuf frame) {
+        String query = Prime.normalize(CqlBuffers.readLongString(frame));
+        Table table = table(query);
+        Prime prime = cluster.findPrime(query);
+
+        LinkedHashMap<String, DataType> variables = prime == null ? null : prime.getVariables();
+        if (variables == null) {
+            if (table != null) {
+                variables = inferVariables(query, table.columns);
+            } else if (query.indexOf('?') < 0) {
+                variables = new LinkedHashMap<>();
+            }
+        }
+        if (variables == null) {
+            ctx.writeAndFlush(error(ctx, stream, ErrorCode.INVALID, "unconfigured columnfamily in " + query, 0));
+            return;
+        }
+        for (Map.Entry<String, DataType> variable : variables.entrySet()) {
+            if (variable.getValue() == null) {
+                ctx.writeAndFlush(error(ctx, stream, ErrorCode.INVALID, "Undefined name " + variable.getKey() + " in " + query, 0));
+                return;
+            }
+        }
+
+        StubNode.PreparedQuery prepared = node.prepare(keyspace, query, table == null ? null : table.keyspace,
+                table == null ? null : table.name, variables);
+
+        ByteBuf out = frame(ctx, stream, RESULT);
+        out.writeInt(PREPARED);
+        CqlBuffers.writeShortBytes(out, prepared.id);
+        writeMetadata(out, prepared.keyspace, prepared.table, variables, 0, null);
+        writeMetadata(out, prepared.keyspace, prepared.table, resultColumns(query, table, prime), 0, null);
+        ctx.writeAndFlush(finish(out));
+    }
+
+    private void execute(ChannelHandlerContext ctx, int stream, ByteBuf frame) {
+        byte[] id = CqlBuffers.readShortBytes(frame);
+        QueryOptions options = new QueryOptions(frame);
+
+        StubNode.PreparedQuery prepared = node.getPrepared(id);
+        if (prepared == null) {
+            ctx.writeAndFlush(unprepared(ctx, stream, id));
+            return;
+        }
+
+        cluster.record(new ReceivedRequest(ReceivedRequest.Type.EXECUTE, prepared.query,
+                values(options.values, prepared.variables), options.consistency, node.getAddress()));
+
+        Table table = prepared.table == null ? null : cluster.getTable(prepared.keyspace, prepared.table);
+        Prime prime = cluster.findPrime(prepared.query);
+        respond(ctx, stream, prime, options, used -> result(ctx, stream, prepared.query, table, used, options, options.skipMetadata));
+    }
+
+    private void batch(ChannelHandlerContext ctx, int stream, ByteBuf frame) {
+        frame.readByte();
+        int count = frame.readUnsignedShort();
+        List<String> queries = new ArrayList<>(count);
+        List<List<Object>> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (frame.readByte() == 0) {
+                String query = Prime.normalize(CqlBuffers.readLongString(frame));
+                Table table = table(query);
+                queries.add(query);
+                values.add(values(CqlBuffers.readValues(frame), table == null ? null : inferVariables(query, table.columns)));
+            } else {
+                byte[] id = CqlBuffers.readShortBytes(frame);
+                StubNode.PreparedQuery prepared = node.getPrepared(id);
+                if (prepared == null) {
+                    ctx.writeAndFlush(unprepared(ctx, stream, id));
+                    return;
+                }
+                queries.add(prepared.query);
+                values.add(values(CqlBuffers.readValues(frame), prepared.variables));
+            }
+        }
+        ConsistencyLevel consistency = ConsistencyLevel.values()[frame.readUnsignedShort()];
+
+        for (int i = 0; i < count; i++) {
+            cluster.record(new ReceivedRequest(ReceivedRequest.Type.BATCH, queries.get(i), values.get(i), consistency,
+                    node.getAddress()));
+        }
+
+        // The first statement primed with an error fails the whole batch
+        Prime prime = null;
+        for (String query : queries) {
+            Prime candidate = cluster.findPrime(query);
+            if (candidate != null && candidate.getError() != null) {
+                prime = candidate;
+                break;
+            }
+        }
+
+        respond(ctx, stream, prime, new QueryOptions(consistency), used -> {
+            ByteBuf out = frame(ctx, stream, RESULT);
+            out.writeInt(VOID);
+            return finish(out);
+        });
+    }
+
+    /**
+     * Writes the response to a user request, applying the latency and the errors of the prime or the cluster
+     */
+    private void respond(ChannelHandlerContext ctx, int stream, Prime prime, QueryOptions options, Function<Prime, ByteBuf> builder) {
+        if (prime != null && !prime.use()) {
+            prime = null;
+        }
+
+        ByteBuf response;
+        if (prime != null && prime.getError() != null) {
+            response = error(ctx, stream, prime.getError(), prime.getErrorMessage(), options.consistency.ordinal());
+        } else if (cluster.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < cluster.getErrorRate()) {
+            response = error(ctx, stream, cluster.getError(), "Injected " + cluster.getError(), options.consistency.ordinal());
+        } else {
+            response = builder.apply(prime);
+        }
+
+        Latency latency = prime != null && prime.getLatency() != null ? prime.getLatency() : cluster.getLatency();
+        long delay = latency.nextNanos();
+        if (delay <= 0) {
+            ctx.writeAndFlush(response);
+        } else {
+            ctx.executor().schedule(() -> ctx.writeAndFlush(response), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ByteBuf result(ChannelHandlerContext ctx, int stream, String query, Table table, Prime prime,
+                           QueryOptions options, boolean skipMetadata) {
+        ByteBuf out = frame(ctx, stream, RESULT);
+        LinkedHashMap<String, DataType> columns = resultColumns(query, table, prime);
+        if (columns.isEmpty() && !SELECTION.matcher(query).find()) {
+            out.writeInt(VOID);
+            return finish(out);
+        }
+
+        List<Object[]> rows = prime == null ? Collections.emptyList() : prime.getRows();
+        int offset = options.pagingState == null ? 0 : options.pagingState.getInt(options.pagingState.position());
+        int end = options.pageSize > 0 ? Math.min(rows.size(), offset + options.pageSize) : rows.size();
+
+        int flags = skipMetadata ? NO_METADATA : 0;
+        ByteBuffer pagingState = null;
+        if (end < rows.size()) {
+            flags |= HAS_MORE_PAGES;
+            pagingState = ByteBuffer.allocate(4);
+            pagingState.putInt(0, end);
+        }
+
+        out.writeInt(ROWS);
+        writeMetadata(out, table == null ? keyspaceOrDefault() : table.keyspace, table == null ? "stub" : table.name,
+                columns, flags, pagingState);
+        writeRows(out, columns, rows.subList(offset, end));
+        return finish(out);
+    }
+
+    private ByteBuf systemRows(ChannelHandlerContext ctx, int stream, String table, String peer) {
+        LinkedHashMap<String, DataType> columns = new LinkedHashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        if (table.equals("local") || table.equals("peers")) {
+            if (table.equals("local")) {
+                columns.put("key", DataType.text());
+                columns.put("cluster_name", DataType.text());
+                columns.put("partitioner", DataType.text());
+            } else {
+                columns.put("peer", DataType.inet());
+            }
+            columns.put("data_center", DataType.text());
+            columns.put("rack", DataType.text());
+            columns.put("release_version", DataType.text());
+            columns.put("tokens", DataType.set(DataType.text()));
+            columns.put("rpc_address", DataType.inet());
+            columns.put("schema_version", DataType.uuid());
+            columns.put("host_id", DataType.uuid());
+
+            for (StubNode other : cluster.getNodes()) {
+                if (table.equals("local") && other == node) {
+                    rows.add(new Object[]{"local", StubCassandra.CLUSTER_NAME, StubCassandra.PARTITIONER,
+                            StubCassandra.DATA_CENTER, StubCassandra.RACK, StubCassandra.RELEASE_VERSION,
+                            Collections.singleton(other.getToken()), other.getAddress(), cluster.getSchemaVersion(),
+                            other.getHostId()});
+                } else if (table.equals("peers") && other != node
+                        && (peer == null || other.getAddress().getHostAddress().equals(peer))) {
+                    rows.add(new Object[]{other.getAddress(), StubCassandra.DATA_CENTER, StubCassandra.RACK,
+                            StubCassandra.RELEASE_VERSION, Collections.singleton(other.getToken()), other.getAddress(),
+                            cluster.getSchemaVersion(), other.getHostId()});
+                }
+            }
+        }
+
+        // The schema tables are empty, the driver metadata only ever knows the system keyspace
+        ByteBuf out = frame(ctx, stream, RESULT);
+        out.writeInt(ROWS);
+        writeMetadata(out, "system", table, columns, 0, null);
+        writeRows(out, columns, rows);
+        return finish(out);
+    }
+
+    private LinkedHashMap<String, DataType> resultColumns(String query, Table table, Prime prime) {
+        if (prime != null && !prime.getColumns().isEmpty()) {
+            return prime.getColumns();
+        }
+        LinkedHashMap<String, DataType> columns = new LinkedHashMap<>();
+        Matcher selection = SELECTION.matcher(query);
+        if (table == null || !selection.find()) {
+            return columns;
+        }
+        if (selection.group(1).trim().equals("*")) {
+            columns.putAll(table.columns);
+        } else {
+            for (String name : selection.group(1).split(",")) {
+                name = name.trim().replace("\"", "");
+                DataType type = table.columns.get(name);
+                if (type != null) {
+                    columns.put(name, type);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private Table table(String query) {
+        Matcher matcher = TABLE.matcher(query);
+        if (!matcher.find()) {
+            return null;
+        }
+        return cluster.getTable(matcher.group(1) == null ? keyspace : matcher.group(1), matcher.group(2));
+    }
+
+    private String keyspaceOrDefault() {
+        return keyspace == null ? StubCassandra.DEFAULT_KEYSPACE : keyspace;
+    }
+
+    private static LinkedHashMap<String, DataType> inferVariables(String query, Map<String, DataType> columns) {
+        LinkedHashMap<String, DataType> variables = new LinkedHashMap<>();
+
+        int start = 0;
+        Matcher insert = INSERT.matcher(query);
+        if (insert.find()) {
+            for (String column : insert.group(1).split(",")) {
+                column = column.trim().replace("\"", "");
+                variables.put(column, columns.get(column));
+            }
+            start = insert.end();
+        }
+
+        Matcher marker = MARKER.matcher(query);
+        while (marker.find(start)) {
+            if (marker.group(3) != null) {
+                String name = marker.group(3).toLowerCase();
+                variables.put("[" + name + "]", name.equals("timestamp") ? DataType.bigint() : DataType.cint());
+            } else {
+                String name = marker.group(1);
+                DataType type = columns.get(name);
+                String operator = marker.group(2).toUpperCase();
+                if (type != null && operator.equals("IN")) {
+                    type = DataType.list(type);
+                } else if (type != null && operator.equals("CONTAINS")) {
+                    type = type.getTypeArguments().get(type.getName() == DataType.Name.MAP ? 1 : 0);
+                }
+                // A column restricted twice (a range) needs distinct variable names
+                while (variables.containsKey(name)) {
+                    name = name + "'";
+                }
+                variables.put(name, type);
+            }
+            start = marker.end();
+        }
+
+        return variables;
+    }
+
+    private static List<Object> values(List<ByteBuffer> values, LinkedHashMap<String, DataType> variables) {
+        List<Object> decoded = new ArrayList<>(values.size());
+        Iterator<DataType> types = variables == null || variables.size() != values.size()
+                ? null : variables.values().iterator();
+        for (ByteBuffer value : values) {
+            DataType type = types == null ? null : types.next();
+            decoded.add(type == null || value == null ? value : type.deserialize(value, ProtocolVersion.V3));
+        }
+        return decoded;
+    }
+
+    private static void writeMetadata(ByteBuf out, String keyspace, String table, LinkedHashMap<String, DataType> columns,
+                                      int flags, ByteBuffer pagingState) {
+        boolean specs = (flags & NO_METADATA) == 0 && !columns.isEmpty();
+        out.writeInt(specs ? flags | GLOBAL_TABLES_SPEC : flags);
+        out.writeInt(columns.size());
+        if ((flags & HAS_MORE_PAGES) != 0) {
+            CqlBuffers.writeValue(out, pagingState);
+        }
+        if (specs) {
+            CqlBuffers.writeString(out, keyspace);
+            CqlBuffers.writeString(out, table);
+            for (Map.Entry<String, DataType> column : columns.entrySet()) {
+                CqlBuffers.writeString(out, column.getKey());
+                CqlBuffers.writeType(out, column.getValue());
+            }
+        }
+    }
+
+    private static void writeRows(ByteBuf out, LinkedHashMap<String, DataType> columns, List<Object[]> rows) {
+        out.writeInt(rows.size());
+        for (Object[] row : rows) {
+            int i = 0;
+            for (DataType type : columns.values()) {
+                Object value = i < row.length ? row[i] : null;
+                i++;
+                if (value == null || value instanceof ByteBuffer) {
+                    CqlBuffers.writeValue(out, (ByteBuffer) value);
+                } else {
+                    CqlBuffers.writeValue(out, type.serialize(value, ProtocolVersion.V3));
+                }
+            }
+        }
+    }
+
+    private static ByteBuf frame(ChannelHandlerContext ctx, int stream, int opcode) {
+        ByteBuf out = ctx.alloc().buffer();
+        out.writeByte(RESPONSE_VERSION).writeByte(0).writeShort(stream).writeByte(opcode).writeInt(0);
+        return out;
+    }
+
+    static ByteBuf event(ByteBuf out, String type, String change, InetSocketAddress address) {
+        out.writeByte(RESPONSE_VERSION).writeByte(0).writeShort(-1).writeByte(EVENT).writeInt(0);
+        CqlBuffers.writeString(out, type);
+        CqlBuffers.writeString(out, change);
+        CqlBuffers.writeInet(out, address);
+        return finish(out);
+    }
+
+    private static ByteBuf finish(ByteBuf out) {
+        return out.setInt(5, out.readableBytes() - HEADER_LENGTH);
+    }
+
+    private static ByteBuf error(ChannelHandlerContext ctx, int stream, ErrorCode error, String message, int consistency) {
+        ByteBuf out = frame(ctx, stream, ERROR);
+        out.writeInt(error.getCode());
+        CqlBuffers.writeString(out, message == null ? error.name() : message);
+        error.writeDetails(out, consistency);
+        return finish(out);
+    }
+
+    private static ByteBuf unprepared(ChannelHandlerContext ctx, int stream, byte[] id) {
+        ByteBuf out = frame(ctx, stream, ERROR);
+        out.writeInt(UNPREPARED);
+        CqlBuffers.writeString(out, "Prepared query with ID " + StubNode.hex(id) + " not found");
+        CqlBuffers.writeShortBytes(out, id);
+        return finish(out);
+    }
+
+    /**
+     * The parameters shared by QUERY and EXECUTE
+     */
+    private static class QueryOptions {
+
+        private final ConsistencyLevel consistency;
+        private final List<ByteBuffer> values;
+        private final boolean skipMetadata;
+        private final int pageSize;
+        private final ByteBuffer pagingState;
+
+        private QueryOptions(ConsistencyLevel consistency) {
+            this.consistency = consistency;
+            this.values = Collections.emptyList();
+            this.skipMetadata = false;
+            this.pageSize = -1;
+            this.pagingState = null;
+        }
+
+        private QueryOptions(ByteBuf in) {
+            // Consistency codes match the driver enum ordinals
+            consistency = ConsistencyLevel.values()[in.readUnsignedShort()];
+            int flags = in.readUnsignedByte();
+
+            if ((flags & 0x01) != 0) {
+                int count = in.readUnsignedShort();
+                values = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    if ((flags & 0x40) != 0) {
+                        CqlBuffers.readString(in);
+                    }
+                    values.add(CqlBuffers.readValue(in));
+                }
+            } else {
+                values = Collections.emptyList();
+            }
+            skipMetadata = (flags & 0x02) != 0;
+            pageSize = (flags & 0x04) != 0 ? in.readInt() : -1;
+            pagingState = (flags & 0x08) != 0 ? CqlBuffers.readValue(in) : null;
+        }
+    }
+
+    /**
+     * A table registered with {@link StubCassandra#table(String, String, String[], DataType[])}
+     */
+    static class Table {
+
+        final String keyspace;
+        final String name;
+        final LinkedHashMap<String, DataType> columns;
+
+        Table(String keyspace, String name, LinkedHashMap<String, DataType> columns) {
+            this.keyspace = keyspace;
+            this.name = name;
+            this.columns = columns;
+        }
+    }
+
+}
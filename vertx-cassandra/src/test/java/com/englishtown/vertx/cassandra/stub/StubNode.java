@@ -0,0 +1,204 @@
+package com.englishtown.vertx.cassandra.stub;
+
+import com.datastax.driver.core.DataType;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One node of a {@link StubCassandra}.  A node can be stopped and restarted to simulate a failure (restarting clears
+ * its prepared statements, as a real restart does), or made unresponsive to simulate a hung or partitioned node.
+ */
+public class StubNode {
+
+    private static final int MAX_FRAME_LENGTH = 256 * 1024 * 1024;
+
+    private final StubCassandra cluster;
+    private final InetAddress address;
+    private final String token;
+    private final UUID hostId = UUID.randomUUID();
+    private final ChannelGroup channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final ChannelGroup registered = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final Map<ByteBuffer, PreparedQuery> prepared = new ConcurrentHashMap<>();
+    private Channel serverChannel;
+    private int port;
+    private volatile boolean unresponsive;
+
+    StubNode(StubCassandra cluster, InetAddress address, String token) {
+        this.cluster = cluster;
+        this.address = address;
+        this.token = token;
+    }
+
+    /**
+     * Starts accepting connections, and tells the connected drivers the node is up
+     *
+     * @return the current {@link StubNode}
+     */
+    public synchronized StubNode start() {
+        if (serverChannel != null) {
+            return this;
+        }
+
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(cluster.getEventLoopGroup())
+                .channel(NioServerSocketChannel.class)
+                .option(ChannelOption.SO_REUSEADDR, true)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) throws Exception {
+                        channels.add(ch);
+                        ch.pipeline()
+                                .addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 5, 4))
+                                .addLast(new StubConnection(cluster, StubNode.this));
+                    }
+                });
+
+        serverChannel = bootstrap.bind(address, port).syncUninterruptibly().channel();
+        port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+        cluster.statusChanged(this, "UP");
+        return this;
+    }
+
+    /**
+     * Closes the node and all its connections, and tells the drivers connected to other nodes it is down
+     *
+     * @return the current {@link StubNode}
+     */
+    public synchronized StubNode stop() {
+        if (serverChannel == null) {
+            return this;
+        }
+
+        serverChannel.close().syncUninterruptibly();
+        serverChannel = null;
+        channels.close().syncUninterruptibly();
+        prepared.clear();
+        cluster.statusChanged(this, "DOWN");
+        return this;
+    }
+
+    public synchronized boolean isRunning() {
+        return serverChannel != null;
+    }
+
+    public boolean isUnresponsive() {
+        return unresponsive;
+    }
+
+    /**
+     * Makes the node read and drop every request while keeping its connections open, so that clients time out
+     *
+     * @param unresponsive true to stop responding
+     * @return the current {@link StubNode}
+     */
+    public StubNode setUnresponsive(boolean unresponsive) {
+        this.unresponsive = unresponsive;
+        return this;
+    }
+
+    public InetAddress getAddress() {
+        return address;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    void setPort(int port) {
+        this.port = port;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    UUID getHostId() {
+        return hostId;
+    }
+
+    void register(Channel channel) {
+        registered.add(channel);
+    }
+
+    void sendEvent(String change, StubNode subject) {
+        InetSocketAddress address = new InetSocketAddress(subject.getAddress(), subject.getPort());
+        for (Channel channel : registered) {
+            channel.writeAndFlush(StubConnection.event(channel.alloc().buffer(), "STATUS_CHANGE", change, address));
+        }
+    }
+
+    PreparedQuery prepare(String keyspace, String query, String tableKeyspace, String table, LinkedHashMap<String, DataType> variables) {
+        // Like cassandra, the id of an unqualified query depends on the connection keyspace
+        byte[] id = md5((keyspace == null ? "" : keyspace) + query);
+        PreparedQuery preparedQuery = new PreparedQuery(id, query, tableKeyspace == null ? StubCassandra.DEFAULT_KEYSPACE : tableKeyspace,
+                table == null ? "stub" : table, variables);
+        prepared.put(ByteBuffer.wrap(id), preparedQuery);
+        return preparedQuery;
+    }
+
+    PreparedQuery getPrepared(byte[] id) {
+        return prepared.get(ByteBuffer.wrap(id));
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder("0x");
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static byte[] md5(String value) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return address.getHostAddress() + ":" + port;
+    }
+
+    /**
+     * A query prepared on the node
+     */
+    static class PreparedQuery {
+
+        final byte[] id;
+        final String query;
+        final String keyspace;
+        final String table;
+        final LinkedHashMap<String, DataType> variables;
+
+        PreparedQuery(byte[] id, String query, String keyspace, String table, LinkedHashMap<String, DataType> variables) {
+            this.id = id;
+            this.query = query;
+            this.keyspace = keyspace;
+            this.table = table;
+            this.variables = variables;
+        }
+    }
+
+}
@@ -41,4 +41,16 @@ public class AlterTableTest {
         String cql = alter.getQueryString();
         assertEquals("ALTER TABLE test_keyspace.test_table RENAME col1 TO col2", cql);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWithOptions() throws Exception {
+        AlterTable alter = TableBuilder.alter("test_keyspace", "test_table")
+                .withOptions(new TableOptions()
+                        .compaction(CompactionStrategy.leveled().sstableSizeInMb(160).tombstoneThreshold(0.2))
+                        .gcGraceSeconds(0));
+
+        String cql = alter.getQueryString();
+        assertEquals("ALTER TABLE test_keyspace.test_table WITH compaction = { 'class' : 'LeveledCompactionStrategy',"
+                + " 'sstable_size_in_mb' : 160, 'tombstone_threshold' : 0.2 } AND gc_grace_seconds = 0", cql);
+    }
+}
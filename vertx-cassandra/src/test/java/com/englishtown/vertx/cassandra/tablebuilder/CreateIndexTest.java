@@ -0,0 +1,43 @@
+package com.englishtown.vertx.cassandra.tablebuilder;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CreateIndexTest {
+
+    @Test
+    public void testCreateIndex() throws Exception {
+
+        CreateIndex index = TableBuilder.createIndex("test_keyspace", "test_table", "col1")
+                .ifNotExists()
+                .name("test_table_col1_idx");
+
+        String cql = index.getQueryString();
+        assertEquals("CREATE INDEX IF NOT EXISTS test_table_col1_idx ON test_keyspace.test_table (col1)", cql);
+
+    }
+
+    @Test
+    public void testCreateIndex_Keys() throws Exception {
+
+        CreateIndex index = TableBuilder.createIndex("test_keyspace", "test_table", "col1").keys();
+
+        String cql = index.getQueryString();
+        assertEquals("CREATE INDEX ON test_keyspace.test_table (KEYS(col1))", cql);
+
+    }
+
+    @Test
+    public void testCreateIndex_Custom() throws Exception {
+
+        CreateIndex index = TableBuilder.createIndex("test_keyspace", "test_table", "col1")
+                .name("col1_idx")
+                .using("com.example.CustomIndex");
+
+        String cql = index.getQueryString();
+        assertEquals("CREATE CUSTOM INDEX col1_idx ON test_keyspace.test_table (col1) USING 'com.example.CustomIndex'", cql);
+
+    }
+
+}
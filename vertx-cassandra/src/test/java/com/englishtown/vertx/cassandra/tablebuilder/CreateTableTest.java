@@ -1,8 +1,12 @@
 package com.englishtown.vertx.cassandra.tablebuilder;
 
+import com.datastax.driver.core.TableMetadata;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.assertEquals;
 
 public class CreateTableTest {
@@ -23,6 +27,8 @@ public class CreateTableTest {
 
         String cql = table.getQueryString();
         assertEquals("CREATE TABLE IF NOT EXISTS test_keyspace.test_table (col1 text, col2 int, col3 blob STATIC, PRIMARY KEY(col1, col2))", cql);
+        assertEquals(Collections.singletonList("col1"), table.getPartitionKeys());
+        assertEquals(Collections.singletonList("col2"), table.getClusteringColumns());
 
     }
 
@@ -41,6 +47,8 @@ public class CreateTableTest {
 
         String cql = table.getQueryString();
         assertEquals("CREATE TABLE test_keyspace.test_table (col1 text, col2 int, col3 blob, col4 uuid, PRIMARY KEY((col1, col2), col3, col4))", cql);
+        assertEquals(Arrays.asList("col1", "col2"), table.getPartitionKeys());
+        assertEquals(Arrays.asList("col3", "col4"), table.getClusteringColumns());
 
     }
 
@@ -59,4 +67,31 @@ public class CreateTableTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testCreateTable_Options() throws Exception {
+
+        CreateTable table = TableBuilder.create("test_keyspace", "test_table")
+                .column("col1", "text")
+                .column("col2", "timestamp")
+                .primaryKeys("col1", "col2")
+                .clusteringOrder("col2", TableMetadata.Order.DESC)
+                .compaction(CompactionStrategy.dateTiered().baseTimeSeconds(3600).maxSstableAgeDays(30))
+                .compression(Compression.lz4().chunkLengthKb(16))
+                .caching("ALL", "NONE")
+                .bloomFilterFpChance(0.1)
+                .defaultTimeToLive(86400)
+                .gcGraceSeconds(3600);
+
+        String cql = table.getQueryString();
+        assertEquals("CREATE TABLE test_keyspace.test_table (col1 text, col2 timestamp, PRIMARY KEY(col1, col2))"
+                + " WITH CLUSTERING ORDER BY (col2 DESC)"
+                + " AND compaction = { 'class' : 'DateTieredCompactionStrategy', 'base_time_seconds' : 3600, 'max_sstable_age_days' : 30 }"
+                + " AND compression = { 'sstable_compression' : 'LZ4Compressor', 'chunk_length_kb' : 16 }"
+                + " AND caching = { 'keys' : 'ALL', 'rows_per_partition' : 'NONE' }"
+                + " AND bloom_filter_fp_chance = 0.1"
+                + " AND default_time_to_live = 86400"
+                + " AND gc_grace_seconds = 3600", cql);
+
+    }
+
+}
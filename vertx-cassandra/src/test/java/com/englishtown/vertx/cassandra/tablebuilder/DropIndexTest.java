@@ -0,0 +1,19 @@
+package com.englishtown.vertx.cassandra.tablebuilder;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DropIndexTest {
+
+    @Test
+    public void testDropIndex() throws Exception {
+
+        DropIndex index = TableBuilder.dropIndex("test_keyspace", "col1_idx").ifExists();
+
+        String cql = index.getQueryString();
+        assertEquals("DROP INDEX IF EXISTS test_keyspace.col1_idx", cql);
+
+    }
+
+}
@@ -5,9 +5,13 @@ import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.TableMetadata;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -42,4 +46,96 @@ public class TableBuilderTest {
         assertEquals("ALTER TABLE test_keyspace.test_table ADD col4 text", statements.get(2).toString());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAlter_Options() throws Exception {
+
+        CreateTable desired = TableBuilder.create("test_keyspace", "test_table")
+                .column("col1", "text")
+                .primaryKey("col1")
+                .compaction(CompactionStrategy.leveled().sstableSizeInMb(160))
+                .compression(Compression.lz4())
+                .caching("ALL", "NONE")
+                .gcGraceSeconds(3600)
+                .defaultTimeToLive(0);
+
+        TableMetadata existing = mock(TableMetadata.class);
+        TableMetadata.Options options = mock(TableMetadata.Options.class);
+        when(existing.getOptions()).thenReturn(options);
+        ColumnMetadata col1 = mock(ColumnMetadata.class);
+        when(existing.getColumn(eq("col1"))).thenReturn(col1);
+        when(col1.getType()).thenReturn(DataType.text());
+
+        Map<String, String> compaction = new HashMap<>();
+        compaction.put("class", "org.apache.cassandra.db.compaction.LeveledCompactionStrategy");
+        compaction.put("sstable_size_in_mb", "160");
+        when(options.getCompaction()).thenReturn(compaction);
+        when(options.getCompression()).thenReturn(Collections.singletonMap("sstable_compression", "org.apache.cassandra.io.compress.LZ4Compressor"));
+        Map<String, String> caching = new HashMap<>();
+        caching.put("keys", "ALL");
+        caching.put("rows_per_partition", "NONE");
+        when(options.getCaching()).thenReturn(caching);
+        when(options.getGcGraceInSeconds()).thenReturn(3600);
+
+        // Nothing changed
+        assertTrue(TableBuilder.alter(existing, desired).isEmpty());
+
+        compaction.put("sstable_size_in_mb", "80");
+        when(options.getGcGraceInSeconds()).thenReturn(864000);
+
+        List<AlterTable> statements = TableBuilder.alter(existing, desired);
+
+        assertEquals(1, statements.size());
+        assertEquals("ALTER TABLE test_keyspace.test_table WITH compaction = { 'class' : 'LeveledCompactionStrategy',"
+                + " 'sstable_size_in_mb' : 160 } AND gc_grace_seconds = 3600", statements.get(0).toString());
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAlter_Clustering_Order() throws Exception {
+
+        CreateTable desired = TableBuilder.create("test_keyspace", "test_table")
+                .column("col1", "text")
+                .column("col2", "timestamp")
+                .primaryKeys("col1", "col2")
+                .clusteringOrder("col2", TableMetadata.Order.DESC);
+
+        TableMetadata existing = mock(TableMetadata.class);
+        ColumnMetadata col2 = mock(ColumnMetadata.class);
+        when(existing.getColumn(eq("col2"))).thenReturn(col2);
+        when(col2.getType()).thenReturn(DataType.timestamp());
+        when(existing.getClusteringColumns()).thenReturn(Collections.singletonList(col2));
+        when(existing.getClusteringOrder()).thenReturn(Collections.singletonList(TableMetadata.Order.ASC));
+
+        TableBuilder.alter(existing, desired);
+
+    }
+
+    @Test
+    public void testAlter_Index() throws Exception {
+
+        TableMetadata existing = mock(TableMetadata.class);
+        ColumnMetadata col1 = mock(ColumnMetadata.class);
+        when(existing.getColumn(eq("col1"))).thenReturn(col1);
+
+        // No index yet
+        CreateIndex desired = TableBuilder.createIndex("test_keyspace", "test_table", "col1").name("col1_idx");
+        List<BuiltTableStatement> statements = TableBuilder.alter(existing, desired);
+        assertEquals(1, statements.size());
+        assertEquals(desired, statements.get(0));
+
+        // Same index
+        ColumnMetadata.IndexMetadata index = mock(ColumnMetadata.IndexMetadata.class);
+        when(col1.getIndex()).thenReturn(index);
+        when(index.getName()).thenReturn("col1_idx");
+        assertTrue(TableBuilder.alter(existing, desired).isEmpty());
+
+        // Renamed index
+        when(index.getName()).thenReturn("old_idx");
+        statements = TableBuilder.alter(existing, desired);
+        assertEquals(2, statements.size());
+        assertEquals("DROP INDEX test_keyspace.old_idx", statements.get(0).toString());
+        assertEquals(desired, statements.get(1));
+
+    }
+}
@@ -0,0 +1,188 @@
+package com.englishtown.vertx.cassandra.zookeeper;
+
+import com.englishtown.promises.When;
+import com.englishtown.promises.WhenFactory;
+import com.englishtown.vertx.cassandra.CassandraConfigurator;
+import com.englishtown.vertx.cassandra.mapping.impl.EnvironmentCassandraConfigurator;
+import com.englishtown.vertx.zookeeper.ConfigElement;
+import com.englishtown.vertx.zookeeper.ZooKeeperClient;
+import com.englishtown.vertx.zookeeper.promises.WhenConfiguratorHelper;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ZooKeeperCassandraConfigurator}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ZooKeeperCassandraConfiguratorTest {
+
+    JsonObject config = new JsonObject();
+    When when = WhenFactory.createSync();
+    String snapshotFile = "/tmp/cassandra-snapshot.json";
+
+    @Mock
+    ZooKeeperClient client;
+    @Mock
+    WhenConfiguratorHelper helper;
+    @Mock
+    Vertx vertx;
+    @Mock
+    Context context;
+    @Mock
+    FileSystem fileSystem;
+    @Mock
+    EnvironmentCassandraConfigurator.EnvVarDelegate envVarDelegate;
+    @Mock
+    ConfigElement emptyElement;
+    @Mock
+    ConfigElement seedsElement;
+    @Mock
+    Handler<AsyncResult<Void>> onReady;
+    @Mock
+    Handler<CassandraConfigurator> onChanged;
+    @Captor
+    ArgumentCaptor<Handler<AsyncResult<Void>>> clientReadyCaptor;
+    @Captor
+    ArgumentCaptor<Buffer> bufferCaptor;
+    @Captor
+    ArgumentCaptor<AsyncResult<Void>> resultCaptor;
+
+    @Before
+    public void setUp() throws Exception {
+        when(vertx.getOrCreateContext()).thenReturn(context);
+        when(context.config()).thenReturn(new JsonObject().put("cassandra", config));
+        when(vertx.fileSystem()).thenReturn(fileSystem);
+        when(client.wrapWatcher(any())).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        when(seedsElement.asJsonArray()).thenReturn(new JsonArray().add("10.0.0.1").add("10.0.0.2"));
+        when(helper.getConfigElement(anyString(), any(CuratorWatcher.class))).thenReturn(when.resolve(emptyElement));
+        when(helper.getConfigElement(eq("/cassandra/seeds"), any(CuratorWatcher.class))).thenReturn(when.resolve(seedsElement));
+
+        // Auth provided by env vars so the snapshot can be used
+        when(envVarDelegate.get(EnvironmentCassandraConfigurator.ENV_VAR_USERNAME)).thenReturn("user");
+        when(envVarDelegate.get(EnvironmentCassandraConfigurator.ENV_VAR_PASSWORD)).thenReturn("password");
+    }
+
+    @Test
+    public void testInit_No_Snapshot() throws Exception {
+
+        ZooKeeperCassandraConfigurator configurator = new ZooKeeperCassandraConfigurator(client, helper, when, vertx, envVarDelegate);
+        configurator.onReady(onReady);
+        verify(onReady, never()).handle(any());
+
+        verify(client).onReady(clientReadyCaptor.capture());
+        clientReadyCaptor.getValue().handle(Future.succeededFuture());
+
+        verify(onReady).handle(any());
+        assertEquals(Arrays.asList("10.0.0.1", "10.0.0.2"), configurator.getSeeds());
+        verify(fileSystem, never()).writeFile(anyString(), any(), any());
+
+    }
+
+    @Test
+    public void testInit_Snapshot() throws Exception {
+
+        config.put(ZooKeeperCassandraConfigurator.CONFIG_SNAPSHOT_FILE, snapshotFile);
+        JsonObject snapshot = new JsonObject().put("seeds", new JsonArray().add("10.0.0.3"));
+        when(fileSystem.existsBlocking(eq(snapshotFile))).thenReturn(true);
+        when(fileSystem.readFileBlocking(eq(snapshotFile))).thenReturn(Buffer.buffer(snapshot.encode()));
+
+        ZooKeeperCassandraConfigurator configurator = new ZooKeeperCassandraConfigurator(client, helper, when, vertx, envVarDelegate);
+        configurator.onChanged(onChanged);
+
+        // Ready from the snapshot before ZooKeeper
+        configurator.onReady(onReady);
+        verify(onReady).handle(any());
+        assertEquals(Arrays.asList("10.0.0.3"), configurator.getSeeds());
+
+        // Reconcile with ZooKeeper
+        verify(client).onReady(clientReadyCaptor.capture());
+        clientReadyCaptor.getValue().handle(Future.succeededFuture());
+
+        assertEquals(Arrays.asList("10.0.0.1", "10.0.0.2"), configurator.getSeeds());
+        verify(onChanged).handle(eq(configurator));
+
+        verify(fileSystem).writeFile(eq(snapshotFile), bufferCaptor.capture(), any());
+        JsonObject saved = new JsonObject(bufferCaptor.getValue().toString());
+        assertEquals(new JsonArray().add("10.0.0.1").add("10.0.0.2"), saved.getJsonArray("seeds"));
+
+    }
+
+    @Test
+    public void testInit_Snapshot_ZooKeeper_Failed() throws Exception {
+
+        config.put(ZooKeeperCassandraConfigurator.CONFIG_SNAPSHOT_FILE, snapshotFile);
+        JsonObject snapshot = new JsonObject().put("seeds", new JsonArray().add("10.0.0.3"));
+        when(fileSystem.existsBlocking(eq(snapshotFile))).thenReturn(true);
+        when(fileSystem.readFileBlocking(eq(snapshotFile))).thenReturn(Buffer.buffer(snapshot.encode()));
+
+        ZooKeeperCassandraConfigurator configurator = new ZooKeeperCassandraConfigurator(client, helper, when, vertx, envVarDelegate);
+
+        verify(client).onReady(clientReadyCaptor.capture());
+        clientReadyCaptor.getValue().handle(Future.failedFuture(new RuntimeException("ZooKeeper unavailable")));
+
+        // Still ready from the snapshot
+        configurator.onReady(onReady);
+        verify(onReady).handle(resultCaptor.capture());
+        assertTrue(resultCaptor.getValue().succeeded());
+        assertEquals(Arrays.asList("10.0.0.3"), configurator.getSeeds());
+
+    }
+
+    @Test
+    public void testInit_Snapshot_Unchanged() throws Exception {
+
+        config.put(ZooKeeperCassandraConfigurator.CONFIG_SNAPSHOT_FILE, snapshotFile);
+        JsonObject snapshot = new JsonObject().put("seeds", new JsonArray().add("10.0.0.1").add("10.0.0.2"));
+        when(fileSystem.existsBlocking(eq(snapshotFile))).thenReturn(true);
+        when(fileSystem.readFileBlocking(eq(snapshotFile))).thenReturn(Buffer.buffer(snapshot.encode()));
+
+        ZooKeeperCassandraConfigurator configurator = new ZooKeeperCassandraConfigurator(client, helper, when, vertx, envVarDelegate);
+        configurator.onChanged(onChanged);
+
+        verify(client).onReady(clientReadyCaptor.capture());
+        clientReadyCaptor.getValue().handle(Future.succeededFuture());
+
+        verify(onChanged, never()).handle(any());
+
+    }
+
+    @Test
+    public void testInit_Snapshot_Auth_From_ZooKeeper() throws Exception {
+
+        when(envVarDelegate.get(anyString())).thenReturn(null);
+        config.put(ZooKeeperCassandraConfigurator.CONFIG_SNAPSHOT_FILE, snapshotFile);
+        when(fileSystem.existsBlocking(eq(snapshotFile))).thenReturn(true);
+
+        ZooKeeperCassandraConfigurator configurator = new ZooKeeperCassandraConfigurator(client, helper, when, vertx, envVarDelegate);
+        configurator.onReady(onReady);
+
+        verify(onReady, never()).handle(any());
+        verify(fileSystem, never()).readFileBlocking(anyString());
+
+    }
+
+}